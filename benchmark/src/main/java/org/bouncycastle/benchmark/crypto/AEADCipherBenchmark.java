@@ -0,0 +1,119 @@
+package org.bouncycastle.benchmark.crypto;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMSIVBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the AEAD modes for a complete encrypt or decrypt of one message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AEADCipherBenchmark
+{
+    @Param({"AES-GCM", "AES-GCM-SIV", "ChaCha20-Poly1305"})
+    public String algorithm;
+
+    @Param({"16", "1024", "16384"})
+    public int size;
+
+    private byte[] input;
+    private byte[] ciphertext;
+    private byte[] output;
+
+    private AEADCipher cipher;
+    private KeyParameter key;
+    private byte[] nonce;
+    private AEADParameters params;
+
+    @Setup
+    public void setup()
+        throws InvalidCipherTextException
+    {
+        SecureRandom random = new SecureRandom();
+
+        byte[] keyBytes = new byte[32];
+        random.nextBytes(keyBytes);
+        key = new KeyParameter(keyBytes);
+
+        nonce = new byte[12];
+        random.nextBytes(nonce);
+
+        input = new byte[size];
+        random.nextBytes(input);
+
+        cipher = createCipher(algorithm);
+        params = new AEADParameters(key, 128, nonce);
+
+        cipher.init(true, params);
+        ciphertext = new byte[cipher.getOutputSize(size)];
+        int len = cipher.processBytes(input, 0, size, ciphertext, 0);
+        cipher.doFinal(ciphertext, len);
+
+        output = new byte[ciphertext.length];
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+        throws InvalidCipherTextException
+    {
+        // a fresh nonce per message, as GCM refuses to re-use one for encryption
+        nonce[0]++;
+        cipher.init(true, new AEADParameters(key, 128, nonce));
+
+        int len = cipher.processBytes(input, 0, size, output, 0);
+        cipher.doFinal(output, len);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] decrypt()
+        throws InvalidCipherTextException
+    {
+        cipher.init(false, params);
+
+        int len = cipher.processBytes(ciphertext, 0, ciphertext.length, output, 0);
+        cipher.doFinal(output, len);
+        return output;
+    }
+
+    static AEADCipher createCipher(String algorithm)
+    {
+        if (algorithm.equals("AES-GCM"))
+        {
+            return GCMBlockCipher.newInstance(AESEngine.newInstance());
+        }
+        if (algorithm.equals("AES-GCM-SIV"))
+        {
+            return new GCMSIVBlockCipher(AESEngine.newInstance());
+        }
+        if (algorithm.equals("ChaCha20-Poly1305"))
+        {
+            return new ChaCha20Poly1305();
+        }
+        throw new IllegalArgumentException("unknown algorithm: " + algorithm);
+    }
+}
@@ -0,0 +1,117 @@
+package org.bouncycastle.benchmark.crypto;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.BufferedBlockCipher;
+import org.bouncycastle.crypto.DefaultBufferedBlockCipher;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.modes.SICBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the AES engine, raw and under the common streaming modes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockCipherBenchmark
+{
+    @Param({"128", "192", "256"})
+    public int keySize;
+
+    @Param({"16", "1024", "16384"})
+    public int size;
+
+    private byte[] input;
+    private byte[] output;
+
+    private BlockCipher engine;
+    private BufferedBlockCipher cbcEncrypt;
+    private BufferedBlockCipher cbcDecrypt;
+    private BufferedBlockCipher ctr;
+
+    @Setup
+    public void setup()
+    {
+        SecureRandom random = new SecureRandom();
+
+        byte[] key = new byte[keySize / 8];
+        byte[] iv = new byte[16];
+        random.nextBytes(key);
+        random.nextBytes(iv);
+
+        input = new byte[size];
+        output = new byte[size + 16];
+        random.nextBytes(input);
+
+        ParametersWithIV params = new ParametersWithIV(new KeyParameter(key), iv);
+
+        engine = AESEngine.newInstance();
+        engine.init(true, new KeyParameter(key));
+
+        cbcEncrypt = new DefaultBufferedBlockCipher(CBCBlockCipher.newInstance(AESEngine.newInstance()));
+        cbcEncrypt.init(true, params);
+
+        cbcDecrypt = new DefaultBufferedBlockCipher(CBCBlockCipher.newInstance(AESEngine.newInstance()));
+        cbcDecrypt.init(false, params);
+
+        ctr = new DefaultBufferedBlockCipher(SICBlockCipher.newInstance(AESEngine.newInstance()));
+        ctr.init(true, params);
+    }
+
+    @Benchmark
+    public byte[] ecb()
+    {
+        for (int off = 0; off + 16 <= size; off += 16)
+        {
+            engine.processBlock(input, off, output, off);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public byte[] cbcEncrypt()
+        throws InvalidCipherTextException
+    {
+        int len = cbcEncrypt.processBytes(input, 0, size, output, 0);
+        cbcEncrypt.doFinal(output, len);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] cbcDecrypt()
+        throws InvalidCipherTextException
+    {
+        int len = cbcDecrypt.processBytes(input, 0, size, output, 0);
+        cbcDecrypt.doFinal(output, len);
+        return output;
+    }
+
+    @Benchmark
+    public byte[] ctr()
+        throws InvalidCipherTextException
+    {
+        int len = ctr.processBytes(input, 0, size, output, 0);
+        ctr.doFinal(output, len);
+        return output;
+    }
+}
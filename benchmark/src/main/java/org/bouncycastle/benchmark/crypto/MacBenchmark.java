@@ -0,0 +1,102 @@
+package org.bouncycastle.benchmark.crypto;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.Mac;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.macs.CMac;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.macs.KMAC;
+import org.bouncycastle.crypto.macs.Poly1305;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the MACs over a single message with a fixed key.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MacBenchmark
+{
+    @Param({"HMAC-SHA256", "HMAC-SHA512", "AES-CMAC", "KMAC128", "Poly1305"})
+    public String algorithm;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private Mac mac;
+    private CipherParameters params;
+    private byte[] input;
+    private byte[] output;
+
+    @Setup
+    public void setup()
+    {
+        SecureRandom random = new SecureRandom();
+
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+
+        if (algorithm.equals("HMAC-SHA256"))
+        {
+            mac = new HMac(SHA256Digest.newInstance());
+            params = new KeyParameter(key);
+        }
+        else if (algorithm.equals("HMAC-SHA512"))
+        {
+            mac = new HMac(new SHA512Digest());
+            params = new KeyParameter(key);
+        }
+        else if (algorithm.equals("AES-CMAC"))
+        {
+            mac = new CMac(AESEngine.newInstance());
+            params = new KeyParameter(key);
+        }
+        else if (algorithm.equals("KMAC128"))
+        {
+            mac = new KMAC(128, null);
+            params = new KeyParameter(key);
+        }
+        else if (algorithm.equals("Poly1305"))
+        {
+            mac = new Poly1305();
+            params = new KeyParameter(key);
+        }
+        else
+        {
+            throw new IllegalArgumentException("unknown algorithm: " + algorithm);
+        }
+
+        mac.init(params);
+
+        input = new byte[size];
+        random.nextBytes(input);
+        output = new byte[mac.getMacSize()];
+    }
+
+    @Benchmark
+    public byte[] mac()
+    {
+        mac.update(input, 0, size);
+        mac.doFinal(output, 0);
+        return output;
+    }
+}
@@ -0,0 +1,150 @@
+package org.bouncycastle.benchmark.crypto;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.Signer;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA384Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.Ed448PrivateKeyParameters;
+import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.crypto.signers.DSADigestSigner;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.Ed25519Signer;
+import org.bouncycastle.crypto.signers.Ed448Signer;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.crypto.signers.SM2Signer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second for signature generation and verification over a short message.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignerBenchmark
+{
+    @Param({"Ed25519", "Ed448", "ECDSA-P256", "ECDSA-P384", "SM2"})
+    public String algorithm;
+
+    @Param({"32", "1024"})
+    public int size;
+
+    private Signer signer;
+    private Signer verifier;
+    private byte[] message;
+    private byte[] signature;
+
+    @Setup
+    public void setup()
+        throws CryptoException
+    {
+        SecureRandom random = new SecureRandom();
+
+        if (algorithm.equals("Ed25519"))
+        {
+            Ed25519PrivateKeyParameters privKey = new Ed25519PrivateKeyParameters(random);
+
+            signer = new Ed25519Signer();
+            signer.init(true, privKey);
+            verifier = new Ed25519Signer();
+            verifier.init(false, privKey.generatePublicKey());
+        }
+        else if (algorithm.equals("Ed448"))
+        {
+            Ed448PrivateKeyParameters privKey = new Ed448PrivateKeyParameters(random);
+
+            signer = new Ed448Signer(new byte[0]);
+            signer.init(true, privKey);
+            verifier = new Ed448Signer(new byte[0]);
+            verifier.init(false, privKey.generatePublicKey());
+        }
+        else if (algorithm.equals("ECDSA-P256"))
+        {
+            AsymmetricCipherKeyPair kp = generateECKeyPair("P-256", random);
+
+            signer = new DSADigestSigner(new ECDSASigner(new HMacDSAKCalculator(SHA256Digest.newInstance())), SHA256Digest.newInstance());
+            signer.init(true, kp.getPrivate());
+            verifier = new DSADigestSigner(new ECDSASigner(), SHA256Digest.newInstance());
+            verifier.init(false, kp.getPublic());
+        }
+        else if (algorithm.equals("ECDSA-P384"))
+        {
+            AsymmetricCipherKeyPair kp = generateECKeyPair("P-384", random);
+
+            signer = new DSADigestSigner(new ECDSASigner(new HMacDSAKCalculator(new SHA384Digest())), new SHA384Digest());
+            signer.init(true, kp.getPrivate());
+            verifier = new DSADigestSigner(new ECDSASigner(), new SHA384Digest());
+            verifier.init(false, kp.getPublic());
+        }
+        else if (algorithm.equals("SM2"))
+        {
+            AsymmetricCipherKeyPair kp = generateECKeyPair("sm2p256v1", random);
+
+            signer = new SM2Signer();
+            signer.init(true, new ParametersWithRandom(kp.getPrivate(), random));
+            verifier = new SM2Signer();
+            verifier.init(false, kp.getPublic());
+        }
+        else
+        {
+            throw new IllegalArgumentException("unknown algorithm: " + algorithm);
+        }
+
+        message = new byte[size];
+        random.nextBytes(message);
+
+        signer.update(message, 0, message.length);
+        signature = signer.generateSignature();
+    }
+
+    @Benchmark
+    public byte[] sign()
+        throws CryptoException
+    {
+        signer.update(message, 0, message.length);
+        return signer.generateSignature();
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        verifier.update(message, 0, message.length);
+        boolean result = verifier.verifySignature(signature);
+        if (!result)
+        {
+            throw new IllegalStateException("signature failed to verify");
+        }
+        return result;
+    }
+
+    private static AsymmetricCipherKeyPair generateECKeyPair(String curveName, SecureRandom random)
+    {
+        X9ECParameters x9 = CustomNamedCurves.getByName(curveName);
+
+        ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+        kpGen.init(new ECKeyGenerationParameters(new ECDomainParameters(x9), random));
+        return kpGen.generateKeyPair();
+    }
+}
@@ -0,0 +1,90 @@
+package org.bouncycastle.benchmark.jcajce;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of symmetric ciphers obtained through the BC provider, including the
+ * per-message cost of Cipher.init().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JcaCipherBenchmark
+{
+    @Param({"AES/GCM/NoPadding", "AES/CTR/NoPadding", "AES/CBC/PKCS5Padding", "ChaCha20-Poly1305"})
+    public String transformation;
+
+    @Param({"128", "256"})
+    public int keySize;
+
+    @Param({"1024", "16384"})
+    public int size;
+
+    private Cipher cipher;
+    private SecretKeySpec key;
+    private byte[] iv;
+    private byte[] input;
+    private byte[] output;
+
+    @Setup
+    public void setup()
+        throws GeneralSecurityException
+    {
+        SecureRandom random = new SecureRandom();
+
+        byte[] keyBytes = new byte[transformation.startsWith("ChaCha20") ? 32 : keySize / 8];
+        random.nextBytes(keyBytes);
+        key = new SecretKeySpec(keyBytes, transformation.startsWith("ChaCha20") ? "ChaCha20" : "AES");
+
+        iv = new byte[transformation.startsWith("AES/GCM") || transformation.startsWith("ChaCha20") ? 12 : 16];
+        random.nextBytes(iv);
+
+        cipher = Cipher.getInstance(transformation, new BouncyCastleProvider());
+
+        input = new byte[size];
+        random.nextBytes(input);
+        output = new byte[size + 32];
+    }
+
+    @Benchmark
+    public byte[] encrypt()
+        throws GeneralSecurityException
+    {
+        // GCM and ChaCha20-Poly1305 will not re-use a nonce for encryption.
+        iv[0]++;
+        if (transformation.startsWith("AES/GCM"))
+        {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, iv));
+        }
+        else
+        {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+        }
+
+        cipher.doFinal(input, 0, size, output, 0);
+        return output;
+    }
+}
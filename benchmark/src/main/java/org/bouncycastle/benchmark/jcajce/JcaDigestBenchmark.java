@@ -0,0 +1,78 @@
+package org.bouncycastle.benchmark.jcajce;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of MessageDigest and the matching HMAC through the BC provider.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JcaDigestBenchmark
+{
+    @Param({"SHA-256", "SHA-512", "SHA3-256"})
+    public String algorithm;
+
+    @Param({"64", "1024", "16384"})
+    public int size;
+
+    private MessageDigest digest;
+    private Mac mac;
+    private byte[] input;
+
+    @Setup
+    public void setup()
+        throws GeneralSecurityException
+    {
+        BouncyCastleProvider provider = new BouncyCastleProvider();
+
+        digest = MessageDigest.getInstance(algorithm, provider);
+
+        byte[] key = new byte[32];
+        SecureRandom random = new SecureRandom();
+        random.nextBytes(key);
+
+        String macName = "HMAC" + algorithm.replace("SHA-", "SHA");
+        mac = Mac.getInstance(macName, provider);
+        mac.init(new SecretKeySpec(key, macName));
+
+        input = new byte[size];
+        random.nextBytes(input);
+    }
+
+    @Benchmark
+    public byte[] digest()
+    {
+        digest.update(input, 0, size);
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] hmac()
+    {
+        mac.update(input, 0, size);
+        return mac.doFinal();
+    }
+}
@@ -0,0 +1,85 @@
+package org.bouncycastle.benchmark.jcajce;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.bouncycastle.jcajce.SecretKeyWithEncapsulation;
+import org.bouncycastle.jcajce.spec.KEMExtractSpec;
+import org.bouncycastle.jcajce.spec.KEMGenerateSpec;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second for ML-KEM key generation, encapsulation and decapsulation through the
+ * BC provider's KeyPairGenerator and KeyGenerator services.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JcaKEMBenchmark
+{
+    @Param({"ML-KEM-512", "ML-KEM-768", "ML-KEM-1024"})
+    public String parameterSet;
+
+    private KeyPairGenerator kpGen;
+    private KeyPair keyPair;
+    private KeyGenerator generator;
+    private KeyGenerator extractor;
+    private byte[] encapsulation;
+
+    @Setup
+    public void setup()
+        throws GeneralSecurityException
+    {
+        BouncyCastleProvider provider = new BouncyCastleProvider();
+        SecureRandom random = new SecureRandom();
+
+        kpGen = KeyPairGenerator.getInstance(parameterSet, provider);
+        keyPair = kpGen.generateKeyPair();
+
+        generator = KeyGenerator.getInstance(parameterSet, provider);
+        extractor = KeyGenerator.getInstance(parameterSet, provider);
+
+        generator.init(new KEMGenerateSpec(keyPair.getPublic(), "AES", 256), random);
+        encapsulation = ((SecretKeyWithEncapsulation)generator.generateKey()).getEncapsulation();
+    }
+
+    @Benchmark
+    public KeyPair keyGen()
+    {
+        return kpGen.generateKeyPair();
+    }
+
+    @Benchmark
+    public SecretKey encapsulate()
+    {
+        return generator.generateKey();
+    }
+
+    @Benchmark
+    public SecretKey decapsulate()
+        throws GeneralSecurityException
+    {
+        extractor.init(new KEMExtractSpec(keyPair.getPrivate(), encapsulation, "AES", 256));
+        return extractor.generateKey();
+    }
+}
@@ -0,0 +1,100 @@
+package org.bouncycastle.benchmark.jcajce;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second for Signature sign/verify through the BC provider.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JcaSignatureBenchmark
+{
+    @Param({"Ed25519", "Ed448", "SHA256withECDSA", "SHA256withRSA", "ML-DSA-44", "ML-DSA-65", "ML-DSA-87"})
+    public String algorithm;
+
+    private Signature signer;
+    private Signature verifier;
+    private byte[] message;
+    private byte[] signature;
+
+    @Setup
+    public void setup()
+        throws GeneralSecurityException
+    {
+        BouncyCastleProvider provider = new BouncyCastleProvider();
+        SecureRandom random = new SecureRandom();
+
+        KeyPairGenerator kpGen;
+        if (algorithm.equals("SHA256withECDSA"))
+        {
+            kpGen = KeyPairGenerator.getInstance("EC", provider);
+            kpGen.initialize(new ECGenParameterSpec("P-256"), random);
+        }
+        else if (algorithm.equals("SHA256withRSA"))
+        {
+            kpGen = KeyPairGenerator.getInstance("RSA", provider);
+            kpGen.initialize(2048, random);
+        }
+        else
+        {
+            kpGen = KeyPairGenerator.getInstance(algorithm, provider);
+        }
+
+        KeyPair kp = kpGen.generateKeyPair();
+
+        signer = Signature.getInstance(algorithm, provider);
+        signer.initSign(kp.getPrivate(), random);
+        verifier = Signature.getInstance(algorithm, provider);
+        verifier.initVerify(kp.getPublic());
+
+        message = new byte[32];
+        random.nextBytes(message);
+
+        signer.update(message);
+        signature = signer.sign();
+    }
+
+    @Benchmark
+    public byte[] sign()
+        throws GeneralSecurityException
+    {
+        signer.update(message);
+        return signer.sign();
+    }
+
+    @Benchmark
+    public boolean verify()
+        throws GeneralSecurityException
+    {
+        verifier.update(message);
+        boolean result = verifier.verify(signature);
+        if (!result)
+        {
+            throw new IllegalStateException("signature failed to verify");
+        }
+        return result;
+    }
+}
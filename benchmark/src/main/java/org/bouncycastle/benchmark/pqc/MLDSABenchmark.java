@@ -0,0 +1,113 @@
+package org.bouncycastle.benchmark.pqc;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.CryptoException;
+import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.pqc.crypto.mldsa.MLDSAKeyGenerationParameters;
+import org.bouncycastle.pqc.crypto.mldsa.MLDSAKeyPairGenerator;
+import org.bouncycastle.pqc.crypto.mldsa.MLDSAParameters;
+import org.bouncycastle.pqc.crypto.mldsa.MLDSASigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second for ML-DSA key generation, signing and verification.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MLDSABenchmark
+{
+    @Param({"ML-DSA-44", "ML-DSA-65", "ML-DSA-87"})
+    public String parameterSet;
+
+    @Param({"32", "1024"})
+    public int size;
+
+    private MLDSAKeyPairGenerator kpGen;
+    private MLDSASigner signer;
+    private MLDSASigner verifier;
+    private byte[] message;
+    private byte[] signature;
+
+    @Setup
+    public void setup()
+        throws CryptoException
+    {
+        SecureRandom random = new SecureRandom();
+
+        kpGen = new MLDSAKeyPairGenerator();
+        kpGen.init(new MLDSAKeyGenerationParameters(random, getParameters(parameterSet)));
+
+        AsymmetricCipherKeyPair keyPair = kpGen.generateKeyPair();
+
+        signer = new MLDSASigner();
+        signer.init(true, new ParametersWithRandom(keyPair.getPrivate(), random));
+        verifier = new MLDSASigner();
+        verifier.init(false, keyPair.getPublic());
+
+        message = new byte[size];
+        random.nextBytes(message);
+
+        signer.update(message, 0, message.length);
+        signature = signer.generateSignature();
+    }
+
+    @Benchmark
+    public AsymmetricCipherKeyPair keyGen()
+    {
+        return kpGen.generateKeyPair();
+    }
+
+    @Benchmark
+    public byte[] sign()
+        throws CryptoException
+    {
+        signer.update(message, 0, message.length);
+        return signer.generateSignature();
+    }
+
+    @Benchmark
+    public boolean verify()
+    {
+        verifier.update(message, 0, message.length);
+        boolean result = verifier.verifySignature(signature);
+        if (!result)
+        {
+            throw new IllegalStateException("signature failed to verify");
+        }
+        return result;
+    }
+
+    static MLDSAParameters getParameters(String name)
+    {
+        if (name.equals("ML-DSA-44"))
+        {
+            return MLDSAParameters.ml_dsa_44;
+        }
+        if (name.equals("ML-DSA-65"))
+        {
+            return MLDSAParameters.ml_dsa_65;
+        }
+        if (name.equals("ML-DSA-87"))
+        {
+            return MLDSAParameters.ml_dsa_87;
+        }
+        throw new IllegalArgumentException("unknown parameter set: " + name);
+    }
+}
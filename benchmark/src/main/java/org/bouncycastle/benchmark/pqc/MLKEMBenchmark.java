@@ -0,0 +1,95 @@
+package org.bouncycastle.benchmark.pqc;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.SecretWithEncapsulation;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMExtractor;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMGenerator;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMKeyGenerationParameters;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMKeyPairGenerator;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMParameters;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMPrivateKeyParameters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations per second for ML-KEM key generation, encapsulation and decapsulation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MLKEMBenchmark
+{
+    @Param({"ML-KEM-512", "ML-KEM-768", "ML-KEM-1024"})
+    public String parameterSet;
+
+    private MLKEMKeyPairGenerator kpGen;
+    private AsymmetricCipherKeyPair keyPair;
+    private MLKEMGenerator generator;
+    private MLKEMExtractor extractor;
+    private byte[] encapsulation;
+
+    @Setup
+    public void setup()
+    {
+        SecureRandom random = new SecureRandom();
+
+        kpGen = new MLKEMKeyPairGenerator();
+        kpGen.init(new MLKEMKeyGenerationParameters(random, getParameters(parameterSet)));
+
+        keyPair = kpGen.generateKeyPair();
+        generator = new MLKEMGenerator(random);
+        extractor = new MLKEMExtractor((MLKEMPrivateKeyParameters)keyPair.getPrivate());
+
+        encapsulation = generator.generateEncapsulated(keyPair.getPublic()).getEncapsulation();
+    }
+
+    @Benchmark
+    public AsymmetricCipherKeyPair keyGen()
+    {
+        return kpGen.generateKeyPair();
+    }
+
+    @Benchmark
+    public SecretWithEncapsulation encapsulate()
+    {
+        return generator.generateEncapsulated(keyPair.getPublic());
+    }
+
+    @Benchmark
+    public byte[] decapsulate()
+    {
+        return extractor.extractSecret(encapsulation);
+    }
+
+    static MLKEMParameters getParameters(String name)
+    {
+        if (name.equals("ML-KEM-512"))
+        {
+            return MLKEMParameters.ml_kem_512;
+        }
+        if (name.equals("ML-KEM-768"))
+        {
+            return MLKEMParameters.ml_kem_768;
+        }
+        if (name.equals("ML-KEM-1024"))
+        {
+            return MLKEMParameters.ml_kem_1024;
+        }
+        throw new IllegalArgumentException("unknown parameter set: " + name);
+    }
+}
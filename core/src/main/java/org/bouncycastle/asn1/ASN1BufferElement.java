@@ -0,0 +1,249 @@
+package org.bouncycastle.asn1;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * A single BER/DER element found by an {@link ASN1BufferParser}, held as a view of its octets in the underlying
+ * buffer.
+ * <p>
+ * Contents are only copied out of the buffer when asked for as a byte array or converted to an ASN.1 object;
+ * the ByteBuffer accessors return read-only slices of the underlying buffer.
+ * </p>
+ */
+public final class ASN1BufferElement
+{
+    private final ByteBuffer buf;
+    private final int offset;
+    private final int tagHdr;
+    private final int tagNo;
+    private final int contentsOffset;
+    private final int contentsLength;
+    private final boolean indefiniteLength;
+
+    ASN1BufferElement(ByteBuffer buf, int offset, int tagHdr, int tagNo, int contentsOffset, int contentsLength,
+        boolean indefiniteLength)
+    {
+        this.buf = buf;
+        this.offset = offset;
+        this.tagHdr = tagHdr;
+        this.tagNo = tagNo;
+        this.contentsOffset = contentsOffset;
+        this.contentsLength = contentsLength;
+        this.indefiniteLength = indefiniteLength;
+    }
+
+    /**
+     * Return the tag class of this element, one of {@link BERTags#UNIVERSAL}, {@link BERTags#APPLICATION},
+     * {@link BERTags#CONTEXT_SPECIFIC} or {@link BERTags#PRIVATE}.
+     */
+    public int getTagClass()
+    {
+        return tagHdr & BERTags.PRIVATE;
+    }
+
+    public int getTagNo()
+    {
+        return tagNo;
+    }
+
+    public boolean hasTag(int tagClass, int tagNo)
+    {
+        return this.tagNo == tagNo && getTagClass() == tagClass;
+    }
+
+    public boolean hasContextTag(int tagNo)
+    {
+        return hasTag(BERTags.CONTEXT_SPECIFIC, tagNo);
+    }
+
+    public boolean isConstructed()
+    {
+        return 0 != (tagHdr & BERTags.CONSTRUCTED);
+    }
+
+    public boolean isIndefiniteLength()
+    {
+        return indefiniteLength;
+    }
+
+    /**
+     * Return the position of this element's first octet in the underlying buffer.
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Return the length of this element's full encoding, including the end-of-contents octets if it has an
+     * indefinite-length encoding.
+     */
+    public int getEncodedLength()
+    {
+        return getEnd() - offset;
+    }
+
+    public int getContentsLength()
+    {
+        return contentsLength;
+    }
+
+    /**
+     * Return a read-only view of the full encoding of this element.
+     */
+    public ByteBuffer getEncoding()
+    {
+        return slice(offset, getEnd());
+    }
+
+    /**
+     * Return a read-only view of the contents octets of this element. For an indefinite-length encoding the
+     * end-of-contents octets are not included.
+     */
+    public ByteBuffer getContents()
+    {
+        return slice(contentsOffset, contentsOffset + contentsLength);
+    }
+
+    /**
+     * Return a copy of the full encoding of this element.
+     */
+    public byte[] getEncoded()
+    {
+        return copy(offset, getEnd());
+    }
+
+    /**
+     * Return a copy of the contents octets of this element.
+     */
+    public byte[] getContentsOctets()
+    {
+        return copy(contentsOffset, contentsOffset + contentsLength);
+    }
+
+    /**
+     * Compare the contents octets of this element with a byte array, without copying them.
+     *
+     * @param octets the octets to compare with.
+     * @return true if the contents octets are the same as octets.
+     */
+    public boolean contentsEqual(byte[] octets)
+    {
+        if (octets.length != contentsLength)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < contentsLength; ++i)
+        {
+            if (buf.get(contentsOffset + i) != octets[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return a parser for the elements making up the contents of this (constructed) element.
+     *
+     * @return a parser over the contents octets.
+     * @throws IllegalStateException if this element is primitive.
+     */
+    public ASN1BufferParser getContentsParser()
+    {
+        if (!isConstructed())
+        {
+            throw new IllegalStateException("element is not constructed");
+        }
+
+        return new ASN1BufferParser(buf, contentsOffset, contentsOffset + contentsLength);
+    }
+
+    /**
+     * Interpret the contents of this element as an INTEGER (the tag is not checked, so implicitly tagged
+     * values can be read as well).
+     *
+     * @return the value of the INTEGER.
+     * @throws ASN1Exception if the element is constructed or the contents are not a valid INTEGER.
+     */
+    public BigInteger getInteger()
+        throws ASN1Exception
+    {
+        byte[] contents = getPrimitiveContents();
+        if (ASN1Integer.isMalformed(contents))
+        {
+            throw new ASN1Exception("malformed integer");
+        }
+        return new BigInteger(contents);
+    }
+
+    /**
+     * Interpret the contents of this element as an OBJECT IDENTIFIER (the tag is not checked).
+     *
+     * @return the OBJECT IDENTIFIER.
+     * @throws ASN1Exception if the element is constructed or the contents are not a valid OBJECT IDENTIFIER.
+     */
+    public ASN1ObjectIdentifier getObjectIdentifier()
+        throws ASN1Exception
+    {
+        try
+        {
+            ASN1ObjectIdentifier.checkContentsLength(contentsLength);
+
+            return ASN1ObjectIdentifier.createPrimitive(getPrimitiveContents(), false);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ASN1Exception(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convert this element, and anything it contains, into an ASN.1 object.
+     *
+     * @return the ASN.1 object this element encodes.
+     * @throws IOException if the encoding cannot be parsed.
+     */
+    public ASN1Primitive toASN1Primitive()
+        throws IOException
+    {
+        return ASN1Primitive.fromByteArray(getEncoded());
+    }
+
+    int getEnd()
+    {
+        return contentsOffset + contentsLength + (indefiniteLength ? 2 : 0);
+    }
+
+    private byte[] getPrimitiveContents()
+        throws ASN1Exception
+    {
+        if (isConstructed())
+        {
+            throw new ASN1Exception("primitive encoding expected for " + ASN1Util.getTagText(getTagClass(), tagNo));
+        }
+        return getContentsOctets();
+    }
+
+    private ByteBuffer slice(int from, int to)
+    {
+        ByteBuffer dup = buf.duplicate();
+        dup.clear();
+        dup.position(from);
+        dup.limit(to);
+        return dup.slice().asReadOnlyBuffer();
+    }
+
+    private byte[] copy(int from, int to)
+    {
+        byte[] octets = new byte[to - from];
+        ByteBuffer dup = buf.duplicate();
+        dup.clear();
+        dup.position(from);
+        dup.get(octets);
+        return octets;
+    }
+}
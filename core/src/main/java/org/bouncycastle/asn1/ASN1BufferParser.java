@@ -0,0 +1,323 @@
+package org.bouncycastle.asn1;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A parser for BER/DER encodings held in a {@link ByteBuffer}, including memory-mapped files.
+ * <p>
+ * Each element is returned as an {@link ASN1BufferElement}, a view of the element's octets in the underlying buffer,
+ * so nothing is copied unless it is asked for. The elements of a constructed object are walked with
+ * {@link ASN1BufferElement#getContentsParser()}, one at a time, so very large structures (a SEQUENCE OF with millions
+ * of entries, say) can be scanned with constant heap use.
+ * </p>
+ * <p>
+ * Note: the parser only reads from the underlying buffer using absolute positions, so it does not change the
+ * position or limit of the buffer passed in. A parser is not thread-safe, but the elements it returns may be
+ * shared between threads.
+ * </p>
+ */
+public class ASN1BufferParser
+{
+    private final ByteBuffer buf;
+    private final int end;
+
+    private int pos;
+
+    // results of the last call to parseHeader()
+    private int hdrTagHdr;
+    private int hdrTagNo;
+    private int hdrContentsStart;
+    private int hdrLength;
+
+    /**
+     * Create a parser for the encodings in a byte array.
+     *
+     * @param encoding the encodings to parse.
+     */
+    public ASN1BufferParser(byte[] encoding)
+    {
+        this(ByteBuffer.wrap(encoding));
+    }
+
+    /**
+     * Create a parser for the encodings between the position and the limit of a buffer.
+     *
+     * @param buffer the buffer holding the encodings to parse.
+     */
+    public ASN1BufferParser(ByteBuffer buffer)
+    {
+        this(buffer.duplicate(), buffer.position(), buffer.limit());
+    }
+
+    ASN1BufferParser(ByteBuffer buf, int start, int end)
+    {
+        this.buf = buf;
+        this.pos = start;
+        this.end = end;
+    }
+
+    /**
+     * Create a parser for the entire content of a file, mapping it into memory.
+     *
+     * @param channel the file to map.
+     * @return a parser for the encodings in the file.
+     * @throws IOException if the file is larger than 2GB, or cannot be mapped.
+     */
+    public static ASN1BufferParser map(FileChannel channel)
+        throws IOException
+    {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("file too large to map: " + size);
+        }
+
+        return new ASN1BufferParser(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    /**
+     * Return true if there is at least one more element to read.
+     *
+     * @return true if readElement() will not return null.
+     */
+    public boolean hasMoreElements()
+    {
+        return pos < end;
+    }
+
+    /**
+     * Return the position in the underlying buffer of the next element.
+     *
+     * @return the buffer index of the next element's first octet.
+     */
+    public int getPosition()
+    {
+        return pos;
+    }
+
+    /**
+     * Read the next element.
+     *
+     * @return the next element, null if we are at the end.
+     * @throws IOException if the encoding is malformed or truncated.
+     */
+    public ASN1BufferElement readElement()
+        throws IOException
+    {
+        if (pos >= end)
+        {
+            return null;
+        }
+
+        ASN1BufferElement element = parseElement(pos);
+        pos = element.getEnd();
+        return element;
+    }
+
+    /**
+     * Read the next element, checking it has the expected tag.
+     *
+     * @param tagClass the expected tag class, e.g. {@link BERTags#UNIVERSAL}.
+     * @param tagNo    the expected tag number.
+     * @return the next element.
+     * @throws IOException if there are no more elements, the next element has another tag, or it is malformed.
+     */
+    public ASN1BufferElement readElement(int tagClass, int tagNo)
+        throws IOException
+    {
+        ASN1BufferElement element = readElement();
+        if (null == element)
+        {
+            throw new EOFException("expected element " + ASN1Util.getTagText(tagClass, tagNo) + " not found");
+        }
+        if (!element.hasTag(tagClass, tagNo))
+        {
+            throw new ASN1Exception("unexpected element " + ASN1Util.getTagText(element.getTagClass(),
+                element.getTagNo()) + " found, expected " + ASN1Util.getTagText(tagClass, tagNo));
+        }
+        return element;
+    }
+
+    /**
+     * Read the next element if it has the passed in tag, for OPTIONAL and DEFAULT fields.
+     *
+     * @param tagClass the tag class to look for.
+     * @param tagNo    the tag number to look for.
+     * @return the next element if it has the passed in tag, null otherwise, in which case nothing is consumed.
+     * @throws IOException if the next element is malformed.
+     */
+    public ASN1BufferElement readOptionalElement(int tagClass, int tagNo)
+        throws IOException
+    {
+        if (pos >= end)
+        {
+            return null;
+        }
+
+        ASN1BufferElement element = parseElement(pos);
+        if (!element.hasTag(tagClass, tagNo))
+        {
+            return null;
+        }
+
+        pos = element.getEnd();
+        return element;
+    }
+
+    private ASN1BufferElement parseElement(int start)
+        throws IOException
+    {
+        parseHeader(start);
+
+        int tagHdr = hdrTagHdr, tagNo = hdrTagNo, contentsStart = hdrContentsStart, length = hdrLength;
+        if (length < 0)
+        {
+            int eoc = findEndOfContents(contentsStart);
+            return new ASN1BufferElement(buf, start, tagHdr, tagNo, contentsStart, eoc - contentsStart, true);
+        }
+
+        return new ASN1BufferElement(buf, start, tagHdr, tagNo, contentsStart, length, false);
+    }
+
+    /*
+     * Parse the tag and length octets of the element at start, leaving the results in the hdr* fields; hdrLength is
+     * -1 for an indefinite-length encoding.
+     */
+    private void parseHeader(int start)
+        throws IOException
+    {
+        int p = start;
+
+        int tagHdr = readOctet(p++, "EOF found when tag expected");
+        int tagNo = tagHdr & 0x1F;
+
+        if (tagNo == 0x1F)
+        {
+            int b = readOctet(p++, "EOF found inside tag value.");
+            if (b < 31)
+            {
+                throw new IOException("corrupted stream - high tag number < 31 found");
+            }
+
+            tagNo = b & 0x7F;
+
+            // X.690-0207 8.1.2.4.2
+            // "c) bits 7 to 1 of the first subsequent octet shall not all be zero."
+            if (0 == tagNo)
+            {
+                throw new IOException("corrupted stream - invalid high tag number found");
+            }
+
+            while ((b & 0x80) != 0)
+            {
+                if ((tagNo >>> 24) != 0)
+                {
+                    throw new IOException("Tag number more than 31 bits");
+                }
+
+                b = readOctet(p++, "EOF found inside tag value.");
+
+                tagNo = (tagNo << 7) | (b & 0x7F);
+            }
+        }
+
+        int length = readOctet(p++, "EOF found when length expected");
+        if (0x80 == length)
+        {
+            // indefinite-length
+            if (0 == (tagHdr & BERTags.CONSTRUCTED))
+            {
+                throw new IOException("indefinite-length primitive encoding encountered");
+            }
+
+            length = -1;
+        }
+        else
+        {
+            if (0 != (length >>> 7))
+            {
+                if (0xFF == length)
+                {
+                    throw new IOException("invalid long form definite-length 0xFF");
+                }
+
+                int octetsCount = length & 0x7F;
+
+                length = 0;
+                while (--octetsCount >= 0)
+                {
+                    if ((length >>> 23) != 0)
+                    {
+                        throw new IOException("long form definite-length more than 31 bits");
+                    }
+
+                    length = (length << 8) | readOctet(p++, "EOF found reading length");
+                }
+            }
+
+            if (length > end - p)
+            {
+                throw new EOFException("DEF length " + length + " object truncated by " + (length - (end - p)));
+            }
+        }
+
+        this.hdrTagHdr = tagHdr;
+        this.hdrTagNo = tagNo;
+        this.hdrContentsStart = p;
+        this.hdrLength = length;
+    }
+
+    /*
+     * Find the end-of-contents octets terminating the indefinite-length contents starting at p. This is done in a
+     * single iterative pass, counting the indefinite-length encodings nested inside, so deeply nested input can't
+     * exhaust the stack; definite-length elements are skipped over without looking inside them.
+     */
+    private int findEndOfContents(int p)
+        throws IOException
+    {
+        int depth = 0;
+        for (;;)
+        {
+            if (end - p < 2)
+            {
+                throw new EOFException("EOF found in indefinite-length encoding");
+            }
+            if (buf.get(p) == 0 && buf.get(p + 1) == 0)
+            {
+                if (depth == 0)
+                {
+                    return p;
+                }
+
+                --depth;
+                p += 2;
+                continue;
+            }
+
+            parseHeader(p);
+
+            p = hdrContentsStart;
+            if (hdrLength < 0)
+            {
+                ++depth;
+            }
+            else
+            {
+                p += hdrLength;
+            }
+        }
+    }
+
+    private int readOctet(int p, String eofMessage)
+        throws EOFException
+    {
+        if (p >= end)
+        {
+            throw new EOFException(eofMessage);
+        }
+        return buf.get(p) & 0xFF;
+    }
+}
@@ -1,12 +1,20 @@
 package org.bouncycastle.asn1.x500;
 
+import java.io.IOException;
+
 import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1Object;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1Set;
 import org.bouncycastle.asn1.ASN1TaggedObject;
+import org.bouncycastle.asn1.DERSequence;
 import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.asn1.x500.style.IETFUtils;
+import org.bouncycastle.util.Arrays;
 
 /**
  * Holding class for a single Relative Distinguished Name (RDN).
@@ -16,6 +24,8 @@
 {
     private ASN1Set values;
 
+    private volatile Canonical canonical;
+
     private RDN(ASN1Set values)
     {
         // TODO Require minimum size of 1?
@@ -104,6 +114,74 @@ public AttributeTypeAndValue[] getTypesAndValues()
         return tmp;
     }
 
+    /**
+     * Return true if the other RDN has the same attribute types, in the same order, as this one, with values that are
+     * equal once canonicalised (see {@link IETFUtils#canonicalString(ASN1Encodable)}). The canonical values of an
+     * RDN are calculated on first use and then reused.
+     *
+     * @param other the RDN to compare with.
+     * @return true if the RDNs are equivalent, false otherwise.
+     */
+    public boolean canonicalEquals(RDN other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+
+        Canonical c1 = getCanonical(), c2 = other.getCanonical();
+
+        if (c1.hashCode != c2.hashCode || c1.types.length != c2.types.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i != c1.types.length; i++)
+        {
+            if (!c1.types[i].equals(c2.types[i]) || !c1.values[i].equals(c2.values[i]))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return a hash code consistent with {@link #canonicalEquals(RDN)}: the exclusive-or of the hash codes of each
+     * attribute type and canonical value.
+     *
+     * @return the canonical hash code.
+     */
+    public int canonicalHashCode()
+    {
+        return getCanonical().hashCode;
+    }
+
+    /**
+     * Return an encoding of the canonical form of this RDN, suitable for use as an index key. It is the DER encoding
+     * of a SEQUENCE of (type, UTF8String) pairs holding the attribute types and canonical values in order, so two
+     * RDNs have the same canonical encoding exactly when {@link #canonicalEquals(RDN)} is true.
+     *
+     * @return the canonical encoding.
+     */
+    public byte[] getCanonicalEncoding()
+    {
+        return Arrays.clone(getCanonical().getEncoding());
+    }
+
+    Canonical getCanonical()
+    {
+        Canonical c = canonical;
+        if (null == c)
+        {
+            // racing threads compute equal values, so whichever is published last is fine
+            c = new Canonical(getTypesAndValues());
+            canonical = c;
+        }
+        return c;
+    }
+
     int collectAttributeTypes(ASN1ObjectIdentifier[] oids, int oidsOff)
     {
         int count = values.size();
@@ -144,4 +222,60 @@ public ASN1Primitive toASN1Primitive()
     {
         return values;
     }
+
+    static final class Canonical
+    {
+        final ASN1ObjectIdentifier[] types;
+        final String[] values;
+        final int hashCode;
+
+        private volatile byte[] encoding;
+
+        Canonical(AttributeTypeAndValue[] atvs)
+        {
+            int hc = 0;
+
+            this.types = new ASN1ObjectIdentifier[atvs.length];
+            this.values = new String[atvs.length];
+
+            for (int i = 0; i != atvs.length; i++)
+            {
+                types[i] = atvs[i].getType();
+                values[i] = IETFUtils.canonicalString(atvs[i].getValue());
+
+                hc ^= types[i].hashCode();
+                hc ^= values[i].hashCode();
+            }
+
+            this.hashCode = hc;
+        }
+
+        DERSequence toASN1Sequence()
+        {
+            ASN1EncodableVector v = new ASN1EncodableVector(types.length);
+            for (int i = 0; i != types.length; i++)
+            {
+                v.add(new DERSequence(new ASN1Encodable[]{ types[i], new DERUTF8String(values[i]) }));
+            }
+            return new DERSequence(v);
+        }
+
+        byte[] getEncoding()
+        {
+            byte[] enc = encoding;
+            if (null == enc)
+            {
+                try
+                {
+                    enc = toASN1Sequence().getEncoded(ASN1Encoding.DER);
+                }
+                catch (IOException e)
+                {
+                    throw new IllegalStateException("unable to encode canonical RDN: " + e.getMessage());
+                }
+                encoding = enc;
+            }
+            return enc;
+        }
+    }
 }
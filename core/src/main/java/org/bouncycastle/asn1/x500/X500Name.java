@@ -1,14 +1,20 @@
 package org.bouncycastle.asn1.x500;
 
+import java.io.IOException;
+
 import org.bouncycastle.asn1.ASN1Choice;
 import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
 import org.bouncycastle.asn1.ASN1Object;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1Sequence;
 import org.bouncycastle.asn1.ASN1TaggedObject;
 import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERSet;
 import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.util.Arrays;
 
 /**
  * The X.500 Name object.
@@ -38,6 +44,8 @@
     private RDN[] rdns;
     private DERSequence rdnSeq;
 
+    private volatile byte[] canonicalEncoding;
+
     /**
      * @deprecated use the getInstance() method that takes a style.
      */
@@ -237,6 +245,41 @@ public ASN1Primitive toASN1Primitive()
         return rdnSeq;
     }
 
+    /**
+     * Return an encoding of the canonical form of this name, suitable for use as an index key, e.g. when looking up
+     * certificates by issuer or subject. Each RDN is replaced by its canonical form (see
+     * {@link RDN#getCanonicalEncoding()}) and the RDNs are sorted, so two names have the same canonical encoding
+     * exactly when they are equal under the (order independent) comparison of BCStyle and RFC4519Style.
+     * <p>
+     * The encoding is calculated on first use and then reused.
+     * </p>
+     *
+     * @return the canonical encoding.
+     */
+    public byte[] getCanonicalEncoding()
+    {
+        byte[] enc = canonicalEncoding;
+        if (null == enc)
+        {
+            ASN1EncodableVector v = new ASN1EncodableVector(rdns.length);
+            for (int i = 0; i != rdns.length; i++)
+            {
+                v.add(rdns[i].getCanonical().toASN1Sequence());
+            }
+
+            try
+            {
+                enc = new DERSet(v).getEncoded(ASN1Encoding.DER);
+            }
+            catch (IOException e)
+            {
+                throw new IllegalStateException("unable to encode canonical name: " + e.getMessage());
+            }
+            canonicalEncoding = enc;
+        }
+        return Arrays.clone(enc);
+    }
+
     public int hashCode()
     {
         if (isHashCodeCalculated)
@@ -42,12 +42,6 @@ public static Hashtable copyHashTable(Hashtable paramsMap)
         return newTable;
     }
 
-    private int calcHashCode(ASN1Encodable enc)
-    {
-        String value = IETFUtils.canonicalString(enc);
-        return value.hashCode();
-    }
-
     public int calculateHashCode(X500Name name)
     {
         int hashCodeValue = 0;
@@ -56,21 +50,7 @@ public int calculateHashCode(X500Name name)
         // this needs to be order independent, like equals
         for (int i = 0; i != rdns.length; i++)
         {
-            if (rdns[i].isMultiValued())
-            {
-                AttributeTypeAndValue[] atv = rdns[i].getTypesAndValues();
-
-                for (int j = 0; j != atv.length; j++)
-                {
-                    hashCodeValue ^= atv[j].getType().hashCode();
-                    hashCodeValue ^= calcHashCode(atv[j].getValue());
-                }
-            }
-            else
-            {
-                hashCodeValue ^= rdns[i].getFirst().getType().hashCode();
-                hashCodeValue ^= calcHashCode(rdns[i].getFirst().getValue());
-            }
+            hashCodeValue ^= rdns[i].canonicalHashCode();
         }
 
         return hashCodeValue;
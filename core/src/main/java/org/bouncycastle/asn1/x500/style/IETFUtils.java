@@ -532,58 +532,6 @@ public static String stripInternalSpaces(
 
     public static boolean rDNAreEqual(RDN rdn1, RDN rdn2)
     {
-        if (rdn1.size() != rdn2.size())
-        {
-            return false;
-        }
-
-        AttributeTypeAndValue[] atvs1 = rdn1.getTypesAndValues();
-        AttributeTypeAndValue[] atvs2 = rdn2.getTypesAndValues();
-
-        if (atvs1.length != atvs2.length)
-        {
-            return false;
-        }
-
-        for (int i = 0; i != atvs1.length; i++)
-        {
-            if (!atvAreEqual(atvs1[i], atvs2[i]))
-            {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    private static boolean atvAreEqual(AttributeTypeAndValue atv1, AttributeTypeAndValue atv2)
-    {
-        if (atv1 == atv2)
-        {
-            return true;
-        }
-
-        if (null == atv1 || null == atv2)
-        {
-            return false;
-        }
-
-        ASN1ObjectIdentifier o1 = atv1.getType();
-        ASN1ObjectIdentifier o2 = atv2.getType();
-
-        if (!o1.equals(o2))
-        {
-            return false;
-        }
-
-        String v1 = canonicalString(atv1.getValue());
-        String v2 = canonicalString(atv2.getValue());
-
-        if (!v1.equals(v2))
-        {
-            return false;
-        }
-
-        return true;
+        return rdn1.canonicalEquals(rdn2);
     }
 }
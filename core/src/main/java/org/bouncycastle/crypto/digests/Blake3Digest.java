@@ -2,6 +2,7 @@
 
 import java.util.Iterator;
 import java.util.Stack;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
@@ -255,6 +256,11 @@
     // digest purpose
     private final CryptoServicePurpose purpose;
 
+    /**
+     * The executor for hashing chunks in parallel (may be null).
+     */
+    private final Executor executor;
+
     /**
      * Constructor.
      */
@@ -283,8 +289,22 @@ public Blake3Digest(final int pDigestSize)
      * @param purpose usage purpose.
      */
     public Blake3Digest(final int pDigestSize, CryptoServicePurpose purpose)
+    {
+        this(pDigestSize, purpose, null);
+    }
+
+    /**
+     * Constructor for a digest that hashes the chunks of large updates in parallel using the passed in executor.
+     * The output is identical to that of a digest working on a single thread.
+     *
+     * @param pDigestSize size of digest (in bits)
+     * @param purpose usage purpose.
+     * @param executor the executor to hash chunks on, null to hash everything on the calling thread.
+     */
+    public Blake3Digest(final int pDigestSize, CryptoServicePurpose purpose, Executor executor)
     {
         this.purpose = purpose;
+        this.executor = executor;
         theDigestLen = pDigestSize / 8;
 
         CryptoServicesRegistrar.checkConstraints(Utils.getDefaultProperties(this, getDigestSize() * 8, purpose));
@@ -302,6 +322,7 @@ public Blake3Digest(final Blake3Digest pSource)
         /* Copy default digest length */
         theDigestLen = pSource.theDigestLen;
         purpose = pSource.purpose;
+        executor = pSource.executor;
 
         /* Initialise from source */
         reset(pSource);
@@ -436,9 +457,13 @@ public void update(final byte[] pMessage,
         }
 
         /* process all blocks except the last one */
-        int messagePos;
+        int messagePos = pOffset + remainingLen;
         final int blockWiseLastPos = pOffset + pLen - BLOCKLEN;
-        for (messagePos = pOffset + remainingLen; messagePos < blockWiseLastPos; messagePos += BLOCKLEN)
+        if (executor != null)
+        {
+            messagePos = processChunksParallel(pMessage, messagePos, pOffset + pLen);
+        }
+        for (; messagePos < blockWiseLastPos; messagePos += BLOCKLEN)
         {
             /* Process the buffer */
             compressBlock(pMessage, messagePos);
@@ -575,6 +600,87 @@ public Memoable copy()
         return new Blake3Digest(this);
     }
 
+    /**
+     * Hash whole chunks of the message in parallel, leaving at least one byte for the sequential code.
+     *
+     * @param pMessage the message buffer
+     * @param pMsgPos  the position within the message buffer
+     * @param pMsgEnd  the end of the message data
+     * @return the position of the first byte not yet processed
+     */
+    private int processChunksParallel(final byte[] pMessage,
+                                      final int pMsgPos,
+                                      final int pMsgEnd)
+    {
+        /* Complete the current chunk first */
+        int myPos = pMsgPos;
+        while (theCurrBytes != 0 && myPos < pMsgEnd - BLOCKLEN)
+        {
+            compressBlock(pMessage, myPos);
+            myPos += BLOCKLEN;
+        }
+
+        /* The chunk containing the final byte has to be left for the sequential code */
+        final int myChunks = (pMsgEnd - myPos - 1) / CHUNKLEN;
+        if (theCurrBytes != 0 || !ParallelLeafHasher.isWorthwhile(myChunks, CHUNKLEN))
+        {
+            return myPos;
+        }
+
+        /* Calculate the chaining values of the chunks */
+        final int myStart = myPos;
+        final long myCounter = theCounter;
+        final int[] myChainings = new int[myChunks * NUMWORDS];
+        new ParallelLeafHasher<Blake3Digest>(CHUNKLEN)
+        {
+            Blake3Digest createWorker()
+            {
+                return new Blake3Digest(Blake3Digest.this);
+            }
+
+            void hashLeaf(final Blake3Digest pWorker, final int pChunk)
+            {
+                pWorker.hashChunk(pMessage, myStart + pChunk * CHUNKLEN, myCounter + pChunk, myChainings,
+                    pChunk * NUMWORDS);
+            }
+        }.hashLeaves(executor, myChunks);
+
+        /* Add them to the tree in order */
+        for (int i = 0; i < myChunks; i++)
+        {
+            System.arraycopy(myChainings, i * NUMWORDS, theChaining, 0, NUMWORDS);
+            incrementBlockCount();
+            adjustStack();
+        }
+        return myStart + myChunks * CHUNKLEN;
+    }
+
+    /**
+     * Hash a complete (non-root) chunk, leaving the rest of the tree untouched.
+     *
+     * @param pMessage   the message buffer
+     * @param pMsgPos    the position of the chunk within the message buffer
+     * @param pCounter   the chunk counter
+     * @param pChaining  the buffer for the chaining value
+     * @param pChainPos  the position of the chaining value within the buffer
+     */
+    private void hashChunk(final byte[] pMessage,
+                           final int pMsgPos,
+                           final long pCounter,
+                           final int[] pChaining,
+                           final int pChainPos)
+    {
+        theCounter = pCounter;
+        theCurrBytes = 0;
+        for (int i = 0; i < CHUNKLEN; i += BLOCKLEN)
+        {
+            initChunkBlock(BLOCKLEN, false);
+            initM(pMessage, pMsgPos + i);
+            compress();
+        }
+        System.arraycopy(theChaining, 0, pChaining, pChainPos, NUMWORDS);
+    }
+
     /**
      * Compress next block of the message.
      *
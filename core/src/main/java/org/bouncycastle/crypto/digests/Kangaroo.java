@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.digests;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.crypto.*;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Bytes;
@@ -36,7 +38,19 @@ public KangarooTwelve()
          */
         public KangarooTwelve(final int pLength, CryptoServicePurpose purpose)
         {
-            super(128, 12, pLength, purpose);
+            this(pLength, purpose, null);
+        }
+
+        /**
+         * Constructor for a digest that hashes the leaves of large updates in parallel.
+         *
+         * @param pLength  the digest length
+         * @param purpose  usage purpose.
+         * @param executor the executor to hash leaves on, null to hash everything on the calling thread.
+         */
+        public KangarooTwelve(final int pLength, CryptoServicePurpose purpose, Executor executor)
+        {
+            super(128, 12, pLength, purpose, executor);
         }
 
         public KangarooTwelve(CryptoServicePurpose purpose)
@@ -71,7 +85,19 @@ public MarsupilamiFourteen()
          */
         public MarsupilamiFourteen(final int pLength, CryptoServicePurpose purpose)
         {
-            super(256, 14, pLength, purpose);
+            this(pLength, purpose, null);
+        }
+
+        /**
+         * Constructor for a digest that hashes the leaves of large updates in parallel.
+         *
+         * @param pLength  the digest length
+         * @param purpose  usage purpose.
+         * @param executor the executor to hash leaves on, null to hash everything on the calling thread.
+         */
+        public MarsupilamiFourteen(final int pLength, CryptoServicePurpose purpose, Executor executor)
+        {
+            super(256, 14, pLength, purpose, executor);
         }
         public MarsupilamiFourteen(CryptoServicePurpose purpose)
         {
@@ -222,22 +248,42 @@ public KangarooParameters build()
 
         private final CryptoServicePurpose purpose;
 
+        /**
+         * The strength.
+         */
+        private final int theStrength;
+
+        /**
+         * The rounds.
+         */
+        private final int theRounds;
+
+        /**
+         * The executor for hashing leaves in parallel (may be null).
+         */
+        private final Executor theExecutor;
+
         /**
          * Constructor.
          *
          * @param pStrength the strength
          * @param pRounds   the rounds.
          * @param pLength   the digest length
+         * @param pExecutor the executor for hashing leaves in parallel (may be null)
          */
         KangarooBase(final int pStrength,
                      final int pRounds,
                      final int pLength,
-                     CryptoServicePurpose purpose)
+                     CryptoServicePurpose purpose,
+                     final Executor pExecutor)
         {
             /* Create underlying digests */
             theTree = new KangarooSponge(pStrength, pRounds);
             theLeaf = new KangarooSponge(pStrength, pRounds);
             theChainLen = pStrength >> 2;
+            theStrength = pStrength;
+            theRounds = pRounds;
+            theExecutor = pExecutor;
 
             /* Build personalisation */
             buildPersonal(null);
@@ -393,6 +439,12 @@ private void processData(final byte[] pIn,
                 if (theProcessed == BLKSIZE)
                 {
                     switchLeaf(true);
+
+                    /* Hash any further complete leaves in parallel */
+                    if (theExecutor != null)
+                    {
+                        myProcessed += processLeavesParallel(pIn, pInOffSet + myProcessed, pLen - myProcessed);
+                    }
                 }
 
                 /* Process next block */
@@ -403,6 +455,49 @@ private void processData(final byte[] pIn,
             }
         }
 
+        /**
+         * Hash complete leaves in parallel, leaving at least one byte for the current leaf.
+         *
+         * @param pIn       the input buffer
+         * @param pInOffSet the starting offset in the input buffer
+         * @param pLen      the length of data available
+         * @return the number of bytes processed
+         */
+        private int processLeavesParallel(final byte[] pIn,
+                                          final int pInOffSet,
+                                          final int pLen)
+        {
+            /* The final leaf may need to be completed by switchFinal() */
+            final int myLeaves = (pLen - 1) / BLKSIZE;
+            if (!ParallelLeafHasher.isWorthwhile(myLeaves, BLKSIZE))
+            {
+                return 0;
+            }
+
+            /* Calculate the chaining values of the leaves */
+            final byte[] myChains = new byte[myLeaves * theChainLen];
+            new ParallelLeafHasher<KangarooSponge>(BLKSIZE)
+            {
+                KangarooSponge createWorker()
+                {
+                    return new KangarooSponge(theStrength, theRounds);
+                }
+
+                void hashLeaf(final KangarooSponge pLeaf, final int pIndex)
+                {
+                    pLeaf.initSponge();
+                    pLeaf.absorb(pIn, pInOffSet + pIndex * BLKSIZE, BLKSIZE);
+                    pLeaf.absorb(INTERMEDIATE, 0, INTERMEDIATE.length);
+                    pLeaf.squeeze(myChains, pIndex * theChainLen, theChainLen);
+                }
+            }.hashLeaves(theExecutor, myLeaves);
+
+            /* Absorb them into the tree in order */
+            theTree.absorb(myChains, 0, myChains.length);
+            theCurrNode += myLeaves;
+            return myLeaves * BLKSIZE;
+        }
+
         public void reset()
         {
             theTree.initSponge();
@@ -0,0 +1,143 @@
+package org.bouncycastle.crypto.digests;
+
+/**
+ * The Keccak-f[1600] permutation on four independent states held in one array, interleaved so that lane i of state
+ * j is at index 4 * i + j. In this layout each group of four words holds the same lane of every state, so a vector
+ * implementation can load it as one 256 bit vector and permute all four states at once.
+ * <p>
+ * This class is the scalar version, permuting the states one after another, and only those that are in use.
+ * </p>
+ */
+class KeccakX4
+{
+    static final int STATES = 4;
+
+    static final long[] ROUND_CONSTANTS = new long[]{ 0x0000000000000001L, 0x0000000000008082L,
+        0x800000000000808aL, 0x8000000080008000L, 0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L,
+        0x8000000000008009L, 0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+        0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L, 0x8000000000008002L,
+        0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL, 0x8000000080008081L, 0x8000000000008080L,
+        0x0000000080000001L, 0x8000000080008008L };
+
+    /**
+     * Permute the states whose bits are set in active, bit j standing for state j.
+     */
+    static void permute(long[] A, int active)
+    {
+        for (int j = 0; j < STATES; j++)
+        {
+            if ((active & (1 << j)) != 0)
+            {
+                permuteState(A, j);
+            }
+        }
+    }
+
+    private static void permuteState(long[] A, int j)
+    {
+        long a00 = A[j], a01 = A[4 + j], a02 = A[8 + j], a03 = A[12 + j], a04 = A[16 + j];
+        long a05 = A[20 + j], a06 = A[24 + j], a07 = A[28 + j], a08 = A[32 + j], a09 = A[36 + j];
+        long a10 = A[40 + j], a11 = A[44 + j], a12 = A[48 + j], a13 = A[52 + j], a14 = A[56 + j];
+        long a15 = A[60 + j], a16 = A[64 + j], a17 = A[68 + j], a18 = A[72 + j], a19 = A[76 + j];
+        long a20 = A[80 + j], a21 = A[84 + j], a22 = A[88 + j], a23 = A[92 + j], a24 = A[96 + j];
+
+        for (int i = 0; i < 24; i++)
+        {
+            // theta
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+
+            long d1 = (c1 << 1 | c1 >>> -1) ^ c4;
+            long d2 = (c2 << 1 | c2 >>> -1) ^ c0;
+            long d3 = (c3 << 1 | c3 >>> -1) ^ c1;
+            long d4 = (c4 << 1 | c4 >>> -1) ^ c2;
+            long d0 = (c0 << 1 | c0 >>> -1) ^ c3;
+
+            a00 ^= d1; a05 ^= d1; a10 ^= d1; a15 ^= d1; a20 ^= d1;
+            a01 ^= d2; a06 ^= d2; a11 ^= d2; a16 ^= d2; a21 ^= d2;
+            a02 ^= d3; a07 ^= d3; a12 ^= d3; a17 ^= d3; a22 ^= d3;
+            a03 ^= d4; a08 ^= d4; a13 ^= d4; a18 ^= d4; a23 ^= d4;
+            a04 ^= d0; a09 ^= d0; a14 ^= d0; a19 ^= d0; a24 ^= d0;
+
+            // rho/pi
+            c1  = a01 <<  1 | a01 >>> 63;
+            a01 = a06 << 44 | a06 >>> 20;
+            a06 = a09 << 20 | a09 >>> 44;
+            a09 = a22 << 61 | a22 >>>  3;
+            a22 = a14 << 39 | a14 >>> 25;
+            a14 = a20 << 18 | a20 >>> 46;
+            a20 = a02 << 62 | a02 >>>  2;
+            a02 = a12 << 43 | a12 >>> 21;
+            a12 = a13 << 25 | a13 >>> 39;
+            a13 = a19 <<  8 | a19 >>> 56;
+            a19 = a23 << 56 | a23 >>>  8;
+            a23 = a15 << 41 | a15 >>> 23;
+            a15 = a04 << 27 | a04 >>> 37;
+            a04 = a24 << 14 | a24 >>> 50;
+            a24 = a21 <<  2 | a21 >>> 62;
+            a21 = a08 << 55 | a08 >>>  9;
+            a08 = a16 << 45 | a16 >>> 19;
+            a16 = a05 << 36 | a05 >>> 28;
+            a05 = a03 << 28 | a03 >>> 36;
+            a03 = a18 << 21 | a18 >>> 43;
+            a18 = a17 << 15 | a17 >>> 49;
+            a17 = a11 << 10 | a11 >>> 54;
+            a11 = a07 <<  6 | a07 >>> 58;
+            a07 = a10 <<  3 | a10 >>> 61;
+            a10 = c1;
+
+            // chi
+            c0 = a00 ^ (~a01 & a02);
+            c1 = a01 ^ (~a02 & a03);
+            a02 ^= ~a03 & a04;
+            a03 ^= ~a04 & a00;
+            a04 ^= ~a00 & a01;
+            a00 = c0;
+            a01 = c1;
+
+            c0 = a05 ^ (~a06 & a07);
+            c1 = a06 ^ (~a07 & a08);
+            a07 ^= ~a08 & a09;
+            a08 ^= ~a09 & a05;
+            a09 ^= ~a05 & a06;
+            a05 = c0;
+            a06 = c1;
+
+            c0 = a10 ^ (~a11 & a12);
+            c1 = a11 ^ (~a12 & a13);
+            a12 ^= ~a13 & a14;
+            a13 ^= ~a14 & a10;
+            a14 ^= ~a10 & a11;
+            a10 = c0;
+            a11 = c1;
+
+            c0 = a15 ^ (~a16 & a17);
+            c1 = a16 ^ (~a17 & a18);
+            a17 ^= ~a18 & a19;
+            a18 ^= ~a19 & a15;
+            a19 ^= ~a15 & a16;
+            a15 = c0;
+            a16 = c1;
+
+            c0 = a20 ^ (~a21 & a22);
+            c1 = a21 ^ (~a22 & a23);
+            a22 ^= ~a23 & a24;
+            a23 ^= ~a24 & a20;
+            a24 ^= ~a20 & a21;
+            a20 = c0;
+            a21 = c1;
+
+            // iota
+            a00 ^= ROUND_CONSTANTS[i];
+        }
+
+        A[j] = a00; A[4 + j] = a01; A[8 + j] = a02; A[12 + j] = a03; A[16 + j] = a04;
+        A[20 + j] = a05; A[24 + j] = a06; A[28 + j] = a07; A[32 + j] = a08; A[36 + j] = a09;
+        A[40 + j] = a10; A[44 + j] = a11; A[48 + j] = a12; A[52 + j] = a13; A[56 + j] = a14;
+        A[60 + j] = a15; A[64 + j] = a16; A[68 + j] = a17; A[72 + j] = a18; A[76 + j] = a19;
+        A[80 + j] = a20; A[84 + j] = a21; A[88 + j] = a22; A[92 + j] = a23; A[96 + j] = a24;
+    }
+}
@@ -0,0 +1,17 @@
+package org.bouncycastle.crypto.digests;
+
+/**
+ * The four way Keccak-f[1600] permutation used by {@link SHAKEX4}. This version uses the scalar code in KeccakX4 -
+ * the JDK 21 version of this class in the provider jar replaces it with a Vector API implementation where the
+ * jdk.incubator.vector module is available.
+ */
+class KeccakX4Kernels
+{
+    /**
+     * Permute the interleaved states, those whose bits are not set in active being unused.
+     */
+    static void permute(long[] A, int active)
+    {
+        KeccakX4.permute(A, active);
+    }
+}
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.digests;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.CryptoServicesRegistrar;
 import org.bouncycastle.crypto.DataLengthException;
@@ -20,6 +22,9 @@
 {
     private static final byte[] N_PARALLEL_HASH = Strings.toByteArray("ParallelHash");
 
+    // upper bound on the blocks compressed per parallel pass, limiting the memory held for their outputs
+    private static final int MAX_PARALLEL_BLOCKS = 16384;
+
     private final CSHAKEDigest cshake;
     private final CSHAKEDigest compressor;
     private final int bitLength;
@@ -33,6 +38,7 @@
     private int bufOff;
 
     private final CryptoServicePurpose purpose;
+    private final Executor executor;
 
     /**
      * Base constructor.
@@ -51,6 +57,22 @@ public ParallelHash(int bitLength, byte[] S, int B, int outputSize)
         this(bitLength, S, B, outputSize, CryptoServicePurpose.ANY);
     }
     public ParallelHash(int bitLength, byte[] S, int B, int outputSize, CryptoServicePurpose purpose)
+    {
+        this(bitLength, S, B, outputSize, purpose, null);
+    }
+
+    /**
+     * Constructor for a ParallelHash that compresses the blocks of large updates concurrently using the passed in
+     * executor. The output is identical to that of a ParallelHash working on a single thread.
+     *
+     * @param bitLength security strength (bits) of the underlying SHAKE function, 128 or 256.
+     * @param S the customization string - available for local use.
+     * @param B the blocksize (in bytes) for hashing.
+     * @param outputSize the output size in bits.
+     * @param purpose usage purpose.
+     * @param executor the executor to compress blocks on, null to compress everything on the calling thread.
+     */
+    public ParallelHash(int bitLength, byte[] S, int B, int outputSize, CryptoServicePurpose purpose, Executor executor)
     {
         this.cshake = new CSHAKEDigest(bitLength, N_PARALLEL_HASH, S);
         this.compressor = new CSHAKEDigest(bitLength, new byte[0], new byte[0]);
@@ -60,6 +82,7 @@ public ParallelHash(int bitLength, byte[] S, int B, int outputSize, CryptoServic
         this.buffer = new byte[B];
         this.compressorBuffer = new byte[bitLength * 2 / 8];
         this.purpose = purpose;
+        this.executor = executor;
 
         CryptoServicesRegistrar.checkConstraints(Utils.getDefaultProperties(this, bitLength, purpose));
 
@@ -76,6 +99,7 @@ public ParallelHash(ParallelHash source)
         this.buffer = Arrays.clone(source.buffer);
         this.compressorBuffer = Arrays.clone(source.compressorBuffer);
         this.purpose = source.purpose;
+        this.executor = source.executor;
 
         this.firstOutput = source.firstOutput;
         this.nCount = source.nCount;
@@ -133,6 +157,11 @@ public void update(byte[] in, int inOff, int len)
 
         if (i < len)
         {
+            if (executor != null)
+            {
+                i += compressParallel(in, inOff + i, len - i);
+            }
+
             while (len - i >= B)
             {
                 compress(in, inOff + i, B);
@@ -162,6 +191,47 @@ private void compress(byte[] buf, int offSet, int len)
         nCount++;
     }
 
+    /*
+     * Each block is compressed independently, so the compressions can run concurrently as long as their outputs are
+     * absorbed in order.
+     */
+    private int compressParallel(final byte[] in, final int inOff, int len)
+    {
+        final int outLen = compressorBuffer.length;
+
+        int processed = 0;
+        while (len - processed >= B)
+        {
+            final int blocks = Math.min((len - processed) / B, MAX_PARALLEL_BLOCKS);
+            if (!ParallelLeafHasher.isWorthwhile(blocks, B))
+            {
+                break;
+            }
+
+            final int off = inOff + processed;
+            final byte[] outputs = new byte[blocks * outLen];
+            new ParallelLeafHasher<CSHAKEDigest>(B)
+            {
+                CSHAKEDigest createWorker()
+                {
+                    return new CSHAKEDigest(bitLength, new byte[0], new byte[0]);
+                }
+
+                void hashLeaf(CSHAKEDigest worker, int block)
+                {
+                    worker.update(in, off + block * B, B);
+                    worker.doFinal(outputs, block * outLen, outLen);
+                }
+            }.hashLeaves(executor, blocks);
+
+            cshake.update(outputs, 0, outputs.length);
+            nCount += blocks;
+            processed += blocks * B;
+        }
+
+        return processed;
+    }
+
     private void wrapUp(int outputSize)
     {
         if (bufOff != 0)
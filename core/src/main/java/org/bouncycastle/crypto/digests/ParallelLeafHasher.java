@@ -0,0 +1,89 @@
+package org.bouncycastle.crypto.digests;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.crypto.util.ParallelTasks;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Hashes the independent leaves (chunks) of a tree hash across an {@link Executor}.
+ * <p>
+ * Leaves are handed out in batches from a shared counter, so each worker takes whatever work is left when it
+ * finishes a batch. The calling thread is one of the workers and runs any worker the executor has not started by
+ * the time it is done, so a saturated executor (or one whose own threads are calling in) cannot deadlock.
+ * </p>
+ *
+ * @param <W> the per-worker state, e.g. a leaf digest.
+ */
+abstract class ParallelLeafHasher<W>
+{
+    /**
+     * The (approximate) amount of input handed to a worker at a time.
+     */
+    private static final int BATCH_BYTES = 64 * 1024;
+
+    private final int leavesPerBatch;
+
+    ParallelLeafHasher(int leafLength)
+    {
+        this.leavesPerBatch = Math.max(1, BATCH_BYTES / leafLength);
+    }
+
+    /**
+     * Return true if there are enough leaves of the given length for hashing them across threads to pay off.
+     */
+    static boolean isWorthwhile(long leafCount, int leafLength)
+    {
+        return leafCount >= 2 && leafCount * leafLength >= 2L * BATCH_BYTES;
+    }
+
+    /**
+     * Create the state for a worker; called once per worker thread.
+     */
+    abstract W createWorker();
+
+    /**
+     * Hash the leaf with the passed in index. Distinct leaves may be hashed concurrently.
+     */
+    abstract void hashLeaf(W worker, int leaf);
+
+    /**
+     * Hash leaves 0 to leafCount - 1, returning once all of them are done.
+     */
+    final void hashLeaves(Executor executor, final int leafCount)
+    {
+        final AtomicInteger nextBatch = new AtomicInteger(0);
+        final int batchCount = (leafCount + leavesPerBatch - 1) / leavesPerBatch;
+
+        Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                W state = null;
+
+                int batch;
+                while ((batch = nextBatch.getAndIncrement()) < batchCount)
+                {
+                    if (state == null)
+                    {
+                        state = createWorker();
+                    }
+
+                    int leaf = batch * leavesPerBatch, end = Math.min(leafCount, leaf + leavesPerBatch);
+                    while (leaf < end)
+                    {
+                        hashLeaf(state, leaf++);
+                    }
+                }
+            }
+        };
+
+        int threads = Math.min(batchCount, Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+        Runnable[] tasks = new Runnable[executor == null ? 1 : threads];
+        Arrays.fill(tasks, worker);
+
+        ParallelTasks.runAll(executor, tasks, "hashing leaves");
+    }
+}
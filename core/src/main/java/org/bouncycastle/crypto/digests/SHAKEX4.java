@@ -0,0 +1,221 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Pack;
+
+/**
+ * Four independent SHAKE instances run in step, for callers that need several XOF outputs from inputs of the same
+ * length, such as the matrix and vector expansions in ML-KEM and ML-DSA. Each instance produces exactly the output
+ * of a {@link SHAKEDigest} given the same input, but the four sponges share their position and are absorbed,
+ * permuted, and squeezed together. The states are kept interleaved, lane by lane, so the permutation can work on all
+ * four at once - see KeccakX4.
+ * <p>
+ * Inputs and outputs are passed as arrays of four byte arrays, one per instance. A null entry marks an unused
+ * instance, which absorbs nothing and whose output is discarded. Instances that have been given no input or output
+ * since the last reset may be left out of the permutation.
+ * </p>
+ */
+public class SHAKEX4
+{
+    private static final int STATES = KeccakX4.STATES;
+
+    private final long[] state = new long[25 * STATES];
+    private final int bitStrength;
+    private final int rate;
+
+    private int active;
+    private int position;
+    private boolean squeezing;
+
+    /**
+     * Base constructor.
+     *
+     * @param bitStrength the security strength in bits of the XOF, 128 or 256.
+     */
+    public SHAKEX4(int bitStrength)
+    {
+        switch (bitStrength)
+        {
+        case 128:
+        case 256:
+            break;
+        default:
+            throw new IllegalArgumentException("'bitStrength' " + bitStrength + " not supported for SHAKE");
+        }
+
+        this.bitStrength = bitStrength;
+        this.rate = (1600 - (bitStrength << 1)) >>> 3;
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHAKE" + bitStrength + "x" + STATES;
+    }
+
+    /**
+     * Return the rate of the sponge in bytes, the amount of output produced by each permutation.
+     *
+     * @return the byte length of a block.
+     */
+    public int getByteLength()
+    {
+        return rate;
+    }
+
+    /**
+     * Absorb len bytes from each of the input arrays, starting at inOff in each.
+     *
+     * @param in an array of four input arrays, entries may be null.
+     * @param inOff offset into each input array.
+     * @param len the number of bytes to absorb into each instance.
+     */
+    public void update(byte[][] in, int inOff, int len)
+    {
+        checkLanes(in);
+        if (squeezing)
+        {
+            throw new IllegalStateException("attempt to absorb while squeezing");
+        }
+
+        addActive(in);
+
+        int count = 0;
+        while (count < len)
+        {
+            int chunk = Math.min(len - count, rate - position);
+            for (int j = 0; j < STATES; j++)
+            {
+                if (in[j] != null)
+                {
+                    byte[] buf = in[j];
+                    int pos = position, off = inOff + count, end = position + chunk;
+                    while (pos < end)
+                    {
+                        if ((pos & 7) == 0 && end - pos >= 8)
+                        {
+                            state[((pos >>> 3) << 2) + j] ^= Pack.littleEndianToLong(buf, off);
+                            pos += 8;
+                            off += 8;
+                        }
+                        else
+                        {
+                            state[((pos >>> 3) << 2) + j] ^= (buf[off++] & 0xFFL) << ((pos & 7) << 3);
+                            pos++;
+                        }
+                    }
+                }
+            }
+
+            count += chunk;
+            if ((position += chunk) == rate)
+            {
+                permute();
+                position = 0;
+            }
+        }
+    }
+
+    /**
+     * Squeeze outLen bytes of output from each instance into the output arrays, starting at outOff in each. Output can
+     * be requested repeatedly, each call continuing the XOF output of the previous one.
+     *
+     * @param out an array of four output arrays, entries may be null.
+     * @param outOff offset into each output array.
+     * @param outLen the number of bytes to produce from each instance.
+     */
+    public void doOutput(byte[][] out, int outOff, int outLen)
+    {
+        checkLanes(out);
+        if (!squeezing)
+        {
+            addActive(out);
+            padAndSwitchToSqueezingPhase();
+        }
+
+        int count = 0;
+        while (count < outLen)
+        {
+            if (position == rate)
+            {
+                permute();
+                position = 0;
+            }
+
+            int chunk = Math.min(outLen - count, rate - position);
+            for (int j = 0; j < STATES; j++)
+            {
+                if (out[j] != null)
+                {
+                    byte[] buf = out[j];
+                    int pos = position, off = outOff + count, end = position + chunk;
+                    while (pos < end)
+                    {
+                        if ((pos & 7) == 0 && end - pos >= 8)
+                        {
+                            Pack.longToLittleEndian(state[((pos >>> 3) << 2) + j], buf, off);
+                            pos += 8;
+                            off += 8;
+                        }
+                        else
+                        {
+                            buf[off++] = (byte)(state[((pos >>> 3) << 2) + j] >>> ((pos & 7) << 3));
+                            pos++;
+                        }
+                    }
+                }
+            }
+
+            count += chunk;
+            position += chunk;
+        }
+    }
+
+    /**
+     * Reset all four instances to their initial state.
+     */
+    public void reset()
+    {
+        Arrays.fill(state, 0L);
+        active = 0;
+        position = 0;
+        squeezing = false;
+    }
+
+    private void addActive(byte[][] bufs)
+    {
+        for (int j = 0; j < STATES; j++)
+        {
+            if (bufs[j] != null)
+            {
+                active |= 1 << j;
+            }
+        }
+    }
+
+    private void padAndSwitchToSqueezingPhase()
+    {
+        for (int j = 0; j < STATES; j++)
+        {
+            // SHAKE domain separation bits and the first bit of the pad10*1 padding, then its last bit
+            state[((position >>> 3) << 2) + j] ^= 0x1FL << ((position & 7) << 3);
+            state[(((rate - 1) >>> 3) << 2) + j] ^= 1L << 63;
+        }
+
+        permute();
+        position = 0;
+        squeezing = true;
+    }
+
+    private void permute()
+    {
+        KeccakX4Kernels.permute(state, active);
+    }
+
+    private static void checkLanes(byte[][] bufs)
+    {
+        if (bufs.length != STATES)
+        {
+            throw new IllegalArgumentException("expected " + STATES + " buffers, got " + bufs.length);
+        }
+    }
+}
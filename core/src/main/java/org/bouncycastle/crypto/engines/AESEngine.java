@@ -512,6 +512,67 @@ public int processBlock(byte[] in, int inOff, byte[] out, int outOff)
         return BLOCK_SIZE;
     }
 
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (WorkingKey == null)
+        {
+            throw new IllegalStateException("AES engine not initialised");
+        }
+
+        if (blockCount < 0 || blockCount > (in.length - inOff) / BLOCK_SIZE)
+        {
+            throw new DataLengthException("input buffer too short");
+        }
+
+        if (blockCount > (out.length - outOff) / BLOCK_SIZE)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        int len = blockCount * BLOCK_SIZE;
+
+        // groups of four blocks are interleaved so their table lookups can overlap
+        int[][] KW = WorkingKey;
+        int remaining = blockCount;
+        if (forEncryption)
+        {
+            while (remaining >= 4)
+            {
+                encryptBlocks4(in, inOff, out, outOff, KW);
+                inOff += 4 * BLOCK_SIZE;
+                outOff += 4 * BLOCK_SIZE;
+                remaining -= 4;
+            }
+            while (remaining > 0)
+            {
+                encryptBlock(in, inOff, out, outOff, KW);
+                inOff += BLOCK_SIZE;
+                outOff += BLOCK_SIZE;
+                --remaining;
+            }
+        }
+        else
+        {
+            while (remaining >= 4)
+            {
+                decryptBlocks4(in, inOff, out, outOff, KW);
+                inOff += 4 * BLOCK_SIZE;
+                outOff += 4 * BLOCK_SIZE;
+                remaining -= 4;
+            }
+            while (remaining > 0)
+            {
+                decryptBlock(in, inOff, out, outOff, KW);
+                inOff += BLOCK_SIZE;
+                outOff += BLOCK_SIZE;
+                --remaining;
+            }
+        }
+
+        return len;
+    }
+
     public void reset()
     {
     }
@@ -600,6 +661,236 @@ private void decryptBlock(byte[] in, int inOff, byte[] out, int outOff, int[][]
         Pack.intToLittleEndian(C3, out, outOff + 12);
     }
 
+    private void encryptBlocks4(byte[] in, int inOff, byte[] out, int outOff, int[][] KW)
+    {
+        int[] kw = KW[0];
+        int a0 = Pack.littleEndianToInt(in, inOff +  0) ^ kw[0];
+        int a1 = Pack.littleEndianToInt(in, inOff +  4) ^ kw[1];
+        int a2 = Pack.littleEndianToInt(in, inOff +  8) ^ kw[2];
+        int a3 = Pack.littleEndianToInt(in, inOff + 12) ^ kw[3];
+        int b0 = Pack.littleEndianToInt(in, inOff + 16) ^ kw[0];
+        int b1 = Pack.littleEndianToInt(in, inOff + 20) ^ kw[1];
+        int b2 = Pack.littleEndianToInt(in, inOff + 24) ^ kw[2];
+        int b3 = Pack.littleEndianToInt(in, inOff + 28) ^ kw[3];
+        int c0 = Pack.littleEndianToInt(in, inOff + 32) ^ kw[0];
+        int c1 = Pack.littleEndianToInt(in, inOff + 36) ^ kw[1];
+        int c2 = Pack.littleEndianToInt(in, inOff + 40) ^ kw[2];
+        int c3 = Pack.littleEndianToInt(in, inOff + 44) ^ kw[3];
+        int d0 = Pack.littleEndianToInt(in, inOff + 48) ^ kw[0];
+        int d1 = Pack.littleEndianToInt(in, inOff + 52) ^ kw[1];
+        int d2 = Pack.littleEndianToInt(in, inOff + 56) ^ kw[2];
+        int d3 = Pack.littleEndianToInt(in, inOff + 60) ^ kw[3];
+
+        int e0, e1, e2, e3, f0, f1, f2, f3, g0, g1, g2, g3, h0, h1, h2, h3;
+
+        int r = 1;
+        while (r < ROUNDS - 1)
+        {
+            kw = KW[r++];
+            e0 = T0[a0&255] ^ shift(T0[(a1>>8)&255], 24) ^ shift(T0[(a2>>16)&255], 16) ^ shift(T0[(a3>>24)&255], 8) ^ kw[0];
+            e1 = T0[a1&255] ^ shift(T0[(a2>>8)&255], 24) ^ shift(T0[(a3>>16)&255], 16) ^ shift(T0[(a0>>24)&255], 8) ^ kw[1];
+            e2 = T0[a2&255] ^ shift(T0[(a3>>8)&255], 24) ^ shift(T0[(a0>>16)&255], 16) ^ shift(T0[(a1>>24)&255], 8) ^ kw[2];
+            e3 = T0[a3&255] ^ shift(T0[(a0>>8)&255], 24) ^ shift(T0[(a1>>16)&255], 16) ^ shift(T0[(a2>>24)&255], 8) ^ kw[3];
+            f0 = T0[b0&255] ^ shift(T0[(b1>>8)&255], 24) ^ shift(T0[(b2>>16)&255], 16) ^ shift(T0[(b3>>24)&255], 8) ^ kw[0];
+            f1 = T0[b1&255] ^ shift(T0[(b2>>8)&255], 24) ^ shift(T0[(b3>>16)&255], 16) ^ shift(T0[(b0>>24)&255], 8) ^ kw[1];
+            f2 = T0[b2&255] ^ shift(T0[(b3>>8)&255], 24) ^ shift(T0[(b0>>16)&255], 16) ^ shift(T0[(b1>>24)&255], 8) ^ kw[2];
+            f3 = T0[b3&255] ^ shift(T0[(b0>>8)&255], 24) ^ shift(T0[(b1>>16)&255], 16) ^ shift(T0[(b2>>24)&255], 8) ^ kw[3];
+            g0 = T0[c0&255] ^ shift(T0[(c1>>8)&255], 24) ^ shift(T0[(c2>>16)&255], 16) ^ shift(T0[(c3>>24)&255], 8) ^ kw[0];
+            g1 = T0[c1&255] ^ shift(T0[(c2>>8)&255], 24) ^ shift(T0[(c3>>16)&255], 16) ^ shift(T0[(c0>>24)&255], 8) ^ kw[1];
+            g2 = T0[c2&255] ^ shift(T0[(c3>>8)&255], 24) ^ shift(T0[(c0>>16)&255], 16) ^ shift(T0[(c1>>24)&255], 8) ^ kw[2];
+            g3 = T0[c3&255] ^ shift(T0[(c0>>8)&255], 24) ^ shift(T0[(c1>>16)&255], 16) ^ shift(T0[(c2>>24)&255], 8) ^ kw[3];
+            h0 = T0[d0&255] ^ shift(T0[(d1>>8)&255], 24) ^ shift(T0[(d2>>16)&255], 16) ^ shift(T0[(d3>>24)&255], 8) ^ kw[0];
+            h1 = T0[d1&255] ^ shift(T0[(d2>>8)&255], 24) ^ shift(T0[(d3>>16)&255], 16) ^ shift(T0[(d0>>24)&255], 8) ^ kw[1];
+            h2 = T0[d2&255] ^ shift(T0[(d3>>8)&255], 24) ^ shift(T0[(d0>>16)&255], 16) ^ shift(T0[(d1>>24)&255], 8) ^ kw[2];
+            h3 = T0[d3&255] ^ shift(T0[(d0>>8)&255], 24) ^ shift(T0[(d1>>16)&255], 16) ^ shift(T0[(d2>>24)&255], 8) ^ kw[3];
+            kw = KW[r++];
+            a0 = T0[e0&255] ^ shift(T0[(e1>>8)&255], 24) ^ shift(T0[(e2>>16)&255], 16) ^ shift(T0[(e3>>24)&255], 8) ^ kw[0];
+            a1 = T0[e1&255] ^ shift(T0[(e2>>8)&255], 24) ^ shift(T0[(e3>>16)&255], 16) ^ shift(T0[(e0>>24)&255], 8) ^ kw[1];
+            a2 = T0[e2&255] ^ shift(T0[(e3>>8)&255], 24) ^ shift(T0[(e0>>16)&255], 16) ^ shift(T0[(e1>>24)&255], 8) ^ kw[2];
+            a3 = T0[e3&255] ^ shift(T0[(e0>>8)&255], 24) ^ shift(T0[(e1>>16)&255], 16) ^ shift(T0[(e2>>24)&255], 8) ^ kw[3];
+            b0 = T0[f0&255] ^ shift(T0[(f1>>8)&255], 24) ^ shift(T0[(f2>>16)&255], 16) ^ shift(T0[(f3>>24)&255], 8) ^ kw[0];
+            b1 = T0[f1&255] ^ shift(T0[(f2>>8)&255], 24) ^ shift(T0[(f3>>16)&255], 16) ^ shift(T0[(f0>>24)&255], 8) ^ kw[1];
+            b2 = T0[f2&255] ^ shift(T0[(f3>>8)&255], 24) ^ shift(T0[(f0>>16)&255], 16) ^ shift(T0[(f1>>24)&255], 8) ^ kw[2];
+            b3 = T0[f3&255] ^ shift(T0[(f0>>8)&255], 24) ^ shift(T0[(f1>>16)&255], 16) ^ shift(T0[(f2>>24)&255], 8) ^ kw[3];
+            c0 = T0[g0&255] ^ shift(T0[(g1>>8)&255], 24) ^ shift(T0[(g2>>16)&255], 16) ^ shift(T0[(g3>>24)&255], 8) ^ kw[0];
+            c1 = T0[g1&255] ^ shift(T0[(g2>>8)&255], 24) ^ shift(T0[(g3>>16)&255], 16) ^ shift(T0[(g0>>24)&255], 8) ^ kw[1];
+            c2 = T0[g2&255] ^ shift(T0[(g3>>8)&255], 24) ^ shift(T0[(g0>>16)&255], 16) ^ shift(T0[(g1>>24)&255], 8) ^ kw[2];
+            c3 = T0[g3&255] ^ shift(T0[(g0>>8)&255], 24) ^ shift(T0[(g1>>16)&255], 16) ^ shift(T0[(g2>>24)&255], 8) ^ kw[3];
+            d0 = T0[h0&255] ^ shift(T0[(h1>>8)&255], 24) ^ shift(T0[(h2>>16)&255], 16) ^ shift(T0[(h3>>24)&255], 8) ^ kw[0];
+            d1 = T0[h1&255] ^ shift(T0[(h2>>8)&255], 24) ^ shift(T0[(h3>>16)&255], 16) ^ shift(T0[(h0>>24)&255], 8) ^ kw[1];
+            d2 = T0[h2&255] ^ shift(T0[(h3>>8)&255], 24) ^ shift(T0[(h0>>16)&255], 16) ^ shift(T0[(h1>>24)&255], 8) ^ kw[2];
+            d3 = T0[h3&255] ^ shift(T0[(h0>>8)&255], 24) ^ shift(T0[(h1>>16)&255], 16) ^ shift(T0[(h2>>24)&255], 8) ^ kw[3];
+        }
+
+        kw = KW[r];
+        e0 = T0[a0&255] ^ shift(T0[(a1>>8)&255], 24) ^ shift(T0[(a2>>16)&255], 16) ^ shift(T0[(a3>>24)&255], 8) ^ kw[0];
+        e1 = T0[a1&255] ^ shift(T0[(a2>>8)&255], 24) ^ shift(T0[(a3>>16)&255], 16) ^ shift(T0[(a0>>24)&255], 8) ^ kw[1];
+        e2 = T0[a2&255] ^ shift(T0[(a3>>8)&255], 24) ^ shift(T0[(a0>>16)&255], 16) ^ shift(T0[(a1>>24)&255], 8) ^ kw[2];
+        e3 = T0[a3&255] ^ shift(T0[(a0>>8)&255], 24) ^ shift(T0[(a1>>16)&255], 16) ^ shift(T0[(a2>>24)&255], 8) ^ kw[3];
+        f0 = T0[b0&255] ^ shift(T0[(b1>>8)&255], 24) ^ shift(T0[(b2>>16)&255], 16) ^ shift(T0[(b3>>24)&255], 8) ^ kw[0];
+        f1 = T0[b1&255] ^ shift(T0[(b2>>8)&255], 24) ^ shift(T0[(b3>>16)&255], 16) ^ shift(T0[(b0>>24)&255], 8) ^ kw[1];
+        f2 = T0[b2&255] ^ shift(T0[(b3>>8)&255], 24) ^ shift(T0[(b0>>16)&255], 16) ^ shift(T0[(b1>>24)&255], 8) ^ kw[2];
+        f3 = T0[b3&255] ^ shift(T0[(b0>>8)&255], 24) ^ shift(T0[(b1>>16)&255], 16) ^ shift(T0[(b2>>24)&255], 8) ^ kw[3];
+        g0 = T0[c0&255] ^ shift(T0[(c1>>8)&255], 24) ^ shift(T0[(c2>>16)&255], 16) ^ shift(T0[(c3>>24)&255], 8) ^ kw[0];
+        g1 = T0[c1&255] ^ shift(T0[(c2>>8)&255], 24) ^ shift(T0[(c3>>16)&255], 16) ^ shift(T0[(c0>>24)&255], 8) ^ kw[1];
+        g2 = T0[c2&255] ^ shift(T0[(c3>>8)&255], 24) ^ shift(T0[(c0>>16)&255], 16) ^ shift(T0[(c1>>24)&255], 8) ^ kw[2];
+        g3 = T0[c3&255] ^ shift(T0[(c0>>8)&255], 24) ^ shift(T0[(c1>>16)&255], 16) ^ shift(T0[(c2>>24)&255], 8) ^ kw[3];
+        h0 = T0[d0&255] ^ shift(T0[(d1>>8)&255], 24) ^ shift(T0[(d2>>16)&255], 16) ^ shift(T0[(d3>>24)&255], 8) ^ kw[0];
+        h1 = T0[d1&255] ^ shift(T0[(d2>>8)&255], 24) ^ shift(T0[(d3>>16)&255], 16) ^ shift(T0[(d0>>24)&255], 8) ^ kw[1];
+        h2 = T0[d2&255] ^ shift(T0[(d3>>8)&255], 24) ^ shift(T0[(d0>>16)&255], 16) ^ shift(T0[(d1>>24)&255], 8) ^ kw[2];
+        h3 = T0[d3&255] ^ shift(T0[(d0>>8)&255], 24) ^ shift(T0[(d1>>16)&255], 16) ^ shift(T0[(d2>>24)&255], 8) ^ kw[3];
+
+        kw = KW[ROUNDS];
+        int C00 = (S[e0&255]&255) ^ ((S[(e1>>8)&255]&255)<<8) ^ ((s[(e2>>16)&255]&255)<<16) ^ (s[(e3>>24)&255]<<24) ^ kw[0];
+        int C01 = (s[e1&255]&255) ^ ((S[(e2>>8)&255]&255)<<8) ^ ((S[(e3>>16)&255]&255)<<16) ^ (s[(e0>>24)&255]<<24) ^ kw[1];
+        int C02 = (s[e2&255]&255) ^ ((S[(e3>>8)&255]&255)<<8) ^ ((S[(e0>>16)&255]&255)<<16) ^ (S[(e1>>24)&255]<<24) ^ kw[2];
+        int C03 = (s[e3&255]&255) ^ ((s[(e0>>8)&255]&255)<<8) ^ ((s[(e1>>16)&255]&255)<<16) ^ (S[(e2>>24)&255]<<24) ^ kw[3];
+        int C10 = (S[f0&255]&255) ^ ((S[(f1>>8)&255]&255)<<8) ^ ((s[(f2>>16)&255]&255)<<16) ^ (s[(f3>>24)&255]<<24) ^ kw[0];
+        int C11 = (s[f1&255]&255) ^ ((S[(f2>>8)&255]&255)<<8) ^ ((S[(f3>>16)&255]&255)<<16) ^ (s[(f0>>24)&255]<<24) ^ kw[1];
+        int C12 = (s[f2&255]&255) ^ ((S[(f3>>8)&255]&255)<<8) ^ ((S[(f0>>16)&255]&255)<<16) ^ (S[(f1>>24)&255]<<24) ^ kw[2];
+        int C13 = (s[f3&255]&255) ^ ((s[(f0>>8)&255]&255)<<8) ^ ((s[(f1>>16)&255]&255)<<16) ^ (S[(f2>>24)&255]<<24) ^ kw[3];
+        int C20 = (S[g0&255]&255) ^ ((S[(g1>>8)&255]&255)<<8) ^ ((s[(g2>>16)&255]&255)<<16) ^ (s[(g3>>24)&255]<<24) ^ kw[0];
+        int C21 = (s[g1&255]&255) ^ ((S[(g2>>8)&255]&255)<<8) ^ ((S[(g3>>16)&255]&255)<<16) ^ (s[(g0>>24)&255]<<24) ^ kw[1];
+        int C22 = (s[g2&255]&255) ^ ((S[(g3>>8)&255]&255)<<8) ^ ((S[(g0>>16)&255]&255)<<16) ^ (S[(g1>>24)&255]<<24) ^ kw[2];
+        int C23 = (s[g3&255]&255) ^ ((s[(g0>>8)&255]&255)<<8) ^ ((s[(g1>>16)&255]&255)<<16) ^ (S[(g2>>24)&255]<<24) ^ kw[3];
+        int C30 = (S[h0&255]&255) ^ ((S[(h1>>8)&255]&255)<<8) ^ ((s[(h2>>16)&255]&255)<<16) ^ (s[(h3>>24)&255]<<24) ^ kw[0];
+        int C31 = (s[h1&255]&255) ^ ((S[(h2>>8)&255]&255)<<8) ^ ((S[(h3>>16)&255]&255)<<16) ^ (s[(h0>>24)&255]<<24) ^ kw[1];
+        int C32 = (s[h2&255]&255) ^ ((S[(h3>>8)&255]&255)<<8) ^ ((S[(h0>>16)&255]&255)<<16) ^ (S[(h1>>24)&255]<<24) ^ kw[2];
+        int C33 = (s[h3&255]&255) ^ ((s[(h0>>8)&255]&255)<<8) ^ ((s[(h1>>16)&255]&255)<<16) ^ (S[(h2>>24)&255]<<24) ^ kw[3];
+
+        Pack.intToLittleEndian(C00, out, outOff +  0);
+        Pack.intToLittleEndian(C01, out, outOff +  4);
+        Pack.intToLittleEndian(C02, out, outOff +  8);
+        Pack.intToLittleEndian(C03, out, outOff + 12);
+        Pack.intToLittleEndian(C10, out, outOff + 16);
+        Pack.intToLittleEndian(C11, out, outOff + 20);
+        Pack.intToLittleEndian(C12, out, outOff + 24);
+        Pack.intToLittleEndian(C13, out, outOff + 28);
+        Pack.intToLittleEndian(C20, out, outOff + 32);
+        Pack.intToLittleEndian(C21, out, outOff + 36);
+        Pack.intToLittleEndian(C22, out, outOff + 40);
+        Pack.intToLittleEndian(C23, out, outOff + 44);
+        Pack.intToLittleEndian(C30, out, outOff + 48);
+        Pack.intToLittleEndian(C31, out, outOff + 52);
+        Pack.intToLittleEndian(C32, out, outOff + 56);
+        Pack.intToLittleEndian(C33, out, outOff + 60);
+    }
+
+    private void decryptBlocks4(byte[] in, int inOff, byte[] out, int outOff, int[][] KW)
+    {
+        int[] kw = KW[ROUNDS];
+        int a0 = Pack.littleEndianToInt(in, inOff +  0) ^ kw[0];
+        int a1 = Pack.littleEndianToInt(in, inOff +  4) ^ kw[1];
+        int a2 = Pack.littleEndianToInt(in, inOff +  8) ^ kw[2];
+        int a3 = Pack.littleEndianToInt(in, inOff + 12) ^ kw[3];
+        int b0 = Pack.littleEndianToInt(in, inOff + 16) ^ kw[0];
+        int b1 = Pack.littleEndianToInt(in, inOff + 20) ^ kw[1];
+        int b2 = Pack.littleEndianToInt(in, inOff + 24) ^ kw[2];
+        int b3 = Pack.littleEndianToInt(in, inOff + 28) ^ kw[3];
+        int c0 = Pack.littleEndianToInt(in, inOff + 32) ^ kw[0];
+        int c1 = Pack.littleEndianToInt(in, inOff + 36) ^ kw[1];
+        int c2 = Pack.littleEndianToInt(in, inOff + 40) ^ kw[2];
+        int c3 = Pack.littleEndianToInt(in, inOff + 44) ^ kw[3];
+        int d0 = Pack.littleEndianToInt(in, inOff + 48) ^ kw[0];
+        int d1 = Pack.littleEndianToInt(in, inOff + 52) ^ kw[1];
+        int d2 = Pack.littleEndianToInt(in, inOff + 56) ^ kw[2];
+        int d3 = Pack.littleEndianToInt(in, inOff + 60) ^ kw[3];
+
+        int e0, e1, e2, e3, f0, f1, f2, f3, g0, g1, g2, g3, h0, h1, h2, h3;
+
+        int r = ROUNDS - 1;
+        while (r > 1)
+        {
+            kw = KW[r--];
+            e0 = Tinv0[a0&255] ^ shift(Tinv0[(a3>>8)&255], 24) ^ shift(Tinv0[(a2>>16)&255], 16) ^ shift(Tinv0[(a1>>24)&255], 8) ^ kw[0];
+            e1 = Tinv0[a1&255] ^ shift(Tinv0[(a0>>8)&255], 24) ^ shift(Tinv0[(a3>>16)&255], 16) ^ shift(Tinv0[(a2>>24)&255], 8) ^ kw[1];
+            e2 = Tinv0[a2&255] ^ shift(Tinv0[(a1>>8)&255], 24) ^ shift(Tinv0[(a0>>16)&255], 16) ^ shift(Tinv0[(a3>>24)&255], 8) ^ kw[2];
+            e3 = Tinv0[a3&255] ^ shift(Tinv0[(a2>>8)&255], 24) ^ shift(Tinv0[(a1>>16)&255], 16) ^ shift(Tinv0[(a0>>24)&255], 8) ^ kw[3];
+            f0 = Tinv0[b0&255] ^ shift(Tinv0[(b3>>8)&255], 24) ^ shift(Tinv0[(b2>>16)&255], 16) ^ shift(Tinv0[(b1>>24)&255], 8) ^ kw[0];
+            f1 = Tinv0[b1&255] ^ shift(Tinv0[(b0>>8)&255], 24) ^ shift(Tinv0[(b3>>16)&255], 16) ^ shift(Tinv0[(b2>>24)&255], 8) ^ kw[1];
+            f2 = Tinv0[b2&255] ^ shift(Tinv0[(b1>>8)&255], 24) ^ shift(Tinv0[(b0>>16)&255], 16) ^ shift(Tinv0[(b3>>24)&255], 8) ^ kw[2];
+            f3 = Tinv0[b3&255] ^ shift(Tinv0[(b2>>8)&255], 24) ^ shift(Tinv0[(b1>>16)&255], 16) ^ shift(Tinv0[(b0>>24)&255], 8) ^ kw[3];
+            g0 = Tinv0[c0&255] ^ shift(Tinv0[(c3>>8)&255], 24) ^ shift(Tinv0[(c2>>16)&255], 16) ^ shift(Tinv0[(c1>>24)&255], 8) ^ kw[0];
+            g1 = Tinv0[c1&255] ^ shift(Tinv0[(c0>>8)&255], 24) ^ shift(Tinv0[(c3>>16)&255], 16) ^ shift(Tinv0[(c2>>24)&255], 8) ^ kw[1];
+            g2 = Tinv0[c2&255] ^ shift(Tinv0[(c1>>8)&255], 24) ^ shift(Tinv0[(c0>>16)&255], 16) ^ shift(Tinv0[(c3>>24)&255], 8) ^ kw[2];
+            g3 = Tinv0[c3&255] ^ shift(Tinv0[(c2>>8)&255], 24) ^ shift(Tinv0[(c1>>16)&255], 16) ^ shift(Tinv0[(c0>>24)&255], 8) ^ kw[3];
+            h0 = Tinv0[d0&255] ^ shift(Tinv0[(d3>>8)&255], 24) ^ shift(Tinv0[(d2>>16)&255], 16) ^ shift(Tinv0[(d1>>24)&255], 8) ^ kw[0];
+            h1 = Tinv0[d1&255] ^ shift(Tinv0[(d0>>8)&255], 24) ^ shift(Tinv0[(d3>>16)&255], 16) ^ shift(Tinv0[(d2>>24)&255], 8) ^ kw[1];
+            h2 = Tinv0[d2&255] ^ shift(Tinv0[(d1>>8)&255], 24) ^ shift(Tinv0[(d0>>16)&255], 16) ^ shift(Tinv0[(d3>>24)&255], 8) ^ kw[2];
+            h3 = Tinv0[d3&255] ^ shift(Tinv0[(d2>>8)&255], 24) ^ shift(Tinv0[(d1>>16)&255], 16) ^ shift(Tinv0[(d0>>24)&255], 8) ^ kw[3];
+            kw = KW[r--];
+            a0 = Tinv0[e0&255] ^ shift(Tinv0[(e3>>8)&255], 24) ^ shift(Tinv0[(e2>>16)&255], 16) ^ shift(Tinv0[(e1>>24)&255], 8) ^ kw[0];
+            a1 = Tinv0[e1&255] ^ shift(Tinv0[(e0>>8)&255], 24) ^ shift(Tinv0[(e3>>16)&255], 16) ^ shift(Tinv0[(e2>>24)&255], 8) ^ kw[1];
+            a2 = Tinv0[e2&255] ^ shift(Tinv0[(e1>>8)&255], 24) ^ shift(Tinv0[(e0>>16)&255], 16) ^ shift(Tinv0[(e3>>24)&255], 8) ^ kw[2];
+            a3 = Tinv0[e3&255] ^ shift(Tinv0[(e2>>8)&255], 24) ^ shift(Tinv0[(e1>>16)&255], 16) ^ shift(Tinv0[(e0>>24)&255], 8) ^ kw[3];
+            b0 = Tinv0[f0&255] ^ shift(Tinv0[(f3>>8)&255], 24) ^ shift(Tinv0[(f2>>16)&255], 16) ^ shift(Tinv0[(f1>>24)&255], 8) ^ kw[0];
+            b1 = Tinv0[f1&255] ^ shift(Tinv0[(f0>>8)&255], 24) ^ shift(Tinv0[(f3>>16)&255], 16) ^ shift(Tinv0[(f2>>24)&255], 8) ^ kw[1];
+            b2 = Tinv0[f2&255] ^ shift(Tinv0[(f1>>8)&255], 24) ^ shift(Tinv0[(f0>>16)&255], 16) ^ shift(Tinv0[(f3>>24)&255], 8) ^ kw[2];
+            b3 = Tinv0[f3&255] ^ shift(Tinv0[(f2>>8)&255], 24) ^ shift(Tinv0[(f1>>16)&255], 16) ^ shift(Tinv0[(f0>>24)&255], 8) ^ kw[3];
+            c0 = Tinv0[g0&255] ^ shift(Tinv0[(g3>>8)&255], 24) ^ shift(Tinv0[(g2>>16)&255], 16) ^ shift(Tinv0[(g1>>24)&255], 8) ^ kw[0];
+            c1 = Tinv0[g1&255] ^ shift(Tinv0[(g0>>8)&255], 24) ^ shift(Tinv0[(g3>>16)&255], 16) ^ shift(Tinv0[(g2>>24)&255], 8) ^ kw[1];
+            c2 = Tinv0[g2&255] ^ shift(Tinv0[(g1>>8)&255], 24) ^ shift(Tinv0[(g0>>16)&255], 16) ^ shift(Tinv0[(g3>>24)&255], 8) ^ kw[2];
+            c3 = Tinv0[g3&255] ^ shift(Tinv0[(g2>>8)&255], 24) ^ shift(Tinv0[(g1>>16)&255], 16) ^ shift(Tinv0[(g0>>24)&255], 8) ^ kw[3];
+            d0 = Tinv0[h0&255] ^ shift(Tinv0[(h3>>8)&255], 24) ^ shift(Tinv0[(h2>>16)&255], 16) ^ shift(Tinv0[(h1>>24)&255], 8) ^ kw[0];
+            d1 = Tinv0[h1&255] ^ shift(Tinv0[(h0>>8)&255], 24) ^ shift(Tinv0[(h3>>16)&255], 16) ^ shift(Tinv0[(h2>>24)&255], 8) ^ kw[1];
+            d2 = Tinv0[h2&255] ^ shift(Tinv0[(h1>>8)&255], 24) ^ shift(Tinv0[(h0>>16)&255], 16) ^ shift(Tinv0[(h3>>24)&255], 8) ^ kw[2];
+            d3 = Tinv0[h3&255] ^ shift(Tinv0[(h2>>8)&255], 24) ^ shift(Tinv0[(h1>>16)&255], 16) ^ shift(Tinv0[(h0>>24)&255], 8) ^ kw[3];
+        }
+
+        kw = KW[r];
+        e0 = Tinv0[a0&255] ^ shift(Tinv0[(a3>>8)&255], 24) ^ shift(Tinv0[(a2>>16)&255], 16) ^ shift(Tinv0[(a1>>24)&255], 8) ^ kw[0];
+        e1 = Tinv0[a1&255] ^ shift(Tinv0[(a0>>8)&255], 24) ^ shift(Tinv0[(a3>>16)&255], 16) ^ shift(Tinv0[(a2>>24)&255], 8) ^ kw[1];
+        e2 = Tinv0[a2&255] ^ shift(Tinv0[(a1>>8)&255], 24) ^ shift(Tinv0[(a0>>16)&255], 16) ^ shift(Tinv0[(a3>>24)&255], 8) ^ kw[2];
+        e3 = Tinv0[a3&255] ^ shift(Tinv0[(a2>>8)&255], 24) ^ shift(Tinv0[(a1>>16)&255], 16) ^ shift(Tinv0[(a0>>24)&255], 8) ^ kw[3];
+        f0 = Tinv0[b0&255] ^ shift(Tinv0[(b3>>8)&255], 24) ^ shift(Tinv0[(b2>>16)&255], 16) ^ shift(Tinv0[(b1>>24)&255], 8) ^ kw[0];
+        f1 = Tinv0[b1&255] ^ shift(Tinv0[(b0>>8)&255], 24) ^ shift(Tinv0[(b3>>16)&255], 16) ^ shift(Tinv0[(b2>>24)&255], 8) ^ kw[1];
+        f2 = Tinv0[b2&255] ^ shift(Tinv0[(b1>>8)&255], 24) ^ shift(Tinv0[(b0>>16)&255], 16) ^ shift(Tinv0[(b3>>24)&255], 8) ^ kw[2];
+        f3 = Tinv0[b3&255] ^ shift(Tinv0[(b2>>8)&255], 24) ^ shift(Tinv0[(b1>>16)&255], 16) ^ shift(Tinv0[(b0>>24)&255], 8) ^ kw[3];
+        g0 = Tinv0[c0&255] ^ shift(Tinv0[(c3>>8)&255], 24) ^ shift(Tinv0[(c2>>16)&255], 16) ^ shift(Tinv0[(c1>>24)&255], 8) ^ kw[0];
+        g1 = Tinv0[c1&255] ^ shift(Tinv0[(c0>>8)&255], 24) ^ shift(Tinv0[(c3>>16)&255], 16) ^ shift(Tinv0[(c2>>24)&255], 8) ^ kw[1];
+        g2 = Tinv0[c2&255] ^ shift(Tinv0[(c1>>8)&255], 24) ^ shift(Tinv0[(c0>>16)&255], 16) ^ shift(Tinv0[(c3>>24)&255], 8) ^ kw[2];
+        g3 = Tinv0[c3&255] ^ shift(Tinv0[(c2>>8)&255], 24) ^ shift(Tinv0[(c1>>16)&255], 16) ^ shift(Tinv0[(c0>>24)&255], 8) ^ kw[3];
+        h0 = Tinv0[d0&255] ^ shift(Tinv0[(d3>>8)&255], 24) ^ shift(Tinv0[(d2>>16)&255], 16) ^ shift(Tinv0[(d1>>24)&255], 8) ^ kw[0];
+        h1 = Tinv0[d1&255] ^ shift(Tinv0[(d0>>8)&255], 24) ^ shift(Tinv0[(d3>>16)&255], 16) ^ shift(Tinv0[(d2>>24)&255], 8) ^ kw[1];
+        h2 = Tinv0[d2&255] ^ shift(Tinv0[(d1>>8)&255], 24) ^ shift(Tinv0[(d0>>16)&255], 16) ^ shift(Tinv0[(d3>>24)&255], 8) ^ kw[2];
+        h3 = Tinv0[d3&255] ^ shift(Tinv0[(d2>>8)&255], 24) ^ shift(Tinv0[(d1>>16)&255], 16) ^ shift(Tinv0[(d0>>24)&255], 8) ^ kw[3];
+
+        kw = KW[0];
+        int C00 = (Si[e0&255]&255) ^ ((s[(e3>>8)&255]&255)<<8) ^ ((s[(e2>>16)&255]&255)<<16) ^ (Si[(e1>>24)&255]<<24) ^ kw[0];
+        int C01 = (s[e1&255]&255) ^ ((s[(e0>>8)&255]&255)<<8) ^ ((Si[(e3>>16)&255]&255)<<16) ^ (s[(e2>>24)&255]<<24) ^ kw[1];
+        int C02 = (s[e2&255]&255) ^ ((Si[(e1>>8)&255]&255)<<8) ^ ((Si[(e0>>16)&255]&255)<<16) ^ (s[(e3>>24)&255]<<24) ^ kw[2];
+        int C03 = (Si[e3&255]&255) ^ ((s[(e2>>8)&255]&255)<<8) ^ ((s[(e1>>16)&255]&255)<<16) ^ (s[(e0>>24)&255]<<24) ^ kw[3];
+        int C10 = (Si[f0&255]&255) ^ ((s[(f3>>8)&255]&255)<<8) ^ ((s[(f2>>16)&255]&255)<<16) ^ (Si[(f1>>24)&255]<<24) ^ kw[0];
+        int C11 = (s[f1&255]&255) ^ ((s[(f0>>8)&255]&255)<<8) ^ ((Si[(f3>>16)&255]&255)<<16) ^ (s[(f2>>24)&255]<<24) ^ kw[1];
+        int C12 = (s[f2&255]&255) ^ ((Si[(f1>>8)&255]&255)<<8) ^ ((Si[(f0>>16)&255]&255)<<16) ^ (s[(f3>>24)&255]<<24) ^ kw[2];
+        int C13 = (Si[f3&255]&255) ^ ((s[(f2>>8)&255]&255)<<8) ^ ((s[(f1>>16)&255]&255)<<16) ^ (s[(f0>>24)&255]<<24) ^ kw[3];
+        int C20 = (Si[g0&255]&255) ^ ((s[(g3>>8)&255]&255)<<8) ^ ((s[(g2>>16)&255]&255)<<16) ^ (Si[(g1>>24)&255]<<24) ^ kw[0];
+        int C21 = (s[g1&255]&255) ^ ((s[(g0>>8)&255]&255)<<8) ^ ((Si[(g3>>16)&255]&255)<<16) ^ (s[(g2>>24)&255]<<24) ^ kw[1];
+        int C22 = (s[g2&255]&255) ^ ((Si[(g1>>8)&255]&255)<<8) ^ ((Si[(g0>>16)&255]&255)<<16) ^ (s[(g3>>24)&255]<<24) ^ kw[2];
+        int C23 = (Si[g3&255]&255) ^ ((s[(g2>>8)&255]&255)<<8) ^ ((s[(g1>>16)&255]&255)<<16) ^ (s[(g0>>24)&255]<<24) ^ kw[3];
+        int C30 = (Si[h0&255]&255) ^ ((s[(h3>>8)&255]&255)<<8) ^ ((s[(h2>>16)&255]&255)<<16) ^ (Si[(h1>>24)&255]<<24) ^ kw[0];
+        int C31 = (s[h1&255]&255) ^ ((s[(h0>>8)&255]&255)<<8) ^ ((Si[(h3>>16)&255]&255)<<16) ^ (s[(h2>>24)&255]<<24) ^ kw[1];
+        int C32 = (s[h2&255]&255) ^ ((Si[(h1>>8)&255]&255)<<8) ^ ((Si[(h0>>16)&255]&255)<<16) ^ (s[(h3>>24)&255]<<24) ^ kw[2];
+        int C33 = (Si[h3&255]&255) ^ ((s[(h2>>8)&255]&255)<<8) ^ ((s[(h1>>16)&255]&255)<<16) ^ (s[(h0>>24)&255]<<24) ^ kw[3];
+
+        Pack.intToLittleEndian(C00, out, outOff +  0);
+        Pack.intToLittleEndian(C01, out, outOff +  4);
+        Pack.intToLittleEndian(C02, out, outOff +  8);
+        Pack.intToLittleEndian(C03, out, outOff + 12);
+        Pack.intToLittleEndian(C10, out, outOff + 16);
+        Pack.intToLittleEndian(C11, out, outOff + 20);
+        Pack.intToLittleEndian(C12, out, outOff + 24);
+        Pack.intToLittleEndian(C13, out, outOff + 28);
+        Pack.intToLittleEndian(C20, out, outOff + 32);
+        Pack.intToLittleEndian(C21, out, outOff + 36);
+        Pack.intToLittleEndian(C22, out, outOff + 40);
+        Pack.intToLittleEndian(C23, out, outOff + 44);
+        Pack.intToLittleEndian(C30, out, outOff + 48);
+        Pack.intToLittleEndian(C31, out, outOff + 52);
+        Pack.intToLittleEndian(C32, out, outOff + 56);
+        Pack.intToLittleEndian(C33, out, outOff + 60);
+    }
+
     private int bitsOfSecurity()
     {
         if (WorkingKey == null)
@@ -1,8 +1,11 @@
 package org.bouncycastle.crypto.generators;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.digests.Blake2bDigest;
 import org.bouncycastle.crypto.params.Argon2Parameters;
+import org.bouncycastle.crypto.util.ParallelTasks;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Longs;
 import org.bouncycastle.util.Pack;
@@ -36,6 +39,8 @@
 
     private static final byte[] ZERO_BYTES = new byte[4];
 
+    private final Executor executor;
+
     private Argon2Parameters parameters;
     private Block[] memory;
     private int segmentLength;
@@ -43,6 +48,18 @@
 
     public Argon2BytesGenerator()
     {
+        this(null);
+    }
+
+    /**
+     * Create a generator that fills the lanes of each segment concurrently using the passed in executor. The
+     * output is identical to that of a generator working on a single thread.
+     *
+     * @param executor the executor to run lanes on, null to fill all lanes on the calling thread.
+     */
+    public Argon2BytesGenerator(Executor executor)
+    {
+        this.executor = executor;
     }
 
     /**
@@ -149,6 +166,12 @@ private void reset()
 
     private void fillMemoryBlocks()
     {
+        if (executor != null && parameters.getLanes() > 1)
+        {
+            fillMemoryBlocksParallel();
+            return;
+        }
+
         FillBlock filler = new FillBlock();
         Position position = new Position();
         for (int pass = 0; pass < parameters.getIterations(); ++pass)
@@ -169,6 +192,54 @@ private void fillMemoryBlocks()
         }
     }
 
+    /*
+     * Segments in the same slice only reference blocks from completed slices (or their own lane), so the lanes of a
+     * slice can be filled concurrently as long as every lane finishes before the next slice starts.
+     */
+    private void fillMemoryBlocksParallel()
+    {
+        final int lanes = parameters.getLanes();
+
+        final FillBlock[] fillers = new FillBlock[lanes];
+        final Position[] positions = new Position[lanes];
+        for (int lane = 0; lane < lanes; ++lane)
+        {
+            fillers[lane] = new FillBlock();
+            positions[lane] = new Position();
+            positions[lane].lane = lane;
+        }
+
+        Runnable[] tasks = new Runnable[lanes];
+        for (int lane = 0; lane < lanes; ++lane)
+        {
+            final FillBlock filler = fillers[lane];
+            final Position position = positions[lane];
+
+            tasks[lane] = new Runnable()
+            {
+                public void run()
+                {
+                    fillSegment(filler, position);
+                }
+            };
+        }
+
+        for (int pass = 0; pass < parameters.getIterations(); ++pass)
+        {
+            for (int slice = 0; slice < ARGON2_SYNC_POINTS; ++slice)
+            {
+                for (int lane = 0; lane < lanes; ++lane)
+                {
+                    positions[lane].pass = pass;
+                    positions[lane].slice = slice;
+                }
+
+                // each slice is a sync point, every lane must be filled before the next one starts
+                ParallelTasks.runAll(executor, tasks, "filling Argon2 lanes");
+            }
+        }
+    }
+
     private void fillSegment(FillBlock filler, Position position)
     {
         Block addressBlock = null, inputBlock = null;
@@ -1,9 +1,13 @@
 package org.bouncycastle.crypto.generators;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.bouncycastle.crypto.PBEParametersGenerator;
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.engines.Salsa20Engine;
 import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.util.ParallelTasks;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Integers;
 import org.bouncycastle.util.Pack;
@@ -35,6 +39,47 @@ private SCrypt()
      * @return the generated key.
      */
     public static byte[] generate(byte[] P, byte[] S, int N, int r, int p, int dkLen)
+    {
+        checkParameters(P, S, N, r, p, dkLen);
+
+        return MFcrypt(P, S, N, r, p, dkLen, null, 1);
+    }
+
+    /**
+     * Generate a key using the scrypt key derivation function, running the p independent SMix computations
+     * concurrently on the passed in executor. The output is identical to that of
+     * {@link #generate(byte[], byte[], int, int, int, int)}.
+     * <p>
+     * Each SMix computation needs <code>128 * r * N</code> bytes of working memory, so peak memory use is
+     * bounded by <code>maxParallelism</code> times that amount. The calling thread takes part in the
+     * computation and runs any task the executor has not started by the time it is needed.
+     * </p>
+     *
+     * @param P     the bytes of the pass phrase.
+     * @param S     the salt to use for this invocation.
+     * @param N     CPU/Memory cost parameter. Must be larger than 1, a power of 2 and less than
+     *              <code>2^(128 * r / 8)</code>.
+     * @param r     the block size, must be &gt;= 1.
+     * @param p     Parallelization parameter. Must be a positive integer less than or equal to
+     *              <code>Integer.MAX_VALUE / (128 * r * 8)</code>.
+     * @param dkLen the length of the key to generate.
+     * @param executor the executor to run SMix computations on, null to run them all on the calling thread.
+     * @param maxParallelism the maximum number of SMix computations to run at once, must be &gt;= 1.
+     * @return the generated key.
+     */
+    public static byte[] generate(byte[] P, byte[] S, int N, int r, int p, int dkLen, Executor executor,
+        int maxParallelism)
+    {
+        checkParameters(P, S, N, r, p, dkLen);
+        if (maxParallelism < 1)
+        {
+            throw new IllegalArgumentException("Maximum parallelism must be >= 1.");
+        }
+
+        return MFcrypt(P, S, N, r, p, dkLen, executor, maxParallelism);
+    }
+
+    private static void checkParameters(byte[] P, byte[] S, int N, int r, int p, int dkLen)
     {
         if (P == null)
         {
@@ -67,10 +112,10 @@ public static byte[] generate(byte[] P, byte[] S, int N, int r, int p, int dkLen
         {
             throw new IllegalArgumentException("Generated key length dkLen must be >= 1.");
         }
-        return MFcrypt(P, S, N, r, p, dkLen);
     }
 
-    private static byte[] MFcrypt(byte[] P, byte[] S, int N, int r, int p, int dkLen)
+    private static byte[] MFcrypt(byte[] P, byte[] S, int N, int r, int p, int dkLen, Executor executor,
+        int maxParallelism)
     {
         int MFLenBytes = r * 128;
         byte[] bytes = SingleIterationPBKDF2(P, S, p * MFLenBytes);
@@ -96,10 +141,17 @@ private static byte[] MFcrypt(byte[] P, byte[] S, int N, int r, int p, int dkLen
             }
 
             int MFLenWords = MFLenBytes >>> 2;
-            for (int BOff = 0; BOff < BLen; BOff += MFLenWords)
+            int threads = executor == null ? 1 : Math.min(p, maxParallelism);
+            if (threads > 1)
+            {
+                SMixParallel(B, MFLenWords, p, N, d, r, executor, threads);
+            }
+            else
             {
-                // TODO These can be done in parallel threads
-                SMix(B, BOff, N, d, r);
+                for (int BOff = 0; BOff < BLen; BOff += MFLenWords)
+                {
+                    SMix(B, BOff, N, d, r);
+                }
             }
 
             Pack.intToLittleEndian(B, bytes, 0);
@@ -121,6 +173,33 @@ private static byte[] SingleIterationPBKDF2(byte[] P, byte[] S, int dkLen)
         return key.getKey();
     }
 
+    /*
+     * The p SMix computations work on disjoint blocks of B, so they can run concurrently. Workers take the next
+     * unmixed block until none remain, so no more than 'threads' V arrays are allocated at any one time.
+     */
+    private static void SMixParallel(final int[] B, final int MFLenWords, final int p, final int N, final int d,
+        final int r, Executor executor, int threads)
+    {
+        final AtomicInteger nextBlock = new AtomicInteger(0);
+
+        Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                int block;
+                while ((block = nextBlock.getAndIncrement()) < p)
+                {
+                    SMix(B, block * MFLenWords, N, d, r);
+                }
+            }
+        };
+
+        Runnable[] tasks = new Runnable[threads];
+        Arrays.fill(tasks, worker);
+
+        ParallelTasks.runAll(executor, tasks, "running scrypt SMix");
+    }
+
     private static void SMix(int[] B, int BOff, int N, int d, int r)
     {
         int powN = Integers.numberOfTrailingZeros(N);
@@ -4,6 +4,8 @@
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.DefaultMultiBlockCipher;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.util.Arrays;
 
@@ -14,6 +16,8 @@
     extends DefaultMultiBlockCipher
     implements CBCModeCipher
 {
+    private static final int MAX_BLOCKS = 8;
+
     private byte[]          IV;
     private byte[]          cbcV;
     private byte[]          cbcNextV;
@@ -21,6 +25,7 @@
     private int             blockSize;
     private BlockCipher     cipher = null;
     private boolean         encrypting;
+    private byte[]          cbcBlocks;
 
     /**
      * Return a new CBC mode cipher based on the passed in base cipher
@@ -153,6 +158,84 @@ public int processBlock(
         return (encrypting) ? encryptBlock(in, inOff, out, outOff) : decryptBlock(in, inOff, out, outOff);
     }
 
+    /**
+     * Process blockCount blocks of input from the array in and write them to the out array. Decryption is
+     * carried out on runs of blocks at a time by the underlying cipher, as CBC decryption has no chaining
+     * dependency until the final XOR.
+     *
+     * @param in the array containing the input data.
+     * @param inOff offset into the in array the data starts at.
+     * @param blockCount the number of blocks to be processed.
+     * @param out the array the output data will be copied into.
+     * @param outOff the offset into the out array the output will start at.
+     * @exception DataLengthException if there isn't enough data in in.
+     * @exception OutputLengthException if there isn't enough space in out.
+     * @exception IllegalStateException if the cipher isn't initialised.
+     * @return the number of bytes processed and produced.
+     */
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (encrypting || blockCount < 2)
+        {
+            return super.processBlocks(in, inOff, blockCount, out, outOff);
+        }
+
+        if (blockCount > (in.length - inOff) / blockSize)
+        {
+            throw new DataLengthException("input buffer too short");
+        }
+        if (blockCount > (out.length - outOff) / blockSize)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        int resultLen = blockCount * blockSize;
+
+        if (cbcBlocks == null)
+        {
+            cbcBlocks = new byte[blockSize * MAX_BLOCKS];
+        }
+
+        while (blockCount > 0)
+        {
+            int count = Math.min(blockCount, MAX_BLOCKS);
+            int len = count * blockSize;
+
+            // keep the ciphertext, the output may overwrite the input
+            System.arraycopy(in, inOff, cbcBlocks, 0, len);
+
+            if (cipher instanceof MultiBlockCipher)
+            {
+                ((MultiBlockCipher)cipher).processBlocks(cbcBlocks, 0, count, out, outOff);
+            }
+            else
+            {
+                for (int i = 0; i < len; i += blockSize)
+                {
+                    cipher.processBlock(cbcBlocks, i, out, outOff + i);
+                }
+            }
+
+            for (int i = 0; i < blockSize; i++)
+            {
+                out[outOff + i] ^= cbcV[i];
+            }
+            for (int i = blockSize; i < len; i++)
+            {
+                out[outOff + i] ^= cbcBlocks[i - blockSize];
+            }
+
+            System.arraycopy(cbcBlocks, len - blockSize, cbcV, 0, blockSize);
+
+            inOff += len;
+            outOff += len;
+            blockCount -= count;
+        }
+
+        return resultLen;
+    }
+
     /**
      * reset the chaining vector back to the IV and reset the underlying
      * cipher.
@@ -4,6 +4,7 @@
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.MultiBlockCipher;
 import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.modes.gcm.BasicGCMExponentiator;
 import org.bouncycastle.crypto.modes.gcm.GCMExponentiator;
@@ -24,6 +25,8 @@
     implements GCMModeCipher
 {
     private static final int BLOCK_SIZE = 16;
+    private static final int MULTI_BLOCK_COUNT = 4;
+    private static final int MULTI_BLOCK_SIZE = BLOCK_SIZE * MULTI_BLOCK_COUNT;
 
     // not final due to a compiler bug
     private BlockCipher   cipher;
@@ -45,6 +48,7 @@
     private byte[]      macBlock;
     private byte[]      S, S_at, S_atPre;
     private byte[]      counter;
+    private byte[]      ctrBlocks;
     private int         blocksRemaining;
     private int         bufOff;
     private long        totalLength;
@@ -107,6 +111,7 @@ public GCMBlockCipher(BlockCipher c, GCMMultiplier m)
 
         this.cipher = c;
         this.multiplier = m;
+        this.ctrBlocks = new byte[MULTI_BLOCK_SIZE];
     }
 
     public BlockCipher getUnderlyingCipher()
@@ -407,6 +412,14 @@ public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
             }
 
             int inLimit = inOff + len - BLOCK_SIZE;
+            int multiLimit = inOff + len - MULTI_BLOCK_SIZE;
+
+            while (inOff <= multiLimit)
+            {
+                encryptBlocks(in, inOff, out, outOff + resultLen);
+                inOff += MULTI_BLOCK_SIZE;
+                resultLen += MULTI_BLOCK_SIZE;
+            }
 
             while (inOff <= inLimit)
             {
@@ -444,6 +457,7 @@ public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
             }
 
             int inLimit = inOff + len - bufBlock.length;
+            int multiLimit = inLimit - (MULTI_BLOCK_SIZE - BLOCK_SIZE);
 
             available = BLOCK_SIZE - bufOff;
             System.arraycopy(in, inOff, bufBlock, bufOff, available);
@@ -452,6 +466,13 @@ public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
             resultLen += BLOCK_SIZE;
             //bufOff = 0;
 
+            while (inOff <= multiLimit)
+            {
+                decryptBlocks(in, inOff, out, outOff + resultLen);
+                inOff += MULTI_BLOCK_SIZE;
+                resultLen += MULTI_BLOCK_SIZE;
+            }
+
             while (inOff <= inLimit)
             {
                 decryptBlock(in, inOff, out, outOff + resultLen);
@@ -674,6 +695,68 @@ private void encryptBlock(byte[] buf, int bufOff, byte[] out, int outOff)
         totalLength += BLOCK_SIZE;
     }
 
+    private void decryptBlocks(byte[] buf, int bufOff, byte[] out, int outOff)
+    {
+        if ((out.length - outOff) < MULTI_BLOCK_SIZE)
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+        // blocksRemaining is unsigned, so only small non-negative values are close to the limit
+        if (blocksRemaining >= 0 && blocksRemaining < MULTI_BLOCK_COUNT)
+        {
+            for (int i = 0; i < MULTI_BLOCK_SIZE; i += BLOCK_SIZE)
+            {
+                decryptBlock(buf, bufOff + i, out, outOff + i);
+            }
+            return;
+        }
+        if (totalLength == 0)
+        {
+            initCipher();
+        }
+
+        getNextCTRBlocks();
+
+        for (int i = 0; i < MULTI_BLOCK_SIZE; i += BLOCK_SIZE)
+        {
+            gHASHBlock(S, buf, bufOff + i);
+            GCMUtil.xor(ctrBlocks, i, buf, bufOff + i, out, outOff + i);
+        }
+
+        totalLength += MULTI_BLOCK_SIZE;
+    }
+
+    private void encryptBlocks(byte[] buf, int bufOff, byte[] out, int outOff)
+    {
+        if ((out.length - outOff) < MULTI_BLOCK_SIZE)
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+        if (blocksRemaining >= 0 && blocksRemaining < MULTI_BLOCK_COUNT)
+        {
+            for (int i = 0; i < MULTI_BLOCK_SIZE; i += BLOCK_SIZE)
+            {
+                encryptBlock(buf, bufOff + i, out, outOff + i);
+            }
+            return;
+        }
+        if (totalLength == 0)
+        {
+            initCipher();
+        }
+
+        getNextCTRBlocks();
+
+        for (int i = 0; i < MULTI_BLOCK_SIZE; i += BLOCK_SIZE)
+        {
+            GCMUtil.xor(ctrBlocks, i, buf, bufOff + i, ctrBlocks, i);
+            gHASHBlock(S, ctrBlocks, i);
+            System.arraycopy(ctrBlocks, i, out, outOff + i, BLOCK_SIZE);
+        }
+
+        totalLength += MULTI_BLOCK_SIZE;
+    }
+
     private void processPartial(byte[] buf, int off, int len, byte[] out, int outOff)
     {
         byte[] ctrBlock = new byte[BLOCK_SIZE];
@@ -738,6 +821,34 @@ private void getNextCTRBlock(byte[] block)
         cipher.processBlock(counter, 0, block, 0);
     }
 
+    private void getNextCTRBlocks()
+    {
+        blocksRemaining -= MULTI_BLOCK_COUNT;
+
+        for (int off = 0; off < MULTI_BLOCK_SIZE; off += BLOCK_SIZE)
+        {
+            int c = 1;
+            c += counter[15] & 0xFF; counter[15] = (byte)c; c >>>= 8;
+            c += counter[14] & 0xFF; counter[14] = (byte)c; c >>>= 8;
+            c += counter[13] & 0xFF; counter[13] = (byte)c; c >>>= 8;
+            c += counter[12] & 0xFF; counter[12] = (byte)c;
+
+            System.arraycopy(counter, 0, ctrBlocks, off, BLOCK_SIZE);
+        }
+
+        if (cipher instanceof MultiBlockCipher)
+        {
+            ((MultiBlockCipher)cipher).processBlocks(ctrBlocks, 0, MULTI_BLOCK_COUNT, ctrBlocks, 0);
+        }
+        else
+        {
+            for (int off = 0; off < MULTI_BLOCK_SIZE; off += BLOCK_SIZE)
+            {
+                cipher.processBlock(ctrBlocks, off, ctrBlocks, off);
+            }
+        }
+    }
+
     private void checkStatus()
     {
         if (!initialised)
@@ -3,6 +3,7 @@
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.MultiBlockCipher;
 import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.StreamBlockCipher;
 import org.bouncycastle.crypto.params.ParametersWithIV;
@@ -17,8 +18,12 @@
     extends StreamBlockCipher
     implements CTRModeCipher
 {
+    private static final int MAX_BLOCKS = 8;
+
     private final BlockCipher     cipher;
     private final int             blockSize;
+    private final byte[]          counterBlocks;
+    private final byte[]          keyStream;
 
     private byte[]          IV;
     private byte[]          counter;
@@ -50,6 +55,8 @@ public SICBlockCipher(BlockCipher c)
         this.IV = new byte[blockSize];
         this.counter = new byte[blockSize];
         this.counterOut = new byte[blockSize];
+        this.counterBlocks = new byte[blockSize * MAX_BLOCKS];
+        this.keyStream = new byte[blockSize * MAX_BLOCKS];
         this.byteCount = 0;
     }
 
@@ -126,6 +133,30 @@ public int processBlock(byte[] in, int inOff, byte[] out, int outOff)
         return blockSize;
     }
 
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (byteCount != 0)
+        {
+            return super.processBlocks(in, inOff, blockCount, out, outOff);
+        }
+
+        if (blockCount < 0 || blockCount > (in.length - inOff) / blockSize)
+        {
+            throw new DataLengthException("input buffer too small");
+        }
+        if (blockCount > (out.length - outOff) / blockSize)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        int len = blockCount * blockSize;
+
+        processFullBlocks(in, inOff, blockCount, out, outOff, false);
+
+        return len;
+    }
+
     public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
         throws DataLengthException
     {
@@ -138,27 +169,24 @@ public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
             throw new OutputLengthException("output buffer too short");
         }
 
-        for (int i = 0; i < len; ++i)
+        int i = 0;
+        while (byteCount != 0 && i < len)
         {
-            byte next;
+            out[outOff + i] = calculateByte(in[inOff + i]);
+            ++i;
+        }
 
-            if (byteCount == 0)
-            {
-                checkLastIncrement();
+        int blockCount = (len - i) / blockSize;
+        if (blockCount > 0)
+        {
+            processFullBlocks(in, inOff + i, blockCount, out, outOff + i, true);
+            i += blockCount * blockSize;
+        }
 
-                cipher.processBlock(counter, 0, counterOut, 0);
-                next = (byte)(in[inOff + i] ^ counterOut[byteCount++]);
-            }
-            else
-            {
-                next = (byte)(in[inOff + i] ^ counterOut[byteCount++]);
-                if (byteCount == counter.length)
-                {
-                    byteCount = 0;
-                    incrementCounter();
-                }
-            }
-            out[outOff + i] = next;
+        while (i < len)
+        {
+            out[outOff + i] = calculateByte(in[inOff + i]);
+            ++i;
         }
 
         return len;
@@ -187,6 +215,60 @@ protected byte calculateByte(byte in)
         return rv;
     }
 
+    /*
+     * Whole blocks are processed by laying out a run of consecutive counter values and encrypting them with a
+     * single call to the underlying cipher, so a multi-block engine can work on them together.
+     */
+    private void processFullBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff,
+        boolean checkIncrement)
+    {
+        while (blockCount > 0)
+        {
+            int count = Math.min(blockCount, MAX_BLOCKS);
+            boolean counterExhausted = false;
+
+            for (int i = 0; i < count; ++i)
+            {
+                if (checkIncrement && IV.length < blockSize && counter[IV.length - 1] != IV[IV.length - 1])
+                {
+                    count = i;
+                    counterExhausted = true;
+                    break;
+                }
+
+                System.arraycopy(counter, 0, counterBlocks, i * blockSize, blockSize);
+                incrementCounter();
+            }
+
+            if (cipher instanceof MultiBlockCipher)
+            {
+                ((MultiBlockCipher)cipher).processBlocks(counterBlocks, 0, count, keyStream, 0);
+            }
+            else
+            {
+                for (int i = 0; i < count; ++i)
+                {
+                    cipher.processBlock(counterBlocks, i * blockSize, keyStream, i * blockSize);
+                }
+            }
+
+            int len = count * blockSize;
+            for (int i = 0; i < len; ++i)
+            {
+                out[outOff + i] = (byte)(in[inOff + i] ^ keyStream[i]);
+            }
+
+            if (counterExhausted)
+            {
+                throw new IllegalStateException("Counter in CTR/SIC mode out of range.");
+            }
+
+            inOff += len;
+            outOff += len;
+            blockCount -= count;
+        }
+    }
+
     private void checkCounter()
     {
         // if the IV is the same as the blocksize we assume the user knows what they are doing
@@ -0,0 +1,216 @@
+package org.bouncycastle.crypto.params;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.WNafUtil;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Properties;
+
+/**
+ * A bounded cache of EC public keys, indexed by encoded public point, for keys that are used to verify many
+ * signatures (e.g. CA and issuer keys).
+ * <p>
+ * A freshly decoded public point carries no precomputation, so every ECDSA, SM2 or GOST verification with it
+ * rebuilds the tables for the public point. A key returned by the cache is shared between all lookups of the same
+ * point and domain parameters, and has its public point configured for wide fixed-point tables, which are then
+ * computed once and reused by every verification.
+ * </p>
+ * <p>
+ * The cache is safe for use by multiple threads. Once full, the least recently used key is dropped.
+ * </p>
+ */
+public class ECPublicKeyCache
+{
+    /**
+     * System property setting the size of the default cache used by the provider when verifying signatures.
+     * The default cache is disabled unless this is set to a positive value.
+     */
+    public static final String DEFAULT_CACHE_SIZE_PROPERTY = "org.bouncycastle.ec.public_key_cache_size";
+
+    private static volatile ECPublicKeyCache defaultCache;
+    private static volatile boolean defaultCacheSet;
+
+    private final Map<PointKey, ECPublicKeyParameters> keys;
+
+    /**
+     * Base constructor.
+     *
+     * @param maxSize the maximum number of keys to hold.
+     */
+    public ECPublicKeyCache(final int maxSize)
+    {
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+
+        this.keys = new LinkedHashMap<PointKey, ECPublicKeyParameters>(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<PointKey, ECPublicKeyParameters> eldest)
+            {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Return the default cache, as sized by the {@link #DEFAULT_CACHE_SIZE_PROPERTY} property, or set by
+     * {@link #setDefault(ECPublicKeyCache)}.
+     *
+     * @return the default cache, null if there is none.
+     */
+    public static ECPublicKeyCache getDefault()
+    {
+        if (!defaultCacheSet)
+        {
+            synchronized (ECPublicKeyCache.class)
+            {
+                if (!defaultCacheSet)
+                {
+                    int size = Properties.asInteger(DEFAULT_CACHE_SIZE_PROPERTY, 0);
+
+                    defaultCache = (size > 0) ? new ECPublicKeyCache(size) : null;
+                    defaultCacheSet = true;
+                }
+            }
+        }
+
+        return defaultCache;
+    }
+
+    /**
+     * Set the default cache, overriding the {@link #DEFAULT_CACHE_SIZE_PROPERTY} property.
+     *
+     * @param cache the cache to use by default, null to disable the default cache.
+     */
+    public static void setDefault(ECPublicKeyCache cache)
+    {
+        synchronized (ECPublicKeyCache.class)
+        {
+            defaultCache = cache;
+            defaultCacheSet = true;
+        }
+    }
+
+    /**
+     * Return the shared key for the passed in public point and domain parameters, validating and adding it if it is
+     * not already present.
+     *
+     * @param q the public point.
+     * @param parameters the domain parameters the point belongs to.
+     * @return a key equivalent to new ECPublicKeyParameters(q, parameters).
+     * @throws IllegalArgumentException if q is not a valid public point for the domain parameters.
+     */
+    public ECPublicKeyParameters getPublicKey(ECPoint q, ECDomainParameters parameters)
+    {
+        PointKey pointKey = new PointKey(q.getEncoded(false));
+
+        ECPublicKeyParameters key = lookup(pointKey, parameters);
+        if (null == key)
+        {
+            key = add(pointKey, new ECPublicKeyParameters(q, parameters));
+        }
+        return key;
+    }
+
+    /**
+     * Return the shared key equivalent to the passed in one, adding the passed in key if there is none yet.
+     *
+     * @param publicKey the key to look up.
+     * @return the shared key for publicKey's point and domain parameters.
+     */
+    public ECPublicKeyParameters getPublicKey(ECPublicKeyParameters publicKey)
+    {
+        PointKey pointKey = new PointKey(publicKey.getQ().getEncoded(false));
+
+        ECPublicKeyParameters key = lookup(pointKey, publicKey.getParameters());
+        if (null == key)
+        {
+            // the point has already been validated by the ECPublicKeyParameters constructor
+            key = add(pointKey, publicKey);
+        }
+        return key;
+    }
+
+    /**
+     * Return the number of keys currently in the cache.
+     *
+     * @return the cache size.
+     */
+    public int size()
+    {
+        synchronized (keys)
+        {
+            return keys.size();
+        }
+    }
+
+    /**
+     * Remove all keys from the cache.
+     */
+    public void clear()
+    {
+        synchronized (keys)
+        {
+            keys.clear();
+        }
+    }
+
+    private ECPublicKeyParameters lookup(PointKey pointKey, ECDomainParameters parameters)
+    {
+        ECPublicKeyParameters key;
+        synchronized (keys)
+        {
+            key = keys.get(pointKey);
+        }
+
+        // the same point encoding on other domain parameters is treated as a miss (and replaces the entry)
+        if (null != key && key.getParameters().equals(parameters))
+        {
+            return key;
+        }
+        return null;
+    }
+
+    private ECPublicKeyParameters add(PointKey pointKey, ECPublicKeyParameters key)
+    {
+        // mark the point as long-lived, so it gets the wider tables used for base points
+        WNafUtil.configureBasepoint(key.getQ());
+
+        synchronized (keys)
+        {
+            ECPublicKeyParameters existing = keys.get(pointKey);
+            if (null != existing && existing.getParameters().equals(key.getParameters()))
+            {
+                return existing;
+            }
+
+            keys.put(pointKey, key);
+        }
+        return key;
+    }
+
+    private static final class PointKey
+    {
+        private final byte[] encoding;
+        private final int hashCode;
+
+        PointKey(byte[] encoding)
+        {
+            this.encoding = encoding;
+            this.hashCode = Arrays.hashCode(encoding);
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof PointKey && Arrays.areEqual(encoding, ((PointKey)o).encoding);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -3,6 +3,7 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.rfc8032.Ed25519;
 import org.bouncycastle.util.io.Streams;
@@ -114,6 +115,52 @@ public boolean verify(int algorithm, byte[] ctx, byte[] msg, int msgOff, int msg
         }
     }
 
+    /**
+     * Verify a batch of signatures together, see {@link Ed25519#verifyBatch(byte[][], Ed25519.PublicPoint[], byte[][],
+     * SecureRandom)}. Only the Ed25519 and Ed25519ctx algorithms are supported.
+     *
+     * @return true if every signature in the batch is valid, false if at least one is not.
+     */
+    public static boolean verifyBatch(int algorithm, byte[] ctx, Ed25519PublicKeyParameters[] publicKeys,
+        byte[][] msgs, byte[][] sigs, SecureRandom random)
+    {
+        Ed25519.PublicPoint[] publicPoints = new Ed25519.PublicPoint[publicKeys.length];
+        for (int i = 0; i < publicKeys.length; ++i)
+        {
+            publicPoints[i] = publicKeys[i].publicPoint;
+        }
+
+        switch (algorithm)
+        {
+        case Ed25519.Algorithm.Ed25519:
+        {
+            if (null != ctx)
+            {
+                throw new IllegalArgumentException("ctx");
+            }
+
+            return Ed25519.verifyBatch(sigs, publicPoints, msgs, random);
+        }
+        case Ed25519.Algorithm.Ed25519ctx:
+        {
+            if (null == ctx)
+            {
+                throw new NullPointerException("'ctx' cannot be null");
+            }
+            if (ctx.length > 255)
+            {
+                throw new IllegalArgumentException("ctx");
+            }
+
+            return Ed25519.verifyBatch(sigs, publicPoints, ctx, msgs, random);
+        }
+        default:
+        {
+            throw new IllegalArgumentException("algorithm");
+        }
+        }
+    }
+
     private static Ed25519.PublicPoint parse(byte[] buf, int off)
     {
         Ed25519.PublicPoint publicPoint = Ed25519.validatePublicKeyPartialExport(buf, off);
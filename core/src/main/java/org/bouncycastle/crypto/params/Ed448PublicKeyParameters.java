@@ -3,6 +3,7 @@
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.SecureRandom;
 
 import org.bouncycastle.math.ec.rfc8032.Ed448;
 import org.bouncycastle.util.io.Streams;
@@ -105,6 +106,43 @@ public boolean verify(int algorithm, byte[] ctx, byte[] msg, int msgOff, int msg
         }
     }
 
+    /**
+     * Verify a batch of signatures together, see {@link Ed448#verifyBatch(byte[][], Ed448.PublicPoint[], byte[],
+     * byte[][], SecureRandom)}. Only the Ed448 algorithm is supported.
+     *
+     * @return true if every signature in the batch is valid, false if at least one is not.
+     */
+    public static boolean verifyBatch(int algorithm, byte[] ctx, Ed448PublicKeyParameters[] publicKeys,
+        byte[][] msgs, byte[][] sigs, SecureRandom random)
+    {
+        Ed448.PublicPoint[] publicPoints = new Ed448.PublicPoint[publicKeys.length];
+        for (int i = 0; i < publicKeys.length; ++i)
+        {
+            publicPoints[i] = publicKeys[i].publicPoint;
+        }
+
+        switch (algorithm)
+        {
+        case Ed448.Algorithm.Ed448:
+        {
+            if (null == ctx)
+            {
+                throw new NullPointerException("'ctx' cannot be null");
+            }
+            if (ctx.length > 255)
+            {
+                throw new IllegalArgumentException("ctx");
+            }
+
+            return Ed448.verifyBatch(sigs, publicPoints, ctx, msgs, random);
+        }
+        default:
+        {
+            throw new IllegalArgumentException("algorithm");
+        }
+        }
+    }
+
     private static Ed448.PublicPoint parse(byte[] buf, int off)
     {
         Ed448.PublicPoint publicPoint = Ed448.validatePublicKeyPartialExport(buf, off);
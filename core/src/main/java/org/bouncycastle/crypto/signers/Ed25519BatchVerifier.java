@@ -0,0 +1,113 @@
+package org.bouncycastle.crypto.signers;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Collects (public key, message, signature) triples and verifies them together as a batch, which costs considerably
+ * less than verifying each with an {@link Ed25519Signer}. If the batch fails, each entry is then checked on its own
+ * so that the invalid ones can be reported by {@link #getInvalidIndices()}.
+ */
+public class Ed25519BatchVerifier
+{
+    private static final int[] NONE = new int[0];
+
+    private final SecureRandom random;
+    private final List<Ed25519PublicKeyParameters> publicKeys = new ArrayList<Ed25519PublicKeyParameters>();
+    private final List<byte[]> messages = new ArrayList<byte[]>();
+    private final List<byte[]> signatures = new ArrayList<byte[]>();
+
+    private int[] invalidIndices = NONE;
+
+    public Ed25519BatchVerifier()
+    {
+        this(null);
+    }
+
+    public Ed25519BatchVerifier(SecureRandom random)
+    {
+        this.random = CryptoServicesRegistrar.getSecureRandom(random);
+    }
+
+    /**
+     * Add an entry to the batch.
+     *
+     * @param publicKey the public key the signature should verify under.
+     * @param message the signed message.
+     * @param signature the signature.
+     * @return the index of the new entry.
+     */
+    public int add(Ed25519PublicKeyParameters publicKey, byte[] message, byte[] signature)
+    {
+        publicKeys.add(publicKey);
+        messages.add(Arrays.clone(message));
+        signatures.add(Arrays.clone(signature));
+
+        return publicKeys.size() - 1;
+    }
+
+    public int size()
+    {
+        return publicKeys.size();
+    }
+
+    /**
+     * Verify every entry added since the last reset.
+     *
+     * @return true if all the signatures are valid, false otherwise.
+     */
+    public boolean verify()
+    {
+        int count = publicKeys.size();
+
+        Ed25519PublicKeyParameters[] pks = publicKeys.toArray(new Ed25519PublicKeyParameters[count]);
+        byte[][] msgs = messages.toArray(new byte[count][]);
+        byte[][] sigs = signatures.toArray(new byte[count][]);
+
+        if (Ed25519PublicKeyParameters.verifyBatch(Ed25519.Algorithm.Ed25519, null, pks, msgs, sigs, random))
+        {
+            invalidIndices = NONE;
+            return true;
+        }
+
+        int[] invalid = new int[count];
+        int invalidCount = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sig = sigs[i];
+            if (Ed25519.SIGNATURE_SIZE != sig.length
+                || !pks[i].verify(Ed25519.Algorithm.Ed25519, null, msgs[i], 0, msgs[i].length, sig, 0))
+            {
+                invalid[invalidCount++] = i;
+            }
+        }
+
+        invalidIndices = Arrays.copyOf(invalid, invalidCount);
+        return false;
+    }
+
+    /**
+     * Return the indices (in the order they were added) of the entries found to be invalid by the last call to
+     * {@link #verify()}.
+     *
+     * @return the indices of the invalid entries, empty if the last verification succeeded.
+     */
+    public int[] getInvalidIndices()
+    {
+        return Arrays.clone(invalidIndices);
+    }
+
+    public void reset()
+    {
+        publicKeys.clear();
+        messages.clear();
+        signatures.clear();
+        invalidIndices = NONE;
+    }
+}
@@ -0,0 +1,120 @@
+package org.bouncycastle.crypto.signers;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.params.Ed448PublicKeyParameters;
+import org.bouncycastle.math.ec.rfc8032.Ed448;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Collects (public key, message, signature) triples and verifies them together as a batch, which costs considerably
+ * less than verifying each with an {@link Ed448Signer}. If the batch fails, each entry is then checked on its own
+ * so that the invalid ones can be reported by {@link #getInvalidIndices()}.
+ */
+public class Ed448BatchVerifier
+{
+    private static final int[] NONE = new int[0];
+
+    private final byte[] context;
+    private final SecureRandom random;
+    private final List<Ed448PublicKeyParameters> publicKeys = new ArrayList<Ed448PublicKeyParameters>();
+    private final List<byte[]> messages = new ArrayList<byte[]>();
+    private final List<byte[]> signatures = new ArrayList<byte[]>();
+
+    private int[] invalidIndices = NONE;
+
+    public Ed448BatchVerifier(byte[] context)
+    {
+        this(context, null);
+    }
+
+    public Ed448BatchVerifier(byte[] context, SecureRandom random)
+    {
+        if (null == context)
+        {
+            throw new NullPointerException("'context' cannot be null");
+        }
+
+        this.context = Arrays.clone(context);
+        this.random = CryptoServicesRegistrar.getSecureRandom(random);
+    }
+
+    /**
+     * Add an entry to the batch.
+     *
+     * @param publicKey the public key the signature should verify under.
+     * @param message the signed message.
+     * @param signature the signature.
+     * @return the index of the new entry.
+     */
+    public int add(Ed448PublicKeyParameters publicKey, byte[] message, byte[] signature)
+    {
+        publicKeys.add(publicKey);
+        messages.add(Arrays.clone(message));
+        signatures.add(Arrays.clone(signature));
+
+        return publicKeys.size() - 1;
+    }
+
+    public int size()
+    {
+        return publicKeys.size();
+    }
+
+    /**
+     * Verify every entry added since the last reset.
+     *
+     * @return true if all the signatures are valid, false otherwise.
+     */
+    public boolean verify()
+    {
+        int count = publicKeys.size();
+
+        Ed448PublicKeyParameters[] pks = publicKeys.toArray(new Ed448PublicKeyParameters[count]);
+        byte[][] msgs = messages.toArray(new byte[count][]);
+        byte[][] sigs = signatures.toArray(new byte[count][]);
+
+        if (Ed448PublicKeyParameters.verifyBatch(Ed448.Algorithm.Ed448, context, pks, msgs, sigs, random))
+        {
+            invalidIndices = NONE;
+            return true;
+        }
+
+        int[] invalid = new int[count];
+        int invalidCount = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sig = sigs[i];
+            if (Ed448.SIGNATURE_SIZE != sig.length
+                || !pks[i].verify(Ed448.Algorithm.Ed448, context, msgs[i], 0, msgs[i].length, sig, 0))
+            {
+                invalid[invalidCount++] = i;
+            }
+        }
+
+        invalidIndices = Arrays.copyOf(invalid, invalidCount);
+        return false;
+    }
+
+    /**
+     * Return the indices (in the order they were added) of the entries found to be invalid by the last call to
+     * {@link #verify()}.
+     *
+     * @return the indices of the invalid entries, empty if the last verification succeeded.
+     */
+    public int[] getInvalidIndices()
+    {
+        return Arrays.clone(invalidIndices);
+    }
+
+    public void reset()
+    {
+        publicKeys.clear();
+        messages.clear();
+        signatures.clear();
+        invalidIndices = NONE;
+    }
+}
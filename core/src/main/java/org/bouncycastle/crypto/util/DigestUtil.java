@@ -0,0 +1,156 @@
+package org.bouncycastle.crypto.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * One-shot hashing of byte arrays, buffers and files.
+ * <p>
+ * Data is passed to the digest in large slices, so digests created with an executor (BLAKE3, ParallelHash,
+ * KangarooTwelve, MarsupilamiFourteen) can hash the leaves of each slice in parallel.
+ * </p>
+ */
+public class DigestUtil
+{
+    /**
+     * The size of the slices data not already in a byte array is copied into.
+     */
+    private static final int SLICE_SIZE = 4 * 1024 * 1024;
+
+    private DigestUtil()
+    {
+    }
+
+    /**
+     * Calculate the digest of a byte array.
+     *
+     * @param digest the digest to use, it is reset on return.
+     * @param data   the data to hash.
+     * @return the digest value.
+     */
+    public static byte[] calculateDigest(Digest digest, byte[] data)
+    {
+        digest.update(data, 0, data.length);
+
+        return doFinal(digest);
+    }
+
+    /**
+     * Calculate the digest of the remaining content of a buffer. The buffer's position is moved to its limit.
+     *
+     * @param digest the digest to use, it is reset on return.
+     * @param data   the data to hash.
+     * @return the digest value.
+     */
+    public static byte[] calculateDigest(Digest digest, ByteBuffer data)
+    {
+        update(digest, data);
+
+        return doFinal(digest);
+    }
+
+    /**
+     * Calculate the digest of the entire content of a file. The channel's position is not changed.
+     *
+     * @param digest  the digest to use, it is reset on return.
+     * @param channel the file to hash.
+     * @return the digest value.
+     * @throws IOException if the file cannot be read.
+     */
+    public static byte[] calculateDigest(Digest digest, FileChannel channel)
+        throws IOException
+    {
+        update(digest, channel, 0, channel.size());
+
+        return doFinal(digest);
+    }
+
+    /**
+     * Update a digest with the remaining content of a buffer. The buffer's position is moved to its limit.
+     *
+     * @param digest the digest to update.
+     * @param data   the data to add.
+     */
+    public static void update(Digest digest, ByteBuffer data)
+    {
+        int len = data.remaining();
+        if (data.hasArray())
+        {
+            digest.update(data.array(), data.arrayOffset() + data.position(), len);
+            data.position(data.limit());
+            return;
+        }
+
+        byte[] slice = new byte[Math.min(len, SLICE_SIZE)];
+        try
+        {
+            while (data.hasRemaining())
+            {
+                int count = Math.min(data.remaining(), slice.length);
+                data.get(slice, 0, count);
+                digest.update(slice, 0, count);
+            }
+        }
+        finally
+        {
+            Arrays.fill(slice, (byte)0);
+        }
+    }
+
+    /**
+     * Update a digest with part of a file. The channel's position is not changed.
+     *
+     * @param digest   the digest to update.
+     * @param channel  the file to read.
+     * @param position the position in the file to start reading at.
+     * @param length   the number of bytes to add.
+     * @throws IOException if the file cannot be read, or has fewer than length bytes after position.
+     */
+    public static void update(Digest digest, FileChannel channel, long position, long length)
+        throws IOException
+    {
+        if (position < 0 || length < 0)
+        {
+            throw new IllegalArgumentException("position and length must be non-negative");
+        }
+
+        byte[] slice = new byte[(int)Math.min(length, SLICE_SIZE)];
+        ByteBuffer buf = ByteBuffer.wrap(slice);
+        try
+        {
+            long remaining = length;
+            while (remaining > 0)
+            {
+                buf.clear();
+                buf.limit((int)Math.min(remaining, slice.length));
+                while (buf.hasRemaining())
+                {
+                    if (channel.read(buf, position + (length - remaining) + buf.position()) < 0)
+                    {
+                        throw new EOFException("unexpected end of file");
+                    }
+                }
+                digest.update(slice, 0, buf.limit());
+                remaining -= buf.limit();
+            }
+        }
+        finally
+        {
+            Arrays.fill(slice, (byte)0);
+        }
+    }
+
+    private static byte[] doFinal(Digest digest)
+    {
+        byte[] result = new byte[digest.getDigestSize()];
+
+        digest.doFinal(result, 0);
+
+        return result;
+    }
+}
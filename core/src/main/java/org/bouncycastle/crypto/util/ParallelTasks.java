@@ -0,0 +1,91 @@
+package org.bouncycastle.crypto.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Utility for running a fixed set of tasks concurrently over an {@link Executor}, with the calling thread taking
+ * part in the work.
+ */
+public final class ParallelTasks
+{
+    private ParallelTasks()
+    {
+    }
+
+    /**
+     * Run all the passed in tasks, returning once every one of them has finished. The first task is run by the
+     * calling thread, the rest are handed to the executor. Any task the executor has not started by the time the
+     * calling thread comes to wait for it is run by the calling thread instead, so an executor with fewer threads
+     * than tasks cannot cause a deadlock.
+     * <p>
+     * If a task fails, any tasks not yet started are cancelled and the failure is rethrown; an exception which is
+     * neither a RuntimeException nor an Error is reported as an IllegalStateException.
+     * </p>
+     *
+     * @param executor    the executor to hand tasks[1..] to.
+     * @param tasks       the tasks to run, the same Runnable may appear more than once.
+     * @param description what the tasks are doing, for use in exception messages.
+     */
+    public static void runAll(Executor executor, Runnable[] tasks, String description)
+    {
+        List<FutureTask<Object>> futures = new ArrayList<FutureTask<Object>>(tasks.length);
+        boolean completed = false;
+
+        try
+        {
+            for (int i = 1; i < tasks.length; ++i)
+            {
+                FutureTask<Object> future = new FutureTask<Object>(tasks[i], null);
+                futures.add(future);
+                executor.execute(future);
+            }
+
+            if (tasks.length > 0)
+            {
+                tasks[0].run();
+            }
+
+            for (int i = 0; i < futures.size(); ++i)
+            {
+                FutureTask<Object> future = futures.get(i);
+
+                future.run();
+                future.get();
+            }
+
+            completed = true;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while " + description);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException("exception while " + description + ": " + cause.getMessage());
+        }
+        finally
+        {
+            if (!completed)
+            {
+                for (int i = 0; i < futures.size(); ++i)
+                {
+                    futures.get(i).cancel(false);
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.bouncycastle.crypto.util;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.internal.asn1.misc.MiscObjectIdentifiers;
 
 /**
@@ -15,6 +17,8 @@
         private final int parallelizationParameter;
 
         private int saltLength = 16;
+        private Executor executor = null;
+        private int maxParallelism = 1;
 
         /**
          * Base constructor.
@@ -48,6 +52,28 @@ public Builder withSaltLength(int saltLength)
             return this;
         }
 
+        /**
+         * Set an executor to run the independent SMix computations (one per unit of the parallelization
+         * parameter) on, with at most maxParallelism of them (and their working memory) in use at once.
+         * The derived key is the same as when no executor is set.
+         *
+         * @param executor the executor to use, null to run everything on the calling thread.
+         * @param maxParallelism the maximum number of SMix computations to run at once.
+         * @return the current builder.
+         */
+        public Builder withExecutor(Executor executor, int maxParallelism)
+        {
+            if (maxParallelism < 1)
+            {
+                throw new IllegalArgumentException("Maximum parallelism must be >= 1");
+            }
+
+            this.executor = executor;
+            this.maxParallelism = maxParallelism;
+
+            return this;
+        }
+
         public ScryptConfig build()
         {
             return new ScryptConfig(this);
@@ -64,6 +90,8 @@ private static boolean isPowerOf2(int x)
     private final int blockSize;
     private final int parallelizationParameter;
     private final int saltLength;
+    private final Executor executor;
+    private final int maxParallelism;
 
     private ScryptConfig(Builder builder)
     {
@@ -73,6 +101,8 @@ private ScryptConfig(Builder builder)
         this.blockSize = builder.blockSize;
         this.parallelizationParameter = builder.parallelizationParameter;
         this.saltLength = builder.saltLength;
+        this.executor = builder.executor;
+        this.maxParallelism = builder.maxParallelism;
     }
 
     public int getCostParameter()
@@ -94,4 +124,19 @@ public int getSaltLength()
     {
         return saltLength;
     }
+
+    /**
+     * Return the executor SMix computations should be run on, if any.
+     *
+     * @return the executor, null if the derivation should run on the calling thread.
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    public int getMaxParallelism()
+    {
+        return maxParallelism;
+    }
 }
@@ -11,6 +11,17 @@
 
 public class ECAlgorithms
 {
+    /**
+     * Sums of at least this many products are computed with the bucket (Pippenger) method, rather than interleaved
+     * wNAF.
+     */
+    private static final int PIPPENGER_THRESHOLD = 128;
+
+    /**
+     * The window width used by {@link #sumOfMultipliesConstantTime(ECPoint[], BigInteger[])}.
+     */
+    private static final int CONSTANT_TIME_WIDTH = 4;
+
     public static boolean isF2mCurve(ECCurve c)
     {
         return isF2mField(c.getField());
@@ -66,9 +77,51 @@ public static ECPoint sumOfMultiplies(ECPoint[] ps, BigInteger[] ks)
             return implCheckResult(implSumOfMultipliesGLV(imported, ks, (GLVEndomorphism)endomorphism));
         }
 
+        if (count >= PIPPENGER_THRESHOLD)
+        {
+            return implCheckResult(implSumOfMultipliesPippenger(imported, ks));
+        }
+
         return implCheckResult(implSumOfMultiplies(imported, ks));
     }
 
+    /**
+     * Compute the sum of the products ks[i] * ps[i], for use when the scalars are secret. Each scalar is recoded into
+     * a fixed number of non-zero signed digits, so the sequence of point operations does not depend on the scalars,
+     * and the precomputed multiples are read with cache-safe lookups.
+     * <p>
+     * The curve order must be known and the points must lie in the subgroup of that order, as the scalars are
+     * reduced modulo the order.
+     * </p>
+     *
+     * @param ps the points.
+     * @param ks the (secret) scalars.
+     * @return the sum of the products.
+     */
+    public static ECPoint sumOfMultipliesConstantTime(ECPoint[] ps, BigInteger[] ks)
+    {
+        if (ps == null || ks == null || ps.length != ks.length || ps.length < 1)
+        {
+            throw new IllegalArgumentException("point and scalar arrays should be non-null, and of equal, non-zero, length");
+        }
+
+        ECCurve c = ps[0].getCurve();
+        BigInteger n = c.getOrder();
+        if (null == n)
+        {
+            throw new IllegalArgumentException("curve order must be known");
+        }
+
+        int count = ps.length;
+        ECPoint[] imported = new ECPoint[count];
+        for (int i = 0; i < count; ++i)
+        {
+            imported[i] = importPoint(c, ps[i]);
+        }
+
+        return implCheckResult(implSumOfMultipliesConstantTime(imported, ks, n));
+    }
+
     public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
         ECPoint Q, BigInteger b)
     {
@@ -434,7 +487,7 @@ static ECPoint implSumOfMultipliesGLV(ECPoint[] ps, BigInteger[] ks, GLVEndomorp
             abs[j++] = ab[1];
         }
 
-        if (glvEndomorphism.hasEfficientPointMap())
+        if (glvEndomorphism.hasEfficientPointMap() && (len << 1) < PIPPENGER_THRESHOLD)
         {
             return implSumOfMultiplies(glvEndomorphism, ps, abs);
         }
@@ -448,6 +501,11 @@ static ECPoint implSumOfMultipliesGLV(ECPoint[] ps, BigInteger[] ks, GLVEndomorp
             pqs[j++] = q;
         }
 
+        if ((len << 1) >= PIPPENGER_THRESHOLD)
+        {
+            return implSumOfMultipliesPippenger(pqs, abs);
+        }
+
         return implSumOfMultiplies(pqs, abs);
     }
 
@@ -541,6 +599,215 @@ private static ECPoint implSumOfMultiplies(boolean[] negs, WNafPreCompInfo[] inf
         return R;
     }
 
+    /*
+     * Bucket method (Pippenger), with signed digits: for each c-bit window, every point is added into the bucket for
+     * its digit, then the buckets are combined with a running sum, at a cost of about (n + 2^c) additions per window
+     * instead of a table lookup and addition per point per non-zero wNAF digit.
+     */
+    static ECPoint implSumOfMultipliesPippenger(ECPoint[] ps, BigInteger[] ks)
+    {
+        int count = ps.length;
+
+        ECPoint[] points = new ECPoint[count << 1];
+        BigInteger[] scalars = new BigInteger[count];
+        int bits = 0;
+        for (int i = 0; i < count; ++i)
+        {
+            BigInteger k = ks[i];
+            ECPoint p = ps[i];
+            if (k.signum() < 0)
+            {
+                p = p.negate();
+                k = k.negate();
+            }
+
+            points[i] = p;
+            points[count + i] = p.negate();
+            scalars[i] = k;
+            bits = Math.max(bits, k.bitLength());
+        }
+
+        ECCurve curve = points[0].getCurve();
+        ECPoint infinity = curve.getInfinity();
+
+        if (bits == 0)
+        {
+            return infinity;
+        }
+
+        // the buckets receive mixed additions of the normalized points
+        curve.normalizeAll(points);
+
+        int width = getPippengerWindowSize(count, bits);
+        int windows = (bits + width) / width, half = 1 << (width - 1), mask = (1 << width) - 1;
+
+        int[][] digits = new int[count][windows];
+        for (int i = 0; i < count; ++i)
+        {
+            int[] K = Nat.fromBigInteger(windows * width + 1, scalars[i]);
+            int carry = 0;
+            for (int w = 0; w < windows; ++w)
+            {
+                int digit = getBits(K, w * width, mask) + carry;
+                carry = (digit > half) ? 1 : 0;
+                digits[i][w] = digit - (carry << width);
+            }
+        }
+
+        ECPoint[] buckets = new ECPoint[half];
+
+        ECPoint R = infinity;
+        for (int w = windows - 1; w >= 0; --w)
+        {
+            for (int j = 0; j < half; ++j)
+            {
+                buckets[j] = infinity;
+            }
+
+            for (int i = 0; i < count; ++i)
+            {
+                int digit = digits[i][w];
+                if (digit > 0)
+                {
+                    buckets[digit - 1] = buckets[digit - 1].add(points[i]);
+                }
+                else if (digit < 0)
+                {
+                    buckets[-digit - 1] = buckets[-digit - 1].add(points[count + i]);
+                }
+            }
+
+            // sum of (j + 1) * buckets[j]
+            ECPoint running = infinity, sum = infinity;
+            for (int j = half - 1; j >= 0; --j)
+            {
+                running = running.add(buckets[j]);
+                sum = sum.add(running);
+            }
+
+            R = R.timesPow2(width).add(sum);
+        }
+
+        return R;
+    }
+
+    static ECPoint implSumOfMultipliesConstantTime(ECPoint[] ps, BigInteger[] ks, BigInteger n)
+    {
+        int count = ps.length, width = CONSTANT_TIME_WIDTH, half = 1 << (width - 1), mask = (1 << width) - 1;
+
+        /*
+         * Each scalar is made odd (by adding n if necessary) and written as sum(d_i * 2^(width * i)) with odd digits
+         * d_i in [-(2^width - 1), 2^width - 1]; the top digit is positive. Digit i is 2 * b_i + 1 - 2^width, where b_i
+         * is the width bits of the scalar starting at bit (width * i + 1), so b_i indexes a table of the odd
+         * multiples -(2^width - 1).P ... -P, P ... (2^width - 1).P directly.
+         */
+        int bits = n.bitLength() + 1;
+        int windows = (bits + width - 1) / width, len = (windows * width + 32) >>> 5;
+
+        int[] N = Nat.fromBigInteger(len << 5, n);
+        int[][] scalars = new int[count][];
+        ECLookupTable[] tables = new ECLookupTable[count];
+
+        ECCurve curve = ps[0].getCurve();
+        ECPoint[] table = new ECPoint[1 << width];
+
+        for (int i = 0; i < count; ++i)
+        {
+            ECPoint p = ps[i];
+            if (p.isInfinity())
+            {
+                continue;
+            }
+
+            table[half] = p;
+            ECPoint twiceP = p.twice();
+            for (int j = 1; j < half; ++j)
+            {
+                table[half + j] = table[half + j - 1].add(twiceP);
+            }
+            for (int j = 0; j < half; ++j)
+            {
+                table[j] = table[(1 << width) - 1 - j].negate();
+            }
+
+            curve.normalizeAll(table);
+            tables[i] = curve.createCacheSafeLookupTable(table, 0, table.length);
+
+            int[] K = Nat.fromBigInteger(len << 5, ks[i].mod(n));
+            Nat.cadd(len, ~K[0] & 1, K, N, K);
+            scalars[i] = K;
+        }
+
+        ECPoint R = curve.getInfinity();
+        try
+        {
+            for (int w = windows - 1; w >= 0; --w)
+            {
+                if (w < windows - 1)
+                {
+                    R = R.timesPow2(width);
+                }
+
+                for (int i = 0; i < count; ++i)
+                {
+                    if (null == tables[i])
+                    {
+                        continue;
+                    }
+
+                    int index = getBits(scalars[i], w * width + 1, mask);
+                    if (w == windows - 1)
+                    {
+                        index |= half;
+                    }
+
+                    R = R.add(tables[i].lookup(index));
+                }
+            }
+        }
+        finally
+        {
+            for (int i = 0; i < count; ++i)
+            {
+                if (null != scalars[i])
+                {
+                    Nat.zero(len, scalars[i]);
+                }
+            }
+        }
+
+        return R;
+    }
+
+    private static int getPippengerWindowSize(int count, int bits)
+    {
+        // minimise the number of additions: per window, one per point plus two per bucket
+        int best = 2;
+        long bestCost = Long.MAX_VALUE;
+        for (int width = 2; width <= 16; ++width)
+        {
+            int windows = (bits + width) / width;
+            long cost = (long)windows * (count + (1L << width));
+            if (cost < bestCost)
+            {
+                best = width;
+                bestCost = cost;
+            }
+        }
+        return best;
+    }
+
+    private static int getBits(int[] x, int pos, int mask)
+    {
+        int word = pos >>> 5, shift = pos & 31;
+        int bits = x[word] >>> shift;
+        if (shift != 0 && word + 1 < x.length)
+        {
+            bits |= x[word + 1] << (32 - shift);
+        }
+        return bits & mask;
+    }
+
     private static ECPoint implShamirsTrickFixedPoint(ECPoint p, BigInteger k, ECPoint q, BigInteger l)
     {
         ECCurve c = p.getCurve();
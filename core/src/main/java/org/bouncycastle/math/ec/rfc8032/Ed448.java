@@ -72,7 +72,7 @@ private static class F extends X448Field {};
 
     private static final int C_d = 39081;
 
-//    private static final int WNAF_WIDTH = 6;
+    private static final int WNAF_WIDTH = 6;
     private static final int WNAF_WIDTH_225 = 5;
     private static final int WNAF_WIDTH_BASE = 7;
 
@@ -587,6 +587,128 @@ private static boolean implVerify(byte[] sig, int sigOff, PublicPoint publicPoin
         return normalizeToNeutralElementVar(pZ);
     }
 
+    private static boolean implVerifyBatch(byte[][] sigs, byte[][] pks, PublicPoint[] publicPoints, byte[] ctx,
+        byte phflag, byte[][] ms, SecureRandom random)
+    {
+        if (!checkContextVar(ctx))
+        {
+            throw new IllegalArgumentException("ctx");
+        }
+
+        int count = sigs.length;
+        if ((null != pks ? pks.length : publicPoints.length) != count || ms.length != count)
+        {
+            throw new IllegalArgumentException("batch arrays must all be the same length");
+        }
+
+        /*
+         * Each signature (R, S) on message M under key A satisfies [4][S]B == [4]R + [4][k]A. Each equation is
+         * multiplied by a random 224-bit z, and the sum checked with a single multi-scalar multiplication:
+         *
+         *     [4]([sum(z.S)]B + sum([z](-R)) + sum([z.k](-A))) == 0
+         */
+
+        PointAffine[] points = new PointAffine[count * 2];
+        int[][] scalars = new int[count * 2][];
+        int[] nB = new int[SCALAR_INTS];
+
+        Xof d = createXof();
+        byte[] h = new byte[SCALAR_BYTES * 2];
+        byte[] zBytes = new byte[28];
+
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sig = sigs[i];
+            if (SIGNATURE_SIZE != sig.length)
+            {
+                return false;
+            }
+
+            byte[] R = copy(sig, 0, POINT_BYTES);
+            byte[] S = copy(sig, POINT_BYTES, SCALAR_BYTES);
+
+            if (!checkPointVar(R))
+            {
+                return false;
+            }
+
+            int[] nS = new int[SCALAR_INTS];
+            if (!Scalar448.checkVar(S, nS))
+            {
+                return false;
+            }
+
+            PointAffine pR = new PointAffine();
+            if (!decodePointVar(R, true, pR))
+            {
+                return false;
+            }
+
+            byte[] A;
+            PointAffine pA = new PointAffine();
+            if (null != pks)
+            {
+                if (PUBLIC_KEY_SIZE != pks[i].length)
+                {
+                    return false;
+                }
+
+                A = copy(pks[i], 0, PUBLIC_KEY_SIZE);
+
+                if (!checkPointFullVar(A))
+                {
+                    return false;
+                }
+
+                if (!decodePointVar(A, true, pA))
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                PublicPoint publicPoint = publicPoints[i];
+                F.negate(publicPoint.data, pA.x);
+                F.copy(publicPoint.data, F.SIZE, pA.y, 0);
+
+                A = new byte[PUBLIC_KEY_SIZE];
+                encodePublicPoint(publicPoint, A, 0);
+            }
+
+            byte[] m = ms[i];
+
+            dom4(d, phflag, ctx);
+            d.update(R, 0, POINT_BYTES);
+            d.update(A, 0, POINT_BYTES);
+            d.update(m, 0, m.length);
+            d.doFinal(h, 0, h.length);
+
+            byte[] k = Scalar448.reduce912(h);
+
+            int[] nA = new int[SCALAR_INTS];
+            Scalar448.decode(k, nA);
+
+            // Positive (as multiply225Var requires) and non-zero
+            random.nextBytes(zBytes);
+            int[] z = new int[SCALAR_INTS];
+            Codec.decode32(zBytes, 0, z, 0, 7);
+            z[0] |= 1;
+
+            Scalar448.multiply225Var(nS, z, nS);
+            Scalar448.addVar(nB, nS, nB);
+            Scalar448.multiply225Var(nA, z, nA);
+
+            points[2 * i] = pR;
+            scalars[2 * i] = z;
+            points[2 * i + 1] = pA;
+            scalars[2 * i + 1] = nA;
+        }
+
+        PointProjective pZ = new PointProjective();
+        scalarMultStrausVar(nB, scalars, points, pZ);
+        return normalizeToNeutralElementVar(pZ);
+    }
+
     private static void invertZs(PointProjective[] points)
     {
         int count = points.length;
@@ -1305,6 +1427,77 @@ private static void scalarMultStraus225Var(int[] nb, int[] np, PointAffine p, in
         pointDouble(r, t);
     }
 
+    private static void scalarMultStrausVar(int[] nb, int[][] ns, PointAffine[] ps, PointProjective r)
+    {
+//        assert nb.length == SCALAR_INTS;
+//        assert ns.length == ps.length;
+
+        precompute();
+
+        int count = ps.length;
+
+        byte[] ws_b = new byte[448];
+        Wnaf.getSignedVar(nb, WNAF_WIDTH_BASE, ws_b);
+
+        int tableSize = 1 << (WNAF_WIDTH - 2);
+        byte[][] ws = new byte[count][];
+        PointProjective[][] tables = new PointProjective[count][];
+        PointTemp t = new PointTemp();
+
+        for (int i = 0; i < count; ++i)
+        {
+            Wnaf.getSignedVar(ns[i], WNAF_WIDTH, ws[i] = new byte[448]);
+            pointPrecompute(ps[i], tables[i] = new PointProjective[tableSize], 0, tableSize, t);
+        }
+
+        pointSetNeutral(r);
+
+        // NOTE: All scalars are reduced mod L, so no wNAF digit lies above bit 446
+        int bit = 447;
+        while (--bit >= 0)
+        {
+            if (ws_b[bit] != 0)
+            {
+                break;
+            }
+
+            int i = 0;
+            while (i < count && ws[i][bit] == 0)
+            {
+                ++i;
+            }
+            if (i < count)
+            {
+                break;
+            }
+        }
+
+        for (; bit >= 0; --bit)
+        {
+            int wb = ws_b[bit];
+            if (wb != 0)
+            {
+                int index = (wb >> 1) ^ (wb >> 31);
+                pointAddVar(wb < 0, PRECOMP_BASE_WNAF[index], r, t);
+            }
+
+            for (int i = 0; i < count; ++i)
+            {
+                int wi = ws[i][bit];
+                if (wi != 0)
+                {
+                    int index = (wi >> 1) ^ (wi >> 31);
+                    pointAddVar(wi < 0, tables[i][index], r, t);
+                }
+            }
+
+            pointDouble(r, t);
+        }
+
+        // NOTE: Together with the final pointDouble of the loop, this clears the cofactor of 4
+        pointDouble(r, t);
+    }
+
     public static void sign(byte[] sk, int skOff, byte[] ctx, byte[] m, int mOff, int mLen, byte[] sig, int sigOff)
     {
         byte phflag = 0x00;
@@ -1449,6 +1642,33 @@ public static boolean verify(byte[] sig, int sigOff, PublicPoint publicPoint, by
         return implVerify(sig, sigOff, publicPoint, ctx, phflag, m, mOff, mLen);
     }
 
+    /**
+     * Verify a batch of Ed448 signatures in one multi-scalar multiplication, which is considerably cheaper than
+     * verifying each signature separately. A result of false only means that at least one signature in the batch
+     * is invalid; use {@link #verify(byte[], int, byte[], int, byte[], byte[], int, int)} to identify which.
+     *
+     * @param sigs the signatures, each exactly {@link #SIGNATURE_SIZE} bytes.
+     * @param pks the encoded public keys, each exactly {@link #PUBLIC_KEY_SIZE} bytes.
+     * @param ctx the context, common to every signature in the batch.
+     * @param ms the messages.
+     * @param random source of the random coefficients for the batch equation.
+     * @return true if every signature in the batch is valid, false otherwise.
+     */
+    public static boolean verifyBatch(byte[][] sigs, byte[][] pks, byte[] ctx, byte[][] ms, SecureRandom random)
+    {
+        byte phflag = 0x00;
+
+        return implVerifyBatch(sigs, pks, null, ctx, phflag, ms, random);
+    }
+
+    public static boolean verifyBatch(byte[][] sigs, PublicPoint[] publicPoints, byte[] ctx, byte[][] ms,
+        SecureRandom random)
+    {
+        byte phflag = 0x00;
+
+        return implVerifyBatch(sigs, null, publicPoints, ctx, phflag, ms, random);
+    }
+
     public static boolean verifyPrehash(byte[] sig, int sigOff, byte[] pk, int pkOff, byte[] ctx, byte[] ph, int phOff)
     {
         byte phflag = 0x01;
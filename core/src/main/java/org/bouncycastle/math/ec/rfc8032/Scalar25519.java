@@ -27,6 +27,18 @@
     private static final int L3 = -0x006215D1;      // L3:23/--
     private static final int L4 =  0x000014DF;      // L4:12/11
 
+    static void addVar(int[] x, int[] y, int[] z)
+    {
+//        assert !Nat256.gte(x, L);
+//        assert !Nat256.gte(y, L);
+
+        Nat256.add(x, y, z);
+        if (Nat256.gte(z, L))
+        {
+            Nat256.subFrom(L, z);
+        }
+    }
+
     static boolean checkVar(byte[] s, int[] n)
     {
         decode(s, n);
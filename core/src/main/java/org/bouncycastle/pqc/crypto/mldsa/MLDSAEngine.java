@@ -226,6 +226,23 @@ else if (this.DilithiumGamma1 == (1 << 19))
         }
     }
 
+    /**
+     * Sample s1 and s2 from the nonces 0 to L + K - 1, expanding both vectors together so the polynomials can be
+     * sampled four at a time.
+     */
+    private void expandS(PolyVecL s1, PolyVecK s2, byte[] rhoPrime)
+    {
+        Poly[] polys = new Poly[DilithiumL + DilithiumK];
+        short[] nonces = new short[DilithiumL + DilithiumK];
+        System.arraycopy(s1.vec, 0, polys, 0, DilithiumL);
+        System.arraycopy(s2.vec, 0, polys, DilithiumL, DilithiumK);
+        for (int i = 0; i < nonces.length; i++)
+        {
+            nonces[i] = (short)i;
+        }
+        Poly.uniformEta(polys, nonces, rhoPrime);
+    }
+
     //Internal functions are deterministic. No randomness is sampled inside them
     byte[][] generateKeyPairInternal(byte[] seed)
     {
@@ -263,11 +280,9 @@ byte[][] generateKeyPairInternal(byte[] seed)
 
         // System.out.println("rhoPrime = ");
         // Helper.printByteArray(rhoPrime);
-        s1.uniformEta(rhoPrime, (short)0);
+        expandS(s1, s2, rhoPrime);
         // System.out.println(s1.toString("s1"));
 
-        s2.uniformEta(rhoPrime, (short)DilithiumL);
-
         s1hat = new PolyVecL(this);
 
         s1.copyPolyVecL(s1hat);
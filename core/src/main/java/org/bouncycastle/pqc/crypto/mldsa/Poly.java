@@ -51,7 +51,7 @@ public void uniformBlocks(byte[] seed, short nonce)
 
         symmetric.stream128squeezeBlocks(buf, 0, buflen);
 
-        ctr = rejectUniform(this, 0, dilithiumN, buf, buflen);
+        ctr = PolyKernels.rejectUniform(this.coeffs, 0, dilithiumN, buf, buflen);
 
         // ctr can be less than N
 
@@ -64,12 +64,12 @@ public void uniformBlocks(byte[] seed, short nonce)
             }
             symmetric.stream128squeezeBlocks(buf, off, symmetric.stream128BlockBytes);
             buflen = symmetric.stream128BlockBytes + off;
-            ctr += rejectUniform(this, ctr, dilithiumN - ctr, buf, buflen);
+            ctr += PolyKernels.rejectUniform(this.coeffs, ctr, dilithiumN - ctr, buf, buflen);
         }
 
     }
 
-    private static int rejectUniform(Poly outputPoly, int coeffOff, int len, byte[] inpBuf, int buflen)
+    static int rejectUniform(int[] r, int coeffOff, int len, byte[] inpBuf, int buflen)
     {
         int ctr, pos;
         int t;
@@ -84,7 +84,7 @@ private static int rejectUniform(Poly outputPoly, int coeffOff, int len, byte[]
 
             if (t < MLDSAEngine.DilithiumQ)
             {
-                outputPoly.setCoeffIndex(coeffOff + ctr, t);
+                r[coeffOff + ctr] = t;
                 ctr++;
             }
         }
@@ -117,17 +117,172 @@ else if (engine.getDilithiumEta() == 4)
         symmetric.stream256init(seed, nonce);
         symmetric.stream256squeezeBlocks(buf, 0, buflen);
 
-        ctr = rejectEta(this, 0, dilithiumN, buf, buflen, eta);
+        ctr = PolyKernels.rejectEta(this.coeffs, 0, dilithiumN, buf, buflen, eta);
 
         while (ctr < MLDSAEngine.DilithiumN)
         {
             symmetric.stream256squeezeBlocks(buf, 0, symmetric.stream256BlockBytes);
-            ctr += rejectEta(this, ctr, dilithiumN - ctr, buf, symmetric.stream256BlockBytes, eta);
+            ctr += PolyKernels.rejectEta(this.coeffs, ctr, dilithiumN - ctr, buf, symmetric.stream256BlockBytes, eta);
         }
 
     }
 
-    private static int rejectEta(Poly outputPoly, int coeffOff, int len, byte[] buf, int buflen, int eta)
+    /**
+     * Sample each of polys[i] as uniformBlocks(seed, nonces[i]) does, expanding four polynomials at a time.
+     */
+    static void uniformBlocks(Poly[] polys, short[] nonces, byte[] seed)
+    {
+        Poly[] group = new Poly[4];
+        short[] groupNonces = new short[4];
+        for (int base = 0; base < polys.length; base += 4)
+        {
+            int count = Math.min(4, polys.length - base);
+            System.arraycopy(polys, base, group, 0, count);
+            System.arraycopy(nonces, base, groupNonces, 0, count);
+            uniformBlocksX4(group, groupNonces, count, seed);
+        }
+    }
+
+    private static void uniformBlocksX4(Poly[] polys, short[] nonces, int count, byte[] seed)
+    {
+        Symmetric symmetric = polys[0].symmetric;
+        int i, l, off, dilithiumN = MLDSAEngine.DilithiumN,
+            buflen = polys[0].polyUniformNBlocks * symmetric.stream128BlockBytes;
+        byte[][] bufs = new byte[4][];
+        byte[][] out = new byte[4][];
+        int[] ctr = new int[4];
+
+        for (l = 0; l < count; l++)
+        {
+            bufs[l] = new byte[buflen + 2];
+            out[l] = bufs[l];
+        }
+
+        symmetric.stream128initX4(seed, nonces, count);
+
+        symmetric.stream128squeezeBlocksX4(out, 0, buflen);
+
+        boolean done = true;
+        for (l = 0; l < count; l++)
+        {
+            ctr[l] = PolyKernels.rejectUniform(polys[l].coeffs, 0, dilithiumN, bufs[l], buflen);
+            done &= ctr[l] == dilithiumN;
+        }
+
+        // ctr can be less than N
+
+        while (!done)
+        {
+            off = buflen % 3;
+            for (l = 0; l < count; l++)
+            {
+                if (ctr[l] < dilithiumN)
+                {
+                    for (i = 0; i < off; ++i)
+                    {
+                        bufs[l][i] = bufs[l][buflen - off + i];
+                    }
+                }
+                else
+                {
+                    out[l] = null;
+                }
+            }
+            symmetric.stream128squeezeBlocksX4(out, off, symmetric.stream128BlockBytes);
+            buflen = symmetric.stream128BlockBytes + off;
+
+            done = true;
+            for (l = 0; l < count; l++)
+            {
+                if (ctr[l] < dilithiumN)
+                {
+                    ctr[l] += PolyKernels.rejectUniform(polys[l].coeffs, ctr[l], dilithiumN - ctr[l], bufs[l], buflen);
+                    done &= ctr[l] == dilithiumN;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sample each of polys[i] as uniformEta(seed, nonces[i]) does, expanding four polynomials at a time.
+     */
+    static void uniformEta(Poly[] polys, short[] nonces, byte[] seed)
+    {
+        Poly[] group = new Poly[4];
+        short[] groupNonces = new short[4];
+        for (int base = 0; base < polys.length; base += 4)
+        {
+            int count = Math.min(4, polys.length - base);
+            System.arraycopy(polys, base, group, 0, count);
+            System.arraycopy(nonces, base, groupNonces, 0, count);
+            uniformEtaX4(group, groupNonces, count, seed);
+        }
+    }
+
+    private static void uniformEtaX4(Poly[] polys, short[] nonces, int count, byte[] seed)
+    {
+        MLDSAEngine engine = polys[0].engine;
+        Symmetric symmetric = polys[0].symmetric;
+        int l, polyUniformEtaNBlocks, eta = engine.getDilithiumEta(), dilithiumN = MLDSAEngine.DilithiumN;
+
+        if (eta == 2)
+        {
+            polyUniformEtaNBlocks = ((136 + symmetric.stream256BlockBytes - 1) / symmetric.stream256BlockBytes);
+        }
+        else if (eta == 4)
+        {
+            polyUniformEtaNBlocks = ((227 + symmetric.stream256BlockBytes - 1) / symmetric.stream256BlockBytes);
+        }
+        else
+        {
+            throw new RuntimeException("Wrong Dilithium Eta!");
+        }
+
+        int buflen = polyUniformEtaNBlocks * symmetric.stream256BlockBytes;
+        byte[][] bufs = new byte[4][];
+        byte[][] out = new byte[4][];
+        int[] ctr = new int[4];
+
+        for (l = 0; l < count; l++)
+        {
+            bufs[l] = new byte[buflen];
+            out[l] = bufs[l];
+        }
+
+        symmetric.stream256initX4(seed, nonces, count);
+        symmetric.stream256squeezeBlocksX4(out, 0, buflen);
+
+        boolean done = true;
+        for (l = 0; l < count; l++)
+        {
+            ctr[l] = PolyKernels.rejectEta(polys[l].coeffs, 0, dilithiumN, bufs[l], buflen, eta);
+            done &= ctr[l] == dilithiumN;
+        }
+
+        while (!done)
+        {
+            for (l = 0; l < count; l++)
+            {
+                if (ctr[l] == dilithiumN)
+                {
+                    out[l] = null;
+                }
+            }
+            symmetric.stream256squeezeBlocksX4(out, 0, symmetric.stream256BlockBytes);
+
+            done = true;
+            for (l = 0; l < count; l++)
+            {
+                if (ctr[l] < dilithiumN)
+                {
+                    ctr[l] += PolyKernels.rejectEta(polys[l].coeffs, ctr[l], dilithiumN - ctr[l], bufs[l], symmetric.stream256BlockBytes, eta);
+                    done &= ctr[l] == dilithiumN;
+                }
+            }
+        }
+    }
+
+    static int rejectEta(int[] r, int coeffOff, int len, byte[] buf, int buflen, int eta)
     {
         int ctr, pos;
         int t0, t1;
@@ -143,13 +298,13 @@ private static int rejectEta(Poly outputPoly, int coeffOff, int len, byte[] buf,
                 if (t0 < 15)
                 {
                     t0 = t0 - (205 * t0 >> 10) * 5;
-                    outputPoly.setCoeffIndex(coeffOff + ctr, 2 - t0);
+                    r[coeffOff + ctr] = 2 - t0;
                     ctr++;
                 }
                 if (t1 < 15 && ctr < len)
                 {
                     t1 = t1 - (205 * t1 >> 10) * 5;
-                    outputPoly.setCoeffIndex(coeffOff + ctr, 2 - t1);
+                    r[coeffOff + ctr] = 2 - t1;
                     ctr++;
                 }
             }
@@ -157,15 +312,14 @@ else if (eta == 4)
             {
                 if (t0 < 9)
                 {
-                    outputPoly.setCoeffIndex(coeffOff + ctr, 4 - t0);
+                    r[coeffOff + ctr] = 4 - t0;
                     ctr++;
                 }
                 if (t1 < 9 && ctr < len)
                 {
-                    outputPoly.setCoeffIndex(coeffOff + ctr, 4 - t1);
+                    r[coeffOff + ctr] = 4 - t1;
                     ctr++;
                 }
-                // System.out.printf("ctr %d coeff %d\n", ctr, outputPoly.getCoeffIndex(ctr - 1));
             }
         }
         return ctr;
@@ -173,16 +327,12 @@ else if (eta == 4)
 
     public void polyNtt()
     {
-        this.setCoeffs(Ntt.ntt(this.coeffs));
+        PolyKernels.ntt(this.coeffs);
     }
 
     public void pointwiseMontgomery(Poly v, Poly w)
     {
-        int i;
-        for (i = 0; i < dilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.montgomeryReduce((long)((long)v.getCoeffIndex(i) * (long)w.getCoeffIndex(i))));
-        }
+        PolyKernels.pointwiseMontgomery(this.coeffs, v.coeffs, w.coeffs);
     }
 
     public void pointwiseAccountMontgomery(PolyVecL u, PolyVecL v)
@@ -213,23 +363,17 @@ public void addPoly(Poly a)
 
     public void reduce()
     {
-        for (int i = 0; i < dilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.reduce32(this.getCoeffIndex(i)));
-        }
+        PolyKernels.reduce32(this.coeffs);
     }
 
     public void invNttToMont()
     {
-        this.setCoeffs(Ntt.invNttToMont(this.getCoeffs()));
+        PolyKernels.invNttToMont(this.coeffs);
     }
 
     public void conditionalAddQ()
     {
-        for (int i = 0; i < dilithiumN; ++i)
-        {
-            this.setCoeffIndex(i, Reduce.conditionalAddQ(this.getCoeffIndex(i)));
-        }
+        PolyKernels.conditionalAddQ(this.coeffs);
     }
 
     public void power2Round(Poly a)
@@ -470,6 +614,36 @@ public void uniformGamma1(byte[] seed, short nonce)
         this.unpackZ(buf);
     }
 
+    /**
+     * Sample each of polys[i] as uniformGamma1(seed, nonces[i]) does, expanding four polynomials at a time.
+     */
+    static void uniformGamma1(Poly[] polys, short[] nonces, byte[] seed)
+    {
+        MLDSAEngine engine = polys[0].engine;
+        Symmetric symmetric = polys[0].symmetric;
+        int buflen = engine.getPolyUniformGamma1NBlocks() * symmetric.stream256BlockBytes;
+        byte[][] bufs = new byte[4][];
+        short[] groupNonces = new short[4];
+
+        for (int base = 0; base < polys.length; base += 4)
+        {
+            int count = Math.min(4, polys.length - base);
+            for (int l = 0; l < 4; l++)
+            {
+                bufs[l] = l < count ? new byte[buflen] : null;
+            }
+            System.arraycopy(nonces, base, groupNonces, 0, count);
+
+            symmetric.stream256initX4(seed, groupNonces, count);
+            symmetric.stream256squeezeBlocksX4(bufs, 0, buflen);
+
+            for (int l = 0; l < count; l++)
+            {
+                polys[base + l].unpackZ(bufs[l]);
+            }
+        }
+    }
+
     private void unpackZ(byte[] a)
     {
         int i;
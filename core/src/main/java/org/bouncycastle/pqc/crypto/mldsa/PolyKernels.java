@@ -0,0 +1,44 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+/**
+ * Operations on whole polynomials, in place on their coefficient arrays. This version uses the scalar code in Ntt,
+ * Reduce, and Poly - the JDK 21 version of this class in the provider jar replaces it with Vector API
+ * implementations where the jdk.incubator.vector module is available.
+ */
+class PolyKernels
+{
+    static void ntt(int[] r)
+    {
+        Ntt.ntt(r);
+    }
+
+    static void invNttToMont(int[] r)
+    {
+        Ntt.invNttToMont(r);
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        Ntt.pointwiseMontgomery(r, a, b);
+    }
+
+    static void reduce32(int[] r)
+    {
+        Reduce.reduce32(r);
+    }
+
+    static void conditionalAddQ(int[] r)
+    {
+        Reduce.conditionalAddQ(r);
+    }
+
+    static int rejectUniform(int[] r, int coeffOff, int len, byte[] buf, int buflen)
+    {
+        return Poly.rejectUniform(r, coeffOff, len, buf, buflen);
+    }
+
+    static int rejectEta(int[] r, int coeffOff, int len, byte[] buf, int buflen, int eta)
+    {
+        return Poly.rejectEta(r, coeffOff, len, buf, buflen, eta);
+    }
+}
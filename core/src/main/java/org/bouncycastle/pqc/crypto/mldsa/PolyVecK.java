@@ -42,12 +42,12 @@ public void setVectorIndex(int i, Poly p)
     public void uniformEta(byte[] seed, short nonce)
     {
         int i;
-        short n = nonce;
+        short[] nonces = new short[dilithiumK];
         for (i = 0; i < dilithiumK; ++i)
         {
-            getVectorIndex(i).uniformEta(seed, n++);
+            nonces[i] = (short)(nonce + i);
         }
-
+        Poly.uniformEta(vec, nonces, seed);
     }
 
     public void reduce()
@@ -46,12 +46,12 @@ public void expandMatrix(byte[] rho, int i)
     public void uniformEta(byte[] seed, short nonce)
     {
         int i;
-        short n = nonce;
+        short[] nonces = new short[dilithiumL];
         for (i = 0; i < dilithiumL; ++i)
         {
-            getVectorIndex(i).uniformEta(seed, n++);
+            nonces[i] = (short)(nonce + i);
         }
-
+        Poly.uniformEta(vec, nonces, seed);
     }
 
     public void copyPolyVecL(PolyVecL outPoly)
@@ -77,11 +77,12 @@ public void polyVecNtt()
     public void uniformGamma1(byte[] seed, short nonce)
     {
         int i;
+        short[] nonces = new short[dilithiumL];
         for (i = 0; i < dilithiumL; ++i)
         {
-            this.getVectorIndex(i).uniformGamma1(seed, (short)(dilithiumL * nonce + i));
+            nonces[i] = (short)(dilithiumL * nonce + i);
         }
-
+        Poly.uniformGamma1(vec, nonces, seed);
     }
 
     public void pointwisePolyMontgomery(Poly a, PolyVecL v)
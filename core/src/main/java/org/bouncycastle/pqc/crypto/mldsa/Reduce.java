@@ -25,4 +25,20 @@ static int conditionalAddQ(int a)
         a += (a >> 31) & MLDSAEngine.DilithiumQ;
         return a;
     }
+
+    static void reduce32(int[] r)
+    {
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            r[i] = reduce32(r[i]);
+        }
+    }
+
+    static void conditionalAddQ(int[] r)
+    {
+        for (int i = 0; i < MLDSAEngine.DilithiumN; ++i)
+        {
+            r[i] = conditionalAddQ(r[i]);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.bouncycastle.pqc.crypto.mldsa;
 
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEX4;
 
 abstract class Symmetric
 {
@@ -22,17 +23,35 @@
 
     abstract void stream256squeezeBlocks(byte[] output, int offset, int size);
 
+    /**
+     * Initialise four 128 bit streams run side by side, the first count of them with the seed and nonces[i].
+     */
+    abstract void stream128initX4(byte[] seed, short[] nonces, int count);
+
+    /**
+     * Initialise four 256 bit streams run side by side, the first count of them with the seed and nonces[i].
+     */
+    abstract void stream256initX4(byte[] seed, short[] nonces, int count);
+
+    abstract void stream128squeezeBlocksX4(byte[][] output, int offset, int size);
+
+    abstract void stream256squeezeBlocksX4(byte[][] output, int offset, int size);
+
     static class ShakeSymmetric
         extends Symmetric
     {
         private final SHAKEDigest digest128;
         private final SHAKEDigest digest256;
+        private final SHAKEX4 digest128X4;
+        private final SHAKEX4 digest256X4;
 
         ShakeSymmetric()
         {
             super(168, 136);
             digest128 = new SHAKEDigest(128);
             digest256 = new SHAKEDigest(256);
+            digest128X4 = new SHAKEX4(128);
+            digest256X4 = new SHAKEX4(256);
         }
 
         private void streamInit(SHAKEDigest digest, byte[] seed, short nonce)
@@ -53,6 +72,21 @@ private void streamInit(SHAKEDigest digest, byte[] seed, short nonce)
         }
 
 
+        private void streamInitX4(SHAKEX4 digest, byte[] seed, short[] nonces, int count)
+        {
+            digest.reset();
+            byte[][] temp = new byte[4][];
+            for (int i = 0; i < count; i++)
+            {
+                temp[i] = new byte[seed.length + 2];
+                System.arraycopy(seed, 0, temp[i], 0, seed.length);
+                temp[i][seed.length] = (byte)nonces[i];
+                temp[i][seed.length + 1] = (byte)(nonces[i] >> 8);
+            }
+
+            digest.update(temp, 0, seed.length + 2);
+        }
+
         @Override
         void stream128init(byte[] seed, short nonce)
         {
@@ -76,5 +110,29 @@ void stream256squeezeBlocks(byte[] output, int offset, int size)
         {
             digest256.doOutput(output, offset, size);
         }
+
+        @Override
+        void stream128initX4(byte[] seed, short[] nonces, int count)
+        {
+            streamInitX4(digest128X4, seed, nonces, count);
+        }
+
+        @Override
+        void stream256initX4(byte[] seed, short[] nonces, int count)
+        {
+            streamInitX4(digest256X4, seed, nonces, count);
+        }
+
+        @Override
+        void stream128squeezeBlocksX4(byte[][] output, int offset, int size)
+        {
+            digest128X4.doOutput(output, offset, size);
+        }
+
+        @Override
+        void stream256squeezeBlocksX4(byte[][] output, int offset, int size)
+        {
+            digest256X4.doOutput(output, offset, size);
+        }
     }
 }
@@ -3,7 +3,7 @@
 final class CBD
 {
 
-    public static void mlkemCBD(Poly r, byte[] bytes, int eta)
+    public static void mlkemCBD(short[] r, byte[] bytes, int eta)
     {
         long t, d;
         int a, b;
@@ -22,7 +22,7 @@ public static void mlkemCBD(Poly r, byte[] bytes, int eta)
                     a = (short)((d >> (6 * j + 0)) & 0x7);
                     b = (short)((d >> (6 * j + 3)) & 0x7);
                     // System.out.printf("a = %d, b = %d\n", a, b);
-                    r.setCoeffIndex(4 * i + j, (short)(a - b));
+                    r[4 * i + j] = (short)(a - b);
                 }
             }
             break;
@@ -37,7 +37,7 @@ public static void mlkemCBD(Poly r, byte[] bytes, int eta)
                 {
                     a = (short)((d >> (4 * j + 0)) & 0x3);
                     b = (short)((d >> (4 * j + eta)) & 0x3);
-                    r.setCoeffIndex(8 * i + j, (short)(a - b));
+                    r[8 * i + j] = (short)(a - b);
                 }
             }
         }
@@ -1,6 +1,5 @@
 package org.bouncycastle.pqc.crypto.mlkem;
 
-import org.bouncycastle.crypto.digests.SHAKEDigest;
 import org.bouncycastle.util.Arrays;
 
 class MLKEMIndCpa
@@ -319,44 +318,84 @@ public void unpackSecretKey(PolyVec secretKeyPolyVec, byte[] secretKey)
 
     public void generateMatrix(PolyVec[] aMatrix, byte[] seed, boolean transposed)
     {
-        int i, j, k, ctr, off;
-        SHAKEDigest kyberXOF;
-        byte[] buf = new byte[KyberGenerateMatrixNBlocks * symmetric.xofBlockBytes + 2];
-        for (i = 0; i < kyberK; i++)
+        int i, j, k, l, off;
+        int initialLen = KyberGenerateMatrixNBlocks * symmetric.xofBlockBytes;
+        byte[][] bufs = new byte[4][];
+        byte[][] out = new byte[4][];
+        short[][] coeffs = new short[4][];
+        int[] ctr = new int[4];
+        byte[] x = new byte[4];
+        byte[] y = new byte[4];
+
+        for (l = 0; l < 4; l++)
+        {
+            bufs[l] = new byte[initialLen + 2];
+        }
+
+        // the matrix entries are expanded four at a time, each from its own XOF instance
+        for (int base = 0; base < kyberK * kyberK; base += 4)
         {
-            for (j = 0; j < kyberK; j++)
+            int count = Math.min(4, kyberK * kyberK - base);
+            for (l = 0; l < count; l++)
             {
-                if (transposed)
-                {
-                    symmetric.xofAbsorb(seed, (byte) i, (byte) j);
-                }
-                else
+                i = (base + l) / kyberK;
+                j = (base + l) % kyberK;
+                coeffs[l] = aMatrix[i].getVectorIndex(j).getCoeffs();
+                x[l] = transposed ? (byte)i : (byte)j;
+                y[l] = transposed ? (byte)j : (byte)i;
+                out[l] = bufs[l];
+            }
+            for (l = count; l < 4; l++)
+            {
+                out[l] = null;
+            }
+
+            symmetric.xofAbsorbX4(seed, x, y, count);
+            symmetric.xofSqueezeBlocksX4(out, 0, initialLen);
+
+            int buflen = initialLen;
+            boolean done = true;
+            for (l = 0; l < count; l++)
+            {
+                ctr[l] = PolyKernels.rejectionSampling(coeffs[l], 0, MLKEMEngine.KyberN, bufs[l], buflen);
+                done &= ctr[l] == MLKEMEngine.KyberN;
+            }
+
+            while (!done)
+            {
+                off = buflen % 3;
+                for (l = 0; l < count; l++)
                 {
-                    symmetric.xofAbsorb(seed, (byte) j, (byte) i);
+                    if (ctr[l] < MLKEMEngine.KyberN)
+                    {
+                        for (k = 0; k < off; k++)
+                        {
+                            bufs[l][k] = bufs[l][buflen - off + k];
+                        }
+                    }
+                    else
+                    {
+                        out[l] = null;
+                    }
                 }
-                symmetric.xofSqueezeBlocks(buf, 0, symmetric.xofBlockBytes * KyberGenerateMatrixNBlocks);
+                symmetric.xofSqueezeBlocksX4(out, off, symmetric.xofBlockBytes * 2);
+                buflen = off + symmetric.xofBlockBytes;
 
-                int buflen = KyberGenerateMatrixNBlocks * symmetric.xofBlockBytes;
-                ctr = rejectionSampling(aMatrix[i].getVectorIndex(j), 0, MLKEMEngine.KyberN, buf, buflen);
-
-                while (ctr < MLKEMEngine.KyberN)
+                done = true;
+                for (l = 0; l < count; l++)
                 {
-                    off = buflen % 3;
-                    for (k = 0; k < off; k++)
+                    if (ctr[l] < MLKEMEngine.KyberN)
                     {
-                        buf[k] = buf[buflen - off + k];
+                        // Error in code Section Unsure
+                        ctr[l] += PolyKernels.rejectionSampling(coeffs[l], ctr[l], MLKEMEngine.KyberN - ctr[l], bufs[l], buflen);
+                        done &= ctr[l] == MLKEMEngine.KyberN;
                     }
-                    symmetric.xofSqueezeBlocks(buf, off, symmetric.xofBlockBytes * 2);
-                    buflen = off + symmetric.xofBlockBytes;
-                    // Error in code Section Unsure
-                    ctr += rejectionSampling(aMatrix[i].getVectorIndex(j), ctr, MLKEMEngine.KyberN - ctr, buf, buflen);
                 }
             }
         }
-
     }
 
-    private static int rejectionSampling(Poly outputBuffer, int coeffOff, int len, byte[] inpBuf, int inpBufLen)
+    static int rejectionSampling(short[] r, int coeffOff, int len, byte[] inpBuf, int inpBufLen)
     {
         int ctr, pos;
         short val0, val1;
@@ -368,12 +407,12 @@ private static int rejectionSampling(Poly outputBuffer, int coeffOff, int len, b
             pos = pos + 3;
             if (val0 < (short)MLKEMEngine.KyberQ)
             {
-                outputBuffer.setCoeffIndex(coeffOff + ctr, (short)val0);
+                r[coeffOff + ctr] = val0;
                 ctr++;
             }
             if (ctr < len && val1 < (short)MLKEMEngine.KyberQ)
             {
-                outputBuffer.setCoeffIndex(coeffOff + ctr, (short)val1);
+                r[coeffOff + ctr] = val1;
                 ctr++;
             }
         }
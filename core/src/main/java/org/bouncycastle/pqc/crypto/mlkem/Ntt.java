@@ -27,10 +27,8 @@
         829, 2946, 3065, 1325, 2756, 1861, 1474, 1202, 2367, 3147, 1752, 2707, 171,
         3127, 3042, 1907, 1836, 1517, 359, 758, 1441};
 
-    public static short[] ntt(short[] inp)
+    public static void ntt(short[] r)
     {
-        short[] r = new short[MLKEMEngine.KyberN];
-        System.arraycopy(inp, 0, r, 0, r.length);
         int len, start, j, k;
         short t, zeta;
 
@@ -48,13 +46,10 @@ public static short[] ntt(short[] inp)
                 }
             }
         }
-        return r;
     }
 
-    public static short[] invNtt(short[] inp)
+    public static void invNtt(short[] r)
     {
-        short[] r = new short[MLKEMEngine.KyberN];
-        System.arraycopy(inp, 0, r, 0, MLKEMEngine.KyberN);
         int len, start, j, k;
         short t, zeta;
         k = 0;
@@ -78,7 +73,6 @@ public static short[] invNtt(short[] inp)
         {
             r[j] = factorQMulMont(r[j], Ntt.nttZetasInv[127]);
         }
-        return r;
     }
 
     public static short factorQMulMont(short a, short b)
@@ -86,15 +80,26 @@ public static short factorQMulMont(short a, short b)
         return Reduce.montgomeryReduce((int)(a * b));
     }
 
-    public static void baseMult(Poly outPoly, int outIndex, short a0, short a1, short b0, short b1, short zeta)
+    public static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        int i;
+        for (i = 0; i < MLKEMEngine.KyberN / 4; i++)
+        {
+            baseMult(r, 4 * i, a[4 * i], a[4 * i + 1], b[4 * i], b[4 * i + 1], nttZetas[64 + i]);
+            baseMult(r, 4 * i + 2, a[4 * i + 2], a[4 * i + 3], b[4 * i + 2], b[4 * i + 3],
+                (short)(-1 * nttZetas[64 + i]));
+        }
+    }
+
+    public static void baseMult(short[] r, int outIndex, short a0, short a1, short b0, short b1, short zeta)
     {
         short outVal0 = factorQMulMont(a1, b1);
         outVal0 = factorQMulMont(outVal0, zeta);
         outVal0 += factorQMulMont(a0, b0);
-        outPoly.setCoeffIndex(outIndex, outVal0);
+        r[outIndex] = outVal0;
 
         short outVal1 = factorQMulMont(a0, b1);
         outVal1 += factorQMulMont(a1, b0);
-        outPoly.setCoeffIndex(outIndex + 1, outVal1);
+        r[outIndex + 1] = outVal1;
     }
-}
\ No newline at end of file
+}
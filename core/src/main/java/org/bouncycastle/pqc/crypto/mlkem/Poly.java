@@ -42,38 +42,22 @@ public void setCoeffs(short[] coeffs)
 
     public void polyNtt()
     {
-        this.setCoeffs(Ntt.ntt(this.getCoeffs()));
-        this.reduce();
+        PolyKernels.nttReduce(this.coeffs);
     }
 
     public void polyInverseNttToMont()
     {
-        this.setCoeffs(Ntt.invNtt(this.getCoeffs()));
+        PolyKernels.invNtt(this.coeffs);
     }
 
     public void reduce()
     {
-        int i;
-        for (i = 0; i < MLKEMEngine.KyberN; i++)
-        {
-            this.setCoeffIndex(i, Reduce.barretReduce(this.getCoeffIndex(i)));
-        }
+        PolyKernels.reduce(this.coeffs);
     }
 
     public static void baseMultMontgomery(Poly r, Poly a, Poly b)
     {
-        int i;
-        for (i = 0; i < MLKEMEngine.KyberN / 4; i++)
-        {
-            Ntt.baseMult(r, 4 * i,
-                a.getCoeffIndex(4 * i), a.getCoeffIndex(4 * i + 1),
-                b.getCoeffIndex(4 * i), b.getCoeffIndex(4 * i + 1),
-                Ntt.nttZetas[64 + i]);
-            Ntt.baseMult(r, 4 * i + 2,
-                a.getCoeffIndex(4 * i + 2), a.getCoeffIndex(4 * i + 3),
-                b.getCoeffIndex(4 * i + 2), b.getCoeffIndex(4 * i + 3),
-                (short)(-1 * Ntt.nttZetas[64 + i]));
-        }
+        PolyKernels.baseMultMontgomery(r.coeffs, a.coeffs, b.coeffs);
     }
 
     public void addCoeffs(Poly b)
@@ -305,25 +289,21 @@ public void fromMsg(byte[] msg)
 
     public void conditionalSubQ()
     {
-        int i;
-        for (i = 0; i < MLKEMEngine.KyberN; i++)
-        {
-            this.setCoeffIndex(i, Reduce.conditionalSubQ(this.getCoeffIndex(i)));
-        }
+        PolyKernels.conditionalSubQ(this.coeffs);
     }
 
     public void getEta1Noise(byte[] seed, byte nonce)
     {
         byte[] buf = new byte[MLKEMEngine.KyberN * eta1 / 4];
         symmetric.prf(buf, seed, nonce);
-        CBD.mlkemCBD(this, buf, eta1);
+        PolyKernels.cbd(this.coeffs, buf, eta1);
     }
 
     public void getEta2Noise(byte[] seed, byte nonce)
     {
         byte[] buf = new byte[MLKEMEngine.KyberN * eta2 / 4];
         symmetric.prf(buf, seed, nonce);
-        CBD.mlkemCBD(this, buf, eta2);
+        PolyKernels.cbd(this.coeffs, buf, eta2);
     }
 
     public void polySubtract(Poly b)
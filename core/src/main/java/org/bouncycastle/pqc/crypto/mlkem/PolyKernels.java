@@ -0,0 +1,48 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+/**
+ * Operations on whole polynomials, in place on their coefficient arrays. This version uses the scalar code in Ntt,
+ * Reduce, and CBD - the JDK 21 version of this class in the provider jar replaces it with Vector API
+ * implementations where the jdk.incubator.vector module is available.
+ */
+class PolyKernels
+{
+    /**
+     * Forward NTT followed by a Barrett reduction of every coefficient.
+     */
+    static void nttReduce(short[] r)
+    {
+        Ntt.ntt(r);
+        Reduce.barretReduce(r);
+    }
+
+    static void invNtt(short[] r)
+    {
+        Ntt.invNtt(r);
+    }
+
+    static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        Ntt.baseMultMontgomery(r, a, b);
+    }
+
+    static void reduce(short[] r)
+    {
+        Reduce.barretReduce(r);
+    }
+
+    static void conditionalSubQ(short[] r)
+    {
+        Reduce.conditionalSubQ(r);
+    }
+
+    static void cbd(short[] r, byte[] bytes, int eta)
+    {
+        CBD.mlkemCBD(r, bytes, eta);
+    }
+
+    static int rejectionSampling(short[] r, int coeffOff, int len, byte[] inpBuf, int inpBufLen)
+    {
+        return MLKEMIndCpa.rejectionSampling(r, coeffOff, len, inpBuf, inpBufLen);
+    }
+}
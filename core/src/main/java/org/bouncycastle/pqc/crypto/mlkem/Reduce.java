@@ -32,4 +32,19 @@ public static short conditionalSubQ(short a)
         return a;
     }
 
+    public static void barretReduce(short[] r)
+    {
+        for (int i = 0; i < MLKEMEngine.KyberN; i++)
+        {
+            r[i] = barretReduce(r[i]);
+        }
+    }
+
+    public static void conditionalSubQ(short[] r)
+    {
+        for (int i = 0; i < MLKEMEngine.KyberN; i++)
+        {
+            r[i] = conditionalSubQ(r[i]);
+        }
+    }
 }
@@ -2,6 +2,7 @@
 
 import org.bouncycastle.crypto.digests.SHA3Digest;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEX4;
 
 abstract class Symmetric
 {
@@ -16,6 +17,16 @@
 
     abstract void xofSqueezeBlocks(byte[] out, int outOffset, int outLen);
 
+    /**
+     * Absorb the seed and the first count pairs of x[i], y[i] into four XOF instances run side by side.
+     */
+    abstract void xofAbsorbX4(byte[] seed, byte[] x, byte[] y, int count);
+
+    /**
+     * Squeeze outLen bytes from each of the four XOF instances, null entries in out being skipped.
+     */
+    abstract void xofSqueezeBlocksX4(byte[][] out, int outOffset, int outLen);
+
     abstract void prf(byte[] out, byte[] key, byte nonce);
 
     abstract void kdf(byte[] out, byte[] in);
@@ -30,6 +41,7 @@
         extends Symmetric
     {
         private final SHAKEDigest xof;
+        private final SHAKEX4 xofX4;
         private final SHA3Digest sha3Digest512;
         private final SHA3Digest sha3Digest256;
         private final SHAKEDigest shakeDigest;
@@ -38,6 +50,7 @@
         {
             super(168);
             this.xof = new SHAKEDigest(128);
+            this.xofX4 = new SHAKEX4(128);
             this.shakeDigest = new SHAKEDigest(256);
             this.sha3Digest256 = new SHA3Digest(256);
             this.sha3Digest512 = new SHA3Digest(512);
@@ -74,6 +87,27 @@ void xofSqueezeBlocks(byte[] out, int outOffset, int outLen)
             xof.doOutput(out, outOffset, outLen);
         }
 
+        @Override
+        void xofAbsorbX4(byte[] seed, byte[] x, byte[] y, int count)
+        {
+            xofX4.reset();
+            byte[][] bufs = new byte[4][];
+            for (int i = 0; i < count; i++)
+            {
+                bufs[i] = new byte[seed.length + 2];
+                System.arraycopy(seed, 0, bufs[i], 0, seed.length);
+                bufs[i][seed.length] = x[i];
+                bufs[i][seed.length + 1] = y[i];
+            }
+            xofX4.update(bufs, 0, seed.length + 2);
+        }
+
+        @Override
+        void xofSqueezeBlocksX4(byte[][] out, int outOffset, int outLen)
+        {
+            xofX4.doOutput(out, outOffset, outLen);
+        }
+
         @Override
         void prf(byte[] out, byte[] seed, byte nonce)
         {
@@ -5,6 +5,7 @@
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.digests.SHA512Digest;
 import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEX4;
 import org.bouncycastle.crypto.generators.MGF1BytesGenerator;
 import org.bouncycastle.crypto.macs.HMac;
 import org.bouncycastle.crypto.params.KeyParameter;
@@ -104,6 +105,34 @@ else if (N <= 256)
 
     abstract byte[] PRF_msg(byte[] prf, byte[] randomiser, byte[] message);
 
+    /**
+     * Apply F to each of the independent inputs m[i] under the address adrs[i]. Engines which can hash several
+     * inputs at once override this, by default the inputs are hashed in turn.
+     */
+    byte[][] F(byte[] pkSeed, ADRS[] adrs, byte[][] m)
+    {
+        byte[][] rv = new byte[m.length][];
+        for (int i = 0; i < m.length; i++)
+        {
+            rv[i] = F(pkSeed, adrs[i], m[i]);
+        }
+        return rv;
+    }
+
+    /**
+     * Apply PRF under each of the independent addresses adrs[i]. Engines which can hash several inputs at once
+     * override this, by default the inputs are hashed in turn.
+     */
+    byte[][] PRF(byte[] pkSeed, byte[] skSeed, ADRS[] adrs)
+    {
+        byte[][] rv = new byte[adrs.length][];
+        for (int i = 0; i < adrs.length; i++)
+        {
+            rv[i] = PRF(pkSeed, skSeed, adrs[i]);
+        }
+        return rv;
+    }
+
     static class Sha2Engine
         extends SLHDSAEngine
     {
@@ -306,6 +335,7 @@ protected byte[] bitmask256(byte[] key, byte[] m)
     {
         private final Xof treeDigest;
         private final Xof maskDigest;
+        private final SHAKEX4 treeDigestX4;
 
         public Shake256Engine(int n, int w, int d, int a, int k, int h)
         {
@@ -313,6 +343,7 @@ public Shake256Engine(int n, int w, int d, int a, int k, int h)
 
             this.treeDigest = new SHAKEDigest(256);
             this.maskDigest = new SHAKEDigest(256);
+            this.treeDigestX4 = new SHAKEX4(256);
         }
 
         void init(byte[] pkSeed)
@@ -417,6 +448,63 @@ public byte[] PRF_msg(byte[] prf, byte[] randomiser, byte[] message)
             return out;
         }
 
+        byte[][] F(byte[] pkSeed, ADRS[] adrs, byte[][] m)
+        {
+            return hashX4(pkSeed, adrs, m);
+        }
+
+        byte[][] PRF(byte[] pkSeed, byte[] skSeed, ADRS[] adrs)
+        {
+            byte[][] m = new byte[adrs.length][];
+            for (int i = 0; i < m.length; i++)
+            {
+                m[i] = skSeed;
+            }
+            return hashX4(pkSeed, adrs, m);
+        }
+
+        /**
+         * Compute SHAKE256(pkSeed || adrs[i] || m[i]) for each i, four at a time, where the m[i] are all the same
+         * length.
+         */
+        private byte[][] hashX4(byte[] pkSeed, ADRS[] adrs, byte[][] m)
+        {
+            byte[][] rv = new byte[m.length][];
+            byte[][] in = new byte[4][];
+            byte[][] out = new byte[4][];
+
+            for (int base = 0; base < m.length; base += 4)
+            {
+                int count = Math.min(4, m.length - base);
+
+                treeDigestX4.reset();
+                for (int l = 0; l < count; l++)
+                {
+                    in[l] = pkSeed;
+                }
+                treeDigestX4.update(in, 0, pkSeed.length);
+                for (int l = 0; l < count; l++)
+                {
+                    in[l] = adrs[base + l].value;
+                }
+                treeDigestX4.update(in, 0, in[0].length);
+                for (int l = 0; l < count; l++)
+                {
+                    in[l] = m[base + l];
+                }
+                treeDigestX4.update(in, 0, in[0].length);
+
+                for (int l = 0; l < 4; l++)
+                {
+                    in[l] = null;
+                    out[l] = l < count ? (rv[base + l] = new byte[N]) : null;
+                }
+                treeDigestX4.doOutput(out, 0, N);
+            }
+
+            return rv;
+        }
+
         protected byte[] bitmask(byte[] pkSeed, ADRS adrs, byte[] m)
         {
             byte[] mask = new byte[m.length];
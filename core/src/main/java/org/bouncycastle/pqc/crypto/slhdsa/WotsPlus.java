@@ -18,22 +18,39 @@ byte[] pkGen(byte[] skSeed, byte[] pkSeed, ADRS paramAdrs)
     {
         ADRS wotspkADRS = new ADRS(paramAdrs); // copy address to create OTS public key address
 
+        // the chains are independent, so they are computed four at a time, in step
         byte[][] tmp = new byte[engine.WOTS_LEN][];
-        for (int i = 0; i < engine.WOTS_LEN; i++)
+        for (int base = 0; base < engine.WOTS_LEN; base += 4)
         {
-            ADRS adrs = new ADRS(paramAdrs);
-            adrs.setTypeAndClear(ADRS.WOTS_PRF);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
+            ADRS[] adrs = new ADRS[Math.min(4, engine.WOTS_LEN - base)];
+            for (int l = 0; l < adrs.length; l++)
+            {
+                adrs[l] = new ADRS(paramAdrs);
+                adrs[l].setTypeAndClear(ADRS.WOTS_PRF);
+                adrs[l].setKeyPairAddress(paramAdrs.getKeyPairAddress());
+                adrs[l].setChainAddress(base + l);
+                adrs[l].setHashAddress(0);
+            }
 
-            byte[] sk = engine.PRF(pkSeed, skSeed, adrs);
+            byte[][] x = engine.PRF(pkSeed, skSeed, adrs);
 
-            adrs.setTypeAndClear(ADRS.WOTS_HASH);
-            adrs.setKeyPairAddress(paramAdrs.getKeyPairAddress());
-            adrs.setChainAddress(i);
-            adrs.setHashAddress(0);
-            tmp[i] = chain(sk, 0, w - 1, pkSeed, adrs);
+            for (int l = 0; l < adrs.length; l++)
+            {
+                adrs[l].setTypeAndClear(ADRS.WOTS_HASH);
+                adrs[l].setKeyPairAddress(paramAdrs.getKeyPairAddress());
+                adrs[l].setChainAddress(base + l);
+            }
+
+            for (int j = 0; j < w - 1; ++j)
+            {
+                for (int l = 0; l < adrs.length; l++)
+                {
+                    adrs[l].setHashAddress(j);
+                }
+                x = engine.F(pkSeed, adrs, x);
+            }
+
+            System.arraycopy(x, 0, tmp, base, adrs.length);
         }
 
         wotspkADRS.setTypeAndClear(ADRS.WOTS_PK);
@@ -0,0 +1,297 @@
+package org.bouncycastle.asn1.test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import junit.framework.TestCase;
+import org.bouncycastle.asn1.ASN1BufferElement;
+import org.bouncycastle.asn1.ASN1BufferParser;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Exception;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.BERSequence;
+import org.bouncycastle.asn1.BERTags;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+
+public class ASN1BufferParserTest
+    extends TestCase
+{
+    private static final byte[] berNestedSeqData = Hex.decode("3080020100060129308002010100000000");
+    private static final byte[] highTagData = Hex.decode("9f8100020102");
+
+    public void testSequenceOf()
+        throws Exception
+    {
+        byte[] encoding = createSequenceOf(1000).getEncoded(ASN1Encoding.DER);
+
+        ASN1BufferElement seq = new ASN1BufferParser(encoding).readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE);
+        assertTrue(seq.isConstructed());
+        assertEquals(encoding.length, seq.getEncodedLength());
+
+        ASN1BufferParser entries = seq.getContentsParser();
+        for (int i = 0; i != 1000; i++)
+        {
+            ASN1BufferElement entry = entries.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE);
+            ASN1BufferParser fields = entry.getContentsParser();
+
+            assertEquals(BigInteger.valueOf(i * 997L), fields.readElement().getInteger());
+
+            ASN1BufferElement octets = fields.readElement(BERTags.UNIVERSAL, BERTags.OCTET_STRING);
+            assertTrue(octets.contentsEqual(entryOctets(i)));
+            assertTrue(Arrays.areEqual(entryOctets(i), octets.getContentsOctets()));
+
+            assertEquals(new ASN1ObjectIdentifier("1.2.3." + i), fields.readElement().getObjectIdentifier());
+
+            ASN1BufferElement tagged = fields.readOptionalElement(BERTags.CONTEXT_SPECIFIC, 0);
+            assertEquals(i % 2 == 0, tagged != null);
+            if (tagged != null)
+            {
+                assertEquals(BigInteger.valueOf(i), tagged.getContentsParser().readElement().getInteger());
+            }
+            assertNull(fields.readOptionalElement(BERTags.CONTEXT_SPECIFIC, 0));
+            assertNull(fields.readElement());
+
+            assertEquals(ASN1Primitive.fromByteArray(entry.getEncoded()), entry.toASN1Primitive());
+        }
+        assertFalse(entries.hasMoreElements());
+        assertNull(entries.readElement());
+    }
+
+    public void testSlices()
+        throws Exception
+    {
+        byte[] encoding = createSequenceOf(3).getEncoded(ASN1Encoding.DER);
+
+        // place the encoding at a non-zero position in a larger buffer
+        ByteBuffer buffer = ByteBuffer.allocate(encoding.length + 10);
+        buffer.position(5);
+        buffer.put(encoding);
+        buffer.flip();
+        buffer.position(5);
+
+        ASN1BufferParser parser = new ASN1BufferParser(buffer);
+        ASN1BufferElement seq = parser.readElement();
+        assertEquals(5, seq.getOffset());
+        assertEquals(5, buffer.position());
+        assertEquals(5 + encoding.length, parser.getPosition());
+
+        ByteBuffer view = seq.getEncoding();
+        assertTrue(view.isReadOnly());
+        assertEquals(encoding.length, view.remaining());
+
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        assertTrue(Arrays.areEqual(encoding, copy));
+
+        ASN1BufferParser fields = seq.getContentsParser().readElement().getContentsParser();
+        ASN1BufferElement integer = fields.readElement();
+        ASN1BufferElement octets = fields.readElement();
+        ByteBuffer contents = octets.getContents();
+        assertEquals(0, contents.position());
+        assertEquals(entryOctets(0).length, contents.remaining());
+        assertEquals(entryOctets(0)[0], contents.get(0));
+
+        try
+        {
+            integer.getContentsParser();
+            fail("no exception");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("element is not constructed", e.getMessage());
+        }
+    }
+
+    public void testIndefiniteLength()
+        throws Exception
+    {
+        ASN1BufferParser parser = new ASN1BufferParser(berNestedSeqData);
+
+        ASN1BufferElement seq = parser.readElement();
+        assertTrue(seq.isIndefiniteLength());
+        assertEquals(berNestedSeqData.length, seq.getEncodedLength());
+        assertEquals(berNestedSeqData.length - 4, seq.getContentsLength());
+        assertNull(parser.readElement());
+
+        ASN1BufferParser contents = seq.getContentsParser();
+        assertEquals(BigInteger.ZERO, contents.readElement().getInteger());
+        assertEquals(new ASN1ObjectIdentifier("1.1"), contents.readElement().getObjectIdentifier());
+
+        ASN1BufferElement nested = contents.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE);
+        assertTrue(nested.isIndefiniteLength());
+        assertEquals(BigInteger.ONE, nested.getContentsParser().readElement().getInteger());
+        assertNull(contents.readElement());
+
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        v.add(new ASN1Integer(0));
+        v.add(new ASN1ObjectIdentifier("1.1"));
+        v.add(new BERSequence(new ASN1Integer(1)));
+        assertEquals(new BERSequence(v), seq.toASN1Primitive());
+    }
+
+    public void testHighTagNumber()
+        throws Exception
+    {
+        ASN1BufferElement element = new ASN1BufferParser(highTagData).readElement();
+
+        assertEquals(BERTags.CONTEXT_SPECIFIC, element.getTagClass());
+        assertEquals(128, element.getTagNo());
+        assertTrue(element.hasContextTag(128));
+        assertFalse(element.isConstructed());
+        assertEquals(BigInteger.valueOf(0x0102), element.getInteger());
+    }
+
+    public void testMappedFile()
+        throws Exception
+    {
+        byte[] encoding = createSequenceOf(200).getEncoded(ASN1Encoding.DER);
+
+        File file = File.createTempFile("bcasn1", ".der");
+        try
+        {
+            FileOutputStream fOut = new FileOutputStream(file);
+            fOut.write(encoding);
+            fOut.close();
+
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try
+            {
+                FileChannel channel = raf.getChannel();
+
+                ASN1BufferElement seq = ASN1BufferParser.map(channel).readElement();
+                ASN1BufferParser entries = seq.getContentsParser();
+
+                int count = 0;
+                ASN1BufferElement entry;
+                while ((entry = entries.readElement()) != null)
+                {
+                    assertEquals(BigInteger.valueOf(count * 997L), entry.getContentsParser().readElement().getInteger());
+                    count++;
+                }
+                assertEquals(200, count);
+                assertEquals(ASN1Sequence.getInstance(encoding), seq.toASN1Primitive());
+            }
+            finally
+            {
+                raf.close();
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    public void testMalformed()
+        throws Exception
+    {
+        // truncated contents
+        checkMalformed(Hex.decode("30060201000601"), EOFException.class);
+        // truncated length
+        checkMalformed(Hex.decode("3082"), EOFException.class);
+        // truncated high tag number
+        checkMalformed(Hex.decode("9f81"), EOFException.class);
+        // missing end-of-contents
+        checkMalformed(Hex.decode("30800201000601"), EOFException.class);
+        // indefinite-length primitive
+        checkMalformed(Hex.decode("04800000"), IOException.class);
+        // invalid length
+        checkMalformed(Hex.decode("30ff"), IOException.class);
+
+        try
+        {
+            new ASN1BufferParser(Hex.decode("02020001")).readElement().getInteger();
+            fail("no exception");
+        }
+        catch (ASN1Exception e)
+        {
+            assertEquals("malformed integer", e.getMessage());
+        }
+
+        try
+        {
+            new ASN1BufferParser(Hex.decode("0500")).readElement(BERTags.UNIVERSAL, BERTags.INTEGER);
+            fail("no exception");
+        }
+        catch (ASN1Exception e)
+        {
+            // expected
+        }
+    }
+
+    public void testDeepNesting()
+        throws Exception
+    {
+        int depth = 1000000;
+        byte[] data = new byte[depth * 4];
+        for (int i = 0; i != depth; i++)
+        {
+            data[2 * i] = 0x30;
+            data[2 * i + 1] = (byte)0x80;
+        }
+
+        ASN1BufferElement outer = new ASN1BufferParser(data).readElement();
+        assertEquals(data.length - 4, outer.getContentsLength());
+
+        ASN1BufferElement inner = outer.getContentsParser().readElement();
+        assertEquals(data.length - 8, inner.getContentsLength());
+
+        // one end-of-contents short
+        checkMalformed(Arrays.copyOf(data, data.length - 2), EOFException.class);
+    }
+
+    private void checkMalformed(byte[] data, Class expected)
+    {
+        try
+        {
+            new ASN1BufferParser(data).readElement();
+            fail("no exception for " + Hex.toHexString(data));
+        }
+        catch (IOException e)
+        {
+            assertTrue(e.getClass().getName(), expected.isInstance(e));
+        }
+    }
+
+    private static ASN1Sequence createSequenceOf(int count)
+    {
+        ASN1EncodableVector entries = new ASN1EncodableVector(count);
+        for (int i = 0; i != count; i++)
+        {
+            ASN1EncodableVector v = new ASN1EncodableVector();
+            v.add(new ASN1Integer(i * 997L));
+            v.add(new DEROctetString(entryOctets(i)));
+            v.add(new ASN1ObjectIdentifier("1.2.3." + i));
+            if (i % 2 == 0)
+            {
+                v.add(new DERTaggedObject(true, 0, new ASN1Integer(i)));
+            }
+            entries.add(new DERSequence(v));
+        }
+        return new DERSequence(entries);
+    }
+
+    private static byte[] entryOctets(int i)
+    {
+        byte[] octets = new byte[1 + i % 300];
+        for (int j = 0; j != octets.length; j++)
+        {
+            octets[j] = (byte)(i + j);
+        }
+        return octets;
+    }
+}
@@ -37,6 +37,7 @@ public static Test suite()
         suite.addTestSuite(AllTests.class);
         suite.addTestSuite(GetInstanceTest.class);
         suite.addTestSuite(ASN1SequenceParserTest.class);
+        suite.addTestSuite(ASN1BufferParserTest.class);
 
         return new BCTestSetup(suite);
     }
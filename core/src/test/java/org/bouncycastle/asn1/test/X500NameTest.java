@@ -17,6 +17,7 @@
 import org.bouncycastle.asn1.DERSet;
 import org.bouncycastle.asn1.DERTaggedObject;
 import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.asn1.x500.AttributeTypeAndValue;
 import org.bouncycastle.asn1.x500.RDN;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x500.X500NameBuilder;
@@ -150,6 +151,7 @@ public void performTest()
     {
         ietfUtilsTest();
         bogusEqualsTest();
+        canonicalEncodingTest();
 
         testEncodingPrintableString(BCStyle.C, "AU");
         testEncodingPrintableString(BCStyle.SERIALNUMBER, "123456");
@@ -680,6 +682,52 @@ private void ietfUtilsTest()
         IETFUtils.valueToString(new DERUTF8String(" "));
     }
 
+    private void canonicalEncodingTest()
+        throws Exception
+    {
+        X500Name n1 = new X500Name("CN=\"  CA1 -   CP.04.03\", OU=Testing, OU=Dod, O=U.S. Government, C=US");
+        X500Name n2 = new X500Name("CN=\"ca1 - CP.04.03  \", OU=Testing, OU=Dod, O=U.S. Government, C=US");
+        X500Name n3 = new X500Name("C=us, O=u.s. government, OU=dod, OU=testing, CN=\"ca1 - cp.04.03\"");
+        X500Name n4 = new X500Name("CN=\"ca1 - CP.04.03\", OU=Testing, OU=Dod, O=U.S. Government, C=UK");
+
+        isTrue(n1.equals(n2) && n1.equals(n3));
+        isTrue(n1.hashCode() == n2.hashCode() && n1.hashCode() == n3.hashCode());
+        isTrue(areEqual(n1.getCanonicalEncoding(), n2.getCanonicalEncoding()));
+        isTrue(areEqual(n1.getCanonicalEncoding(), n3.getCanonicalEncoding()));
+
+        isTrue(!n1.equals(n4));
+        isTrue(!areEqual(n1.getCanonicalEncoding(), n4.getCanonicalEncoding()));
+
+        // a parsed name caches the canonical forms of its RDNs
+        X500Name parsed = X500Name.getInstance(n2.getEncoded());
+        isTrue(n1.equals(parsed) && parsed.equals(n1));
+        isTrue(areEqual(n1.getCanonicalEncoding(), parsed.getCanonicalEncoding()));
+        isTrue(n1.getRDNs()[0].canonicalEquals(parsed.getRDNs()[0]));
+        isTrue(n1.getRDNs()[0].canonicalHashCode() == parsed.getRDNs()[0].canonicalHashCode());
+        isTrue(areEqual(n1.getRDNs()[0].getCanonicalEncoding(), parsed.getRDNs()[0].getCanonicalEncoding()));
+        isTrue(!n1.getRDNs()[0].canonicalEquals(parsed.getRDNs()[1]));
+
+        // the attributes of a multi-valued RDN are compared in order
+        RDN mv1 = new RDN(new AttributeTypeAndValue[]{
+            new AttributeTypeAndValue(BCStyle.CN, new DERUTF8String("Alice")),
+            new AttributeTypeAndValue(BCStyle.SERIALNUMBER, new DERUTF8String("1")) });
+        RDN mv2 = new RDN(new AttributeTypeAndValue[]{
+            new AttributeTypeAndValue(BCStyle.CN, new DERUTF8String("alice")),
+            new AttributeTypeAndValue(BCStyle.SERIALNUMBER, new DERUTF8String("1")) });
+        RDN mv3 = new RDN(new AttributeTypeAndValue[]{
+            new AttributeTypeAndValue(BCStyle.CN, new DERUTF8String("Alice")) });
+
+        isTrue(mv1.canonicalEquals(mv2) && IETFUtils.rDNAreEqual(mv2, mv1));
+        isTrue(!mv1.canonicalEquals(mv3) && !mv3.canonicalEquals(mv1));
+        isTrue(areEqual(mv1.getCanonicalEncoding(), mv2.getCanonicalEncoding()));
+        isTrue(!areEqual(mv1.getCanonicalEncoding(), mv3.getCanonicalEncoding()));
+
+        // returned encodings are copies
+        byte[] enc = n1.getCanonicalEncoding();
+        enc[0] ^= 1;
+        isTrue(areEqual(n1.getCanonicalEncoding(), n2.getCanonicalEncoding()));
+    }
+
     private void bogusEqualsTest()
         throws Exception
     {
@@ -7,8 +7,11 @@
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.BufferedBlockCipher;
 import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.DefaultBufferedBlockCipher;
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.engines.AESEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
 import org.bouncycastle.crypto.modes.CFBBlockCipher;
@@ -494,6 +497,115 @@ private void ctrFragmentedTest()
         }
     }
 
+    private void multiBlockTest()
+    {
+        SecureRandom random = new SecureRandom();
+
+        for (int keySize = 16; keySize <= 32; keySize += 8)
+        {
+            byte[] key = new byte[keySize];
+            byte[] iv = new byte[16];
+            random.nextBytes(key);
+            random.nextBytes(iv);
+
+            for (int blockCount = 0; blockCount < 40; ++blockCount)
+            {
+                byte[] data = new byte[blockCount * 16];
+                random.nextBytes(data);
+
+                for (int forEncryption = 0; forEncryption < 2; ++forEncryption)
+                {
+                    CipherParameters keyParam = new KeyParameter(key);
+                    checkMultiBlock("ECB", AESEngine.newInstance(), AESEngine.newInstance(), forEncryption != 0,
+                        keyParam, data, blockCount);
+
+                    CipherParameters ivParam = new ParametersWithIV(keyParam, iv);
+                    checkMultiBlock("CBC", CBCBlockCipher.newInstance(AESEngine.newInstance()),
+                        CBCBlockCipher.newInstance(AESEngine.newInstance()), forEncryption != 0, ivParam, data,
+                        blockCount);
+                    checkMultiBlock("SIC", SICBlockCipher.newInstance(AESEngine.newInstance()),
+                        SICBlockCipher.newInstance(AESEngine.newInstance()), forEncryption != 0, ivParam, data,
+                        blockCount);
+                }
+            }
+        }
+    }
+
+    private void multiBlockBoundsTest()
+    {
+        CipherParameters params = new ParametersWithIV(new KeyParameter(new byte[16]), new byte[16]);
+
+        MultiBlockCipher[] ciphers = new MultiBlockCipher[]{
+            AESEngine.newInstance(),
+            CBCBlockCipher.newInstance(AESEngine.newInstance()),
+            SICBlockCipher.newInstance(AESEngine.newInstance())
+        };
+
+        for (int i = 0; i != ciphers.length; i++)
+        {
+            MultiBlockCipher cipher = ciphers[i];
+            String name = cipher.getAlgorithmName();
+
+            cipher.init(false, i == 0 ? ((ParametersWithIV)params).getParameters() : params);
+
+            try
+            {
+                cipher.processBlocks(new byte[64], 0, 4, new byte[63], 0);
+                fail(name + ": no exception on short output");
+            }
+            catch (OutputLengthException e)
+            {
+                // expected
+            }
+
+            try
+            {
+                cipher.processBlocks(new byte[64], 1, 4, new byte[64], 0);
+                fail(name + ": no exception on short input");
+            }
+            catch (DataLengthException e)
+            {
+                if (e instanceof OutputLengthException)
+                {
+                    fail(name + ": wrong exception on short input");
+                }
+            }
+
+            try
+            {
+                cipher.processBlocks(new byte[64], 0, Integer.MAX_VALUE / 4, new byte[64], 0);
+                fail(name + ": no exception on overflowing block count");
+            }
+            catch (DataLengthException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    private void checkMultiBlock(String mode, BlockCipher single, MultiBlockCipher multi, boolean forEncryption,
+        CipherParameters params, byte[] data, int blockCount)
+    {
+        single.init(forEncryption, params);
+        multi.init(forEncryption, params);
+
+        byte[] expected = new byte[data.length];
+        for (int i = 0; i < blockCount; ++i)
+        {
+            single.processBlock(data, i * 16, expected, i * 16);
+        }
+
+        byte[] actual = new byte[data.length];
+        isEquals(mode, data.length, multi.processBlocks(data, 0, blockCount, actual, 0));
+        isTrue(mode + " multi-block mismatch", areEqual(expected, actual));
+
+        // in place, from a reset
+        multi.reset();
+        byte[] buf = Arrays.clone(data);
+        multi.processBlocks(buf, 0, blockCount, buf, 0);
+        isTrue(mode + " in-place multi-block mismatch", areEqual(expected, buf));
+    }
+
     public void performTest()
         throws Exception
     {
@@ -542,6 +654,8 @@ public void performTest()
         ctrFragmentedTest();
         testLastByte();
         testCounter();
+        multiBlockTest();
+        multiBlockBoundsTest();
     }
 
     static byte[] fileBytes = new byte[0];
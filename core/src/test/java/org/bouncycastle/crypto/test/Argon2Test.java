@@ -3,6 +3,8 @@
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
 import org.bouncycastle.crypto.params.Argon2Parameters;
@@ -34,6 +36,7 @@ public void performTest()
 
         testPermutations();
         testVectorsFromInternetDraft();
+        testParallelLanes();
 
         int version = Argon2Parameters.ARGON2_VERSION_10;
 
@@ -245,6 +248,50 @@ private void hashTest(int version, int iterations, int memory, int parallelism,
     }
 
 
+    private void testParallelLanes()
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            int[] types = { Argon2Parameters.ARGON2_d, Argon2Parameters.ARGON2_i, Argon2Parameters.ARGON2_id };
+            int[] versions = { Argon2Parameters.ARGON2_VERSION_10, Argon2Parameters.ARGON2_VERSION_13 };
+
+            for (int t = 0; t < types.length; ++t)
+            {
+                for (int v = 0; v < versions.length; ++v)
+                {
+                    for (int lanes = 1; lanes <= 5; ++lanes)
+                    {
+                        Argon2Parameters params = new Argon2Parameters.Builder(types[t])
+                            .withVersion(versions[v])
+                            .withIterations(2)
+                            .withMemoryAsKB(64 * lanes)
+                            .withParallelism(lanes)
+                            .withSalt(Strings.toByteArray("somesalt"))
+                            .build();
+
+                        Argon2BytesGenerator sequential = new Argon2BytesGenerator();
+                        sequential.init(params);
+                        byte[] expected = new byte[DEFAULT_OUTPUTLEN];
+                        sequential.generateBytes("password".toCharArray(), expected);
+
+                        Argon2BytesGenerator parallel = new Argon2BytesGenerator(executor);
+                        parallel.init(params);
+                        byte[] result = new byte[DEFAULT_OUTPUTLEN];
+                        parallel.generateBytes("password".toCharArray(), result);
+
+                        isTrue("parallel lanes mismatch: type " + types[t] + " lanes " + lanes,
+                            areEqual(expected, result));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Tests from https://tools.ietf.org/html/draft-irtf-cfrg-argon2-03
      *
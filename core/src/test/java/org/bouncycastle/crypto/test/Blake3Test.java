@@ -1,7 +1,16 @@
 package org.bouncycastle.crypto.test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.digests.Blake3Digest;
 import org.bouncycastle.crypto.params.Blake3Parameters;
+import org.bouncycastle.crypto.util.DigestUtil;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.SimpleTest;
@@ -257,6 +266,95 @@ public void performTest()
         runTestCase(TEST16384);
         runTestCase(TEST31744);
         runTestCase(TEST102400);
+
+        testParallel();
+    }
+
+    /**
+     * Check that hashing chunks across threads gives the same results as hashing them in sequence.
+     */
+    private void testParallel()
+        throws Exception
+    {
+        final byte[] myData = new byte[1024 * 1024 + 1];
+        for (int i = 0; i < myData.length; i++)
+        {
+            myData[i] = (byte)(i % BLAKE3MOD);
+        }
+
+        final ExecutorService myExecutor = Executors.newFixedThreadPool(3);
+        try
+        {
+            final int[] myLengths = { 128 * 1024, 128 * 1024 + 1023, 300 * 1024 + 7, myData.length };
+            for (int i = 0; i < myLengths.length; i++)
+            {
+                final Blake3Digest mySequential = new Blake3Digest(256);
+                final Blake3Digest myParallel = new Blake3Digest(256, CryptoServicePurpose.ANY, myExecutor);
+                final byte[] myExpected = new byte[32];
+                final byte[] myResult = new byte[32];
+
+                /* Check a single update */
+                mySequential.update(myData, 0, myLengths[i]);
+                mySequential.doFinal(myExpected, 0);
+                myParallel.update(myData, 0, myLengths[i]);
+                myParallel.doFinal(myResult, 0);
+                isTrue("parallel hash mismatch", Arrays.areEqual(myExpected, myResult));
+
+                /* Check an update that starts part way through a chunk */
+                myParallel.update(myData, 0, PARTBREAK);
+                myParallel.update(myData, PARTBREAK, myLengths[i] - PARTBREAK);
+                myParallel.doFinal(myResult, 0);
+                isTrue("parallel split hash mismatch", Arrays.areEqual(myExpected, myResult));
+
+                /* Check the keyed mode */
+                final Blake3Parameters myParams = Blake3Parameters.key(BLAKE3KEY);
+                mySequential.init(myParams);
+                mySequential.update(myData, 0, myLengths[i]);
+                mySequential.doFinal(myExpected, 0);
+                myParallel.init(myParams);
+                myParallel.update(myData, 0, myLengths[i]);
+                myParallel.doFinal(myResult, 0);
+                isTrue("parallel keyed hash mismatch", Arrays.areEqual(myExpected, myResult));
+            }
+
+            /* Check the one-shot API over heap and direct buffers and a file */
+            final Blake3Digest myParallel = new Blake3Digest(256, CryptoServicePurpose.ANY, myExecutor);
+            final byte[] myExpected = DigestUtil.calculateDigest(new Blake3Digest(256), myData);
+
+            final ByteBuffer myDirect = ByteBuffer.allocateDirect(myData.length);
+            myDirect.put(myData).flip();
+            isTrue("direct buffer hash mismatch",
+                Arrays.areEqual(myExpected, DigestUtil.calculateDigest(myParallel, myDirect)));
+            isTrue("heap buffer hash mismatch",
+                Arrays.areEqual(myExpected, DigestUtil.calculateDigest(myParallel, ByteBuffer.wrap(myData))));
+
+            final File myFile = File.createTempFile("blake3", ".dat");
+            try
+            {
+                final FileOutputStream myOut = new FileOutputStream(myFile);
+                myOut.write(myData);
+                myOut.close();
+
+                final RandomAccessFile myIn = new RandomAccessFile(myFile, "r");
+                try
+                {
+                    isTrue("file hash mismatch",
+                        Arrays.areEqual(myExpected, DigestUtil.calculateDigest(myParallel, myIn.getChannel())));
+                }
+                finally
+                {
+                    myIn.close();
+                }
+            }
+            finally
+            {
+                myFile.delete();
+            }
+        }
+        finally
+        {
+            myExecutor.shutdown();
+        }
     }
 
     /**
@@ -0,0 +1,184 @@
+package org.bouncycastle.crypto.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.asn1.x9.ECNamedCurveTable;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.DSA;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyCache;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.ECGOST3410Signer;
+import org.bouncycastle.crypto.signers.SM2Signer;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.util.Strings;
+import org.bouncycastle.util.test.SimpleTest;
+
+public class ECPublicKeyCacheTest
+    extends SimpleTest
+{
+    private final SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "ECPublicKeyCache";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        doTestSharing(new ECDomainParameters(CustomNamedCurves.getByName("secp256r1")));
+        doTestSharing(new ECDomainParameters(ECNamedCurveTable.getByName("prime239v1")));
+        doTestSharing(new ECDomainParameters(CustomNamedCurves.getByName("secp256k1")));
+
+        doTestVerify(new ECDomainParameters(CustomNamedCurves.getByName("secp256r1")), new ECDSASigner());
+        doTestVerify(new ECDomainParameters(ECNamedCurveTable.getByName("prime239v1")), new ECDSASigner());
+        doTestVerify(new ECDomainParameters(CustomNamedCurves.getByName("secp256k1")), new ECDSASigner());
+        doTestVerifySM2(new ECDomainParameters(CustomNamedCurves.getByName("sm2p256v1")));
+        doTestVerify(new ECDomainParameters(ECNamedCurveTable.getByName("GostR3410-2001-CryptoPro-A")),
+            new ECGOST3410Signer());
+
+        doTestBounded();
+        doTestInvalidPoint();
+    }
+
+    private void doTestSharing(ECDomainParameters domain)
+    {
+        ECPublicKeyCache cache = new ECPublicKeyCache(10);
+
+        ECPublicKeyParameters key = generatePublicKey(domain);
+        byte[] encoding = key.getQ().getEncoded(true);
+
+        ECPublicKeyParameters first = cache.getPublicKey(domain.getCurve().decodePoint(encoding), domain);
+        ECPublicKeyParameters second = cache.getPublicKey(domain.getCurve().decodePoint(encoding), domain);
+        isTrue("key not shared", first == second);
+        isTrue("wrong point", key.getQ().equals(first.getQ()));
+
+        // equal, but distinct, domain parameters
+        ECDomainParameters copy = new ECDomainParameters(domain.getCurve(), domain.getG(), domain.getN(),
+            domain.getH(), domain.getSeed());
+        isTrue("key not shared", first == cache.getPublicKey(new ECPublicKeyParameters(
+            domain.getCurve().decodePoint(encoding), copy)));
+        isTrue("wrong size", cache.size() == 1);
+
+        cache.clear();
+        isTrue("not cleared", cache.size() == 0);
+        isTrue("stale key returned", first != cache.getPublicKey(key));
+    }
+
+    private void doTestVerify(ECDomainParameters domain, DSA signer)
+    {
+        ECPublicKeyCache cache = new ECPublicKeyCache(4);
+
+        ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+        kpGen.init(new ECKeyGenerationParameters(domain, random));
+        AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+        byte[] encoding = ((ECPublicKeyParameters)kp.getPublic()).getQ().getEncoded(false);
+        byte[] message = Strings.toByteArray("hello, world! hello, world! hello");
+
+        for (int i = 0; i != 10; i++)
+        {
+            signer.init(true, kp.getPrivate());
+            BigInteger[] sig = signer.generateSignature(message);
+
+            // a freshly decoded key each time, as when a certificate is parsed
+            ECPublicKeyParameters pub = cache.getPublicKey(domain.getCurve().decodePoint(encoding), domain);
+
+            signer.init(false, pub);
+            isTrue("signature failed", signer.verifySignature(message, sig[0], sig[1]));
+            isTrue("bad signature passed", !signer.verifySignature(message, sig[1], sig[0]));
+        }
+    }
+
+    private void doTestVerifySM2(ECDomainParameters domain)
+        throws Exception
+    {
+        ECPublicKeyCache cache = new ECPublicKeyCache(4);
+
+        ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+        kpGen.init(new ECKeyGenerationParameters(domain, random));
+        AsymmetricCipherKeyPair kp = kpGen.generateKeyPair();
+
+        byte[] encoding = ((ECPublicKeyParameters)kp.getPublic()).getQ().getEncoded(true);
+        byte[] message = Strings.toByteArray("message digest");
+
+        SM2Signer signer = new SM2Signer();
+        for (int i = 0; i != 10; i++)
+        {
+            signer.init(true, kp.getPrivate());
+            signer.update(message, 0, message.length);
+            byte[] sig = signer.generateSignature();
+
+            signer.init(false, cache.getPublicKey(domain.getCurve().decodePoint(encoding), domain));
+            signer.update(message, 0, message.length);
+            isTrue("SM2 signature failed", signer.verifySignature(sig));
+        }
+    }
+
+    private void doTestBounded()
+    {
+        ECDomainParameters domain = new ECDomainParameters(CustomNamedCurves.getByName("secp256r1"));
+        ECPublicKeyCache cache = new ECPublicKeyCache(3);
+
+        ECPublicKeyParameters[] keys = new ECPublicKeyParameters[5];
+        for (int i = 0; i != keys.length; i++)
+        {
+            keys[i] = generatePublicKey(domain);
+            isTrue("key not added", keys[i] == cache.getPublicKey(keys[i]));
+        }
+        isTrue("cache not bounded", cache.size() == 3);
+
+        // most recently used keys are kept
+        isTrue("recent key dropped", keys[4] == cache.getPublicKey(new ECPublicKeyParameters(keys[4].getQ(), domain)));
+        isTrue("old key kept", keys[0] != cache.getPublicKey(new ECPublicKeyParameters(keys[0].getQ(), domain)));
+        isTrue("cache not bounded", cache.size() == 3);
+    }
+
+    private void doTestInvalidPoint()
+    {
+        X9ECParameters x9 = CustomNamedCurves.getByName("secp256r1");
+        ECDomainParameters domain = new ECDomainParameters(x9);
+        ECPublicKeyCache cache = new ECPublicKeyCache(3);
+
+        ECPoint bad = x9.getCurve().createPoint(BigInteger.ONE, BigInteger.ONE);
+        try
+        {
+            cache.getPublicKey(bad, domain);
+            fail("invalid point accepted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+        isTrue("invalid point cached", cache.size() == 0);
+
+        try
+        {
+            new ECPublicKeyCache(0);
+            fail("zero size accepted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private ECPublicKeyParameters generatePublicKey(ECDomainParameters domain)
+    {
+        ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+        kpGen.init(new ECKeyGenerationParameters(domain, random));
+        return (ECPublicKeyParameters)kpGen.generateKeyPair().getPublic();
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new ECPublicKeyCacheTest());
+    }
+}
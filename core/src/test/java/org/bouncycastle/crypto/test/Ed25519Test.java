@@ -8,6 +8,7 @@
 import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
 import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
 import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.signers.Ed25519BatchVerifier;
 import org.bouncycastle.crypto.signers.Ed25519Signer;
 import org.bouncycastle.crypto.signers.Ed25519ctxSigner;
 import org.bouncycastle.crypto.signers.Ed25519phSigner;
@@ -46,6 +47,8 @@ public void performTest()
             testConsistency(Ed25519.Algorithm.Ed25519ph, context);
         }
 
+        testBatchVerifier();
+
         testRegressionInfiniteLoop();
     }
 
@@ -161,6 +164,59 @@ private void testConsistency(int algorithm, byte[] context)
         }
     }
 
+    private void testBatchVerifier()
+        throws Exception
+    {
+        Ed25519KeyPairGenerator kpg = new Ed25519KeyPairGenerator();
+        kpg.init(new Ed25519KeyGenerationParameters(RANDOM));
+
+        Ed25519BatchVerifier verifier = new Ed25519BatchVerifier(RANDOM);
+        Signer signer = new Ed25519Signer();
+
+        byte[][] sigs = new byte[16][];
+        for (int i = 0; i < sigs.length; ++i)
+        {
+            AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+            byte[] msg = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(msg);
+
+            signer.init(true, kp.getPrivate());
+            signer.update(msg, 0, msg.length);
+            sigs[i] = signer.generateSignature();
+
+            isEquals(i, verifier.add((Ed25519PublicKeyParameters)kp.getPublic(), msg, sigs[i]));
+        }
+
+        isTrue("batch verification failed", verifier.verify());
+        isEquals(0, verifier.getInvalidIndices().length);
+
+        Ed25519BatchVerifier corrupted = new Ed25519BatchVerifier(RANDOM);
+        for (int i = 0; i < sigs.length; ++i)
+        {
+            AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+            byte[] msg = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(msg);
+
+            signer.init(true, kp.getPrivate());
+            signer.update(msg, 0, msg.length);
+            byte[] sig = signer.generateSignature();
+
+            if (i == 3 || i == 11)
+            {
+                sig[RANDOM.nextInt(sig.length)] ^= (byte)(1 << (RANDOM.nextInt() & 7));
+            }
+
+            corrupted.add((Ed25519PublicKeyParameters)kp.getPublic(), msg, sig);
+        }
+
+        isTrue("corrupted batch verified", !corrupted.verify());
+        isTrue("wrong invalid indices", Arrays.areEqual(new int[]{ 3, 11 }, corrupted.getInvalidIndices()));
+
+        corrupted.reset();
+        isEquals(0, corrupted.size());
+        isTrue("empty batch failed", corrupted.verify());
+    }
+
     private void testRegressionInfiniteLoop()
         throws Exception
     {
@@ -8,6 +8,7 @@
 import org.bouncycastle.crypto.params.Ed448KeyGenerationParameters;
 import org.bouncycastle.crypto.params.Ed448PrivateKeyParameters;
 import org.bouncycastle.crypto.params.Ed448PublicKeyParameters;
+import org.bouncycastle.crypto.signers.Ed448BatchVerifier;
 import org.bouncycastle.crypto.signers.Ed448Signer;
 import org.bouncycastle.crypto.signers.Ed448phSigner;
 import org.bouncycastle.math.ec.rfc8032.Ed448;
@@ -43,6 +44,8 @@ public void performTest()
             testConsistency(Ed448.Algorithm.Ed448ph, context);
         }
 
+        testBatchVerifier();
+
         testRegressionInfiniteLoop();
     }
 
@@ -170,6 +173,60 @@ private void testConsistency(int algorithm, byte[] context)
         }
     }
 
+    private void testBatchVerifier()
+        throws Exception
+    {
+        Ed448KeyPairGenerator kpg = new Ed448KeyPairGenerator();
+        kpg.init(new Ed448KeyGenerationParameters(RANDOM));
+
+        byte[] context = randomContext(RANDOM.nextInt() & 255);
+        Ed448BatchVerifier verifier = new Ed448BatchVerifier(context, RANDOM);
+        Signer signer = new Ed448Signer(context);
+
+        byte[][] sigs = new byte[16][];
+        for (int i = 0; i < sigs.length; ++i)
+        {
+            AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+            byte[] msg = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(msg);
+
+            signer.init(true, kp.getPrivate());
+            signer.update(msg, 0, msg.length);
+            sigs[i] = signer.generateSignature();
+
+            isEquals(i, verifier.add((Ed448PublicKeyParameters)kp.getPublic(), msg, sigs[i]));
+        }
+
+        isTrue("batch verification failed", verifier.verify());
+        isEquals(0, verifier.getInvalidIndices().length);
+
+        Ed448BatchVerifier corrupted = new Ed448BatchVerifier(context, RANDOM);
+        for (int i = 0; i < sigs.length; ++i)
+        {
+            AsymmetricCipherKeyPair kp = kpg.generateKeyPair();
+            byte[] msg = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(msg);
+
+            signer.init(true, kp.getPrivate());
+            signer.update(msg, 0, msg.length);
+            byte[] sig = signer.generateSignature();
+
+            if (i == 3 || i == 11)
+            {
+                sig[RANDOM.nextInt(sig.length)] ^= (byte)(1 << (RANDOM.nextInt() & 7));
+            }
+
+            corrupted.add((Ed448PublicKeyParameters)kp.getPublic(), msg, sig);
+        }
+
+        isTrue("corrupted batch verified", !corrupted.verify());
+        isTrue("wrong invalid indices", Arrays.areEqual(new int[]{ 3, 11 }, corrupted.getInvalidIndices()));
+
+        corrupted.reset();
+        isEquals(0, corrupted.size());
+        isTrue("empty batch failed", corrupted.verify());
+    }
+
     private void testRegressionInfiniteLoop()
         throws Exception
     {
@@ -1,7 +1,13 @@
 package org.bouncycastle.crypto.test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.crypto.CryptoServicePurpose;
+import org.bouncycastle.crypto.Xof;
 import org.bouncycastle.crypto.digests.Kangaroo.KangarooParameters;
 import org.bouncycastle.crypto.digests.Kangaroo.KangarooTwelve;
+import org.bouncycastle.crypto.digests.Kangaroo.MarsupilamiFourteen;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.SimpleTest;
@@ -35,6 +41,53 @@ public void performTest()
         throws Exception
     {
         new Kangaroo12Test().checkDigests(this);
+        testParallel();
+    }
+
+    /**
+     * Check that hashing leaves across threads gives the same results as hashing them in sequence.
+     */
+    private void testParallel()
+    {
+        final byte[] myMsg = new byte[17*17*17*17*17 + 8191];
+        buildStdBuffer(myMsg);
+
+        final ExecutorService myExecutor = Executors.newFixedThreadPool(3);
+        try
+        {
+            final int[] myLengths = { 8192 * 17, 8192 * 17 + 1, 8192 * 40 + 100, myMsg.length };
+            for (int i = 0; i < myLengths.length; i++)
+            {
+                checkParallel(new KangarooTwelve(), new KangarooTwelve(32, CryptoServicePurpose.ANY, myExecutor),
+                    myMsg, myLengths[i]);
+                checkParallel(new MarsupilamiFourteen(),
+                    new MarsupilamiFourteen(64, CryptoServicePurpose.ANY, myExecutor), myMsg, myLengths[i]);
+            }
+        }
+        finally
+        {
+            myExecutor.shutdown();
+        }
+    }
+
+    private void checkParallel(final Xof pSequential, final Xof pParallel, final byte[] pMsg, final int pMsgLen)
+    {
+        final byte[] myExpected = new byte[64];
+        final byte[] myResult = new byte[64];
+
+        pSequential.update(pMsg, 0, pMsgLen);
+        pSequential.doFinal(myExpected, 0, myExpected.length);
+
+        /* Check a single update */
+        pParallel.update(pMsg, 0, pMsgLen);
+        pParallel.doFinal(myResult, 0, myResult.length);
+        isTrue("parallel hash mismatch", Arrays.areEqual(myExpected, myResult));
+
+        /* Check an update that starts part way through a leaf */
+        pParallel.update(pMsg, 0, 1000);
+        pParallel.update(pMsg, 1000, pMsgLen - 1000);
+        pParallel.doFinal(myResult, 0, myResult.length);
+        isTrue("parallel split hash mismatch", Arrays.areEqual(myExpected, myResult));
     }
 
     /**
@@ -1,5 +1,9 @@
 package org.bouncycastle.crypto.test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.crypto.CryptoServicePurpose;
 import org.bouncycastle.crypto.Digest;
 import org.bouncycastle.crypto.digests.ParallelHash;
 import org.bouncycastle.util.Arrays;
@@ -118,6 +122,47 @@ public void performTest()
 
         testEmpty();
         testClone();
+        testParallel();
+    }
+
+    private void testParallel()
+    {
+        byte[] input = new byte[1024 * 1024 + 5];
+        for (int i = 0; i != input.length; i++)
+        {
+            input[i] = (byte)i;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            int[] blockSizes = { 12, 1000, 8192 };
+            for (int i = 0; i != blockSizes.length; i++)
+            {
+                ParallelHash sequential = new ParallelHash(256, Strings.toByteArray("Parallel Data"), blockSizes[i]);
+                ParallelHash parallel = new ParallelHash(256, Strings.toByteArray("Parallel Data"), blockSizes[i], 512,
+                    CryptoServicePurpose.ANY, executor);
+                byte[] expected = new byte[64];
+                byte[] res = new byte[64];
+
+                sequential.update(input, 0, input.length);
+                sequential.doFinal(expected, 0);
+
+                parallel.update(input, 0, input.length);
+                parallel.doFinal(res, 0);
+                isTrue("parallel hash mismatch", Arrays.areEqual(expected, res));
+
+                // start part way through a block
+                parallel.update(input, 0, 7);
+                parallel.update(input, 7, input.length - 7);
+                parallel.doFinal(res, 0);
+                isTrue("parallel split hash mismatch", Arrays.areEqual(expected, res));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
     }
 
     private void testEmpty()
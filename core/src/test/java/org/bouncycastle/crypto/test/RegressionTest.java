@@ -152,9 +152,11 @@
             new Blake2xsDigestTest(),
             new KeccakDigestTest(),
             new SHAKEDigestTest(),
+            new SHAKEX4Test(),
             new SM2EngineTest(),
             new SM2KeyExchangeTest(),
             new SM2SignerTest(),
+            new ECPublicKeyCacheTest(),
             new SM4Test(),
             new DSTU7624Test(),
             new DSTU7564Test(),
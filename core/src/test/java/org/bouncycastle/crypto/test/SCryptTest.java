@@ -4,6 +4,8 @@
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.bouncycastle.crypto.generators.SCrypt;
 import org.bouncycastle.test.TestResourceFinder;
@@ -30,6 +32,7 @@ public void performTest()
         testPermutations();
         testParameters();
         testVectors();
+        testParallel();
     }
 
     public void testParameters()
@@ -137,6 +140,43 @@ private void permute(List<byte[]> permutation, byte[] a, int l, int r)
     }
 
 
+    public void testParallel()
+    {
+        byte[] P = Strings.toByteArray("password");
+        byte[] S = Strings.toByteArray("NaCl");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try
+        {
+            for (int p = 1; p <= 9; p += 4)
+            {
+                byte[] expected = SCrypt.generate(P, S, 256, 4, p, 64);
+
+                for (int maxParallelism = 1; maxParallelism <= 16; maxParallelism *= 2)
+                {
+                    isTrue("parallel p=" + p + " maxParallelism=" + maxParallelism,
+                        areEqual(expected, SCrypt.generate(P, S, 256, 4, p, 64, executor, maxParallelism)));
+                }
+
+                isTrue("null executor", areEqual(expected, SCrypt.generate(P, S, 256, 4, p, 64, null, 4)));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        try
+        {
+            SCrypt.generate(P, S, 256, 4, 2, 64, executor, 0);
+            fail("maxParallelism 0 accepted");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
     private void checkOK(String msg, byte[] pass, byte[] salt, int N, int r, int p, int len)
     {
         try
@@ -211,6 +251,21 @@ public void testVectors()
                 {
                     fail("Result does not match expected value in test case " + count);
                 }
+
+                ExecutorService executor = Executors.newFixedThreadPool(2);
+                try
+                {
+                    result = SCrypt.generate(P, S, N, r, p, dkLen, executor, 4);
+                }
+                finally
+                {
+                    executor.shutdown();
+                }
+
+                if (!areEqual(expected, result))
+                {
+                    fail("Parallel result does not match expected value in test case " + count);
+                }
             }
         }
 
@@ -0,0 +1,161 @@
+package org.bouncycastle.crypto.test;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.crypto.digests.SHAKEX4;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Four way SHAKE test, comparing against SHAKEDigest.
+ */
+public class SHAKEX4Test
+    extends SimpleTest
+{
+    private final SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "SHAKEX4";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        int[] lengths = { 0, 1, 7, 8, 33, 135, 136, 137, 167, 168, 169, 500 };
+
+        for (int i = 0; i != lengths.length; i++)
+        {
+            checkSplit(128, lengths[i], 0);
+            checkSplit(256, lengths[i], 0);
+            checkSplit(128, lengths[i], lengths[i] / 3);
+            checkSplit(256, lengths[i], lengths[i] / 3);
+        }
+
+        checkUnusedLanes(128);
+        checkUnusedLanes(256);
+        checkReset();
+
+        isEquals("SHAKE128x4", new SHAKEX4(128).getAlgorithmName());
+        isEquals(168, new SHAKEX4(128).getByteLength());
+        isEquals(136, new SHAKEX4(256).getByteLength());
+
+        try
+        {
+            new SHAKEX4(224);
+            fail("no exception on bad bit strength");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            new SHAKEX4(128).update(new byte[3][], 0, 0);
+            fail("no exception on wrong number of buffers");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            SHAKEX4 x4 = new SHAKEX4(128);
+            x4.doOutput(new byte[4][1], 0, 1);
+            x4.update(new byte[4][1], 0, 1);
+            fail("no exception on absorb after squeeze");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Absorb in two parts, then squeeze in several uneven calls, checking each instance against SHAKEDigest.
+     */
+    private void checkSplit(int bitStrength, int len, int split)
+        throws Exception
+    {
+        byte[][] in = new byte[4][len];
+        byte[][] out = new byte[4][3 * 168 + 11];
+        for (int j = 0; j != 4; j++)
+        {
+            random.nextBytes(in[j]);
+        }
+
+        SHAKEX4 x4 = new SHAKEX4(bitStrength);
+        x4.update(in, 0, split);
+        x4.update(in, split, len - split);
+        x4.doOutput(out, 0, 5);
+        x4.doOutput(out, 5, 168);
+        x4.doOutput(out, 173, out[0].length - 173);
+
+        for (int j = 0; j != 4; j++)
+        {
+            isTrue("lane " + j + " mismatch for length " + len, Arrays.areEqual(shake(bitStrength, in[j], out[j].length), out[j]));
+        }
+    }
+
+    private void checkUnusedLanes(int bitStrength)
+        throws Exception
+    {
+        byte[] msg = new byte[50];
+        random.nextBytes(msg);
+
+        byte[][] in = new byte[][]{ null, msg, null, msg };
+        byte[][] out = new byte[][]{ null, new byte[300], null, new byte[300] };
+
+        SHAKEX4 x4 = new SHAKEX4(bitStrength);
+        x4.update(in, 0, msg.length);
+        x4.doOutput(out, 0, 300);
+
+        byte[] expected = shake(bitStrength, msg, 300);
+        isTrue("unused lanes", Arrays.areEqual(expected, out[1]));
+        isTrue("unused lanes", Arrays.areEqual(expected, out[3]));
+    }
+
+    private void checkReset()
+        throws Exception
+    {
+        byte[][] in = new byte[4][20];
+        byte[][] out1 = new byte[4][64];
+        byte[][] out2 = new byte[4][64];
+        for (int j = 0; j != 4; j++)
+        {
+            random.nextBytes(in[j]);
+        }
+
+        SHAKEX4 x4 = new SHAKEX4(128);
+        x4.update(in, 0, 20);
+        x4.doOutput(out1, 0, 64);
+        x4.reset();
+        x4.update(in, 0, 20);
+        x4.doOutput(out2, 0, 64);
+
+        for (int j = 0; j != 4; j++)
+        {
+            isTrue("reset", Arrays.areEqual(out1[j], out2[j]));
+        }
+    }
+
+    private static byte[] shake(int bitStrength, byte[] msg, int outLen)
+    {
+        SHAKEDigest digest = new SHAKEDigest(bitStrength);
+        byte[] out = new byte[outLen];
+
+        digest.update(msg, 0, msg.length);
+        digest.doFinal(out, 0, outLen);
+
+        return out;
+    }
+
+    public static void main(
+        String[] args)
+    {
+        runTest(new SHAKEX4Test());
+    }
+}
@@ -79,6 +79,88 @@ public void testEd25519Consistency()
         }
     }
     
+//    @Test
+    public void testEd25519BatchConsistency()
+    {
+        int count = 1 + (RANDOM.nextInt() & 15);
+        byte[][] pks = new byte[count][];
+        Ed25519.PublicPoint[] publicPoints = new Ed25519.PublicPoint[count];
+        byte[][] ms = new byte[count][];
+        byte[][] sigs = new byte[count][];
+
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sk = new byte[Ed25519.SECRET_KEY_SIZE];
+            Ed25519.generatePrivateKey(RANDOM, sk);
+
+            publicPoints[i] = Ed25519.generatePublicKey(sk, 0);
+            pks[i] = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.encodePublicPoint(publicPoints[i], pks[i], 0);
+
+            ms[i] = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(ms[i]);
+
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sk, 0, ms[i], 0, ms[i].length, sigs[i], 0);
+        }
+
+        assertTrue("Ed25519 batch sign/verify", Ed25519.verifyBatch(sigs, pks, ms, RANDOM));
+        assertTrue("Ed25519 batch sign/verify", Ed25519.verifyBatch(sigs, publicPoints, ms, RANDOM));
+
+        int bad = RANDOM.nextInt(count);
+        sigs[bad][Ed25519.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+
+        assertFalse("Ed25519 batch verification failure", Ed25519.verifyBatch(sigs, pks, ms, RANDOM));
+        assertFalse("Ed25519 batch verification failure", Ed25519.verifyBatch(sigs, publicPoints, ms, RANDOM));
+
+        sigs[bad][Ed25519.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+        ms[bad] = Arrays.append(ms[bad], (byte)0);
+
+        assertFalse("Ed25519 batch verification failure", Ed25519.verifyBatch(sigs, pks, ms, RANDOM));
+    }
+
+//    @Test
+    public void testEd25519ctxBatchConsistency()
+    {
+        int count = 1 + (RANDOM.nextInt() & 15);
+        byte[][] pks = new byte[count][];
+        Ed25519.PublicPoint[] publicPoints = new Ed25519.PublicPoint[count];
+        byte[] ctx = new byte[RANDOM.nextInt() & 7];
+        RANDOM.nextBytes(ctx);
+        byte[][] ms = new byte[count][];
+        byte[][] sigs = new byte[count][];
+
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sk = new byte[Ed25519.SECRET_KEY_SIZE];
+            Ed25519.generatePrivateKey(RANDOM, sk);
+
+            publicPoints[i] = Ed25519.generatePublicKey(sk, 0);
+            pks[i] = new byte[Ed25519.PUBLIC_KEY_SIZE];
+            Ed25519.encodePublicPoint(publicPoints[i], pks[i], 0);
+
+            ms[i] = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(ms[i]);
+
+            sigs[i] = new byte[Ed25519.SIGNATURE_SIZE];
+            Ed25519.sign(sk, 0, ctx, ms[i], 0, ms[i].length, sigs[i], 0);
+        }
+
+        assertTrue("Ed25519ctx batch sign/verify", Ed25519.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+        assertTrue("Ed25519ctx batch sign/verify", Ed25519.verifyBatch(sigs, publicPoints, ctx, ms, RANDOM));
+
+        int bad = RANDOM.nextInt(count);
+        sigs[bad][Ed25519.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+
+        assertFalse("Ed25519ctx batch verification failure", Ed25519.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+        assertFalse("Ed25519ctx batch verification failure", Ed25519.verifyBatch(sigs, publicPoints, ctx, ms, RANDOM));
+
+        sigs[bad][Ed25519.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+        ms[bad] = Arrays.append(ms[bad], (byte)0);
+
+        assertFalse("Ed25519ctx batch verification failure", Ed25519.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+    }
+
 //    @Test
     public void testEd25519ctxConsistency()
     {
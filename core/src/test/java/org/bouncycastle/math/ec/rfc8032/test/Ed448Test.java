@@ -80,6 +80,48 @@ public void testEd448Consistency()
         }
     }
 
+//    @Test
+    public void testEd448BatchConsistency()
+    {
+        int count = 1 + (RANDOM.nextInt() & 15);
+        byte[][] pks = new byte[count][];
+        Ed448.PublicPoint[] publicPoints = new Ed448.PublicPoint[count];
+        byte[] ctx = new byte[RANDOM.nextInt() & 7];
+        RANDOM.nextBytes(ctx);
+        byte[][] ms = new byte[count][];
+        byte[][] sigs = new byte[count][];
+
+        for (int i = 0; i < count; ++i)
+        {
+            byte[] sk = new byte[Ed448.SECRET_KEY_SIZE];
+            Ed448.generatePrivateKey(RANDOM, sk);
+
+            publicPoints[i] = Ed448.generatePublicKey(sk, 0);
+            pks[i] = new byte[Ed448.PUBLIC_KEY_SIZE];
+            Ed448.encodePublicPoint(publicPoints[i], pks[i], 0);
+
+            ms[i] = new byte[RANDOM.nextInt() & 255];
+            RANDOM.nextBytes(ms[i]);
+
+            sigs[i] = new byte[Ed448.SIGNATURE_SIZE];
+            Ed448.sign(sk, 0, ctx, ms[i], 0, ms[i].length, sigs[i], 0);
+        }
+
+        assertTrue("Ed448 batch sign/verify", Ed448.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+        assertTrue("Ed448 batch sign/verify", Ed448.verifyBatch(sigs, publicPoints, ctx, ms, RANDOM));
+
+        int bad = RANDOM.nextInt(count);
+        sigs[bad][Ed448.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+
+        assertFalse("Ed448 batch verification failure", Ed448.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+        assertFalse("Ed448 batch verification failure", Ed448.verifyBatch(sigs, publicPoints, ctx, ms, RANDOM));
+
+        sigs[bad][Ed448.PUBLIC_KEY_SIZE - 1] ^= 0x80;
+        ms[bad] = Arrays.append(ms[bad], (byte)0);
+
+        assertFalse("Ed448 batch verification failure", Ed448.verifyBatch(sigs, pks, ctx, ms, RANDOM));
+    }
+
 //    @Test
     public void testEd448phConsistency()
     {
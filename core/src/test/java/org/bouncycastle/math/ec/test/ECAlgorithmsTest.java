@@ -43,6 +43,37 @@ public void testSumOfMultipliesComplete()
         }
     }
 
+    public void testSumOfManyMultiplies()
+    {
+        // enough points for the bucket method (GLV curves split each scalar in two)
+        String[] names = new String[]{ "secp256r1", "secp256k1", "sect233r1" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9 = CustomNamedCurves.getByName(names[i]);
+            assertNotNull(x9);
+            doTestSumOfManyMultiplies(x9, 150);
+        }
+
+        X9ECParameters x9 = ECNamedCurveTable.getByName("prime239v1");
+        assertNotNull(x9);
+        doTestSumOfManyMultiplies(x9, 130);
+    }
+
+    public void testSumOfMultipliesConstantTime()
+    {
+        String[] names = new String[]{ "secp256r1", "secp256k1", "sect233r1", "curve25519" };
+        for (int i = 0; i < names.length; ++i)
+        {
+            X9ECParameters x9 = CustomNamedCurves.getByName(names[i]);
+            assertNotNull(x9);
+            doTestSumOfMultipliesConstantTime(x9);
+        }
+
+        X9ECParameters x9 = ECNamedCurveTable.getByName("prime239v1");
+        assertNotNull(x9);
+        doTestSumOfMultipliesConstantTime(x9);
+    }
+
     public void testSumOfTwoMultiplies()
     {
         X9ECParameters x9 = CustomNamedCurves.getByName("secp256r1");
@@ -86,6 +117,67 @@ private void doTestSumOfMultiplies(X9ECParameters x9)
         }
     }
 
+    private void doTestSumOfManyMultiplies(X9ECParameters x9, int count)
+    {
+        ECPoint[] points = new ECPoint[count];
+        BigInteger[] scalars = new BigInteger[count];
+        for (int i = 0; i < count; ++i)
+        {
+            points[i] = getRandomPoint(x9);
+            scalars[i] = getRandomScalar(x9);
+            if ((i & 3) == 0)
+            {
+                scalars[i] = scalars[i].negate();
+            }
+        }
+
+        // include an infinity and a zero scalar
+        points[1] = x9.getCurve().getInfinity();
+        scalars[2] = BigInteger.ZERO;
+
+        ECPoint u = x9.getCurve().getInfinity();
+        for (int i = 0; i < count; ++i)
+        {
+            u = u.add(points[i].multiply(scalars[i]));
+        }
+
+        ECPoint v = ECAlgorithms.sumOfMultiplies(points, scalars);
+
+        assertPointsEqual("ECAlgorithms.sumOfMultiplies is incorrect", u.normalize(), v.normalize());
+    }
+
+    private void doTestSumOfMultipliesConstantTime(X9ECParameters x9)
+    {
+        ECPoint[] points = new ECPoint[SCALE];
+        BigInteger[] scalars = new BigInteger[SCALE];
+        for (int i = 0; i < SCALE; ++i)
+        {
+            points[i] = getRandomPoint(x9);
+            scalars[i] = getRandomScalar(x9);
+        }
+
+        // negative, zero, and (even and odd) larger than the order
+        scalars[0] = scalars[0].negate();
+        scalars[1] = BigInteger.ZERO;
+        scalars[2] = x9.getN().add(scalars[2].setBit(0));
+        scalars[3] = x9.getN().add(scalars[3].clearBit(0));
+
+        ECPoint u = x9.getCurve().getInfinity();
+        for (int i = 0; i < SCALE; ++i)
+        {
+            u = u.add(points[i].multiply(scalars[i].mod(x9.getN())));
+
+            ECPoint v = ECAlgorithms.sumOfMultipliesConstantTime(copyPoints(points, i + 1), copyScalars(scalars, i + 1));
+
+            assertPointsEqual("ECAlgorithms.sumOfMultipliesConstantTime is incorrect", u.normalize(), v.normalize());
+        }
+
+        ECPoint[] withInfinity = new ECPoint[]{ x9.getCurve().getInfinity(), points[0] };
+        ECPoint w = ECAlgorithms.sumOfMultipliesConstantTime(withInfinity, copyScalars(scalars, 2));
+        assertPointsEqual("ECAlgorithms.sumOfMultipliesConstantTime is incorrect",
+            points[0].multiply(scalars[1].mod(x9.getN())).normalize(), w.normalize());
+    }
+
     private void doTestSumOfTwoMultiplies(X9ECParameters x9)
     {
         ECPoint p = getRandomPoint(x9);
@@ -29,6 +29,8 @@
      */
     private static final byte[] decodingTable;
 
+    private static final int NO_CHAR = -2;
+
     static
     {
         decodingTable = new byte[128];
@@ -437,95 +439,110 @@ else if (newLineFound && c == '-')
         }
 
         if (bufPtr > 2 || crcFound)
+        {
+            if (decodeNext(readIgnoreSpace()) < 0)
+            {
+                return -1;
+            }
+        }
+
+        return outBuf[bufPtr++] & 0xFF;
+    }
+
+    /**
+     * Decode the next group of characters, starting with c, into outBuf, dealing with line ends,
+     * the checksum and the footer as they are found.
+     *
+     * @return -1 if the end of the armored data has been reached, 0 otherwise.
+     */
+    private int decodeNext(int c)
+        throws IOException
+    {
+        if (c == '\r' || c == '\n')
         {
             c = readIgnoreSpace();
-            
-            if (c == '\r' || c == '\n')
+
+            while (c == '\n' || c == '\r')
             {
                 c = readIgnoreSpace();
-                
-                while (c == '\n' || c == '\r')
+            }
+
+            if (c == '=')            // crc reached
+            {
+                bufPtr = decode(readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), outBuf);
+                if (bufPtr != 0)
                 {
-                    c = readIgnoreSpace();
+                    throw new ArmoredInputException("malformed crc in armored message");
                 }
 
-                if (c == '=')            // crc reached
+                crcFound = true;
+
+                if (crc != null)
                 {
-                    bufPtr = decode(readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), outBuf);
-                    if (bufPtr != 0)
+                    int i = ((outBuf[0] & 0xff) << 16)
+                        | ((outBuf[1] & 0xff) << 8)
+                        | (outBuf[2] & 0xff);
+                    if (i != crc.getValue())
                     {
-                        throw new ArmoredInputException("malformed crc in armored message");
+                        throw new ArmoredInputException("crc check failed in armored message");
                     }
+                }
 
-                    crcFound = true;
+                return decodeNext(readIgnoreSpace());
+            }
 
-                    if (crc != null)
+            if (c == '-')        // end of record reached
+            {
+                while ((c = in.read()) >= 0)
+                {
+                    if (c == '\n' || c == '\r')
                     {
-                        int i = ((outBuf[0] & 0xff) << 16)
-                            | ((outBuf[1] & 0xff) << 8)
-                            | (outBuf[2] & 0xff);
-                        if (i != crc.getValue())
-                        {
-                            throw new ArmoredInputException("crc check failed in armored message");
-                        }
+                        break;
                     }
-
-                    return read();
                 }
 
-                if (c == '-')        // end of record reached
+                if (!crcFound && detectMissingChecksum)
                 {
-                    while ((c = in.read()) >= 0)
-                    {
-                        if (c == '\n' || c == '\r')
-                        {
-                            break;
-                        }
-                    }
-
-                    if (!crcFound && detectMissingChecksum)
-                    {
-                        throw new ArmoredInputException("crc check not found");
-                    }
-
-                    crcFound = false;
-                    start = true;
-                    bufPtr = 3;
+                    throw new ArmoredInputException("crc check not found");
+                }
 
-                    if (c < 0)
-                    {
-                        isEndOfStream = true;
-                    }
+                crcFound = false;
+                start = true;
+                bufPtr = 3;
 
-                    return -1;
+                if (c < 0)
+                {
+                    isEndOfStream = true;
                 }
-            }
 
-            if (c < 0)
-            {
-                isEndOfStream = true;
                 return -1;
             }
+        }
 
-            bufPtr = decode(c, readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), outBuf);
+        if (c < 0)
+        {
+            isEndOfStream = true;
+            return -1;
+        }
 
-            if (crc != null)
+        bufPtr = decode(c, readIgnoreSpace(), readIgnoreSpace(), readIgnoreSpace(), outBuf);
+
+        if (crc != null)
+        {
+            if (bufPtr == 0)
             {
-                if (bufPtr == 0)
+                crc.update3(outBuf, 0);
+            }
+            else
+            {
+                for (int i = bufPtr; i < 3; ++i)
                 {
-                    crc.update3(outBuf, 0);
-                }
-                else
-                {
-                    for (int i = bufPtr; i < 3; ++i)
-                    {
-                        crc.update(outBuf[i] & 0xFF);
-                    }
+                    crc.update(outBuf[i] & 0xFF);
                 }
             }
         }
 
-        return outBuf[bufPtr++] & 0xFF;
+        return 0;
     }
 
     /**
@@ -559,26 +576,89 @@ public int read(byte[] b, int off, int len) throws IOException
             return 0;
         }
 
-        int c = read();
-        if (c == -1)
+        int i = 0;
+        while (i < len)
         {
-            return -1;
-        }
-        b[off] = (byte)c;
+            if (start || clearText || crcFound || bufPtr < 3 || len - i < 3)
+            {
+                int c = read();
+                if (c < 0)
+                {
+                    break;
+                }
+                b[off + i++] = (byte)c;
+                continue;
+            }
 
-        int i = 1;
-        for (; i < len ; i++)
-        {
-            c = read();
-            if (c == -1)
+            // whole groups are decoded straight into b, the CRC is updated a run at a time.
+            int runStart = i;
+            int c = readIgnoreSpace();
+
+            while (c >= 0 && decodingTable[c] >= 0)
+            {
+                int c1 = readIgnoreSpace();
+                int c2 = readIgnoreSpace();
+                int c3 = readIgnoreSpace();
+
+                if ((c1 | c2 | c3) < 0 || (decodingTable[c1] | decodingTable[c2] | decodingTable[c3]) < 0)
+                {
+                    // padding, or an invalid group - decode will sort it out.
+                    updateCrc(b, off + runStart, i - runStart);
+                    runStart = i;
+                    bufPtr = decode(c, c1, c2, c3, outBuf);
+                    if (crc != null)
+                    {
+                        crc.update(outBuf, bufPtr, 3 - bufPtr);
+                    }
+                    c = NO_CHAR;
+                    break;
+                }
+
+                int v = (decodingTable[c] << 18) | (decodingTable[c1] << 12) | (decodingTable[c2] << 6) | decodingTable[c3];
+
+                b[off + i] = (byte)(v >>> 16);
+                b[off + i + 1] = (byte)(v >>> 8);
+                b[off + i + 2] = (byte)v;
+                i += 3;
+
+                if (len - i < 3)
+                {
+                    c = NO_CHAR;
+                    break;
+                }
+
+                c = readIgnoreSpace();
+            }
+
+            updateCrc(b, off + runStart, i - runStart);
+
+            if (c != NO_CHAR)
             {
-                break;
+                // a line end, the checksum, the footer, or the end of the input.
+                if (decodeNext(c) < 0)
+                {
+                    break;
+                }
+                b[off + i++] = outBuf[bufPtr++];
             }
-            b[off + i] = (byte)c;
         }
+
+        if (i == 0)
+        {
+            return -1;
+        }
+
         return i;
     }
 
+    private void updateCrc(byte[] b, int off, int len)
+    {
+        if (crc != null && len > 0)
+        {
+            crc.update(b, off, len);
+        }
+    }
+
     private void checkIndexSize(int size, int off, int len)
     {
         if (off < 0 || len < 0)
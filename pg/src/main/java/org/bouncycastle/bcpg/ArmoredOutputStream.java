@@ -48,6 +48,42 @@
             (byte)'+', (byte)'/'
         };
 
+    /**
+     * pairs of encoding characters for each 12 bit value, first character in the high byte.
+     */
+    private static final short[] pairTable;
+
+    static
+    {
+        pairTable = new short[4096];
+
+        for (int i = 0; i < pairTable.length; i++)
+        {
+            pairTable[i] = (short)((encodingTable[i >>> 6] << 8) | encodingTable[i & 0x3f]);
+        }
+    }
+
+    /**
+     * encode count groups of 3 bytes from data at off, writing the result to out at outOff.
+     */
+    private static void encodeGroups(byte[] data, int off, int count, byte[] out, int outOff)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            int v = ((data[off] & 0xFF) << 16) | ((data[off + 1] & 0xFF) << 8) | (data[off + 2] & 0xFF);
+            int p1 = pairTable[v >>> 12];
+            int p2 = pairTable[v & 0xfff];
+
+            out[outOff] = (byte)(p1 >>> 8);
+            out[outOff + 1] = (byte)p1;
+            out[outOff + 2] = (byte)(p2 >>> 8);
+            out[outOff + 3] = (byte)p2;
+
+            off += 3;
+            outOff += 4;
+        }
+    }
+
     /**
      * encode the input data producing a base 64 encoded byte array.
      */
@@ -106,9 +142,12 @@ private static void encode3(OutputStream out, byte[] data)
         out.write(encodingTable[d3 & 0x3f]);
     }
 
+    private static final int LINES_PER_WRITE = 64;
+
     OutputStream out;
     byte[] buf = new byte[3];
     int bufPtr = 0;
+    byte[] lineBuf;
     CRC24 crc = new FastCRC24();
     int chunkCount = 0;
     int lastb;
@@ -456,20 +495,117 @@ public void write(
         }
 
         if (bufPtr == 3)
+        {
+            flushGroup();
+        }
+
+        buf[bufPtr++] = (byte)b;
+    }
+
+    /**
+     * Write a block of data. Whole lines of base 64 are encoded straight from the passed in array, the last
+     * 1 to 3 bytes are held back as with write(int), so the output is the same as writing the data a byte at a time.
+     */
+    public void write(
+        byte[] b,
+        int off,
+        int len)
+        throws IOException
+    {
+        if (off < 0 || len < 0 || off > b.length - len)
+        {
+            throw new IndexOutOfBoundsException("invalid offset and length");
+        }
+
+        if (clearText || start)
+        {
+            // the first byte selects the armor type, after that we can carry on.
+            while (len > 0 && (clearText || start))
+            {
+                write(b[off++]);
+                len--;
+            }
+        }
+
+        if (len == 0)
+        {
+            return;
+        }
+
+        while (bufPtr < 3)
+        {
+            buf[bufPtr++] = b[off++];
+            if (--len == 0)
+            {
+                return;
+            }
+        }
+
+        flushGroup();
+
+        // keep at least one byte back for the next call or close().
+        int groups = (len - 1) / 3;
+
+        if (groups > 0)
         {
             if (crc != null)
             {
-                crc.update3(buf, 0);
+                crc.update(b, off, groups * 3);
             }
-            encode3(out, buf);
-            bufPtr = 0;
-            if ((++chunkCount & 0xf) == 0)
+
+            byte[] nlBytes = Strings.toByteArray(nl);
+            int lineLength = 16 * 4 + nlBytes.length;
+            if (lineBuf == null || lineBuf.length < LINES_PER_WRITE * lineLength)
             {
-                write(nl);
+                lineBuf = new byte[LINES_PER_WRITE * lineLength];
+            }
+            int pos = 0;
+
+            while (groups > 0)
+            {
+                // fill the current line, 16 groups of 4 characters to a line.
+                int count = Math.min(groups, 16 - (chunkCount & 0xf));
+
+                encodeGroups(b, off, count, lineBuf, pos);
+                off += count * 3;
+                pos += count * 4;
+                groups -= count;
+                chunkCount += count;
+
+                if ((chunkCount & 0xf) == 0)
+                {
+                    System.arraycopy(nlBytes, 0, lineBuf, pos, nlBytes.length);
+                    pos += nlBytes.length;
+                }
+
+                if (lineBuf.length - pos < lineLength)
+                {
+                    out.write(lineBuf, 0, pos);
+                    pos = 0;
+                }
             }
+
+            out.write(lineBuf, 0, pos);
+            len = (len - 1) % 3 + 1;
         }
 
-        buf[bufPtr++] = (byte)b;
+        System.arraycopy(b, off, buf, 0, len);
+        bufPtr = len;
+    }
+
+    private void flushGroup()
+        throws IOException
+    {
+        if (crc != null)
+        {
+            crc.update3(buf, 0);
+        }
+        encode3(out, buf);
+        bufPtr = 0;
+        if ((++chunkCount & 0xf) == 0)
+        {
+            write(nl);
+        }
     }
 
     public void flush()
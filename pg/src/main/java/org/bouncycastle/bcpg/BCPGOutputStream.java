@@ -283,12 +283,13 @@ private void writePartial(
             len -= partialBufferLength - partialOffset;
             partialFlush(false);
 
+            // whole partial packets are written straight from the caller's buffer.
             while (len > partialBufferLength)
             {
-                System.arraycopy(buf, off, partialBuffer, 0, partialBufferLength);
+                out.write(0xE0 | partialPower);
+                out.write(buf, off, partialBufferLength);
                 off += partialBufferLength;
                 len -= partialBufferLength;
-                partialFlush(false);
             }
 
             System.arraycopy(buf, off, partialBuffer, 0, len);
@@ -35,6 +35,14 @@ public void update3(byte[] buf, int off)
         update(buf[off + 2] & 0xFF);
     }
 
+    public void update(byte[] buf, int off, int len)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            update(buf[off + i] & 0xFF);
+        }
+    }
+
     public int getValue()
     {
         return crc & 0xFFFFFF;
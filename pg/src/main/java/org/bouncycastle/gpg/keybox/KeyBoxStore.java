@@ -0,0 +1,855 @@
+package org.bouncycastle.gpg.keybox;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.KeyIdentifier;
+import org.bouncycastle.bcpg.PublicKeyPacket;
+import org.bouncycastle.openpgp.PGPPublicKey;
+import org.bouncycastle.openpgp.PGPPublicKeyRing;
+import org.bouncycastle.openpgp.operator.KeyFingerPrintCalculator;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Pack;
+import org.bouncycastle.util.Strings;
+
+/**
+ * An indexed view of a keybox file, for key stores too large to parse in full with {@link KeyBox}.
+ * <p>
+ * The keybox is memory mapped and looked up through a sidecar index file holding a sorted table of key IDs and a
+ * compact area of user IDs, each referring to the offset of the blob they came from. Only the blobs matching a
+ * lookup are parsed, and checked against their digest, as they are returned. The index records how much of the
+ * keybox it covers, so blobs appended since it was written, by this class or by gpg, are picked up on open and a
+ * keybox which has been rewritten causes the index to be rebuilt. Blobs gpg has deleted in place, which it does by
+ * blanking their type, are treated as absent and dropped from the index when it is next written.
+ * </p>
+ * <p>
+ * Public key rings may be appended as version 1 OpenPGP blobs. Index updates are held in memory until
+ * {@link #writeIndex()} or {@link #close()} is called.
+ * </p>
+ */
+public class KeyBoxStore
+    implements Closeable
+{
+    private static final byte[] indexMagic = Strings.toByteArray("KBXI");
+    private static final int INDEX_VERSION = 1;
+
+    // magic, version and RFU, covered length, last checksum, key count, user ID area length
+    private static final int INDEX_HEADER_SIZE = 4 + 4 + 8 + 20 + 4 + 4;
+    private static final int KEY_ENTRY_SIZE = 8 + 4;
+
+    private static final int FIRST_BLOB_SIZE = 32;
+    private static final int KEY_INFO_SIZE = 28;
+    private static final int USER_ID_INFO_SIZE = 12;
+
+    private final File keyBoxFile;
+    private final File indexFile;
+    private final KeyFingerPrintCalculator fingerPrintCalculator;
+    private final BlobVerifier blobVerifier;
+    private final PGPDigestCalculator checksumCalculator;
+
+    private final List<KeyEntry> pendingKeys = new ArrayList<KeyEntry>();
+    private final List<UserIDEntry> pendingUserIDs = new ArrayList<UserIDEntry>();
+
+    private ByteBuffer keyBox;
+    private ByteBuffer index;
+    private int indexKeyCount;
+    private int indexUserIDLength;
+    private int scanned;
+    private boolean indexDirty;
+
+    /**
+     * Open a keybox store. The keybox file need not exist yet, in which case it will be created by the first call
+     * to {@link #append(PGPPublicKeyRing)}.
+     *
+     * @param keyBoxFile            the keybox file.
+     * @param indexFile             the file the index is kept in.
+     * @param fingerPrintCalculator calculator for the fingerprints of parsed keys.
+     * @param blobVerifier          verifier for blob checksums.
+     * @param checksumCalculator    SHA-1 calculator for the checksums of appended blobs, null if the store is read-only.
+     * @throws IOException if the keybox cannot be read.
+     */
+    public KeyBoxStore(File keyBoxFile, File indexFile, KeyFingerPrintCalculator fingerPrintCalculator, BlobVerifier blobVerifier, PGPDigestCalculator checksumCalculator)
+        throws IOException
+    {
+        if (checksumCalculator != null && checksumCalculator.getAlgorithm() != HashAlgorithmTags.SHA1)
+        {
+            throw new IllegalArgumentException("keybox blob checksums must be SHA-1");
+        }
+
+        this.keyBoxFile = keyBoxFile;
+        this.indexFile = indexFile;
+        this.fingerPrintCalculator = fingerPrintCalculator;
+        this.blobVerifier = blobVerifier;
+        this.checksumCalculator = checksumCalculator;
+
+        if (keyBoxFile.exists())
+        {
+            mapKeyBox();
+            loadIndex();
+            scan();
+        }
+    }
+
+    /**
+     * Return the key ring containing a key with the passed in key ID. If the key appears in more than one blob the
+     * most recently appended one is returned.
+     *
+     * @param keyID the key ID to look for.
+     * @return the matching key ring, null if none is present.
+     * @throws IOException if the blob holding the key ring cannot be parsed.
+     */
+    public synchronized PGPPublicKeyRing getPublicKeyRing(long keyID)
+        throws IOException
+    {
+        return getPublicKeyRing(new KeyIdentifier(keyID));
+    }
+
+    /**
+     * Return the key ring containing a key matching the passed in identifier. Fingerprints of v4, v5 and v6 keys are
+     * located through the key ID they contain and then confirmed against the parsed key.
+     *
+     * @param identifier the identifier to look for.
+     * @return the matching key ring, null if none is present.
+     * @throws IOException if the blob holding the key ring cannot be parsed.
+     */
+    public synchronized PGPPublicKeyRing getPublicKeyRing(KeyIdentifier identifier)
+        throws IOException
+    {
+        if (identifier.isWildcard())
+        {
+            throw new IllegalArgumentException("cannot look up a wildcard key identifier");
+        }
+
+        ensureMapped();
+
+        List<Integer> offsets = findBlobOffsets(identifier.getKeyId());
+        for (int i = offsets.size() - 1; i >= 0; i--)
+        {
+            PGPPublicKeyRing keyRing = readKeyRing(offsets.get(i).intValue());
+            if (keyRing != null && keyRing.getPublicKey(identifier) != null)
+            {
+                return keyRing;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the key rings with a user ID containing the passed in string, ignoring the case of ASCII characters.
+     *
+     * @param userIDPart the string to search for.
+     * @return a list of the matching key rings, in the order they appear in the keybox.
+     * @throws IOException if the blob holding a key ring cannot be parsed.
+     */
+    public synchronized List<PGPPublicKeyRing> getPublicKeyRings(String userIDPart)
+        throws IOException
+    {
+        ensureMapped();
+
+        byte[] part = Strings.toUTF8ByteArray(Strings.toLowerCase(userIDPart));
+        Set<Integer> offsets = new TreeSet<Integer>();
+
+        if (index != null)
+        {
+            int pos = INDEX_HEADER_SIZE + indexKeyCount * KEY_ENTRY_SIZE;
+            int end = pos + indexUserIDLength;
+            while (pos < end)
+            {
+                int blobOffset = index.getInt(pos);
+                int len = index.getShort(pos + 4) & 0xFFFF;
+                if (contains(index, pos + 6, len, part))
+                {
+                    offsets.add(Integer.valueOf(blobOffset));
+                }
+                pos += 6 + len;
+            }
+        }
+
+        for (int i = 0; i != pendingUserIDs.size(); i++)
+        {
+            UserIDEntry entry = pendingUserIDs.get(i);
+            if (contains(ByteBuffer.wrap(entry.userID), 0, entry.userID.length, part))
+            {
+                offsets.add(Integer.valueOf(entry.blobOffset));
+            }
+        }
+
+        List<PGPPublicKeyRing> keyRings = new ArrayList<PGPPublicKeyRing>(offsets.size());
+        for (Iterator<Integer> it = offsets.iterator(); it.hasNext();)
+        {
+            PGPPublicKeyRing keyRing = readKeyRing(it.next().intValue());
+            if (keyRing != null)
+            {
+                keyRings.add(keyRing);
+            }
+        }
+
+        return keyRings;
+    }
+
+    /**
+     * Append a public key ring to the keybox as a new OpenPGP blob, creating the keybox if required.
+     *
+     * @param keyRing the key ring to add.
+     * @throws IOException if the keybox cannot be written.
+     */
+    public synchronized void append(PGPPublicKeyRing keyRing)
+        throws IOException
+    {
+        if (checksumCalculator == null)
+        {
+            throw new IllegalStateException("no checksum calculator configured, store is read-only");
+        }
+
+        byte[] blob = encodeBlob(keyRing);
+
+        RandomAccessFile file = new RandomAccessFile(keyBoxFile, "rw");
+        try
+        {
+            long end = file.length();
+            if (end == 0)
+            {
+                file.write(encodeFirstBlob());
+                end = FIRST_BLOB_SIZE;
+            }
+
+            if (end + blob.length > Integer.MAX_VALUE)
+            {
+                throw new IOException("keybox too large to append to");
+            }
+
+            file.seek(end);
+            file.write(blob);
+        }
+        finally
+        {
+            file.close();
+        }
+
+        // remapped, and the new blob indexed, on the next lookup.
+        keyBox = null;
+    }
+
+    /**
+     * Write any changes to the index out to the index file. The new index is written to a temporary file first
+     * and then renamed over the old one.
+     *
+     * @throws IOException if the index cannot be written.
+     */
+    public synchronized void writeIndex()
+        throws IOException
+    {
+        ensureMapped();
+
+        if (keyBox == null || !indexDirty)
+        {
+            return;
+        }
+
+        // entries for blobs which have been deleted since they were indexed are dropped.
+        List<KeyEntry> keys = new ArrayList<KeyEntry>(indexKeyCount + pendingKeys.size());
+        for (int i = 0; i != indexKeyCount; i++)
+        {
+            int pos = INDEX_HEADER_SIZE + i * KEY_ENTRY_SIZE;
+            addIfPresent(keys, new KeyEntry(index.getLong(pos), index.getInt(pos + 8)));
+        }
+        for (int i = 0; i != pendingKeys.size(); i++)
+        {
+            addIfPresent(keys, pendingKeys.get(i));
+        }
+        Collections.sort(keys, new KeyEntryComparator());
+
+        List<UserIDEntry> userIDs = new ArrayList<UserIDEntry>();
+        if (index != null)
+        {
+            int pos = INDEX_HEADER_SIZE + indexKeyCount * KEY_ENTRY_SIZE;
+            int end = pos + indexUserIDLength;
+            while (pos < end)
+            {
+                int blobOffset = index.getInt(pos);
+                byte[] userID = new byte[index.getShort(pos + 4) & 0xFFFF];
+                ((ByteBuffer)((java.nio.Buffer)index.duplicate()).position(pos + 6)).get(userID);
+                addIfPresent(userIDs, new UserIDEntry(blobOffset, userID));
+                pos += 6 + userID.length;
+            }
+        }
+        for (int i = 0; i != pendingUserIDs.size(); i++)
+        {
+            addIfPresent(userIDs, pendingUserIDs.get(i));
+        }
+
+        int userIDLength = 0;
+        for (int i = 0; i != userIDs.size(); i++)
+        {
+            userIDLength += 6 + userIDs.get(i).userID.length;
+        }
+
+        File tmpFile = new File(indexFile.getPath() + ".tmp");
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile));
+        try
+        {
+            byte[] checksum = new byte[20];
+            ((ByteBuffer)((java.nio.Buffer)keyBox.duplicate()).position(scanned - 20)).get(checksum);
+
+            out.write(indexMagic);
+            out.write(new byte[]{ (byte)INDEX_VERSION, 0, 0, 0 });
+            out.write(Pack.longToBigEndian((long)scanned));
+            out.write(checksum);
+            out.write(Pack.intToBigEndian(keys.size()));
+            out.write(Pack.intToBigEndian(userIDLength));
+
+            for (int i = 0; i != keys.size(); i++)
+            {
+                KeyEntry entry = keys.get(i);
+                out.write(Pack.longToBigEndian(entry.keyID));
+                out.write(Pack.intToBigEndian(entry.blobOffset));
+            }
+
+            for (int i = 0; i != userIDs.size(); i++)
+            {
+                UserIDEntry entry = userIDs.get(i);
+                out.write(Pack.intToBigEndian(entry.blobOffset));
+                out.write((byte)(entry.userID.length >>> 8));
+                out.write((byte)entry.userID.length);
+                out.write(entry.userID);
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+
+        index = null;
+        if (!tmpFile.renameTo(indexFile))
+        {
+            // some platforms will not rename over an existing file.
+            indexFile.delete();
+            if (!tmpFile.renameTo(indexFile))
+            {
+                throw new IOException("unable to replace index file " + indexFile);
+            }
+        }
+
+        pendingKeys.clear();
+        pendingUserIDs.clear();
+        indexDirty = false;
+
+        loadIndex();
+    }
+
+    /**
+     * Write out any changes to the index and release the mapped files.
+     *
+     * @throws IOException if the index cannot be written.
+     */
+    public synchronized void close()
+        throws IOException
+    {
+        writeIndex();
+
+        keyBox = null;
+        index = null;
+    }
+
+    private void ensureMapped()
+        throws IOException
+    {
+        if (keyBox == null && keyBoxFile.exists())
+        {
+            mapKeyBox();
+            scan();
+        }
+    }
+
+    private void mapKeyBox()
+        throws IOException
+    {
+        keyBox = map(keyBoxFile);
+
+        if (keyBox.limit() < FIRST_BLOB_SIZE || keyBox.get(4) != BlobType.FIRST_BLOB.getByteValue()
+            || !Arrays.areEqual(magicAt(keyBox, 8), Blob.magicBytes))
+        {
+            throw new IOException("keybox does not start with a 'First Blob'");
+        }
+    }
+
+    private void loadIndex()
+        throws IOException
+    {
+        index = null;
+        indexKeyCount = 0;
+        indexUserIDLength = 0;
+
+        ByteBuffer idx = indexFile.exists() ? map(indexFile) : null;
+        if (idx != null && isCurrent(idx))
+        {
+            index = idx;
+            indexKeyCount = idx.getInt(INDEX_HEADER_SIZE - 8);
+            indexUserIDLength = idx.getInt(INDEX_HEADER_SIZE - 4);
+            scanned = (int)idx.getLong(8);
+        }
+        else
+        {
+            // missing or stale, rebuild from the start of the keybox.
+            pendingKeys.clear();
+            pendingUserIDs.clear();
+            scanned = 0;
+            indexDirty = true;
+        }
+    }
+
+    private boolean isCurrent(ByteBuffer idx)
+    {
+        if (idx.limit() < INDEX_HEADER_SIZE || !Arrays.areEqual(magicAt(idx, 0), indexMagic) || idx.get(4) != INDEX_VERSION)
+        {
+            return false;
+        }
+
+        long covered = idx.getLong(8);
+        if (covered < FIRST_BLOB_SIZE || covered > keyBox.limit())
+        {
+            return false;
+        }
+
+        for (int i = 0; i != 20; i++)
+        {
+            if (idx.get(16 + i) != keyBox.get((int)covered - 20 + i))
+            {
+                return false;
+            }
+        }
+
+        long keyCount = idx.getInt(INDEX_HEADER_SIZE - 8) & 0xFFFFFFFFL;
+        long userIDLength = idx.getInt(INDEX_HEADER_SIZE - 4) & 0xFFFFFFFFL;
+
+        return INDEX_HEADER_SIZE + keyCount * KEY_ENTRY_SIZE + userIDLength == idx.limit();
+    }
+
+    /**
+     * Index the blobs following the covered part of the keybox. A trailing blob which is incomplete, as it may be
+     * while another process is writing it, is left for a later scan.
+     */
+    private void scan()
+    {
+        KeyBoxByteBuffer buffer = new KeyBoxByteBuffer(keyBox.duplicate());
+        int limit = keyBox.limit();
+        int pos = scanned;
+
+        while (limit - pos >= 6)
+        {
+            buffer.position(pos);
+            long len = buffer.u32() & 0xFFFFFFFFL;
+            if (len < 6 || len > limit - pos)
+            {
+                break;
+            }
+
+            if (buffer.u8() == BlobType.OPEN_PGP_BLOB.getByteValue() && buffer.u8() == 1)
+            {
+                indexBlob(buffer, pos, (int)len);
+            }
+
+            pos += (int)len;
+        }
+
+        if (pos != scanned)
+        {
+            scanned = pos;
+            indexDirty = true;
+        }
+    }
+
+    private void indexBlob(KeyBoxByteBuffer buffer, int base, int len)
+    {
+        int keyMark = pendingKeys.size();
+        int userIDMark = pendingUserIDs.size();
+
+        try
+        {
+            buffer.position(base + 16);
+            int keyNumber = buffer.u16();
+            int keyInfoSize = buffer.u16();
+
+            int pos = base + 20;
+            for (int i = 0; i != keyNumber; i++, pos += keyInfoSize)
+            {
+                buffer.position(pos + 20);
+                long offsetToKeyID = buffer.u32() & 0xFFFFFFFFL;
+                if (offsetToKeyID > 0 && offsetToKeyID + 8 <= len - 20)
+                {
+                    long keyID = Pack.bigEndianToLong(buffer.rangeOf(base + (int)offsetToKeyID, base + (int)offsetToKeyID + 8), 0);
+                    pendingKeys.add(new KeyEntry(keyID, base));
+                }
+            }
+
+            buffer.position(pos);
+            pos += 2 + buffer.u16();             // serial number
+            buffer.position(pos);
+            int numberOfUserIDs = buffer.u16();
+            int userIDInfoSize = buffer.u16();
+
+            pos += 4;
+            for (int i = 0; i != numberOfUserIDs; i++, pos += userIDInfoSize)
+            {
+                buffer.position(pos);
+                long offsetToUserID = buffer.u32() & 0xFFFFFFFFL;
+                long lengthOfUserID = buffer.u32() & 0xFFFFFFFFL;
+                if (lengthOfUserID <= 0xFFFF && offsetToUserID + lengthOfUserID <= len - 20)
+                {
+                    pendingUserIDs.add(new UserIDEntry(base, buffer.rangeOf(base + (int)offsetToUserID, base + (int)(offsetToUserID + lengthOfUserID))));
+                }
+            }
+
+            if (pos <= base + len - 20)
+            {
+                return;
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // fall through
+        }
+
+        // a malformed blob is left unindexed, it would fail to parse if it was returned.
+        pendingKeys.subList(keyMark, pendingKeys.size()).clear();
+        pendingUserIDs.subList(userIDMark, pendingUserIDs.size()).clear();
+    }
+
+    private List<Integer> findBlobOffsets(long keyID)
+    {
+        List<Integer> offsets = new ArrayList<Integer>();
+
+        if (index != null)
+        {
+            int lo = 0;
+            int hi = indexKeyCount;
+            while (lo < hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                if (index.getLong(INDEX_HEADER_SIZE + mid * KEY_ENTRY_SIZE) < keyID)
+                {
+                    lo = mid + 1;
+                }
+                else
+                {
+                    hi = mid;
+                }
+            }
+
+            for (int pos = INDEX_HEADER_SIZE + lo * KEY_ENTRY_SIZE; lo < indexKeyCount && index.getLong(pos) == keyID; lo++, pos += KEY_ENTRY_SIZE)
+            {
+                offsets.add(Integer.valueOf(index.getInt(pos + 8)));
+            }
+        }
+
+        for (int i = 0; i != pendingKeys.size(); i++)
+        {
+            KeyEntry entry = pendingKeys.get(i);
+            if (entry.keyID == keyID)
+            {
+                offsets.add(Integer.valueOf(entry.blobOffset));
+            }
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Return the key ring in the blob at blobOffset, or null if the blob has since been deleted.
+     */
+    private PGPPublicKeyRing readKeyRing(int blobOffset)
+        throws IOException
+    {
+        if (!isOpenPGPBlob(blobOffset))
+        {
+            // dropped from the index when it is next written.
+            indexDirty = true;
+            return null;
+        }
+
+        KeyBoxByteBuffer buffer = new KeyBoxByteBuffer(keyBox.duplicate());
+        buffer.position(blobOffset);
+
+        Blob blob = Blob.getInstance(buffer, fingerPrintCalculator, blobVerifier);
+        if (!(blob instanceof PublicKeyRingBlob))
+        {
+            throw new IOException("no OpenPGP blob at offset " + blobOffset);
+        }
+
+        return ((PublicKeyRingBlob)blob).getPGPPublicKeyRing();
+    }
+
+    /**
+     * gpg deletes a blob by setting its type to empty, leaving it in place until the keybox is next compacted.
+     */
+    private boolean isOpenPGPBlob(int blobOffset)
+    {
+        return blobOffset <= keyBox.limit() - 6 && keyBox.get(blobOffset + 4) == BlobType.OPEN_PGP_BLOB.getByteValue();
+    }
+
+    private void addIfPresent(List<KeyEntry> keys, KeyEntry entry)
+    {
+        if (isOpenPGPBlob(entry.blobOffset))
+        {
+            keys.add(entry);
+        }
+    }
+
+    private void addIfPresent(List<UserIDEntry> userIDs, UserIDEntry entry)
+    {
+        if (isOpenPGPBlob(entry.blobOffset))
+        {
+            userIDs.add(entry);
+        }
+    }
+
+    private byte[] encodeBlob(PGPPublicKeyRing keyRing)
+        throws IOException
+    {
+        List<PGPPublicKey> keys = new ArrayList<PGPPublicKey>();
+        for (Iterator<PGPPublicKey> it = keyRing.getPublicKeys(); it.hasNext();)
+        {
+            keys.add(it.next());
+        }
+
+        List<byte[]> userIDs = new ArrayList<byte[]>();
+        for (Iterator<byte[]> it = keyRing.getPublicKey().getRawUserIDs(); it.hasNext();)
+        {
+            userIDs.add(it.next());
+        }
+
+        byte[] keyBlock = keyRing.getEncoded();
+
+        int userIDOffset = 20 + keys.size() * KEY_INFO_SIZE + 2 + 4 + userIDs.size() * USER_ID_INFO_SIZE + 4 + 20;
+        int keyBlockOffset = userIDOffset;
+        for (int i = 0; i != userIDs.size(); i++)
+        {
+            keyBlockOffset += userIDs.get(i).length;
+        }
+        int length = keyBlockOffset + keyBlock.length + 20;
+        long createdAt = System.currentTimeMillis() / 1000;
+
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream(length);
+
+        u32(bOut, length);
+        bOut.write(BlobType.OPEN_PGP_BLOB.getByteValue());
+        bOut.write(1);                                  // version
+        u16(bOut, 0);                                   // blob flags
+        u32(bOut, keyBlockOffset);
+        u32(bOut, keyBlock.length);
+        u16(bOut, keys.size());
+        u16(bOut, KEY_INFO_SIZE);
+
+        for (int i = 0; i != keys.size(); i++)
+        {
+            PGPPublicKey key = keys.get(i);
+            byte[] fingerprint = key.getFingerprint();
+            int keyInfoOffset = 20 + i * KEY_INFO_SIZE;
+
+            // the key ID is taken from within the fingerprint, the last 8 bytes for v4 and the first for v5 and v6.
+            // Version 1 blobs only hold 20 bytes of fingerprint, so longer ones are truncated.
+            if (key.getVersion() == PublicKeyPacket.VERSION_4 && fingerprint.length == 20)
+            {
+                bOut.write(fingerprint, 0, 20);
+                u32(bOut, keyInfoOffset + 12);
+            }
+            else if ((key.getVersion() == PublicKeyPacket.LIBREPGP_5 || key.getVersion() == PublicKeyPacket.VERSION_6)
+                && fingerprint.length == 32)
+            {
+                bOut.write(fingerprint, 0, 20);
+                u32(bOut, keyInfoOffset);
+            }
+            else
+            {
+                throw new IllegalArgumentException("unsupported key version " + key.getVersion());
+            }
+            u16(bOut, 0);                               // key flags
+            u16(bOut, 0);                               // RFU
+        }
+
+        u16(bOut, 0);                                   // serial number length
+
+        u16(bOut, userIDs.size());
+        u16(bOut, USER_ID_INFO_SIZE);
+        for (int i = 0, off = userIDOffset; i != userIDs.size(); i++)
+        {
+            int len = userIDs.get(i).length;
+            u32(bOut, off);
+            u32(bOut, len);
+            u16(bOut, 0);                               // user ID flags
+            bOut.write(0);                              // validity
+            bOut.write(0);                              // RFU
+            off += len;
+        }
+
+        u16(bOut, 0);                                   // number of signatures
+        u16(bOut, 4);                                   // size of signature information
+
+        bOut.write(0);                                  // owner trust
+        bOut.write(0);                                  // all validity
+        u16(bOut, 0);                                   // RFU
+        u32(bOut, 0);                                   // recheck after
+        u32(bOut, 0);                                   // newest timestamp
+        u32(bOut, createdAt);
+        u32(bOut, 0);                                   // size of reserved space
+
+        for (int i = 0; i != userIDs.size(); i++)
+        {
+            bOut.write(userIDs.get(i));
+        }
+        bOut.write(keyBlock);
+
+        OutputStream dOut = checksumCalculator.getOutputStream();
+        dOut.write(bOut.toByteArray());
+        dOut.close();
+        bOut.write(checksumCalculator.getDigest());
+
+        return bOut.toByteArray();
+    }
+
+    private static byte[] encodeFirstBlob()
+        throws IOException
+    {
+        long createdAt = System.currentTimeMillis() / 1000;
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream(FIRST_BLOB_SIZE);
+
+        u32(bOut, FIRST_BLOB_SIZE);
+        bOut.write(BlobType.FIRST_BLOB.getByteValue());
+        bOut.write(1);                                  // version
+        u16(bOut, 2);                                   // header flags, OpenPGP blobs may be present
+        bOut.write(Blob.magicBytes);
+        u32(bOut, 0);                                   // RFU
+        u32(bOut, createdAt);
+        u32(bOut, createdAt);                           // last maintenance run
+        u32(bOut, 0);                                   // RFU
+        u32(bOut, 0);                                   // RFU
+
+        return bOut.toByteArray();
+    }
+
+    private static ByteBuffer map(File file)
+        throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IOException(file + " too large to map");
+            }
+
+            // the mapping remains valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private static byte[] magicAt(ByteBuffer buffer, int pos)
+    {
+        byte[] magic = new byte[4];
+        for (int i = 0; i != magic.length; i++)
+        {
+            magic[i] = buffer.get(pos + i);
+        }
+        return magic;
+    }
+
+    /**
+     * Return true if the len bytes at off contain part, which should already be in lower case.
+     */
+    private static boolean contains(ByteBuffer buffer, int off, int len, byte[] part)
+    {
+        for (int i = off, last = off + len - part.length; i <= last; i++)
+        {
+            int j = 0;
+            while (j < part.length && toLower(buffer.get(i + j)) == part[j])
+            {
+                j++;
+            }
+            if (j == part.length)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte toLower(byte b)
+    {
+        return (b >= 'A' && b <= 'Z') ? (byte)(b + ('a' - 'A')) : b;
+    }
+
+    private static void u16(ByteArrayOutputStream bOut, int v)
+    {
+        bOut.write(v >>> 8);
+        bOut.write(v);
+    }
+
+    private static void u32(ByteArrayOutputStream bOut, long v)
+    {
+        bOut.write((int)(v >>> 24));
+        bOut.write((int)(v >>> 16));
+        bOut.write((int)(v >>> 8));
+        bOut.write((int)v);
+    }
+
+    private static class KeyEntry
+    {
+        final long keyID;
+        final int blobOffset;
+
+        KeyEntry(long keyID, int blobOffset)
+        {
+            this.keyID = keyID;
+            this.blobOffset = blobOffset;
+        }
+    }
+
+    private static class KeyEntryComparator
+        implements Comparator<KeyEntry>
+    {
+        public int compare(KeyEntry a, KeyEntry b)
+        {
+            if (a.keyID != b.keyID)
+            {
+                return a.keyID < b.keyID ? -1 : 1;
+            }
+            return a.blobOffset < b.blobOffset ? -1 : (a.blobOffset == b.blobOffset ? 0 : 1);
+        }
+    }
+
+    private static class UserIDEntry
+    {
+        final int blobOffset;
+        final byte[] userID;
+
+        UserIDEntry(int blobOffset, byte[] userID)
+        {
+            this.blobOffset = blobOffset;
+            this.userID = userID;
+        }
+    }
+}
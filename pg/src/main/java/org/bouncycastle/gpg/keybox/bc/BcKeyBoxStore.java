@@ -0,0 +1,45 @@
+package org.bouncycastle.gpg.keybox.bc;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.gpg.keybox.KeyBoxStore;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
+import org.bouncycastle.openpgp.operator.bc.BcKeyFingerprintCalculator;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+
+public class BcKeyBoxStore
+    extends KeyBoxStore
+{
+    /**
+     * Open a keybox store, with the index kept alongside the keybox in a file with ".idx" appended to its name.
+     *
+     * @param keyBoxFile the keybox file.
+     * @throws IOException if the keybox cannot be read.
+     */
+    public BcKeyBoxStore(File keyBoxFile)
+        throws IOException
+    {
+        this(keyBoxFile, new File(keyBoxFile.getPath() + ".idx"));
+    }
+
+    public BcKeyBoxStore(File keyBoxFile, File indexFile)
+        throws IOException
+    {
+        super(keyBoxFile, indexFile, new BcKeyFingerprintCalculator(), new BcBlobVerifier(), createChecksumCalculator());
+    }
+
+    private static PGPDigestCalculator createChecksumCalculator()
+    {
+        try
+        {
+            return new BcPGPDigestCalculatorProvider().get(HashAlgorithmTags.SHA1);
+        }
+        catch (PGPException e)
+        {
+            throw new IllegalStateException("unable to create SHA-1 calculator: " + e.getMessage());
+        }
+    }
+}
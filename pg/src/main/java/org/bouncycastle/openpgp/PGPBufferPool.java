@@ -0,0 +1,86 @@
+package org.bouncycastle.openpgp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bouncycastle.util.Arrays;
+
+/**
+ * A pool of equal sized buffers for the partial packet streams of {@link PGPMessagePipelineBuilder}, so that
+ * producing many messages does not allocate new buffers for each one. Buffers are zeroed when they are returned to
+ * the pool, and the pool is safe for use by multiple threads.
+ */
+public class PGPBufferPool
+{
+    private final int bufferSize;
+    private final int maxPooled;
+    private final List<byte[]> buffers = new ArrayList<byte[]>();
+
+    /**
+     * Base constructor.
+     *
+     * @param bufferSize the size of the buffers, and so of the partial packets written with them. Must be a power
+     *                   of 2 from 512 to 2^30.
+     * @param maxPooled  the maximum number of free buffers held by the pool.
+     */
+    public PGPBufferPool(int bufferSize, int maxPooled)
+    {
+        if (bufferSize < 512 || bufferSize > (1 << 30) || (bufferSize & (bufferSize - 1)) != 0)
+        {
+            throw new IllegalArgumentException("bufferSize must be a power of 2 from 512 to 2^30");
+        }
+        if (maxPooled < 0)
+        {
+            throw new IllegalArgumentException("maxPooled cannot be negative");
+        }
+
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Return a buffer from the pool, or a new one if the pool is empty.
+     *
+     * @return a buffer of getBufferSize() bytes.
+     */
+    public byte[] acquire()
+    {
+        synchronized (buffers)
+        {
+            if (!buffers.isEmpty())
+            {
+                return buffers.remove(buffers.size() - 1);
+            }
+        }
+
+        return new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer to the pool. The buffer is zeroed, and discarded if the pool is full.
+     *
+     * @param buffer a buffer previously returned by acquire().
+     */
+    public void release(byte[] buffer)
+    {
+        if (buffer.length != bufferSize)
+        {
+            throw new IllegalArgumentException("buffer not from this pool");
+        }
+
+        Arrays.fill(buffer, (byte)0);
+
+        synchronized (buffers)
+        {
+            if (buffers.size() < maxPooled)
+            {
+                buffers.add(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.bouncycastle.openpgp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.bouncycastle.openpgp.operator.PGPDataEncryptorBuilder;
+import org.bouncycastle.openpgp.operator.PGPKeyEncryptionMethodGenerator;
+import org.bouncycastle.util.Exceptions;
+
+/**
+ * Builder for a stream which writes a complete OpenPGP message in one pass: the data written to it is signed using
+ * one-pass signatures, wrapped in a literal data packet, optionally compressed, and optionally encrypted.
+ * <p>
+ * Every layer is written as partial packets using buffers of the same size taken from a {@link PGPBufferPool}, by
+ * default 1MB, and returned to the pool when the stream is closed. The data is passed once through the signature
+ * generators and then down through the layers, so for large messages the cost is dominated by the compression and
+ * encryption rather than by buffering between the generators.
+ * </p>
+ * <p>
+ * Closing the returned stream writes out the signatures and closes off each layer, but does not close the
+ * underlying output stream.
+ * </p>
+ */
+public class PGPMessagePipelineBuilder
+{
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final List<PGPKeyEncryptionMethodGenerator> methods = new ArrayList<PGPKeyEncryptionMethodGenerator>();
+    private final List<PGPSignatureGenerator> signers = new ArrayList<PGPSignatureGenerator>();
+
+    private PGPDataEncryptorBuilder encryptorBuilder;
+    private boolean forceSessionKey;
+    private int compressionAlgorithm = -1;
+    private char format = PGPLiteralData.BINARY;
+    private String fileName = "";
+    private Date modificationTime = PGPLiteralData.NOW;
+    private PGPBufferPool bufferPool;
+
+    public PGPMessagePipelineBuilder()
+    {
+    }
+
+    /**
+     * Encrypt the message using data encryptors from the passed in builder.
+     *
+     * @param encryptorBuilder the builder for the data encryptor.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder setEncryption(PGPDataEncryptorBuilder encryptorBuilder)
+    {
+        this.encryptorBuilder = encryptorBuilder;
+
+        return this;
+    }
+
+    /**
+     * Add a key encryption method to be used to encrypt the session key.
+     *
+     * @param method the key encryption method generator to use.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder addMethod(PGPKeyEncryptionMethodGenerator method)
+    {
+        methods.add(method);
+
+        return this;
+    }
+
+    /**
+     * Force the use of a session key, even when only a single password based encryption method is used.
+     *
+     * @param forceSessionKey true if a session key should always be used.
+     * @return the current builder.
+     * @see PGPEncryptedDataGenerator#setForceSessionKey(boolean)
+     */
+    public PGPMessagePipelineBuilder setForceSessionKey(boolean forceSessionKey)
+    {
+        this.forceSessionKey = forceSessionKey;
+
+        return this;
+    }
+
+    /**
+     * Compress the message before it is encrypted.
+     *
+     * @param algorithm the {@link org.bouncycastle.bcpg.CompressionAlgorithmTags compression algorithm} to use.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder setCompression(int algorithm)
+    {
+        this.compressionAlgorithm = algorithm;
+
+        return this;
+    }
+
+    /**
+     * Add a signature generator, initialised for the signature to be made. The signatures are made over the data
+     * written to the next stream opened, after which they are discarded from the builder.
+     *
+     * @param signatureGenerator an initialised signature generator.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder addSigner(PGPSignatureGenerator signatureGenerator)
+    {
+        signers.add(signatureGenerator);
+
+        return this;
+    }
+
+    /**
+     * Set the details stored in the literal data packet.
+     *
+     * @param format           the format of the literal data, one of {@link PGPLiteralData#BINARY}, {@link PGPLiteralData#TEXT} or
+     *                         {@link PGPLiteralData#UTF8}.
+     * @param fileName         the name of the "file" to encode in the literal data object.
+     * @param modificationTime the time of last modification we want stored.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder setLiteralData(char format, String fileName, Date modificationTime)
+    {
+        this.format = format;
+        this.fileName = fileName;
+        this.modificationTime = modificationTime;
+
+        return this;
+    }
+
+    /**
+     * Set the pool buffers for the partial packets are taken from. The buffer size of the pool determines the
+     * partial packet size.
+     *
+     * @param bufferPool the pool to use.
+     * @return the current builder.
+     */
+    public PGPMessagePipelineBuilder setBufferPool(PGPBufferPool bufferPool)
+    {
+        this.bufferPool = bufferPool;
+
+        return this;
+    }
+
+    /**
+     * Open a stream to write the message data to.
+     *
+     * @param out the stream the OpenPGP message is written to.
+     * @return a stream to write the literal data to.
+     * @throws IOException  if the packet headers cannot be written.
+     * @throws PGPException if the encryption or signing cannot be initialised.
+     */
+    public OutputStream open(OutputStream out)
+        throws IOException, PGPException
+    {
+        if (encryptorBuilder == null && !methods.isEmpty())
+        {
+            throw new IllegalStateException("encryption methods added without a data encryptor");
+        }
+
+        if (bufferPool == null)
+        {
+            bufferPool = new PGPBufferPool(DEFAULT_BUFFER_SIZE, 3);
+        }
+
+        PGPSignatureGenerator[] sigGens = signers.toArray(new PGPSignatureGenerator[signers.size()]);
+        signers.clear();
+
+        PipelineOutputStream pipeline = new PipelineOutputStream(bufferPool, sigGens);
+        boolean opened = false;
+        try
+        {
+            OutputStream pOut = out;
+
+            if (encryptorBuilder != null)
+            {
+                PGPEncryptedDataGenerator encGen = new PGPEncryptedDataGenerator(encryptorBuilder);
+                encGen.setForceSessionKey(forceSessionKey);
+                for (int i = 0; i != methods.size(); i++)
+                {
+                    encGen.addMethod(methods.get(i));
+                }
+
+                pOut = pipeline.push(encGen, encGen.open(pOut, pipeline.acquire()));
+            }
+
+            if (compressionAlgorithm >= 0)
+            {
+                PGPCompressedDataGenerator comGen = new PGPCompressedDataGenerator(compressionAlgorithm);
+
+                pOut = pipeline.push(comGen, comGen.open(pOut, pipeline.acquire()));
+            }
+
+            for (int i = 0; i != sigGens.length; i++)
+            {
+                // all but the last one-pass signature are followed by another for the same data.
+                sigGens[i].generateOnePassVersion(i != sigGens.length - 1).encode(pOut);
+            }
+            pipeline.setSignatureOut(pOut);
+
+            PGPLiteralDataGenerator litGen = new PGPLiteralDataGenerator();
+
+            pipeline.push(litGen, litGen.open(pOut, format, fileName, modificationTime, pipeline.acquire()));
+
+            opened = true;
+        }
+        finally
+        {
+            if (!opened)
+            {
+                pipeline.releaseBuffers();
+            }
+        }
+
+        return pipeline;
+    }
+
+    private static class PipelineOutputStream
+        extends OutputStream
+    {
+        private final PGPBufferPool bufferPool;
+        private final PGPSignatureGenerator[] sigGens;
+        private final List<StreamGenerator> generators = new ArrayList<StreamGenerator>(3);
+        private final List<byte[]> buffers = new ArrayList<byte[]>(3);
+
+        private OutputStream sigOut;
+        private OutputStream dataOut;
+        private boolean closed;
+
+        PipelineOutputStream(PGPBufferPool bufferPool, PGPSignatureGenerator[] sigGens)
+        {
+            this.bufferPool = bufferPool;
+            this.sigGens = sigGens;
+        }
+
+        byte[] acquire()
+        {
+            byte[] buffer = bufferPool.acquire();
+            buffers.add(buffer);
+            return buffer;
+        }
+
+        OutputStream push(StreamGenerator generator, OutputStream layerOut)
+        {
+            generators.add(generator);
+            dataOut = layerOut;
+            return layerOut;
+        }
+
+        void setSignatureOut(OutputStream sigOut)
+        {
+            this.sigOut = sigOut;
+        }
+
+        void releaseBuffers()
+        {
+            for (int i = 0; i != buffers.size(); i++)
+            {
+                bufferPool.release(buffers.get(i));
+            }
+            buffers.clear();
+        }
+
+        public void write(int b)
+            throws IOException
+        {
+            for (int i = 0; i != sigGens.length; i++)
+            {
+                sigGens[i].update((byte)b);
+            }
+            dataOut.write(b);
+        }
+
+        public void write(byte[] b, int off, int len)
+            throws IOException
+        {
+            for (int i = 0; i != sigGens.length; i++)
+            {
+                sigGens[i].update(b, off, len);
+            }
+            dataOut.write(b, off, len);
+        }
+
+        public void flush()
+            throws IOException
+        {
+            dataOut.flush();
+        }
+
+        public void close()
+            throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+
+            try
+            {
+                // the literal data generator is the last layer.
+                generators.get(generators.size() - 1).close();
+
+                // signatures are written in the reverse order of their one-pass versions.
+                for (int i = sigGens.length - 1; i >= 0; i--)
+                {
+                    try
+                    {
+                        sigGens[i].generate().encode(sigOut);
+                    }
+                    catch (PGPException e)
+                    {
+                        throw Exceptions.ioException("unable to generate signature: " + e.getMessage(), e);
+                    }
+                }
+
+                for (int i = generators.size() - 2; i >= 0; i--)
+                {
+                    generators.get(i).close();
+                }
+            }
+            finally
+            {
+                releaseBuffers();
+            }
+        }
+    }
+}
@@ -7,11 +7,25 @@
 {
     private char[] passPhrase;
     private PGPDigestCalculatorProvider calculatorProvider;
+    private S2KKeyCache keyCache;
 
     protected PBESecretKeyDecryptor(char[] passPhrase, PGPDigestCalculatorProvider calculatorProvider)
+    {
+        this(passPhrase, calculatorProvider, null);
+    }
+
+    /**
+     * Constructor for a decryptor which looks up keys derived from its pass phrase in a cache before running the S2K.
+     *
+     * @param passPhrase         the pass phrase to derive keys from.
+     * @param calculatorProvider digest calculator provider for the S2K and checksums.
+     * @param keyCache           the cache of derived keys, null if keys are always to be derived.
+     */
+    protected PBESecretKeyDecryptor(char[] passPhrase, PGPDigestCalculatorProvider calculatorProvider, S2KKeyCache keyCache)
     {
         this.passPhrase = passPhrase;
         this.calculatorProvider = calculatorProvider;
+        this.keyCache = keyCache;
     }
 
     public PGPDigestCalculator getChecksumCalculator(int hashAlgorithm)
@@ -23,6 +37,11 @@ public PGPDigestCalculator getChecksumCalculator(int hashAlgorithm)
     public byte[] makeKeyFromPassPhrase(int keyAlgorithm, S2K s2k)
         throws PGPException
     {
+        if (keyCache != null)
+        {
+            return keyCache.getKey(calculatorProvider, keyAlgorithm, s2k, passPhrase);
+        }
+
         return PGPUtil.makeKeyFromPassPhrase(calculatorProvider, keyAlgorithm, s2k, passPhrase);
     }
 
@@ -0,0 +1,630 @@
+package org.bouncycastle.openpgp.operator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.bouncycastle.bcpg.AEADUtils;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Exceptions;
+import org.bouncycastle.util.Pack;
+import org.bouncycastle.util.io.Streams;
+
+/**
+ * Encrypts or decrypts the chunks of an OpenPGP AEAD stream (v5 AEAD encrypted data or a v2 SEIPD packet) across an
+ * {@link Executor}.
+ * <p>
+ * Each chunk has its own nonce, derived from the chunk index, so chunks can be processed independently. Runs of
+ * consecutive chunks are handed to the executor as they are read or written, with a bounded number of runs in flight,
+ * and the results are passed on strictly in order. Decrypted data is only returned once the tag of its chunk has been
+ * verified, and the final tag, covering the chunk count and total length, is checked as soon as the end of the
+ * ciphertext has been read. A run the executor has not started by the time its result is needed is processed by the
+ * calling thread, so a saturated executor cannot deadlock the stream.
+ * </p>
+ *
+ * @param <C> the AEAD cipher type used by the implementation, one instance being used per concurrent task.
+ */
+public abstract class PGPAEADChunkPipeline<C>
+{
+    /**
+     * The (approximate) minimum amount of data handed to a task, small chunks are grouped to make up at least this.
+     */
+    private static final int RUN_BYTES = 64 * 1024;
+
+    private final List<C> idleCiphers = new ArrayList<C>();
+
+    private final Executor executor;
+    private final int maxRunsInFlight;
+    private final boolean forEncryption;
+    private final boolean isV5StyleAEAD;
+    private final byte[] iv;
+    private final byte[] aaData;
+    private final int chunkLength;
+    private final int tagLength;
+    private final int chunksPerRun;
+
+    /**
+     * Base constructor.
+     *
+     * @param executor        the executor to process chunks on.
+     * @param maxRunsInFlight the maximum number of runs of chunks being processed, or waiting to be passed on, at a
+     *                        time - this bounds the memory used by the stream.
+     * @param forEncryption   true if encrypting, false if decrypting.
+     * @param isV5StyleAEAD   flavour of AEAD (OpenPGP v5 or v6).
+     * @param aeadAlgorithm   the AEAD algorithm.
+     * @param chunkSize       the encoded chunk size of the AEAD encryption.
+     * @param iv              the initialization vector the chunk nonces are derived from.
+     * @param aaData          the associated data from the packet header.
+     */
+    protected PGPAEADChunkPipeline(Executor executor, int maxRunsInFlight, boolean forEncryption, boolean isV5StyleAEAD,
+        int aeadAlgorithm, int chunkSize, byte[] iv, byte[] aaData)
+    {
+        if (executor == null)
+        {
+            throw new NullPointerException("'executor' cannot be null");
+        }
+        if (maxRunsInFlight < 1)
+        {
+            throw new IllegalArgumentException("'maxRunsInFlight' must be at least 1");
+        }
+        if (chunkSize < 0 || chunkSize > 16)
+        {
+            throw new IllegalArgumentException("'chunkSize' out of range");
+        }
+
+        this.executor = executor;
+        this.maxRunsInFlight = maxRunsInFlight;
+        this.forEncryption = forEncryption;
+        this.isV5StyleAEAD = isV5StyleAEAD;
+        this.iv = Arrays.clone(iv);
+        this.aaData = Arrays.clone(aaData);
+        this.chunkLength = 1 << (chunkSize + 6);
+        this.tagLength = AEADUtils.getAuthTagLength(aeadAlgorithm);
+        this.chunksPerRun = Math.max(1, RUN_BYTES / chunkLength);
+    }
+
+    /**
+     * Return a default bound on the number of runs in flight, one per available processor.
+     *
+     * @return the default value for maxRunsInFlight.
+     */
+    public static int getDefaultMaxRunsInFlight()
+    {
+        return Math.max(2, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new cipher instance, called once for each concurrent task.
+     *
+     * @return a new cipher.
+     * @throws PGPException if the cipher cannot be created.
+     */
+    protected abstract C createCipher()
+        throws PGPException;
+
+    /**
+     * Encrypt or decrypt a single chunk. Distinct chunks may be processed concurrently, each with its own cipher.
+     *
+     * @param cipher the cipher to use.
+     * @param nonce  the nonce for the chunk.
+     * @param adata  the associated data for the chunk.
+     * @param in     the input buffer.
+     * @param inOff  the offset of the chunk in the input buffer.
+     * @param inLen  the length of the chunk, including its tag when decrypting.
+     * @param out    the output buffer.
+     * @param outOff the offset in the output buffer to write the result to.
+     * @return the number of bytes written to out.
+     * @throws IOException if the chunk cannot be processed, or fails authentication.
+     */
+    protected abstract int processChunk(C cipher, byte[] nonce, byte[] adata, byte[] in, int inOff, int inLen, byte[] out,
+        int outOff)
+        throws IOException;
+
+    /**
+     * Generate the final tag when encrypting, or check it when decrypting.
+     *
+     * @param cipher the cipher to use.
+     * @param nonce  the nonce for the final tag.
+     * @param adata  the associated data for the final tag.
+     * @param tag    when encrypting, the buffer to write the final tag to, otherwise the final tag to check.
+     * @throws IOException if the tag cannot be generated, or fails authentication.
+     */
+    protected abstract void processFinalTag(C cipher, byte[] nonce, byte[] adata, byte[] tag)
+        throws IOException;
+
+    /**
+     * Return whether this pipeline encrypts or decrypts.
+     *
+     * @return true if encrypting, false if decrypting.
+     */
+    protected boolean isForEncryption()
+    {
+        return forEncryption;
+    }
+
+    /**
+     * Return the length of an authentication tag in bytes.
+     *
+     * @return the tag length.
+     */
+    protected int getTagLength()
+    {
+        return tagLength;
+    }
+
+    /**
+     * Return a stream encrypting everything written to it, in chunks, to out. Closing the stream writes the final
+     * tag and closes out.
+     *
+     * @param out the stream to write the encrypted chunks to.
+     * @return an encrypting output stream.
+     */
+    public OutputStream getOutputStream(OutputStream out)
+    {
+        return new ChunkOutputStream(out);
+    }
+
+    /**
+     * Return a stream decrypting, and verifying, the chunked ciphertext read from in.
+     *
+     * @param in the stream to read the encrypted chunks from.
+     * @return a decrypting input stream.
+     * @throws IOException if the initial ciphertext cannot be read.
+     */
+    public InputStream getInputStream(InputStream in)
+        throws IOException
+    {
+        return new ChunkInputStream(in);
+    }
+
+    private C acquireCipher()
+        throws IOException
+    {
+        synchronized (idleCiphers)
+        {
+            if (!idleCiphers.isEmpty())
+            {
+                return idleCiphers.remove(idleCiphers.size() - 1);
+            }
+        }
+
+        try
+        {
+            return createCipher();
+        }
+        catch (PGPException e)
+        {
+            throw Exceptions.ioException("unable to create cipher: " + e.getMessage(), e);
+        }
+    }
+
+    private void releaseCipher(C cipher)
+    {
+        synchronized (idleCiphers)
+        {
+            idleCiphers.add(cipher);
+        }
+    }
+
+    private byte[] getNonce(long chunkIndex)
+    {
+        byte[] nonce = Arrays.clone(iv);
+        xorChunkIndex(nonce, chunkIndex);
+        return nonce;
+    }
+
+    private byte[] getChunkAdata(long chunkIndex)
+    {
+        if (!isV5StyleAEAD)
+        {
+            return aaData;
+        }
+
+        byte[] adata = new byte[13];
+        System.arraycopy(aaData, 0, adata, 0, aaData.length);
+        xorChunkIndex(adata, chunkIndex);
+        return adata;
+    }
+
+    private byte[] getFinalAdata(long chunkCount, long totalBytes)
+    {
+        byte[] adata = Arrays.concatenate(isV5StyleAEAD ? getChunkAdata(chunkCount) : aaData, new byte[8]);
+        Pack.longToBigEndian(totalBytes, adata, adata.length - 8);
+        return adata;
+    }
+
+    private void finalTag(long chunkCount, long totalBytes, byte[] tag)
+        throws IOException
+    {
+        C cipher = acquireCipher();
+        try
+        {
+            processFinalTag(cipher, getNonce(chunkCount), getFinalAdata(chunkCount, totalBytes), tag);
+        }
+        finally
+        {
+            releaseCipher(cipher);
+        }
+    }
+
+    private static void xorChunkIndex(byte[] buf, long chunkIndex)
+    {
+        int off = buf.length - 8;
+        for (int shift = 56; shift >= 0; shift -= 8)
+        {
+            buf[off++] ^= (byte)(chunkIndex >> shift);
+        }
+    }
+
+    private FutureTask<byte[]> submit(final long firstChunk, final byte[] in, final int inLen, final boolean forEncryption)
+    {
+        FutureTask<byte[]> task = new FutureTask<byte[]>(new Callable<byte[]>()
+        {
+            public byte[] call()
+                throws IOException
+            {
+                int inStride = forEncryption ? chunkLength : chunkLength + tagLength;
+                int chunkCount = (inLen + inStride - 1) / inStride;
+                byte[] out = new byte[forEncryption ? inLen + chunkCount * tagLength : inLen - chunkCount * tagLength];
+
+                C cipher = acquireCipher();
+                try
+                {
+                    int inOff = 0, outOff = 0;
+                    for (int i = 0; i < chunkCount; ++i)
+                    {
+                        int len = Math.min(inStride, inLen - inOff);
+                        long chunkIndex = firstChunk + i;
+                        outOff += processChunk(cipher, getNonce(chunkIndex), getChunkAdata(chunkIndex), in, inOff, len,
+                            out, outOff);
+                        inOff += len;
+                    }
+                }
+                finally
+                {
+                    releaseCipher(cipher);
+                }
+                return out;
+            }
+        });
+
+        executor.execute(task);
+
+        return task;
+    }
+
+    private static byte[] await(FutureTask<byte[]> task)
+        throws IOException
+    {
+        // run the task ourselves if the executor has not got to it yet
+        task.run();
+
+        try
+        {
+            return task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while processing AEAD chunks");
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+            {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error)cause;
+            }
+            throw Exceptions.ioException("unable to process AEAD chunks: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void cancel(LinkedList<FutureTask<byte[]>> tasks)
+    {
+        while (!tasks.isEmpty())
+        {
+            tasks.removeFirst().cancel(false);
+        }
+    }
+
+    private class ChunkOutputStream
+        extends OutputStream
+    {
+        private final LinkedList<FutureTask<byte[]>> inFlight = new LinkedList<FutureTask<byte[]>>();
+        private final OutputStream out;
+
+        private byte[] buf = new byte[chunksPerRun * chunkLength];
+        private int bufOff = 0;
+        private long chunkIndex = 0;
+        private long totalBytes = 0;
+        private boolean closed = false;
+
+        ChunkOutputStream(OutputStream out)
+        {
+            this.out = out;
+        }
+
+        public void write(int b)
+            throws IOException
+        {
+            buf[bufOff++] = (byte)b;
+            if (bufOff == buf.length)
+            {
+                submitRun();
+            }
+        }
+
+        public void write(byte[] b, int off, int len)
+            throws IOException
+        {
+            while (len > 0)
+            {
+                int n = Math.min(len, buf.length - bufOff);
+                System.arraycopy(b, off, buf, bufOff, n);
+                bufOff += n;
+                off += n;
+                len -= n;
+
+                if (bufOff == buf.length)
+                {
+                    submitRun();
+                }
+            }
+        }
+
+        public void close()
+            throws IOException
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+
+            try
+            {
+                if (bufOff > 0)
+                {
+                    submitRun();
+                }
+                while (!inFlight.isEmpty())
+                {
+                    out.write(await(inFlight.removeFirst()));
+                }
+
+                byte[] tag = new byte[tagLength];
+                finalTag(chunkIndex, totalBytes, tag);
+                out.write(tag);
+            }
+            finally
+            {
+                cancel(inFlight);
+            }
+            out.close();
+        }
+
+        private void submitRun()
+            throws IOException
+        {
+            inFlight.addLast(submit(chunkIndex, buf, bufOff, true));
+
+            chunkIndex += (bufOff + chunkLength - 1) / chunkLength;
+            totalBytes += bufOff;
+            buf = new byte[buf.length];
+            bufOff = 0;
+
+            if (inFlight.size() >= maxRunsInFlight)
+            {
+                try
+                {
+                    out.write(await(inFlight.removeFirst()));
+                }
+                catch (IOException e)
+                {
+                    cancel(inFlight);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private class ChunkInputStream
+        extends InputStream
+    {
+        private final LinkedList<FutureTask<byte[]>> inFlight = new LinkedList<FutureTask<byte[]>>();
+        private final InputStream in;
+        private final int runLength;
+        private final byte[] buf;
+
+        private int bufLen = 0;
+        private boolean ended = false;
+        private long chunkIndex = 0;
+        private long totalBytes = 0;
+
+        private byte[] data = new byte[0];
+        private int dataOff = 0;
+
+        ChunkInputStream(InputStream in)
+            throws IOException
+        {
+            this.in = in;
+            this.runLength = chunksPerRun * (chunkLength + tagLength);
+            // room for a run of whole chunks and a following tag, which may turn out to be the final one
+            this.buf = new byte[runLength + tagLength];
+
+            try
+            {
+                fill();
+            }
+            catch (IOException e)
+            {
+                cancel(inFlight);
+                throw e;
+            }
+        }
+
+        public int read()
+            throws IOException
+        {
+            if (!nextData())
+            {
+                return -1;
+            }
+
+            return data[dataOff++] & 0xff;
+        }
+
+        public int read(byte[] b, int off, int len)
+            throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            if (!nextData())
+            {
+                return -1;
+            }
+
+            int supplyLen = Math.min(len, data.length - dataOff);
+            System.arraycopy(data, dataOff, b, off, supplyLen);
+            dataOff += supplyLen;
+
+            return supplyLen;
+        }
+
+        public long skip(long n)
+            throws IOException
+        {
+            if (n <= 0 || !nextData())
+            {
+                return 0;
+            }
+
+            int skip = (int)Math.min(n, data.length - dataOff);
+            dataOff += skip;
+            return skip;
+        }
+
+        public int available()
+        {
+            return data.length - dataOff;
+        }
+
+        public void close()
+            throws IOException
+        {
+            cancel(inFlight);
+            data = new byte[0];
+            dataOff = 0;
+            ended = true;
+        }
+
+        private boolean nextData()
+            throws IOException
+        {
+            while (dataOff == data.length)
+            {
+                if (inFlight.isEmpty())
+                {
+                    return false;
+                }
+
+                FutureTask<byte[]> task = inFlight.removeFirst();
+                try
+                {
+                    // keep the executor busy while we wait for the next run
+                    fill();
+
+                    data = await(task);
+                    dataOff = 0;
+                }
+                catch (IOException e)
+                {
+                    task.cancel(false);
+                    cancel(inFlight);
+                    throw e;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Read ahead, submitting runs of chunks until the bound on runs in flight or the end of the ciphertext is
+         * reached.
+         */
+        private void fill()
+            throws IOException
+        {
+            while (!ended && inFlight.size() < maxRunsInFlight)
+            {
+                bufLen += Streams.readFully(in, buf, bufLen, buf.length - bufLen);
+
+                if (bufLen == buf.length)
+                {
+                    // a run of whole chunks, with at least a tag following it
+                    inFlight.addLast(submit(chunkIndex, Arrays.copyOfRange(buf, 0, runLength), runLength, false));
+
+                    chunkIndex += chunksPerRun;
+                    totalBytes += (long)chunksPerRun * chunkLength;
+                    System.arraycopy(buf, runLength, buf, 0, tagLength);
+                    bufLen = tagLength;
+                }
+                else
+                {
+                    ended = true;
+                    finish();
+                }
+            }
+        }
+
+        /**
+         * Process the remaining chunks, which end with a partial one if the plaintext length is not a multiple of the
+         * chunk length, and check the final tag.
+         */
+        private void finish()
+            throws IOException
+        {
+            int remaining = bufLen - tagLength;
+            if (remaining < 0)
+            {
+                throw new IOException("AEAD data truncated: final tag missing");
+            }
+
+            int partial = remaining % (chunkLength + tagLength);
+            if (partial != 0 && partial < tagLength)
+            {
+                throw new IOException("AEAD data truncated: chunk tag missing");
+            }
+
+            if (remaining > 0)
+            {
+                int chunkCount = remaining / (chunkLength + tagLength) + (partial != 0 ? 1 : 0);
+
+                inFlight.addLast(submit(chunkIndex, Arrays.copyOfRange(buf, 0, remaining), remaining, false));
+
+                chunkIndex += chunkCount;
+                totalBytes += remaining - chunkCount * tagLength;
+            }
+
+            finalTag(chunkIndex, totalBytes, Arrays.copyOfRange(buf, remaining, bufLen));
+        }
+    }
+}
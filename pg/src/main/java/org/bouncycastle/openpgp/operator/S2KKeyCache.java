@@ -0,0 +1,255 @@
+package org.bouncycastle.openpgp.operator;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bouncycastle.bcpg.S2K;
+import org.bouncycastle.crypto.CryptoServicesRegistrar;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
+
+/**
+ * A bounded cache of keys derived from pass phrases using S2K, for use where the same protected secret keys are
+ * unlocked repeatedly and the cost of an iterated and salted or Argon2 S2K would otherwise be paid every time.
+ * <p>
+ * Entries are keyed by the key algorithm, the encoded S2K specifier (including its salt and work factors), and an
+ * HMAC of the pass phrase under a random key private to the cache, so neither pass phrases nor values which could
+ * be used to test guesses against them are held. Cached keys are zeroed when they expire, are evicted as least
+ * recently used, or are purged.
+ * </p>
+ * <p>
+ * A cache can be shared between decryptors built by {@link org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyDecryptorBuilder}
+ * and {@link org.bouncycastle.openpgp.operator.jcajce.JcePBESecretKeyDecryptorBuilder}, and is safe for use by
+ * multiple threads.
+ * </p>
+ */
+public class S2KKeyCache
+{
+    private final int maxEntries;
+    private final long timeToLive;
+    private final byte[] macKey;
+    private final LinkedHashMap<CacheKey, Entry> entries;
+
+    /**
+     * Base constructor.
+     *
+     * @param maxEntries the maximum number of keys to hold.
+     * @param timeToLive the time in milliseconds a key remains usable after it was derived.
+     */
+    public S2KKeyCache(int maxEntries, long timeToLive)
+    {
+        this(maxEntries, timeToLive, CryptoServicesRegistrar.getSecureRandom());
+    }
+
+    /**
+     * Constructor specifying the source of randomness for the pass phrase HMAC key.
+     *
+     * @param maxEntries the maximum number of keys to hold.
+     * @param timeToLive the time in milliseconds a key remains usable after it was derived.
+     * @param random     source of randomness for the HMAC key.
+     */
+    public S2KKeyCache(final int maxEntries, long timeToLive, SecureRandom random)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        if (timeToLive <= 0)
+        {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.macKey = new byte[32];
+        random.nextBytes(macKey);
+
+        this.entries = new LinkedHashMap<CacheKey, Entry>(16, 0.75f, true)
+        {
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest)
+            {
+                if (size() > maxEntries)
+                {
+                    eldest.getValue().clear();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the key derived from the pass phrase using the passed in S2K, deriving and caching it if it is not
+     * present or has expired.
+     *
+     * @param calculatorProvider digest calculator provider to derive the key with.
+     * @param keyAlgorithm       the symmetric algorithm the key is for.
+     * @param s2k                the S2K specifier.
+     * @param passPhrase         the pass phrase.
+     * @return a copy of the key bytes.
+     * @throws PGPException if the key cannot be derived.
+     */
+    public byte[] getKey(PGPDigestCalculatorProvider calculatorProvider, int keyAlgorithm, S2K s2k, char[] passPhrase)
+        throws PGPException
+    {
+        CacheKey cacheKey = createCacheKey(keyAlgorithm, s2k, passPhrase);
+
+        synchronized (this)
+        {
+            Entry entry = entries.get(cacheKey);
+            if (entry != null)
+            {
+                if (!entry.isExpired(System.currentTimeMillis()))
+                {
+                    return Arrays.clone(entry.key);
+                }
+
+                entries.remove(cacheKey);
+                entry.clear();
+            }
+        }
+
+        // derived outside the lock so a slow S2K does not hold up other threads.
+        byte[] key = PGPUtil.makeKeyFromPassPhrase(calculatorProvider, keyAlgorithm, s2k, passPhrase);
+
+        synchronized (this)
+        {
+            Entry previous = entries.put(cacheKey, new Entry(Arrays.clone(key), System.currentTimeMillis() + timeToLive));
+            if (previous != null)
+            {
+                previous.clear();
+            }
+        }
+
+        return key;
+    }
+
+    /**
+     * Remove and zero all cached keys.
+     */
+    public synchronized void purge()
+    {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();)
+        {
+            it.next().clear();
+        }
+        entries.clear();
+    }
+
+    /**
+     * Remove and zero any cached keys that have expired.
+     */
+    public synchronized void purgeExpired()
+    {
+        long now = System.currentTimeMillis();
+
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();)
+        {
+            Entry entry = it.next();
+            if (entry.isExpired(now))
+            {
+                entry.clear();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Return the number of keys currently held, including any which have expired but not yet been purged.
+     *
+     * @return the number of cached keys.
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    public long getTimeToLive()
+    {
+        return timeToLive;
+    }
+
+    private CacheKey createCacheKey(int keyAlgorithm, S2K s2k, char[] passPhrase)
+        throws PGPException
+    {
+        byte[] s2kEncoding;
+        try
+        {
+            s2kEncoding = (s2k == null) ? new byte[0] : s2k.getEncoded();
+        }
+        catch (IOException e)
+        {
+            throw new PGPException("unable to encode S2K: " + e.getMessage(), e);
+        }
+
+        HMac hMac = new HMac(new SHA256Digest());
+        hMac.init(new KeyParameter(macKey));
+
+        byte[] pBytes = Strings.toUTF8ByteArray(passPhrase);
+        hMac.update(pBytes, 0, pBytes.length);
+        Arrays.fill(pBytes, (byte)0);
+
+        byte[] id = new byte[1 + s2kEncoding.length + hMac.getMacSize()];
+        id[0] = (byte)keyAlgorithm;
+        System.arraycopy(s2kEncoding, 0, id, 1, s2kEncoding.length);
+        hMac.doFinal(id, 1 + s2kEncoding.length);
+
+        return new CacheKey(id);
+    }
+
+    private static class CacheKey
+    {
+        private final byte[] id;
+        private final int hashCode;
+
+        CacheKey(byte[] id)
+        {
+            this.id = id;
+            this.hashCode = Arrays.hashCode(id);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof CacheKey && Arrays.areEqual(id, ((CacheKey)o).id);
+        }
+    }
+
+    private static class Entry
+    {
+        private final byte[] key;
+        private final long expiresAt;
+
+        Entry(byte[] key, long expiresAt)
+        {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now)
+        {
+            return now >= expiresAt;
+        }
+
+        void clear()
+        {
+            Arrays.fill(key, (byte)0);
+        }
+    }
+}
@@ -3,6 +3,7 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.bcpg.AEADAlgorithmTags;
 import org.bouncycastle.bcpg.AEADEncDataPacket;
@@ -25,6 +26,7 @@
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.openpgp.PGPException;
 import org.bouncycastle.openpgp.PGPSessionKey;
+import org.bouncycastle.openpgp.operator.PGPAEADChunkPipeline;
 import org.bouncycastle.openpgp.operator.PGPDataDecryptor;
 import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
 import org.bouncycastle.util.Arrays;
@@ -180,6 +182,23 @@ private static AEADBlockCipher createAEADCipher(int aeadAlgorithm, Engine engine
      */
     static PGPDataDecryptor createOpenPgpV5DataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
         throws PGPException
+    {
+        return createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, null);
+    }
+
+    /**
+     * Create a decryptor for OpenPGP v5 AED (AEAD Encrypted Data) packets, decrypting the chunks of the packet
+     * concurrently using the passed in executor.
+     *
+     * @param aeadEncDataPacket AEAD encrypted data packet
+     * @param sessionKey        session key retrieved from a version 5 symmetric-key encrypted session key packet
+     *                          or version 3 public-key encrypted session key packet.
+     * @param executor          executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return decryptor for AEAD encrypted data packets
+     * @throws PGPException
+     */
+    public static PGPDataDecryptor createOpenPgpV5DataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey, final Executor executor)
+        throws PGPException
     {
         final int aeadAlgorithm = aeadEncDataPacket.getAEADAlgorithm();
         final byte[] iv = aeadEncDataPacket.getIV();
@@ -198,6 +217,10 @@ public InputStream getInputStream(InputStream in)
             {
                 try
                 {
+                    if (executor != null)
+                    {
+                        return new BcChunkPipeline(false, true, executor, secretKey, iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData).getInputStream(in);
+                    }
                     return new PGPAeadInputStream(true, in, c, secretKey, iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData);
                 }
                 catch (IOException e)
@@ -229,6 +252,22 @@ public PGPDigestCalculator getIntegrityCalculator()
      */
     static PGPDataDecryptor createOpenPgpV6DataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
         throws PGPException
+    {
+        return createOpenPgpV6DataDecryptor(seipd, sessionKey, null);
+    }
+
+    /**
+     * Create a data decryptor for SEIPD v2 packets used in OpenPGP v6, decrypting the chunks of the packet
+     * concurrently using the passed in executor.
+     *
+     * @param seipd      version 2 symmetrically encrypted integrity-protected data packet
+     * @param sessionKey session key as retrieved from a version 6 symmetric- or public-key-encrypted session key packet.
+     * @param executor   executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return decryptor
+     * @throws PGPException
+     */
+    public static PGPDataDecryptor createOpenPgpV6DataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey, final Executor executor)
+        throws PGPException
     {
         // We cannot handle v1 SEIPD packets in this method (OpenPGP v4)
         if (seipd.getVersion() == SymmetricEncIntegrityPacket.VERSION_1)
@@ -255,6 +294,10 @@ public InputStream getInputStream(InputStream in)
             {
                 try
                 {
+                    if (executor != null)
+                    {
+                        return new BcChunkPipeline(false, false, executor, secretKey, iv, cipherAlgo, aeadAlgo, chunkSize, aaData).getInputStream(in);
+                    }
                     return new PGPAeadInputStream(false, in, c, secretKey, iv, cipherAlgo, aeadAlgo, chunkSize, aaData);
                 }
                 catch (IOException e)
@@ -542,7 +585,7 @@ public PGPAeadOutputStream(boolean isV5StyleAEAD,
             aaData = createAAD(isV5StyleAEAD, encAlgorithm, aeadAlgorithm, chunkSize);
         }
 
-        private byte[] createAAD(boolean isV5StyleAEAD, int encAlgorithm, int aeadAlgorithm, int chunkSize)
+        static byte[] createAAD(boolean isV5StyleAEAD, int encAlgorithm, int aeadAlgorithm, int chunkSize)
         {
             if (isV5StyleAEAD)
             {
@@ -672,4 +715,95 @@ private void finish()
             out.close();
         }
     }
+
+    /**
+     * Chunk pipeline processing the chunks of AEAD encrypted data concurrently, producing the same output as
+     * {@link PGPAeadOutputStream} and {@link PGPAeadInputStream}.
+     */
+    protected static class BcChunkPipeline
+        extends PGPAEADChunkPipeline<AEADBlockCipher>
+    {
+        private final KeyParameter secretKey;
+        private final int encAlgorithm;
+        private final int aeadAlgorithm;
+
+        /**
+         * Pipeline for AEAD encryption or decryption.
+         *
+         * @param forEncryption true if encrypting, false if decrypting.
+         * @param isV5StyleAEAD flavour of AEAD (OpenPGP v5 or v6)
+         * @param executor      executor to process chunks on
+         * @param secretKey     secret key
+         * @param iv            initialization vector
+         * @param encAlgorithm  encryption algorithm
+         * @param aeadAlgorithm aead algorithm
+         * @param chunkSize     chunk size of the AEAD encryption
+         * @param aaData        associated data
+         */
+        public BcChunkPipeline(boolean forEncryption,
+                               boolean isV5StyleAEAD,
+                               Executor executor,
+                               KeyParameter secretKey,
+                               byte[] iv,
+                               int encAlgorithm,
+                               int aeadAlgorithm,
+                               int chunkSize,
+                               byte[] aaData)
+        {
+            super(executor, getDefaultMaxRunsInFlight(), forEncryption, isV5StyleAEAD, aeadAlgorithm, chunkSize, iv, aaData);
+
+            this.secretKey = secretKey;
+            this.encAlgorithm = encAlgorithm;
+            this.aeadAlgorithm = aeadAlgorithm;
+        }
+
+        protected AEADBlockCipher createCipher()
+            throws PGPException
+        {
+            return createAEADCipher(encAlgorithm, aeadAlgorithm);
+        }
+
+        protected int processChunk(AEADBlockCipher c, byte[] nonce, byte[] adata, byte[] in, int inOff, int inLen, byte[] out,
+            int outOff)
+            throws IOException
+        {
+            try
+            {
+                c.init(isForEncryption(), new AEADParameters(secretKey, 128, nonce));  // always full tag.
+                c.processAADBytes(adata, 0, adata.length);
+
+                int len = c.processBytes(in, inOff, inLen, out, outOff);
+
+                return len + c.doFinal(out, outOff + len);
+            }
+            catch (InvalidCipherTextException e)
+            {
+                throw new IOException("exception processing chunk: " + e.getMessage());
+            }
+        }
+
+        protected void processFinalTag(AEADBlockCipher c, byte[] nonce, byte[] adata, byte[] tag)
+            throws IOException
+        {
+            try
+            {
+                c.init(isForEncryption(), new AEADParameters(secretKey, 128, nonce));  // always full tag.
+                c.processAADBytes(adata, 0, adata.length);
+
+                if (isForEncryption())
+                {
+                    c.doFinal(tag, 0);
+                }
+                else
+                {
+                    c.processBytes(tag, 0, getTagLength(), tag, 0);
+                    c.doFinal(tag, 0); // check final tag
+                }
+            }
+            catch (InvalidCipherTextException e)
+            {
+                throw new IOException("exception processing final tag: " + e.getMessage());
+            }
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package org.bouncycastle.openpgp.operator.bc;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.bcpg.AEADEncDataPacket;
 import org.bouncycastle.bcpg.SymmetricEncIntegrityPacket;
 import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
@@ -24,6 +26,8 @@
 public class BcPBEDataDecryptorFactory
     extends PBEDataDecryptorFactory
 {
+    private Executor executor;
+
     /**
      * Base constructor.
      *
@@ -35,6 +39,19 @@ public BcPBEDataDecryptorFactory(char[] pass, BcPGPDigestCalculatorProvider calc
         super(pass, calculatorProvider);
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current factory.
+     */
+    public BcPBEDataDecryptorFactory setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     /**
      * Recover the session key from a version 4 SKESK packet used in OpenPGP v4.
      *
@@ -152,7 +169,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
     public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
         throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
     }
 
     // OpenPGP v6
@@ -160,6 +177,6 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
     public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
         throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
     }
 }
\ No newline at end of file
@@ -12,20 +12,36 @@
 import org.bouncycastle.openpgp.PGPException;
 import org.bouncycastle.openpgp.operator.PBESecretKeyDecryptor;
 import org.bouncycastle.openpgp.operator.PGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.S2KKeyCache;
 import org.bouncycastle.util.Arrays;
 
 public class BcPBESecretKeyDecryptorBuilder
 {
     private PGPDigestCalculatorProvider calculatorProvider;
+    private S2KKeyCache keyCache;
 
     public BcPBESecretKeyDecryptorBuilder(PGPDigestCalculatorProvider calculatorProvider)
     {
         this.calculatorProvider = calculatorProvider;
     }
 
+    /**
+     * Provide a cache for the keys derived from pass phrases, so that repeatedly unlocking the same secret keys only
+     * runs the S2K the first time. The cache may be shared between builders.
+     *
+     * @param keyCache the cache to use, null to always derive keys.
+     * @return the current builder.
+     */
+    public BcPBESecretKeyDecryptorBuilder setKeyCache(S2KKeyCache keyCache)
+    {
+        this.keyCache = keyCache;
+
+        return this;
+    }
+
     public PBESecretKeyDecryptor build(char[] passPhrase)
     {
-        return new PBESecretKeyDecryptor(passPhrase, calculatorProvider)
+        return new PBESecretKeyDecryptor(passPhrase, calculatorProvider, keyCache)
         {
             public byte[] recoverKeyData(int encAlgorithm, byte[] key, byte[] iv, byte[] keyData, int keyOff, int keyLen)
                 throws PGPException
@@ -2,6 +2,7 @@
 
 import java.io.OutputStream;
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.bcpg.AEADUtils;
 import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
@@ -31,6 +32,7 @@
     private boolean isV5StyleAEAD = true; // TODO: change to false in 1.75
     private int aeadAlgorithm = -1;
     private int chunkSize;
+    private Executor executor;
 
     /**
      * Constructs a new data encryptor builder for a specified cipher type.
@@ -126,6 +128,23 @@ public BcPGPDataEncryptorBuilder setSecureRandom(SecureRandom random)
         return this;
     }
 
+    /**
+     * Provide an executor for encrypting the chunks of AEAD encrypted data concurrently.
+     * <p>
+     * The output is identical to that produced without an executor. This is only worthwhile for large messages,
+     * with the number of chunks being processed at a time bounded by the number of available processors.
+     * </p>
+     *
+     * @param executor the executor to encrypt chunks on, null to encrypt them sequentially.
+     * @return the current builder.
+     */
+    public BcPGPDataEncryptorBuilder setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     @Override
     public int getAlgorithm()
     {
@@ -258,6 +277,12 @@ public OutputStream getOutputStream(OutputStream out)
         {
             try
             {
+                if (executor != null)
+                {
+                    byte[] aaData = BcAEADUtil.PGPAeadOutputStream.createAAD(isV5StyleAEAD, encAlgorithm, aeadAlgorithm, chunkSize);
+
+                    return new BcAEADUtil.BcChunkPipeline(true, isV5StyleAEAD, executor, new KeyParameter(keyBytes), iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData).getOutputStream(out);
+                }
                 return new BcAEADUtil.PGPAeadOutputStream(isV5StyleAEAD, out, c, new KeyParameter(keyBytes), iv, encAlgorithm, aeadAlgorithm, chunkSize);
             }
             catch (Exception e)
@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.asn1.cryptlib.CryptlibObjectIdentifiers;
 import org.bouncycastle.asn1.edec.EdECObjectIdentifiers;
@@ -49,11 +50,26 @@
 
     private final PGPPrivateKey pgpPrivKey;
 
+    private Executor executor;
+
     public BcPublicKeyDataDecryptorFactory(PGPPrivateKey pgpPrivKey)
     {
         this.pgpPrivKey = pgpPrivKey;
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current factory.
+     */
+    public BcPublicKeyDataDecryptorFactory setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     @Override
     public byte[] recoverSessionData(int keyAlgorithm, byte[][] secKeyData, int pkeskVersion)
         throws PGPException
@@ -244,7 +260,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
     public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
         throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
     }
 
     // OpenPGP v6
@@ -252,7 +268,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
     public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
         throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
     }
 
     @FunctionalInterface
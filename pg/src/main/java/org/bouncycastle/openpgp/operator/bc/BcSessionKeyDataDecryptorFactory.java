@@ -1,5 +1,7 @@
 package org.bouncycastle.openpgp.operator.bc;
 
+import java.util.concurrent.Executor;
+
 import org.bouncycastle.bcpg.AEADEncDataPacket;
 import org.bouncycastle.bcpg.SymmetricEncIntegrityPacket;
 import org.bouncycastle.crypto.BlockCipher;
@@ -16,11 +18,26 @@
 {
     private final PGPSessionKey sessionKey;
 
+    private Executor executor;
+
     public BcSessionKeyDataDecryptorFactory(PGPSessionKey sessionKey)
     {
         this.sessionKey = sessionKey;
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current factory.
+     */
+    public BcSessionKeyDataDecryptorFactory setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     @Override
     public PGPSessionKey getSessionKey()
     {
@@ -42,7 +59,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
     public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
         throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+        return BcAEADUtil.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
     }
 
     // OpenPGP v6
@@ -50,7 +67,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
     public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
             throws PGPException
     {
-        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+        return BcAEADUtil.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
     }
 
 }
@@ -4,6 +4,7 @@
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.GeneralSecurityException;
+import java.util.concurrent.Executor;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -21,6 +22,7 @@
 import org.bouncycastle.openpgp.PGPException;
 import org.bouncycastle.openpgp.PGPSessionKey;
 import org.bouncycastle.openpgp.PGPUtil;
+import org.bouncycastle.openpgp.operator.PGPAEADChunkPipeline;
 import org.bouncycastle.openpgp.operator.PGPDataDecryptor;
 import org.bouncycastle.openpgp.operator.PGPDigestCalculator;
 import org.bouncycastle.util.Arrays;
@@ -129,6 +131,24 @@ static byte[] generateHKDFBytes(byte[] sessionKey, byte[] salt, byte[] hkdfInfo,
     PGPDataDecryptor createOpenPgpV5DataDecryptor(AEADEncDataPacket aeadEncDataPacket,
                                                   PGPSessionKey sessionKey)
         throws PGPException
+    {
+        return createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, null);
+    }
+
+    /**
+     * Create a {@link PGPDataDecryptor} for decrypting AEAD encrypted OpenPGP v5 data packets, decrypting the chunks
+     * of the packet concurrently using the passed in executor.
+     *
+     * @param aeadEncDataPacket AEAD encrypted data packet
+     * @param sessionKey        session key to decrypt the data
+     * @param executor          executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return decryptor
+     * @throws PGPException
+     */
+    PGPDataDecryptor createOpenPgpV5DataDecryptor(AEADEncDataPacket aeadEncDataPacket,
+                                                  PGPSessionKey sessionKey,
+                                                  final Executor executor)
+        throws PGPException
     {
         final int aeadAlgorithm = aeadEncDataPacket.getAEADAlgorithm();
         final byte[] iv = aeadEncDataPacket.getIV();
@@ -148,6 +168,10 @@ public InputStream getInputStream(InputStream in)
                 {
                     try
                     {
+                        if (executor != null)
+                        {
+                            return createChunkPipeline(false, true, executor, secretKey, iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData).getInputStream(in);
+                        }
                         return new JceAEADUtil.PGPAeadInputStream(true, in, c, secretKey, iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData);
                     }
                     catch (IOException e)
@@ -188,6 +212,24 @@ public PGPDigestCalculator getIntegrityCalculator()
     PGPDataDecryptor createOpenPgpV6DataDecryptor(SymmetricEncIntegrityPacket seipd,
                                                   PGPSessionKey sessionKey)
         throws PGPException
+    {
+        return createOpenPgpV6DataDecryptor(seipd, sessionKey, null);
+    }
+
+    /**
+     * Create a {@link PGPDataDecryptor} for decrypting AEAD encrypted OpenPGP v6 data, decrypting the chunks of the
+     * packet concurrently using the passed in executor.
+     *
+     * @param seipd      version 2 SEIPD packet
+     * @param sessionKey session key to decrypt the data
+     * @param executor   executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return decryptor
+     * @throws PGPException
+     */
+    PGPDataDecryptor createOpenPgpV6DataDecryptor(SymmetricEncIntegrityPacket seipd,
+                                                  PGPSessionKey sessionKey,
+                                                  final Executor executor)
+        throws PGPException
     {
         final int cipherAlgo = seipd.getCipherAlgorithm();
         final int aeadAlgo = seipd.getAeadAlgorithm();
@@ -211,6 +253,10 @@ public InputStream getInputStream(InputStream in)
                 {
                     try
                     {
+                        if (executor != null)
+                        {
+                            return createChunkPipeline(false, false, executor, secretKey, iv, cipherAlgo, aeadAlgo, chunkSize, aaData).getInputStream(in);
+                        }
                         return new JceAEADUtil.PGPAeadInputStream(false, in, c, secretKey, iv, cipherAlgo, aeadAlgo, chunkSize, aaData);
                     }
                     catch (IOException e)
@@ -276,6 +322,28 @@ Cipher createAEADCipher(int encAlgorithm, int aeadAlgorithm)
         return helper.createCipher(cName);
     }
 
+    /**
+     * Create a pipeline processing the chunks of AEAD encrypted data concurrently, producing the same output as
+     * {@link PGPAeadOutputStream} and {@link PGPAeadInputStream}.
+     *
+     * @param forEncryption true if encrypting, false if decrypting.
+     * @param isV5AEAD      AEAD flavour (OpenPGP v5 or v6)
+     * @param executor      executor to process chunks on
+     * @param secretKey     secret key
+     * @param iv            initialization vector
+     * @param encAlgorithm  encryption algorithm
+     * @param aeadAlgorithm AEAD algorithm
+     * @param chunkSize     chunk size of the AEAD encryption
+     * @param aaData        associated data
+     * @return a chunk pipeline
+     */
+    PGPAEADChunkPipeline<Cipher> createChunkPipeline(boolean forEncryption, boolean isV5AEAD, Executor executor,
+                                                     SecretKey secretKey, byte[] iv, int encAlgorithm, int aeadAlgorithm,
+                                                     int chunkSize, byte[] aaData)
+    {
+        return new JceChunkPipeline(this, forEncryption, isV5AEAD, executor, secretKey, iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData);
+    }
+
     static class PGPAeadInputStream
         extends InputStream
     {
@@ -527,7 +595,7 @@ public PGPAeadOutputStream(boolean isV5AEAD,
          * @param chunkSize     chunk size
          * @return associated data
          */
-        private byte[] createAAD(boolean isV5AEAD, int encAlgorithm, int aeadAlgorithm, int chunkSize)
+        static byte[] createAAD(boolean isV5AEAD, int encAlgorithm, int aeadAlgorithm, int chunkSize)
         {
             if (isV5AEAD)
             {
@@ -671,4 +739,82 @@ private static byte[] getAdata(boolean isV5AEAD, byte[] aaData, long chunkIndex,
             return adata;
         }
     }
+
+    private static class JceChunkPipeline
+        extends PGPAEADChunkPipeline<Cipher>
+    {
+        private final JceAEADUtil aeadHelper;
+        private final SecretKey secretKey;
+        private final int encAlgorithm;
+        private final int aeadAlgorithm;
+
+        JceChunkPipeline(JceAEADUtil aeadHelper,
+                         boolean forEncryption,
+                         boolean isV5AEAD,
+                         Executor executor,
+                         SecretKey secretKey,
+                         byte[] iv,
+                         int encAlgorithm,
+                         int aeadAlgorithm,
+                         int chunkSize,
+                         byte[] aaData)
+        {
+            super(executor, getDefaultMaxRunsInFlight(), forEncryption, isV5AEAD, aeadAlgorithm, chunkSize, iv, aaData);
+
+            this.aeadHelper = aeadHelper;
+            this.secretKey = secretKey;
+            this.encAlgorithm = encAlgorithm;
+            this.aeadAlgorithm = aeadAlgorithm;
+        }
+
+        protected Cipher createCipher()
+            throws PGPException
+        {
+            return aeadHelper.createAEADCipher(encAlgorithm, aeadAlgorithm);
+        }
+
+        protected int processChunk(Cipher c, byte[] nonce, byte[] adata, byte[] in, int inOff, int inLen, byte[] out,
+            int outOff)
+            throws IOException
+        {
+            try
+            {
+                JceAEADCipherUtil.setUpAeadCipher(c, secretKey, getMode(), nonce, 128, adata);
+
+                return c.doFinal(in, inOff, inLen, out, outOff);
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IOException("exception processing chunk: " + e.getMessage());
+            }
+        }
+
+        protected void processFinalTag(Cipher c, byte[] nonce, byte[] adata, byte[] tag)
+            throws IOException
+        {
+            try
+            {
+                JceAEADCipherUtil.setUpAeadCipher(c, secretKey, getMode(), nonce, 128, adata);
+
+                if (isForEncryption())
+                {
+                    byte[] finalTag = c.doFinal();
+                    System.arraycopy(finalTag, 0, tag, 0, getTagLength());
+                }
+                else
+                {
+                    c.doFinal(tag, 0, getTagLength()); // check final tag
+                }
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IOException("exception processing final tag: " + e.getMessage());
+            }
+        }
+
+        private int getMode()
+        {
+            return isForEncryption() ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE;
+        }
+    }
 }
@@ -2,6 +2,7 @@
 
 import java.security.GeneralSecurityException;
 import java.security.Provider;
+import java.util.concurrent.Executor;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -32,6 +33,7 @@
     private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
     private JceAEADUtil aeadHelper = new JceAEADUtil(helper);
     private PGPDigestCalculatorProvider calculatorProvider;
+    private Executor executor;
 
     /**
      * Base constructor - assume the required digest calculators can be provided from the same source as
@@ -80,6 +82,20 @@ public JcePBEDataDecryptorFactoryBuilder setProvider(String providerName)
         return this;
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently in the factories the builder
+     * produces.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current builder.
+     */
+    public JcePBEDataDecryptorFactoryBuilder setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     /**
      * Construct a {@link PBEDataDecryptorFactory} to use to decrypt PBE encrypted data.
      *
@@ -202,7 +218,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
             public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
             }
 
             // OpenPGP v6
@@ -210,7 +226,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
             public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
             }
         };
     }
@@ -22,6 +22,7 @@
 import org.bouncycastle.openpgp.PGPUtil;
 import org.bouncycastle.openpgp.operator.PBESecretKeyDecryptor;
 import org.bouncycastle.openpgp.operator.PGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.S2KKeyCache;
 import org.bouncycastle.util.Arrays;
 
 public class JcePBESecretKeyDecryptorBuilder
@@ -29,6 +30,7 @@
     private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
     private PGPDigestCalculatorProvider calculatorProvider;
     private JceAEADUtil aeadUtil = new JceAEADUtil(helper);
+    private S2KKeyCache keyCache;
 
     private JcaPGPDigestCalculatorProviderBuilder calculatorProviderBuilder;
 
@@ -68,6 +70,20 @@ public JcePBESecretKeyDecryptorBuilder setProvider(String providerName)
         return this;
     }
 
+    /**
+     * Provide a cache for the keys derived from pass phrases, so that repeatedly unlocking the same secret keys only
+     * runs the S2K the first time. The cache may be shared between builders.
+     *
+     * @param keyCache the cache to use, null to always derive keys.
+     * @return the current builder.
+     */
+    public JcePBESecretKeyDecryptorBuilder setKeyCache(S2KKeyCache keyCache)
+    {
+        this.keyCache = keyCache;
+
+        return this;
+    }
+
     public PBESecretKeyDecryptor build(char[] passPhrase)
         throws PGPException
     {
@@ -76,7 +92,7 @@ public PBESecretKeyDecryptor build(char[] passPhrase)
             calculatorProvider = calculatorProviderBuilder.build();
         }
 
-        return new PBESecretKeyDecryptor(passPhrase, calculatorProvider)
+        return new PBESecretKeyDecryptor(passPhrase, calculatorProvider, keyCache)
         {
             public byte[] recoverKeyData(int encAlgorithm, byte[] key, byte[] iv, byte[] keyData, int keyOff, int keyLen)
                 throws PGPException
@@ -5,6 +5,7 @@
 import java.security.InvalidKeyException;
 import java.security.Provider;
 import java.security.SecureRandom;
+import java.util.concurrent.Executor;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
@@ -44,6 +45,7 @@
     private int aeadAlgorithm = -1;
     private int chunkSize;
     private boolean isV5StyleAEAD = true; // TODO: change to false in 1.75
+    private Executor executor;
 
     /**
      * Constructs a new data encryptor builder for a specified cipher type.
@@ -159,6 +161,23 @@ public JcePGPDataEncryptorBuilder setSecureRandom(SecureRandom random)
         return this;
     }
 
+    /**
+     * Provide an executor for encrypting the chunks of AEAD encrypted data concurrently.
+     * <p>
+     * The output is identical to that produced without an executor. This is only worthwhile for large messages,
+     * with the number of chunks being processed at a time bounded by the number of available processors.
+     * </p>
+     *
+     * @param executor the executor to encrypt chunks on, null to encrypt them sequentially.
+     * @return the current builder.
+     */
+    public JcePGPDataEncryptorBuilder setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     @Override
     public int getAlgorithm()
     {
@@ -299,6 +318,12 @@ public OutputStream getOutputStream(OutputStream out)
         {
             try
             {
+                if (executor != null)
+                {
+                    byte[] aaData = JceAEADUtil.PGPAeadOutputStream.createAAD(isV5StyleAEAD, encAlgorithm, aeadAlgorithm, chunkSize);
+
+                    return aeadHelper.createChunkPipeline(true, isV5StyleAEAD, executor, JcaJcePGPUtil.makeSymmetricKey(encAlgorithm, keyBytes), iv, encAlgorithm, aeadAlgorithm, chunkSize, aaData).getOutputStream(out);
+                }
                 return new JceAEADUtil.PGPAeadOutputStream(isV5StyleAEAD, out, c, JcaJcePGPUtil.makeSymmetricKey(encAlgorithm, keyBytes), iv, encAlgorithm, aeadAlgorithm, chunkSize);
             }
             catch (Exception e)
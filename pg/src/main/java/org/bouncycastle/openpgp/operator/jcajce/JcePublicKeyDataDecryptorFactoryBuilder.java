@@ -12,6 +12,7 @@
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Date;
+import java.util.concurrent.Executor;
 
 import javax.crypto.Cipher;
 import javax.crypto.interfaces.DHKey;
@@ -53,6 +54,7 @@
     private JceAEADUtil aeadHelper = new JceAEADUtil(contentHelper);
     private JcaPGPKeyConverter keyConverter = new JcaPGPKeyConverter();
     private JcaKeyFingerprintCalculator fingerprintCalculator = new JcaKeyFingerprintCalculator();
+    private Executor executor;
 
     public JcePublicKeyDataDecryptorFactoryBuilder()
     {
@@ -106,6 +108,20 @@ public JcePublicKeyDataDecryptorFactoryBuilder setContentProvider(String provide
         return this;
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently in the factories the builder
+     * produces.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current builder.
+     */
+    public JcePublicKeyDataDecryptorFactoryBuilder setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     private int getExpectedPayloadSize(PrivateKey key)
     {
         if (key instanceof DHKey)
@@ -156,7 +172,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
             public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
             }
 
             // OpenPGP v6
@@ -164,7 +180,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
             public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
             }
         };
     }
@@ -211,7 +227,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
             public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+                return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
             }
 
             // OpenPGP v6
@@ -219,7 +235,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
             public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
                 throws PGPException
             {
-                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+                return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
             }
         };
     }
@@ -1,6 +1,7 @@
 package org.bouncycastle.openpgp.operator.jcajce;
 
 import java.security.Provider;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.bcpg.AEADEncDataPacket;
 import org.bouncycastle.bcpg.SymmetricEncIntegrityPacket;
@@ -16,6 +17,7 @@
 {
     private OperatorHelper helper = new OperatorHelper(new DefaultJcaJceHelper());
     private JcaPGPKeyConverter keyConverter = new JcaPGPKeyConverter();
+    private Executor executor;
 
     public JceSessionKeyDataDecryptorFactoryBuilder()
     {
@@ -49,9 +51,23 @@ public JceSessionKeyDataDecryptorFactoryBuilder setProvider(String providerName)
         return this;
     }
 
+    /**
+     * Provide an executor for decrypting the chunks of AEAD encrypted data concurrently in the factories the builder
+     * produces.
+     *
+     * @param executor the executor to decrypt chunks on, null to decrypt them sequentially.
+     * @return the current builder.
+     */
+    public JceSessionKeyDataDecryptorFactoryBuilder setExecutor(Executor executor)
+    {
+        this.executor = executor;
+
+        return this;
+    }
+
     public SessionKeyDataDecryptorFactory build(PGPSessionKey sessionKey)
     {
-        return new JceSessionKeyDataDecryptorFactory(helper, sessionKey);
+        return new JceSessionKeyDataDecryptorFactory(helper, sessionKey, executor);
     }
 
     private static class JceSessionKeyDataDecryptorFactory
@@ -60,12 +76,14 @@ public SessionKeyDataDecryptorFactory build(PGPSessionKey sessionKey)
         private final OperatorHelper helper;
         private final JceAEADUtil aeadHelper;
         private final PGPSessionKey sessionKey;
+        private final Executor executor;
 
-        public JceSessionKeyDataDecryptorFactory(OperatorHelper helper, PGPSessionKey sessionKey)
+        public JceSessionKeyDataDecryptorFactory(OperatorHelper helper, PGPSessionKey sessionKey, Executor executor)
         {
             this.helper = helper;
             this.aeadHelper = new JceAEADUtil(helper);
             this.sessionKey = sessionKey;
+            this.executor = executor;
         }
 
         @Override
@@ -87,7 +105,7 @@ public PGPDataDecryptor createDataDecryptor(boolean withIntegrityPacket, int enc
         public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket, PGPSessionKey sessionKey)
             throws PGPException
         {
-            return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey);
+            return aeadHelper.createOpenPgpV5DataDecryptor(aeadEncDataPacket, sessionKey, executor);
         }
 
         // OpenPGP v6
@@ -95,7 +113,7 @@ public PGPDataDecryptor createDataDecryptor(AEADEncDataPacket aeadEncDataPacket,
         public PGPDataDecryptor createDataDecryptor(SymmetricEncIntegrityPacket seipd, PGPSessionKey sessionKey)
                 throws PGPException
         {
-            return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey);
+            return aeadHelper.createOpenPgpV6DataDecryptor(seipd, sessionKey, executor);
         }
     }
 }
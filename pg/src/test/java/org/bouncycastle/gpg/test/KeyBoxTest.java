@@ -1,33 +1,57 @@
 package org.bouncycastle.gpg.test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.security.Security;
 import java.security.cert.CertificateFactory;
 import java.util.Iterator;
+import java.util.List;
 
 import junit.framework.TestCase;
+import org.bouncycastle.bcpg.ArmoredInputStream;
+import org.bouncycastle.bcpg.KeyIdentifier;
 import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
 import org.bouncycastle.gpg.keybox.BlobType;
 import org.bouncycastle.gpg.keybox.CertificateBlob;
 import org.bouncycastle.gpg.keybox.FirstBlob;
 import org.bouncycastle.gpg.keybox.KeyBlob;
 import org.bouncycastle.gpg.keybox.KeyBox;
+import org.bouncycastle.gpg.keybox.KeyBoxStore;
 import org.bouncycastle.gpg.keybox.PublicKeyRingBlob;
 import org.bouncycastle.gpg.keybox.bc.BcBlobVerifier;
 import org.bouncycastle.gpg.keybox.bc.BcKeyBox;
+import org.bouncycastle.gpg.keybox.bc.BcKeyBoxStore;
 import org.bouncycastle.gpg.keybox.jcajce.JcaKeyBoxBuilder;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.openpgp.PGPPublicKey;
 import org.bouncycastle.openpgp.PGPPublicKeyRing;
 import org.bouncycastle.openpgp.operator.bc.BcKeyFingerprintCalculator;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
 import org.bouncycastle.util.io.Streams;
 import org.bouncycastle.util.test.SimpleTest;
 
 public class KeyBoxTest
     extends SimpleTest
 {
+    private static final String V6_CERT = "-----BEGIN PGP PUBLIC KEY BLOCK-----\n" +
+        "\n" +
+        "xioGY4d/4xsAAAAg+U2nu0jWCmHlZ3BqZYfQMxmZu52JGggkLq2EVD34laPCsQYf\n" +
+        "GwoAAABCBYJjh3/jAwsJBwUVCg4IDAIWAAKbAwIeCSIhBssYbE8GCaaX5NUt+mxy\n" +
+        "KwwfHifBilZwj2Ul7Ce62azJBScJAgcCAAAAAK0oIBA+LX0ifsDm185Ecds2v8lw\n" +
+        "gyU2kCcUmKfvBXbAf6rhRYWzuQOwEn7E/aLwIwRaLsdry0+VcallHhSu4RN6HWaE\n" +
+        "QsiPlR4zxP/TP7mhfVEe7XWPxtnMUMtf15OyA51YBM4qBmOHf+MZAAAAIIaTJINn\n" +
+        "+eUBXbki+PSAld2nhJh/LVmFsS+60WyvXkQ1wpsGGBsKAAAALAWCY4d/4wKbDCIh\n" +
+        "BssYbE8GCaaX5NUt+mxyKwwfHifBilZwj2Ul7Ce62azJAAAAAAQBIKbpGG2dWTX8\n" +
+        "j+VjFM21J0hqWlEg+bdiojWnKfA5AQpWUWtnNwDEM0g12vYxoWM8Y81W+bHBw805\n" +
+        "I8kWVkXU6vFOi+HWvv/ira7ofJu16NnoUkhclkUrk0mXubZvyl4GBg==\n" +
+        "-----END PGP PUBLIC KEY BLOCK-----";
+
     public static void main(
         String[] args)
     {
@@ -367,6 +391,187 @@ public void testKeyBoxWithBrokenMD5()
     }
 
 
+    /**
+     * Check lookups through an indexed keybox store, with appends, reopening and a rewritten keybox.
+     *
+     * @throws Exception
+     */
+    public void testKeyBoxStore()
+        throws Exception
+    {
+        File dir = File.createTempFile("kbx", "test");
+        dir.delete();
+        dir.mkdir();
+
+        File kbxFile = new File(dir, "pubring.kbx");
+        File idxFile = new File(dir, "pubring.kbx.idx");
+
+        byte[] original = Streams.readAll(KeyBoxTest.class.getResourceAsStream("/pgpdata/pubring.kbx"));
+        PGPPublicKeyRing elGamalRing = ((PublicKeyRingBlob)new BcKeyBox(KeyBoxTest.class.getResourceAsStream("/pgpdata/eg_pubring.kbx")).getKeyBlobs().get(0)).getPGPPublicKeyRing();
+        ArmoredInputStream aIn = new ArmoredInputStream(new ByteArrayInputStream(Strings.toByteArray(V6_CERT)));
+        PGPPublicKeyRing v6Ring = new PGPPublicKeyRing(aIn, new BcKeyFingerprintCalculator());
+        byte[] v6Fingerprint = v6Ring.getPublicKey().getFingerprint();
+
+        try
+        {
+            writeFile(kbxFile, original);
+
+            KeyBoxStore store = new BcKeyBoxStore(kbxFile);
+
+            List<PGPPublicKeyRing> rings = store.getPublicKeyRings("WALTER@mitty");
+            isEquals(1, rings.size());
+            PGPPublicKeyRing walter = rings.get(0);
+            isTrue(store.getPublicKeyRings("nobody@mitty").isEmpty());
+
+            for (Iterator<PGPPublicKey> it = walter.getPublicKeys(); it.hasNext();)
+            {
+                PGPPublicKey key = it.next();
+
+                isTrue(Arrays.areEqual(walter.getEncoded(), store.getPublicKeyRing(key.getKeyID()).getEncoded()));
+                isTrue(Arrays.areEqual(walter.getEncoded(), store.getPublicKeyRing(new KeyIdentifier(key.getFingerprint())).getEncoded()));
+
+                // right key ID, wrong fingerprint.
+                byte[] fingerprint = key.getFingerprint();
+                fingerprint[0] ^= 1;
+                isTrue(store.getPublicKeyRing(new KeyIdentifier(fingerprint, key.getKeyID())) == null);
+            }
+            isTrue(store.getPublicKeyRing(v6Ring.getPublicKey().getKeyID()) == null);
+
+            // appended blobs are found before and after the index is written.
+            store.append(v6Ring);
+            isTrue(Arrays.areEqual(v6Ring.getEncoded(), store.getPublicKeyRing(new KeyIdentifier(v6Fingerprint)).getEncoded()));
+            store.close();
+            isTrue(idxFile.exists());
+
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(Arrays.areEqual(v6Ring.getEncoded(), store.getPublicKeyRing(new KeyIdentifier(v6Fingerprint)).getEncoded()));
+            isEquals(1, store.getPublicKeyRings("walter").size());
+
+            // appended without the index being updated.
+            store.append(elGamalRing);
+
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(Arrays.areEqual(elGamalRing.getEncoded(), store.getPublicKeyRing(elGamalRing.getPublicKey().getKeyID()).getEncoded()));
+            isTrue(store.getPublicKeyRing(walter.getPublicKey().getKeyID()) != null);
+            store.close();
+
+            // the appended blobs must be readable by KeyBox.
+            InputStream fIn = new FileInputStream(kbxFile);
+            KeyBox keyBox = new BcKeyBox(fIn);
+            fIn.close();
+            isEquals(4, keyBox.getKeyBlobs().size());
+
+            // a rewritten keybox makes the index stale.
+            writeFile(kbxFile, original);
+
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(store.getPublicKeyRing(new KeyIdentifier(v6Fingerprint)) == null);
+            isTrue(store.getPublicKeyRing(elGamalRing.getPublicKey().getKeyID()) == null);
+            isEquals(1, store.getPublicKeyRings("walter").size());
+            store.close();
+
+            // a keybox created from scratch.
+            kbxFile.delete();
+            idxFile.delete();
+
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(store.getPublicKeyRing(walter.getPublicKey().getKeyID()) == null);
+            store.append(walter);
+            store.append(v6Ring);
+            store.close();
+
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(Arrays.areEqual(walter.getEncoded(), store.getPublicKeyRing(walter.getPublicKey().getKeyID()).getEncoded()));
+            isTrue(Arrays.areEqual(v6Ring.getEncoded(), store.getPublicKeyRing(new KeyIdentifier(v6Fingerprint)).getEncoded()));
+            store.close();
+        }
+        finally
+        {
+            kbxFile.delete();
+            idxFile.delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * Check blobs deleted by gpg, which blanks their type in place, are treated as absent.
+     *
+     * @throws Exception
+     */
+    public void testKeyBoxStoreDeletedBlob()
+        throws Exception
+    {
+        File dir = File.createTempFile("kbx", "test");
+        dir.delete();
+        dir.mkdir();
+
+        File kbxFile = new File(dir, "pubring.kbx");
+        File idxFile = new File(dir, "pubring.kbx.idx");
+
+        byte[] original = Streams.readAll(KeyBoxTest.class.getResourceAsStream("/pgpdata/pubring.kbx"));
+        ArmoredInputStream aIn = new ArmoredInputStream(new ByteArrayInputStream(Strings.toByteArray(V6_CERT)));
+        PGPPublicKeyRing v6Ring = new PGPPublicKeyRing(aIn, new BcKeyFingerprintCalculator());
+        KeyIdentifier v6Identifier = new KeyIdentifier(v6Ring.getPublicKey().getFingerprint());
+
+        try
+        {
+            writeFile(kbxFile, original);
+
+            KeyBoxStore store = new BcKeyBoxStore(kbxFile);
+            PGPPublicKeyRing walter = store.getPublicKeyRings("walter").get(0);
+            long walterBlob = kbxFile.length();
+            store.append(walter);
+            long v6Blob = kbxFile.length();
+            store.append(v6Ring);
+            store.close();
+            long idxLength = idxFile.length();
+
+            // an update, gpg deletes the old blob and appends the new one.
+            blankBlobType(kbxFile, walterBlob);
+            store = new BcKeyBoxStore(kbxFile);
+            store.append(walter);
+            isEquals(2, store.getPublicKeyRings("walter").size());
+            isTrue(Arrays.areEqual(walter.getEncoded(), store.getPublicKeyRing(walter.getPublicKey().getKeyID()).getEncoded()));
+            store.close();
+
+            // a deletion covered by the index.
+            blankBlobType(kbxFile, v6Blob);
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(store.getPublicKeyRing(v6Identifier) == null);
+            store.close();
+
+            // the deleted blobs are no longer indexed.
+            isTrue(idxFile.length() < idxLength);
+            store = new BcKeyBoxStore(kbxFile);
+            isTrue(store.getPublicKeyRing(v6Identifier) == null);
+            isEquals(2, store.getPublicKeyRings("walter").size());
+            store.close();
+        }
+        finally
+        {
+            kbxFile.delete();
+            idxFile.delete();
+            dir.delete();
+        }
+    }
+
+    private static void blankBlobType(File file, long blobOffset)
+        throws IOException
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.seek(blobOffset + 4);
+        raf.write(BlobType.EMPTY_BLOB.getByteValue());
+        raf.close();
+    }
+
+    private static void writeFile(File file, byte[] data)
+        throws IOException
+    {
+        FileOutputStream fOut = new FileOutputStream(file);
+        fOut.write(data);
+        fOut.close();
+    }
+
     public void performTest()
         throws Exception
     {
@@ -379,6 +584,8 @@ public void performTest()
         testBrokenMagic();
         testSuccessfulLoad();
         testInducedChecksumFailed();
+        testKeyBoxStore();
+        testKeyBoxStoreDeletedBlob();
     }
 
 
@@ -1,10 +1,13 @@
 package org.bouncycastle.openpgp.test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.security.SecureRandom;
 import java.security.Security;
 
 import org.bouncycastle.bcpg.ArmoredInputStream;
+import org.bouncycastle.bcpg.ArmoredOutputStream;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.bouncycastle.openpgp.PGPObjectFactory;
 import org.bouncycastle.openpgp.operator.jcajce.JcaKeyFingerprintCalculator;
@@ -98,6 +101,92 @@ public void performTest()
         {
             isTrue("invalid armor header".equals(e.getMessage()));
         }
+
+        testBulkRead();
+    }
+
+    private void testBulkRead()
+        throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+        byte[] data1 = new byte[10000];
+        byte[] data2 = new byte[4001];
+        random.nextBytes(data1);
+        random.nextBytes(data2);
+
+        // two armored blocks, the second with CRLF line ends and stray white space.
+        String armor2 = Strings.fromByteArray(armor(data2));
+        armor2 = armor2.replaceAll("\r?\n", "\r\n").replaceAll("([A-Za-z0-9+/]{10})", "$1 \t");
+        byte[] encoded = Arrays.concatenate(armor(data1), Strings.toByteArray(armor2));
+
+        int[] readSizes = { 1, 2, 3, 4, 7, 100, 8192 };
+        for (int i = 0; i != readSizes.length; i++)
+        {
+            ArmoredInputStream aIn = new ArmoredInputStream(new ByteArrayInputStream(encoded));
+
+            // the end of the first block is only reported if a read stops on it.
+            byte[] first = readAll(aIn, readSizes[i]);
+            byte[] second = readAll(aIn, readSizes[i]);
+
+            isTrue("blocks differ for " + readSizes[i], Arrays.areEqual(Arrays.concatenate(data1, data2), Arrays.concatenate(first, second)));
+            isTrue("data after last block", aIn.read(new byte[readSizes[i]], 0, readSizes[i]) < 0);
+            isTrue("end of stream", aIn.isEndOfStream());
+
+            aIn = new ArmoredInputStream(new ByteArrayInputStream(Strings.toByteArray(armor2)));
+            isTrue("second block differs for " + readSizes[i], Arrays.areEqual(data2, readAll(aIn, readSizes[i])));
+        }
+
+        // corrupt one character in the body, avoiding the header and checksum lines.
+        byte[] corrupt = armor(data1);
+        int pos = Strings.fromByteArray(corrupt).indexOf("\n\n") + 100;
+        corrupt[pos] = (byte)(corrupt[pos] == 'A' ? 'B' : 'A');
+
+        try
+        {
+            readAll(new ArmoredInputStream(new ByteArrayInputStream(corrupt)), 8192);
+            fail("no exception");
+        }
+        catch (IOException e)
+        {
+            isEquals("crc check failed in armored message", e.getMessage());
+        }
+
+        corrupt = armor(data1);
+        corrupt[pos] = '*';
+        try
+        {
+            readAll(new ArmoredInputStream(new ByteArrayInputStream(corrupt)), 8192);
+            fail("no exception");
+        }
+        catch (IOException e)
+        {
+            isEquals("invalid armor", e.getMessage());
+        }
+    }
+
+    private static byte[] armor(byte[] data)
+        throws IOException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        ArmoredOutputStream aOut = ArmoredOutputStream.builder().build(bOut);
+        aOut.write(data);
+        aOut.close();
+
+        return bOut.toByteArray();
+    }
+
+    private static byte[] readAll(ArmoredInputStream aIn, int readSize)
+        throws IOException
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        byte[] buf = new byte[readSize];
+        int len;
+        while ((len = aIn.read(buf, 0, buf.length)) >= 0)
+        {
+            bOut.write(buf, 0, len);
+        }
+
+        return bOut.toByteArray();
     }
 
     public static void main(
@@ -2,6 +2,7 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.security.SecureRandom;
 import java.util.Hashtable;
 
 import org.bouncycastle.bcpg.ArmoredInputStream;
@@ -12,6 +13,7 @@
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Strings;
 import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.io.Streams;
 import org.bouncycastle.util.test.SimpleTest;
 
 public class ArmoredOutputStreamTest
@@ -62,6 +64,7 @@ public void performTest()
     {
         testBuilder();
         testExceptions();
+        testBulkWrite();
         PGPPublicKeyRing keyRing = new PGPPublicKeyRing(publicKey, new JcaKeyFingerprintCalculator());
         ByteArrayOutputStream bOut = new ByteArrayOutputStream();
 
@@ -180,6 +183,46 @@ public void testBuilder()
         isEquals(hashAlgorithms.length, inputStream.getArmorHeaders().length);
     }
 
+    public void testBulkWrite()
+        throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+        int[] dataSizes = { 1, 2, 3, 4, 47, 48, 49, 50, 1000, 100000 };
+        int[] writeSizes = { 1, 2, 3, 5, 48, 49, 4096, Integer.MAX_VALUE };
+
+        for (int i = 0; i != dataSizes.length; i++)
+        {
+            byte[] data = new byte[dataSizes[i]];
+            random.nextBytes(data);
+            data[0] = (byte)0xc6; // public key packet
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            ArmoredOutputStream aOut = ArmoredOutputStream.builder().build(expected);
+            for (int j = 0; j != data.length; j++)
+            {
+                aOut.write(data[j]);
+            }
+            aOut.close();
+
+            for (int j = 0; j != writeSizes.length; j++)
+            {
+                ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+                aOut = ArmoredOutputStream.builder().build(bOut);
+                for (int off = 0; off < data.length; off += writeSizes[j])
+                {
+                    aOut.write(data, off, Math.min(writeSizes[j], data.length - off));
+                }
+                aOut.close();
+
+                isTrue("bulk write differs for " + dataSizes[i] + "/" + writeSizes[j],
+                    Arrays.areEqual(expected.toByteArray(), bOut.toByteArray()));
+            }
+
+            ArmoredInputStream aIn = new ArmoredInputStream(new ByteArrayInputStream(expected.toByteArray()));
+            isTrue("round trip failed for " + dataSizes[i], Arrays.areEqual(data, Streams.readAll(aIn)));
+        }
+    }
+
     public void testExceptions()
     {
         testException("unknown hash algorithm tag in beginClearText: ", "IOException", new TestExceptionOperation()
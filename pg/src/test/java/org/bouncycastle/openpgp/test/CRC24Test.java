@@ -38,6 +38,7 @@ public void performTest()
     {
         testDefaultImpl();
         testFastImpl();
+        testBulkUpdate();
 
         performanceTest();
     }
@@ -54,6 +55,37 @@ public void testFastImpl()
         testCrcImplementationAgainstTestVectors(crc);
     }
 
+    public void testBulkUpdate()
+    {
+        CRC24 defaultImpl = new CRC24();
+        CRC24 fastImpl = new FastCRC24();
+
+        for (int off = 0; off != 7; off++)
+        {
+            for (int len = 0; len != 50; len++)
+            {
+                defaultImpl.reset();
+                fastImpl.reset();
+
+                // start from a state that is not the initial value
+                defaultImpl.update(off);
+                fastImpl.update(off);
+
+                for (int i = 0; i != len; i++)
+                {
+                    defaultImpl.update(LARGE_RANDOM[off + i] & 0xFF);
+                }
+                fastImpl.update(LARGE_RANDOM, off, len);
+
+                isEquals("bulk update diverges for off " + off + " len " + len, defaultImpl.getValue(), fastImpl.getValue());
+            }
+        }
+
+        fastImpl.reset();
+        fastImpl.update(TEST_VECTOR_1, 0, TEST_VECTOR_1.length);
+        isEquals("Wrong CRC sum calculated", 0x71cee5, fastImpl.getValue());
+    }
+
     private void testCrcImplementationAgainstTestVectors(CRC24 crc)
     {
         isEquals("CRC implementation has wrong initial value", 0x0b704ce, crc.getValue());
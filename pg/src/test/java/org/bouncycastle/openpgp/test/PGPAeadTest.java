@@ -8,6 +8,8 @@
 import java.security.SecureRandom;
 import java.security.Security;
 import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.bouncycastle.bcpg.AEADAlgorithmTags;
 import org.bouncycastle.bcpg.ArmoredInputStream;
@@ -128,6 +130,8 @@ public void performTest()
 
         roundTripEncryptionDecryptionTests();
 
+        parallelChunkTests();
+
         paddingPacketTests();
 
         preferredAEADAlgorithmsTests();
@@ -171,6 +175,170 @@ private void roundTripEncryptionDecryptionTests()
         }
     }
 
+    private void parallelChunkTests()
+        throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        SecureRandom random = new SecureRandom();
+
+        try
+        {
+            int[] lengths = new int[]{ 0, 1, 1000, 64 * 1024, 3 * 64 * 1024 + 17 };
+            for (int i = 0; i != lengths.length; i++)
+            {
+                byte[] plaintext = new byte[lengths[i]];
+                random.nextBytes(plaintext);
+
+                for (int v = 0; v != 2; v++)
+                {
+                    boolean v5AEAD = v == 0;
+
+                    // small chunks, grouped into runs, and chunks larger than a run
+                    testParallelRoundTrip(executor, v5AEAD, AEADAlgorithmTags.OCB, 6, plaintext);
+                    testParallelRoundTrip(executor, v5AEAD, AEADAlgorithmTags.GCM, 17, plaintext);
+                }
+            }
+            testParallelRoundTrip(executor, false, AEADAlgorithmTags.EAX, 10, new byte[16 * 1024]);
+
+            // tampered chunks and final tags must be detected
+            byte[] plaintext = new byte[200 * 1024];
+            random.nextBytes(plaintext);
+            for (int bc = 0; bc != 2; bc++)
+            {
+                byte[] message = parallelEncrypt(bc == 0, executor, false, AEADAlgorithmTags.OCB, 10, plaintext);
+
+                int[] offsets = new int[]{ message.length / 2, message.length - 1 };
+                for (int j = 0; j != offsets.length; j++)
+                {
+                    byte[] tampered = Arrays.clone(message);
+                    tampered[offsets[j]] ^= 1;
+                    try
+                    {
+                        parallelDecrypt(bc == 0, executor, tampered);
+                        fail("tampered AEAD data not detected");
+                    }
+                    catch (IOException e)
+                    {
+                        // expected
+                    }
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void testParallelRoundTrip(ExecutorService executor, boolean v5AEAD, int aeadAlg, int chunkSize, byte[] plaintext)
+        throws Exception
+    {
+        for (int bc = 0; bc != 2; bc++)
+        {
+            byte[] parallel = parallelEncrypt(bc == 0, executor, v5AEAD, aeadAlg, chunkSize, plaintext);
+            byte[] sequential = parallelEncrypt(bc == 0, null, v5AEAD, aeadAlg, chunkSize, plaintext);
+
+            for (int d = 0; d != 2; d++)
+            {
+                isTrue("parallel/parallel", Arrays.areEqual(plaintext, parallelDecrypt(d == 0, executor, parallel)));
+                isTrue("parallel/sequential", Arrays.areEqual(plaintext, parallelDecrypt(d == 0, null, parallel)));
+                isTrue("sequential/parallel", Arrays.areEqual(plaintext, parallelDecrypt(d == 0, executor, sequential)));
+            }
+        }
+    }
+
+    private byte[] parallelEncrypt(boolean bc, ExecutorService executor, boolean v5AEAD, int aeadAlg, int chunkSize, byte[] plaintext)
+        throws Exception
+    {
+        PGPDataEncryptorBuilder encBuilder;
+        PBEKeyEncryptionMethodGenerator encMethodGen;
+        if (bc)
+        {
+            encBuilder = new BcPGPDataEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_256).setExecutor(executor);
+            encMethodGen = new BcPBEKeyEncryptionMethodGenerator(PASSWORD,
+                new BcPGPDigestCalculatorProvider().get(HashAlgorithmTags.SHA256));
+        }
+        else
+        {
+            encBuilder = new JcePGPDataEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_256).setProvider(new BouncyCastleProvider()).setExecutor(executor);
+            encMethodGen = new JcePBEKeyEncryptionMethodGenerator(PASSWORD,
+                new JcaPGPDigestCalculatorProviderBuilder().setProvider(new BouncyCastleProvider()).build().get(HashAlgorithmTags.SHA256));
+        }
+        if (v5AEAD)
+        {
+            encBuilder.setUseV5AEAD();
+        }
+        else
+        {
+            encBuilder.setUseV6AEAD();
+        }
+        encBuilder.setWithAEAD(aeadAlg, chunkSize);
+
+        PGPEncryptedDataGenerator encGen = new PGPEncryptedDataGenerator(encBuilder, false);
+        encGen.setForceSessionKey(true);
+        encGen.addMethod(encMethodGen);
+
+        ByteArrayOutputStream ciphertextOut = new ByteArrayOutputStream();
+        OutputStream encOut = encGen.open(ciphertextOut, new byte[1 << 12]);
+        PGPLiteralDataGenerator litGen = new PGPLiteralDataGenerator();
+        OutputStream litOut = litGen.open(encOut, PGPLiteralData.BINARY, "", new Date(), new byte[1 << 12]);
+
+        // uneven writes, including single bytes
+        int off = 0;
+        while (off < plaintext.length)
+        {
+            int len = Math.min(plaintext.length - off, 1 + (off % 3001));
+            if (len == 1)
+            {
+                litOut.write(plaintext[off]);
+            }
+            else
+            {
+                litOut.write(plaintext, off, len);
+            }
+            off += len;
+        }
+
+        litOut.close();
+        encOut.close();
+
+        return ciphertextOut.toByteArray();
+    }
+
+    private byte[] parallelDecrypt(boolean bc, ExecutorService executor, byte[] message)
+        throws Exception
+    {
+        PGPObjectFactory objectFactory = new BcPGPObjectFactory(message);
+        PGPEncryptedDataList encryptedDataList = (PGPEncryptedDataList)objectFactory.nextObject();
+        PGPPBEEncryptedData encData = (PGPPBEEncryptedData)encryptedDataList.get(0);
+
+        PBEDataDecryptorFactory decryptorFactory;
+        if (bc)
+        {
+            decryptorFactory = new BcPBEDataDecryptorFactory(PASSWORD, new BcPGPDigestCalculatorProvider()).setExecutor(executor);
+        }
+        else
+        {
+            decryptorFactory = new JcePBEDataDecryptorFactoryBuilder(new JcaPGPDigestCalculatorProviderBuilder().setProvider(new BouncyCastleProvider()).build())
+                .setProvider(new BouncyCastleProvider()).setExecutor(executor).build(PASSWORD);
+        }
+
+        InputStream decryptedIn;
+        try
+        {
+            decryptedIn = encData.getDataStream(decryptorFactory);
+        }
+        catch (IllegalStateException e)
+        {
+            // failures reading the first chunks are reported when the stream is opened
+            throw Exceptions.ioException(e.getMessage(), e);
+        }
+        objectFactory = new BcPGPObjectFactory(decryptedIn);
+        PGPLiteralData literalData = (PGPLiteralData)objectFactory.nextObject();
+
+        return Streams.readAll(literalData.getDataStream());
+    }
+
     private void knownV5TestVectorDecryptionTests()
         throws IOException, PGPException
     {
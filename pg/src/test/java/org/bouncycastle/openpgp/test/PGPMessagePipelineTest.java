@@ -0,0 +1,246 @@
+package org.bouncycastle.openpgp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.Date;
+
+import org.bouncycastle.bcpg.AEADAlgorithmTags;
+import org.bouncycastle.bcpg.BCPGOutputStream;
+import org.bouncycastle.bcpg.CompressionAlgorithmTags;
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PacketTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openpgp.PGPBufferPool;
+import org.bouncycastle.openpgp.PGPCompressedData;
+import org.bouncycastle.openpgp.PGPEncryptedDataList;
+import org.bouncycastle.openpgp.PGPKeyPair;
+import org.bouncycastle.openpgp.PGPLiteralData;
+import org.bouncycastle.openpgp.PGPMessagePipelineBuilder;
+import org.bouncycastle.openpgp.PGPOnePassSignature;
+import org.bouncycastle.openpgp.PGPOnePassSignatureList;
+import org.bouncycastle.openpgp.PGPPBEEncryptedData;
+import org.bouncycastle.openpgp.PGPSignature;
+import org.bouncycastle.openpgp.PGPSignatureGenerator;
+import org.bouncycastle.openpgp.PGPSignatureList;
+import org.bouncycastle.openpgp.bc.BcPGPObjectFactory;
+import org.bouncycastle.openpgp.operator.bc.BcPBEDataDecryptorFactory;
+import org.bouncycastle.openpgp.operator.bc.BcPBEKeyEncryptionMethodGenerator;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentSignerBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPContentVerifierBuilderProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDataEncryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
+import org.bouncycastle.util.io.Streams;
+import org.bouncycastle.util.test.SimpleTest;
+
+public class PGPMessagePipelineTest
+    extends SimpleTest
+{
+    private static final char[] passPhrase = "pipeline".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "PGPMessagePipelineTest";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        testPartialPacketWrites();
+
+        PGPKeyPair signer1 = createSigningKeyPair();
+        PGPKeyPair signer2 = createSigningKeyPair();
+        PGPBufferPool pool = new PGPBufferPool(1 << 12, 3);
+
+        byte[] data = new byte[50000];
+        random.nextBytes(data);
+
+        // signed, compressed and encrypted, with two signatures.
+        PGPMessagePipelineBuilder builder = new PGPMessagePipelineBuilder()
+            .setEncryption(new BcPGPDataEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_256).setWithIntegrityPacket(true))
+            .addMethod(new BcPBEKeyEncryptionMethodGenerator(passPhrase))
+            .setCompression(CompressionAlgorithmTags.ZIP)
+            .setLiteralData(PGPLiteralData.BINARY, "data.bin", new Date(1000000000000L))
+            .setBufferPool(pool);
+
+        byte[] message = writeMessage(builder.addSigner(createSigner(signer1, PGPSignature.BINARY_DOCUMENT)).addSigner(createSigner(signer2, PGPSignature.BINARY_DOCUMENT)), data, 777);
+        checkMessage(message, data, "data.bin", true, true, new PGPKeyPair[]{ signer1, signer2 });
+
+        // the builder may be reused with new signers, and the pooled buffers are zeroed.
+        message = writeMessage(builder.addSigner(createSigner(signer2, PGPSignature.BINARY_DOCUMENT)), data, data.length);
+        checkMessage(message, data, "data.bin", true, true, new PGPKeyPair[]{ signer2 });
+        isTrue("pooled buffer not cleared", Arrays.areAllZeroes(pool.acquire(), 0, 1 << 12));
+
+        // signed only, as canonical text.
+        byte[] text = Strings.toByteArray("hello\nworld\r\nline three\n");
+        builder = new PGPMessagePipelineBuilder()
+            .setLiteralData(PGPLiteralData.UTF8, "", PGPLiteralData.NOW)
+            .setBufferPool(pool)
+            .addSigner(createSigner(signer1, PGPSignature.CANONICAL_TEXT_DOCUMENT));
+
+        message = writeMessage(builder, text, 1);
+        checkMessage(message, text, "", false, false, new PGPKeyPair[]{ signer1 });
+
+        // encrypted using AEAD, no signatures.
+        builder = new PGPMessagePipelineBuilder()
+            .setEncryption(new BcPGPDataEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_128).setWithAEAD(AEADAlgorithmTags.OCB, 10).setUseV6AEAD())
+            .addMethod(new BcPBEKeyEncryptionMethodGenerator(passPhrase))
+            .setForceSessionKey(true)
+            .setCompression(CompressionAlgorithmTags.ZLIB)
+            .setBufferPool(pool);
+
+        message = writeMessage(builder, data, 5000);
+        checkMessage(message, data, "", true, true, new PGPKeyPair[0]);
+
+        try
+        {
+            new PGPMessagePipelineBuilder().addMethod(new BcPBEKeyEncryptionMethodGenerator(passPhrase)).open(new ByteArrayOutputStream());
+            fail("no exception on missing data encryptor");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            new PGPBufferPool(1000, 1);
+            fail("no exception on bad buffer size");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Partial packets written from large arrays must be identical to those written a byte at a time.
+     */
+    private void testPartialPacketWrites()
+        throws Exception
+    {
+        byte[] data = new byte[5 * 512 + 17];
+        random.nextBytes(data);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        BCPGOutputStream pOut = new BCPGOutputStream(expected, PacketTags.LITERAL_DATA, new byte[512]);
+        for (int i = 0; i != data.length; i++)
+        {
+            pOut.write(data[i]);
+        }
+        pOut.finish();
+
+        int[] firstWrites = { 0, 1, 511, 512, 513 };
+        for (int i = 0; i != firstWrites.length; i++)
+        {
+            ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+            pOut = new BCPGOutputStream(bOut, PacketTags.LITERAL_DATA, new byte[512]);
+            pOut.write(data, 0, firstWrites[i]);
+            pOut.write(data, firstWrites[i], data.length - firstWrites[i]);
+            pOut.finish();
+
+            isTrue("partial packets differ for first write of " + firstWrites[i], Arrays.areEqual(expected.toByteArray(), bOut.toByteArray()));
+        }
+    }
+
+    private byte[] writeMessage(PGPMessagePipelineBuilder builder, byte[] data, int writeSize)
+        throws Exception
+    {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        OutputStream out = builder.open(bOut);
+
+        for (int off = 0; off < data.length; off += writeSize)
+        {
+            out.write(data, off, Math.min(writeSize, data.length - off));
+        }
+        out.close();
+
+        return bOut.toByteArray();
+    }
+
+    private void checkMessage(byte[] message, byte[] data, String fileName, boolean encrypted, boolean compressed, PGPKeyPair[] signers)
+        throws Exception
+    {
+        BcPGPObjectFactory pgpFact = new BcPGPObjectFactory(message);
+
+        if (encrypted)
+        {
+            PGPEncryptedDataList encList = (PGPEncryptedDataList)pgpFact.nextObject();
+            PGPPBEEncryptedData encData = (PGPPBEEncryptedData)encList.get(0);
+            InputStream clear = encData.getDataStream(new BcPBEDataDecryptorFactory(passPhrase, new BcPGPDigestCalculatorProvider()));
+
+            pgpFact = new BcPGPObjectFactory(clear);
+        }
+
+        if (compressed)
+        {
+            pgpFact = new BcPGPObjectFactory(((PGPCompressedData)pgpFact.nextObject()).getDataStream());
+        }
+
+        PGPOnePassSignatureList opsList = null;
+        if (signers.length != 0)
+        {
+            opsList = (PGPOnePassSignatureList)pgpFact.nextObject();
+            isEquals("one-pass signature count", signers.length, opsList.size());
+            for (int i = 0; i != signers.length; i++)
+            {
+                opsList.get(i).init(new BcPGPContentVerifierBuilderProvider(), signers[i].getPublicKey());
+            }
+        }
+
+        PGPLiteralData literal = (PGPLiteralData)pgpFact.nextObject();
+        isEquals("file name", fileName, literal.getFileName());
+
+        byte[] content = Streams.readAll(literal.getInputStream());
+        isTrue("literal data mismatch", Arrays.areEqual(data, content));
+
+        if (signers.length != 0)
+        {
+            PGPSignatureList sigList = (PGPSignatureList)pgpFact.nextObject();
+            isEquals("signature count", signers.length, sigList.size());
+            for (int i = 0; i != signers.length; i++)
+            {
+                PGPOnePassSignature ops = opsList.get(i);
+                ops.update(content);
+                isTrue("signature " + i + " failed", ops.verify(sigList.get(signers.length - 1 - i)));
+            }
+        }
+    }
+
+    private PGPKeyPair createSigningKeyPair()
+        throws Exception
+    {
+        Ed25519KeyPairGenerator kpGen = new Ed25519KeyPairGenerator();
+        kpGen.init(new Ed25519KeyGenerationParameters(random));
+
+        return new BcPGPKeyPair(PublicKeyAlgorithmTags.Ed25519, kpGen.generateKeyPair(), new Date());
+    }
+
+    private PGPSignatureGenerator createSigner(PGPKeyPair keyPair, int signatureType)
+        throws Exception
+    {
+        PGPSignatureGenerator sigGen = new PGPSignatureGenerator(
+            new BcPGPContentSignerBuilder(keyPair.getPublicKey().getAlgorithm(), HashAlgorithmTags.SHA256), keyPair.getPublicKey());
+        sigGen.init(signatureType, keyPair.getPrivateKey());
+
+        return sigGen;
+    }
+
+    public static void main(String[] args)
+    {
+        Security.addProvider(new BouncyCastleProvider());
+
+        runTest(new PGPMessagePipelineTest());
+    }
+}
@@ -84,7 +84,9 @@
 
         new PGPv5KeyTest(),
         new PGPv5MessageDecryptionTest(),
-        new PGPv6SignatureTest()
+        new PGPv6SignatureTest(),
+        new S2KKeyCacheTest(),
+        new PGPMessagePipelineTest()
     };
 
     public static void main(String[] args)
@@ -0,0 +1,197 @@
+package org.bouncycastle.openpgp.test;
+
+import java.security.SecureRandom;
+import java.security.Security;
+import java.util.Date;
+
+import org.bouncycastle.bcpg.HashAlgorithmTags;
+import org.bouncycastle.bcpg.PublicKeyAlgorithmTags;
+import org.bouncycastle.bcpg.S2K;
+import org.bouncycastle.bcpg.SymmetricKeyAlgorithmTags;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.openpgp.PGPException;
+import org.bouncycastle.openpgp.PGPKeyPair;
+import org.bouncycastle.openpgp.PGPPrivateKey;
+import org.bouncycastle.openpgp.PGPSecretKey;
+import org.bouncycastle.openpgp.operator.PBESecretKeyDecryptor;
+import org.bouncycastle.openpgp.operator.PGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.S2KKeyCache;
+import org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyDecryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPBESecretKeyEncryptorBuilder;
+import org.bouncycastle.openpgp.operator.bc.BcPGPDigestCalculatorProvider;
+import org.bouncycastle.openpgp.operator.bc.BcPGPKeyPair;
+import org.bouncycastle.openpgp.operator.jcajce.JcePBESecretKeyDecryptorBuilder;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.test.SimpleTest;
+
+public class S2KKeyCacheTest
+    extends SimpleTest
+{
+    private static final char[] passPhrase = "hello world!".toCharArray();
+
+    private final SecureRandom random = new SecureRandom();
+    private final PGPDigestCalculatorProvider digCalcProvider = new BcPGPDigestCalculatorProvider();
+
+    public String getName()
+    {
+        return "S2KKeyCacheTest";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        testSecretKeyUnlock();
+        testDerivation();
+        testEviction();
+        testExpiry();
+    }
+
+    private void testSecretKeyUnlock()
+        throws Exception
+    {
+        Ed25519KeyPairGenerator kpGen = new Ed25519KeyPairGenerator();
+        kpGen.init(new Ed25519KeyGenerationParameters(random));
+        PGPKeyPair keyPair = new BcPGPKeyPair(PublicKeyAlgorithmTags.Ed25519, kpGen.generateKeyPair(), new Date());
+
+        PGPSecretKey secretKey = new PGPSecretKey(keyPair.getPrivateKey(), keyPair.getPublicKey(),
+            digCalcProvider.get(HashAlgorithmTags.SHA1), true,
+            new BcPBESecretKeyEncryptorBuilder(SymmetricKeyAlgorithmTags.AES_128, digCalcProvider.get(HashAlgorithmTags.SHA256), 0x60).build(passPhrase));
+
+        byte[] expected = secretKey.extractPrivateKey(new BcPBESecretKeyDecryptorBuilder(digCalcProvider).build(passPhrase))
+            .getPrivateKeyDataPacket().getEncoded();
+
+        S2KKeyCache cache = new S2KKeyCache(4, 60000);
+        PBESecretKeyDecryptor bcDecryptor = new BcPBESecretKeyDecryptorBuilder(digCalcProvider).setKeyCache(cache).build(passPhrase);
+        PBESecretKeyDecryptor jceDecryptor = new JcePBESecretKeyDecryptorBuilder().setProvider("BC").setKeyCache(cache).build(passPhrase);
+
+        for (int i = 0; i != 3; i++)
+        {
+            PGPPrivateKey privKey = secretKey.extractPrivateKey(bcDecryptor);
+            isTrue("bc unlock " + i, Arrays.areEqual(expected, privKey.getPrivateKeyDataPacket().getEncoded()));
+            privKey = secretKey.extractPrivateKey(jceDecryptor);
+            isTrue("jce unlock " + i, Arrays.areEqual(expected, privKey.getPrivateKeyDataPacket().getEncoded()));
+        }
+        isEquals("one cached key", 1, cache.size());
+
+        try
+        {
+            secretKey.extractPrivateKey(new BcPBESecretKeyDecryptorBuilder(digCalcProvider).setKeyCache(cache).build("wrong".toCharArray()));
+            fail("wrong pass phrase accepted");
+        }
+        catch (PGPException e)
+        {
+            // expected
+        }
+
+        isTrue("still unlocks", Arrays.areEqual(expected, secretKey.extractPrivateKey(bcDecryptor).getPrivateKeyDataPacket().getEncoded()));
+
+        cache.purge();
+        isEquals("purged", 0, cache.size());
+        isTrue("unlocks after purge", Arrays.areEqual(expected, secretKey.extractPrivateKey(jceDecryptor).getPrivateKeyDataPacket().getEncoded()));
+    }
+
+    private void testDerivation()
+        throws Exception
+    {
+        S2KKeyCache cache = new S2KKeyCache(16, 60000);
+
+        S2K[] s2ks = new S2K[]{
+            S2K.saltedAndIteratedS2K(HashAlgorithmTags.SHA256, salt(), 0x60),
+            S2K.saltedS2K(HashAlgorithmTags.SHA1, salt()),
+            S2K.argon2S2K(new S2K.Argon2Params(Arrays.concatenate(salt(), salt()), 1, 1, 10))
+        };
+
+        for (int i = 0; i != s2ks.length; i++)
+        {
+            byte[] expected = derive(s2ks[i], passPhrase);
+
+            byte[] key = cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_256, s2ks[i], passPhrase);
+            isTrue("first derivation " + i, Arrays.areEqual(expected, key));
+
+            // callers may clear the returned key, the cached copy must be unaffected.
+            Arrays.fill(key, (byte)0);
+            isTrue("cached derivation " + i, Arrays.areEqual(expected, cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_256, s2ks[i], passPhrase)));
+
+            isTrue("other pass phrase " + i, !Arrays.areEqual(expected, cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_256, s2ks[i], "other".toCharArray())));
+            isEquals("other key size " + i, 16, cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s2ks[i], passPhrase).length);
+        }
+
+        isEquals("cached keys", 9, cache.size());
+    }
+
+    private void testEviction()
+        throws Exception
+    {
+        S2KKeyCache cache = new S2KKeyCache(2, 60000);
+        S2K s1 = S2K.saltedS2K(HashAlgorithmTags.SHA256, salt());
+        S2K s2 = S2K.saltedS2K(HashAlgorithmTags.SHA256, salt());
+        S2K s3 = S2K.saltedS2K(HashAlgorithmTags.SHA256, salt());
+
+        cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s1, passPhrase);
+        cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s2, passPhrase);
+        cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s1, passPhrase);
+        cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s3, passPhrase);
+        isEquals("bounded", 2, cache.size());
+
+        isTrue("evicted key rederived", Arrays.areEqual(derive(s2, passPhrase, SymmetricKeyAlgorithmTags.AES_128),
+            cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s2, passPhrase)));
+        isEquals("bounded", 2, cache.size());
+
+        try
+        {
+            new S2KKeyCache(0, 1000);
+            fail("no exception on zero maxEntries");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private void testExpiry()
+        throws Exception
+    {
+        S2KKeyCache cache = new S2KKeyCache(4, 1);
+        S2K s2k = S2K.saltedS2K(HashAlgorithmTags.SHA256, salt());
+
+        byte[] expected = cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s2k, passPhrase);
+        isEquals("cached key", 1, cache.size());
+
+        Thread.sleep(20);
+
+        isTrue("rederived after expiry", Arrays.areEqual(expected, cache.getKey(digCalcProvider, SymmetricKeyAlgorithmTags.AES_128, s2k, passPhrase)));
+
+        Thread.sleep(20);
+
+        cache.purgeExpired();
+        isEquals("expired", 0, cache.size());
+    }
+
+    private byte[] derive(S2K s2k, char[] passPhrase)
+        throws PGPException
+    {
+        return derive(s2k, passPhrase, SymmetricKeyAlgorithmTags.AES_256);
+    }
+
+    private byte[] derive(S2K s2k, char[] passPhrase, int keyAlgorithm)
+        throws PGPException
+    {
+        return new BcPBESecretKeyDecryptorBuilder(digCalcProvider).build(passPhrase).makeKeyFromPassPhrase(keyAlgorithm, s2k);
+    }
+
+    private byte[] salt()
+    {
+        byte[] salt = new byte[8];
+        random.nextBytes(salt);
+        return salt;
+    }
+
+    public static void main(String[] args)
+    {
+        Security.addProvider(new BouncyCastleProvider());
+
+        runTest(new S2KKeyCacheTest());
+    }
+}
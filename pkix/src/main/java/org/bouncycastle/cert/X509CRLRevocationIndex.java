@@ -0,0 +1,413 @@
+package org.bouncycastle.cert;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+
+import org.bouncycastle.asn1.ASN1BufferElement;
+import org.bouncycastle.asn1.ASN1BufferParser;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+
+/**
+ * A compact index of the certificate serial numbers revoked by a CRL, for fast revocation checks against very
+ * large CRLs without keeping the CRL, or any per-entry objects, on the heap.
+ * <p>
+ * The index is a table of fixed-width records, sorted by serial number, held in a direct buffer or in a
+ * memory-mapped file. An index is built with {@link X509CRLStreamParser#buildRevocationIndex()}, and one written to
+ * a file can be reopened with {@link #map(FileChannel)}.
+ * </p>
+ * <p>
+ * Note: the index does not record which CRL it was built from, or whether the CRL signature was valid. Indirect
+ * CRLs cannot be indexed, as their entries are only unique by issuer and serial number.
+ * </p>
+ */
+public class X509CRLRevocationIndex
+{
+    /**
+     * Reason returned for an entry without a reason code extension.
+     */
+    public static final int NO_REASON = -1;
+
+    private static final int MAGIC = 0x42435249;     // "BCRI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 28;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final ByteBuffer buf;
+    private final int serialWidth;
+    private final int recordLength;
+    private final int count;
+
+    private X509CRLRevocationIndex(ByteBuffer buf)
+        throws IOException
+    {
+        if (buf.capacity() < HEADER_LENGTH || buf.getInt(0) != MAGIC)
+        {
+            throw new IOException("not a CRL revocation index");
+        }
+        if (buf.get(4) != FORMAT_VERSION)
+        {
+            throw new IOException("unknown CRL revocation index version: " + buf.get(4));
+        }
+
+        this.buf = buf;
+        this.serialWidth = buf.get(5) & 0xFF;
+        this.recordLength = serialWidth + 9;
+        this.count = buf.getInt(8);
+
+        if (serialWidth < 1 || count < 0 || (buf.capacity() - HEADER_LENGTH) / recordLength < count)
+        {
+            throw new IOException("corrupted CRL revocation index");
+        }
+    }
+
+    /**
+     * Load an index from its encoding.
+     *
+     * @param encoding a buffer holding the encoding of an index, from its position onwards.
+     * @return the index.
+     * @throws IOException if the buffer does not hold a valid index.
+     */
+    public static X509CRLRevocationIndex getInstance(ByteBuffer encoding)
+        throws IOException
+    {
+        return new X509CRLRevocationIndex(encoding.slice());
+    }
+
+    /**
+     * Load an index written to a file by {@link X509CRLStreamParser#buildRevocationIndex(FileChannel)}, mapping
+     * the file into memory.
+     *
+     * @param indexFile the file holding the index.
+     * @return the index.
+     * @throws IOException if the file cannot be mapped, or does not hold a valid index.
+     */
+    public static X509CRLRevocationIndex map(FileChannel indexFile)
+        throws IOException
+    {
+        long size = indexFile.size();
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("file too large to map: " + size);
+        }
+
+        return new X509CRLRevocationIndex(indexFile.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    static X509CRLRevocationIndex build(X509CRLStreamParser parser, FileChannel indexFile)
+        throws IOException
+    {
+        if (parser.isIndirect())
+        {
+            throw new IllegalStateException("indirect CRLs cannot be indexed by serial number");
+        }
+
+        // a first pass over the entry headers, to find the number of entries and the widest serial number
+        int count = 0, serialWidth = 1;
+        ASN1BufferParser entries = parser.getEntriesParser();
+        if (entries != null)
+        {
+            ASN1BufferElement entry;
+            while ((entry = entries.readElement()) != null)
+            {
+                ASN1BufferElement serial = entry.getContentsParser().readElement();
+                if (serial == null)
+                {
+                    throw new CertIOException("malformed CRL entry: no serial number");
+                }
+                serialWidth = Math.max(serialWidth, serial.getContentsLength());
+                ++count;
+            }
+        }
+        if (serialWidth > 255)
+        {
+            throw new CertIOException("serial number too long to index");
+        }
+
+        int recordLength = serialWidth + 9;
+        long size = HEADER_LENGTH + (long)count * recordLength;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("CRL too large to index");
+        }
+
+        ByteBuffer buf;
+        if (indexFile == null)
+        {
+            buf = ByteBuffer.allocateDirect((int)size);
+        }
+        else
+        {
+            indexFile.truncate(0);
+            buf = indexFile.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        Date nextUpdate = parser.getNextUpdate();
+
+        buf.putInt(0, MAGIC);
+        buf.put(4, (byte)FORMAT_VERSION);
+        buf.put(5, (byte)serialWidth);
+        buf.putShort(6, (short)0);
+        buf.putInt(8, count);
+        buf.putLong(12, parser.getThisUpdate().getTime());
+        buf.putLong(20, nextUpdate == null ? NO_DATE : nextUpdate.getTime());
+
+        byte[] record = new byte[recordLength];
+        ByteBuffer out = buf.duplicate();
+        out.position(HEADER_LENGTH);
+
+        for (int i = 0; i < count; ++i)
+        {
+            X509CRLEntryHolder entry = parser.readEntry();
+
+            encodeSerial(entry.getSerialNumber(), record, serialWidth);
+            long revocationDate = entry.getRevocationDate().getTime();
+            for (int b = 0; b < 8; ++b)
+            {
+                record[serialWidth + b] = (byte)(revocationDate >>> (56 - 8 * b));
+            }
+            record[serialWidth + 8] = (byte)getReason(entry);
+
+            out.put(record);
+        }
+
+        sort(buf, count, serialWidth, recordLength);
+
+        if (buf instanceof MappedByteBuffer)
+        {
+            ((MappedByteBuffer)buf).force();
+        }
+
+        return new X509CRLRevocationIndex(buf);
+    }
+
+    /**
+     * Return the number of revoked serial numbers in the index.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Return the thisUpdate time of the CRL the index was built from.
+     */
+    public Date getThisUpdate()
+    {
+        return new Date(buf.getLong(12));
+    }
+
+    /**
+     * Return the nextUpdate time of the CRL the index was built from, null if it had none.
+     */
+    public Date getNextUpdate()
+    {
+        long nextUpdate = buf.getLong(20);
+
+        return (nextUpdate == NO_DATE) ? null : new Date(nextUpdate);
+    }
+
+    /**
+     * Return true if the passed in serial number is listed as revoked.
+     *
+     * @param serialNumber the certificate serial number to check.
+     * @return true if the serial number is in the index, false otherwise.
+     */
+    public boolean isRevoked(BigInteger serialNumber)
+    {
+        return find(serialNumber) >= 0;
+    }
+
+    /**
+     * Return the revocation date for the passed in serial number.
+     *
+     * @param serialNumber the certificate serial number to look up.
+     * @return the revocation date, null if the serial number is not in the index.
+     */
+    public Date getRevocationDate(BigInteger serialNumber)
+    {
+        int record = find(serialNumber);
+        if (record < 0)
+        {
+            return null;
+        }
+
+        return new Date(buf.getLong(record + serialWidth));
+    }
+
+    /**
+     * Return the revocation reason for the passed in serial number, as a {@link CRLReason} value.
+     *
+     * @param serialNumber the certificate serial number to look up.
+     * @return the reason code, or NO_REASON if the serial number is not in the index or the entry has no reason.
+     */
+    public int getRevocationReason(BigInteger serialNumber)
+    {
+        int record = find(serialNumber);
+        if (record < 0)
+        {
+            return NO_REASON;
+        }
+
+        return buf.get(record + serialWidth + 8);
+    }
+
+    /**
+     * Return a read-only view of the encoding of the index, e.g. for writing an off-heap index to storage.
+     */
+    public ByteBuffer getEncoding()
+    {
+        ByteBuffer encoding = buf.asReadOnlyBuffer();
+        encoding.clear();
+        encoding.limit(HEADER_LENGTH + count * recordLength);
+        return encoding;
+    }
+
+    private int find(BigInteger serialNumber)
+    {
+        byte[] key = new byte[serialWidth];
+        if (!encodeSerial(serialNumber, key, serialWidth))
+        {
+            return -1;
+        }
+
+        int low = 0, high = count - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int record = HEADER_LENGTH + mid * recordLength;
+
+            int c = compare(buf, record, key, serialWidth);
+            if (c < 0)
+            {
+                low = mid + 1;
+            }
+            else if (c > 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                return record;
+            }
+        }
+        return -1;
+    }
+
+    private static int getReason(X509CRLEntryHolder entry)
+    {
+        Extension reason = entry.getExtension(Extension.reasonCode);
+        if (reason == null)
+        {
+            return NO_REASON;
+        }
+
+        return CRLReason.getInstance(reason.getParsedValue()).getValue().intValue();
+    }
+
+    /**
+     * Write the two's complement encoding of a serial number, sign extended to width octets.
+     */
+    private static boolean encodeSerial(BigInteger serialNumber, byte[] out, int width)
+    {
+        byte[] value = serialNumber.toByteArray();
+        if (value.length > width)
+        {
+            return false;
+        }
+
+        byte pad = (byte)(value[0] >> 7);
+        int padLength = width - value.length;
+        for (int i = 0; i < padLength; ++i)
+        {
+            out[i] = pad;
+        }
+        System.arraycopy(value, 0, out, padLength, value.length);
+        return true;
+    }
+
+    /**
+     * Compare the serial number of a record with a key, as signed integers.
+     */
+    private static int compare(ByteBuffer buf, int record, byte[] key, int width)
+    {
+        int c = buf.get(record) - key[0];
+        for (int i = 1; c == 0 && i < width; ++i)
+        {
+            c = (buf.get(record + i) & 0xFF) - (key[i] & 0xFF);
+        }
+        return c;
+    }
+
+    private static int compareRecords(ByteBuffer buf, int a, int b, int width)
+    {
+        int c = buf.get(a) - buf.get(b);
+        for (int i = 1; c == 0 && i < width; ++i)
+        {
+            c = (buf.get(a + i) & 0xFF) - (buf.get(b + i) & 0xFF);
+        }
+        return c;
+    }
+
+    /**
+     * Heap sort the records in place, so sorting needs no more heap than two records, whatever the CRL size.
+     */
+    private static void sort(ByteBuffer buf, int count, int width, int recordLength)
+    {
+        byte[] tmpA = new byte[recordLength], tmpB = new byte[recordLength];
+
+        for (int i = count / 2 - 1; i >= 0; --i)
+        {
+            siftDown(buf, i, count, width, recordLength, tmpA, tmpB);
+        }
+        for (int end = count - 1; end > 0; --end)
+        {
+            swap(buf, HEADER_LENGTH, HEADER_LENGTH + end * recordLength, tmpA, tmpB);
+            siftDown(buf, 0, end, width, recordLength, tmpA, tmpB);
+        }
+    }
+
+    private static void siftDown(ByteBuffer buf, int root, int count, int width, int recordLength, byte[] tmpA,
+        byte[] tmpB)
+    {
+        int child;
+        while ((child = 2 * root + 1) < count)
+        {
+            int childRecord = HEADER_LENGTH + child * recordLength;
+            if (child + 1 < count && compareRecords(buf, childRecord, childRecord + recordLength, width) < 0)
+            {
+                ++child;
+                childRecord += recordLength;
+            }
+
+            int rootRecord = HEADER_LENGTH + root * recordLength;
+            if (compareRecords(buf, rootRecord, childRecord, width) >= 0)
+            {
+                return;
+            }
+
+            swap(buf, rootRecord, childRecord, tmpA, tmpB);
+            root = child;
+        }
+    }
+
+    private static void swap(ByteBuffer buf, int a, int b, byte[] tmpA, byte[] tmpB)
+    {
+        ByteBuffer dup = buf.duplicate();
+
+        dup.clear();
+        dup.position(a);
+        dup.get(tmpA);
+        dup.position(b);
+        dup.get(tmpB);
+
+        dup.position(a);
+        dup.put(tmpB);
+        dup.position(b);
+        dup.put(tmpA);
+    }
+}
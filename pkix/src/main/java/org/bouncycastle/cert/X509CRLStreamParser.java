@@ -0,0 +1,455 @@
+package org.bouncycastle.cert;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+
+import org.bouncycastle.asn1.ASN1BitString;
+import org.bouncycastle.asn1.ASN1BufferElement;
+import org.bouncycastle.asn1.ASN1BufferParser;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1TaggedObject;
+import org.bouncycastle.asn1.BERTags;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.IssuingDistributionPoint;
+import org.bouncycastle.asn1.x509.TBSCertList;
+import org.bouncycastle.asn1.x509.Time;
+import org.bouncycastle.operator.ContentVerifier;
+import org.bouncycastle.operator.ContentVerifierProvider;
+
+/**
+ * A reader for large X.509 CRLs which returns the revoked certificate entries one at a time, rather than
+ * loading the whole CRL as {@link X509CRLHolder} does.
+ * <p>
+ * The CRL is read from a buffer, typically a memory-mapped file (see {@link #map(FileChannel)}), and only the
+ * header fields and the CRL extensions are parsed up front. If a {@link ContentVerifierProvider} is passed in, the
+ * signature is checked incrementally: the TBSCertList octets are passed to the verifier as the entries are read,
+ * and {@link #isSignatureValid()} completes the check.
+ * </p>
+ * <p>
+ * Note: entries are returned before the signature over them has been checked. Callers acting on the entries
+ * must discard anything they have read if isSignatureValid() does not return true.
+ * </p>
+ */
+public class X509CRLStreamParser
+{
+    private static final int FEED_CHUNK_SIZE = 8192;
+
+    private final ByteBuffer buf;
+    private final ContentVerifierProvider verifierProvider;
+
+    private final int tbsStart;
+    private final int tbsEnd;
+    private final int versionNumber;
+    private final AlgorithmIdentifier tbsSignatureAlgorithm;
+    private final X500Name issuer;
+    private final Time thisUpdate;
+    private final Time nextUpdate;
+    private final ASN1BufferElement revokedCertificates;
+    private final Extensions extensions;
+    private final boolean isIndirect;
+    private final AlgorithmIdentifier signatureAlgorithm;
+    private final ASN1BitString signature;
+
+    private ASN1BufferParser entries;
+    private GeneralNames currentCA;
+    private int entriesRead;
+
+    private ContentVerifier verifier;
+    private OutputStream verifierOut;
+    private int fed;
+    private Boolean signatureValid;
+
+    /**
+     * Create a parser for the CRL encoding in a byte array.
+     *
+     * @param crlEncoding BER/DER encoding of the CRL.
+     * @throws IOException in the event of corrupted data, or an incorrect structure.
+     */
+    public X509CRLStreamParser(byte[] crlEncoding)
+        throws IOException
+    {
+        this(ByteBuffer.wrap(crlEncoding), null);
+    }
+
+    /**
+     * Create a parser for the CRL encoding at the position of a buffer.
+     *
+     * @param crlEncoding buffer holding the BER/DER encoding of the CRL.
+     * @throws IOException in the event of corrupted data, or an incorrect structure.
+     */
+    public X509CRLStreamParser(ByteBuffer crlEncoding)
+        throws IOException
+    {
+        this(crlEncoding, null);
+    }
+
+    /**
+     * Create a parser for the CRL encoding at the position of a buffer, checking the CRL signature as the entries
+     * are read.
+     *
+     * @param crlEncoding      buffer holding the BER/DER encoding of the CRL.
+     * @param verifierProvider provider of the verifier for the CRL signature, null if the signature is not checked.
+     * @throws IOException in the event of corrupted data, an incorrect structure, or if a verifier for the signature
+     * algorithm cannot be created.
+     */
+    public X509CRLStreamParser(ByteBuffer crlEncoding, ContentVerifierProvider verifierProvider)
+        throws IOException
+    {
+        this.buf = crlEncoding.duplicate();
+        this.verifierProvider = verifierProvider;
+
+        try
+        {
+            ASN1BufferParser crlParser = new ASN1BufferParser(crlEncoding)
+                .readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE).getContentsParser();
+
+            ASN1BufferElement tbs = crlParser.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE);
+            this.signatureAlgorithm = AlgorithmIdentifier.getInstance(
+                crlParser.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE).toASN1Primitive());
+            this.signature = ASN1BitString.getInstance(
+                crlParser.readElement(BERTags.UNIVERSAL, BERTags.BIT_STRING).toASN1Primitive());
+            if (crlParser.hasMoreElements())
+            {
+                throw new CertIOException("malformed data: unexpected data after CRL signature");
+            }
+
+            this.tbsStart = tbs.getOffset();
+            this.tbsEnd = tbs.getOffset() + tbs.getEncodedLength();
+
+            ASN1BufferParser tbsParser = tbs.getContentsParser();
+
+            ASN1BufferElement version = tbsParser.readOptionalElement(BERTags.UNIVERSAL, BERTags.INTEGER);
+            this.versionNumber = (version == null) ? 1 : version.getInteger().intValue() + 1;
+            this.tbsSignatureAlgorithm = AlgorithmIdentifier.getInstance(
+                tbsParser.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE).toASN1Primitive());
+            this.issuer = X500Name.getInstance(
+                tbsParser.readElement(BERTags.UNIVERSAL, BERTags.SEQUENCE).toASN1Primitive());
+            this.thisUpdate = Time.getInstance(readTime(tbsParser, true).toASN1Primitive());
+
+            ASN1BufferElement next = readTime(tbsParser, false);
+            this.nextUpdate = (next == null) ? null : Time.getInstance(next.toASN1Primitive());
+
+            this.revokedCertificates = tbsParser.readOptionalElement(BERTags.UNIVERSAL, BERTags.SEQUENCE);
+
+            ASN1BufferElement crlExtensions = tbsParser.readOptionalElement(BERTags.CONTEXT_SPECIFIC, 0);
+            this.extensions = (crlExtensions == null) ? null
+                : Extensions.getInstance(ASN1TaggedObject.getInstance(crlExtensions.toASN1Primitive()), true);
+            if (tbsParser.hasMoreElements())
+            {
+                throw new CertIOException("malformed data: unexpected data in TBSCertList");
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new CertIOException("malformed data: " + e.getMessage(), e);
+        }
+        catch (ClassCastException e)
+        {
+            throw new CertIOException("malformed data: " + e.getMessage(), e);
+        }
+
+        this.isIndirect = isIndirectCRL(extensions);
+        this.currentCA = new GeneralNames(new GeneralName(issuer));
+        this.entries = (revokedCertificates == null) ? null : revokedCertificates.getContentsParser();
+        this.fed = tbsStart;
+
+        if (verifierProvider != null)
+        {
+            try
+            {
+                this.verifier = verifierProvider.get(tbsSignatureAlgorithm);
+            }
+            catch (Exception e)
+            {
+                throw new CertIOException("unable to create verifier: " + e.getMessage(), e);
+            }
+            this.verifierOut = verifier.getOutputStream();
+        }
+    }
+
+    /**
+     * Create a parser for a CRL stored in a file, mapping the file into memory.
+     *
+     * @param channel          the file holding the BER/DER encoding of the CRL.
+     * @param verifierProvider provider of the verifier for the CRL signature, null if the signature is not checked.
+     * @return a parser for the CRL.
+     * @throws IOException if the file cannot be mapped, in the event of corrupted data, or an incorrect structure.
+     */
+    public static X509CRLStreamParser map(FileChannel channel, ContentVerifierProvider verifierProvider)
+        throws IOException
+    {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new IOException("file too large to map: " + size);
+        }
+
+        return new X509CRLStreamParser(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), verifierProvider);
+    }
+
+    private static ASN1BufferElement readTime(ASN1BufferParser parser, boolean required)
+        throws IOException
+    {
+        ASN1BufferElement time = parser.readOptionalElement(BERTags.UNIVERSAL, BERTags.UTC_TIME);
+        if (time == null)
+        {
+            time = parser.readOptionalElement(BERTags.UNIVERSAL, BERTags.GENERALIZED_TIME);
+        }
+        if (time == null && required)
+        {
+            throw new CertIOException("malformed data: thisUpdate not found");
+        }
+        return time;
+    }
+
+    private static boolean isIndirectCRL(Extensions extensions)
+    {
+        if (extensions == null)
+        {
+            return false;
+        }
+
+        Extension ext = extensions.getExtension(Extension.issuingDistributionPoint);
+
+        return ext != null && IssuingDistributionPoint.getInstance(ext.getParsedValue()).isIndirectCRL();
+    }
+
+    public int getVersionNumber()
+    {
+        return versionNumber;
+    }
+
+    public X500Name getIssuer()
+    {
+        return issuer;
+    }
+
+    public Date getThisUpdate()
+    {
+        return thisUpdate.getDate();
+    }
+
+    public Date getNextUpdate()
+    {
+        if (nextUpdate != null)
+        {
+            return nextUpdate.getDate();
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the signature algorithm of the CRL.
+     *
+     * @return the outer signature algorithm identifier.
+     */
+    public AlgorithmIdentifier getSignatureAlgorithm()
+    {
+        return signatureAlgorithm;
+    }
+
+    /**
+     * Return whether or not the CRL contains extensions.
+     *
+     * @return true if extension are present, false otherwise.
+     */
+    public boolean hasExtensions()
+    {
+        return extensions != null;
+    }
+
+    /**
+     * Look up the extension associated with the passed in OID.
+     *
+     * @param oid the OID of the extension of interest.
+     * @return the extension if present, null otherwise.
+     */
+    public Extension getExtension(ASN1ObjectIdentifier oid)
+    {
+        if (extensions != null)
+        {
+            return extensions.getExtension(oid);
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the extensions block associated with the CRL if there is one.
+     *
+     * @return the extensions block, null otherwise.
+     */
+    public Extensions getExtensions()
+    {
+        return extensions;
+    }
+
+    /**
+     * Return true if the CRL is an indirect CRL, as indicated by its IssuingDistributionPoint extension.
+     */
+    public boolean isIndirect()
+    {
+        return isIndirect;
+    }
+
+    /**
+     * Read the next revoked certificate entry.
+     *
+     * @return the next entry, null if all entries have been read.
+     * @throws IOException in the event of a corrupted entry, or if the entry cannot be passed to the verifier.
+     */
+    public X509CRLEntryHolder readEntry()
+        throws IOException
+    {
+        if (entries == null)
+        {
+            return null;
+        }
+
+        ASN1BufferElement element = entries.readElement();
+        if (element == null)
+        {
+            entries = null;
+            return null;
+        }
+
+        feed(element.getOffset() + element.getEncodedLength());
+
+        TBSCertList.CRLEntry entry;
+        try
+        {
+            entry = TBSCertList.CRLEntry.getInstance(element.toASN1Primitive());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new CertIOException("malformed CRL entry: " + e.getMessage(), e);
+        }
+
+        X509CRLEntryHolder holder = new X509CRLEntryHolder(entry, isIndirect, currentCA);
+
+        currentCA = holder.getCertificateIssuer();
+        ++entriesRead;
+
+        return holder;
+    }
+
+    /**
+     * Complete the signature check on the CRL, passing any part of it not yet read to the verifier.
+     *
+     * @return true if the signature is valid, false otherwise.
+     * @throws CertException if the signature cannot be processed or is inappropriate.
+     * @throws IllegalStateException if no verifier provider was passed to the constructor.
+     */
+    public boolean isSignatureValid()
+        throws CertException
+    {
+        if (verifierProvider == null)
+        {
+            throw new IllegalStateException("no verifier provider configured");
+        }
+
+        if (signatureValid == null)
+        {
+            if (!CertUtils.isAlgIdEqual(tbsSignatureAlgorithm, signatureAlgorithm))
+            {
+                throw new CertException("signature invalid - algorithm identifier mismatch");
+            }
+
+            try
+            {
+                feed(tbsEnd);
+                verifierOut.close();
+            }
+            catch (Exception e)
+            {
+                throw new CertException("unable to process signature: " + e.getMessage(), e);
+            }
+
+            signatureValid = Boolean.valueOf(verifier.verify(signature.getOctets()));
+        }
+
+        return signatureValid.booleanValue();
+    }
+
+    /**
+     * Build an off-heap index of the serial numbers revoked by this CRL, reading all the entries. The signature
+     * check, if any, is then completed with isSignatureValid().
+     *
+     * @return an index held in a direct buffer.
+     * @throws IOException in the event of a corrupted entry.
+     * @throws IllegalStateException if entries have already been read, or the CRL is indirect.
+     */
+    public X509CRLRevocationIndex buildRevocationIndex()
+        throws IOException
+    {
+        return X509CRLRevocationIndex.build(this, null);
+    }
+
+    /**
+     * Build an index of the serial numbers revoked by this CRL in a file, reading all the entries. The file is
+     * replaced by the index and the returned index is mapped from it; it can be reopened later using
+     * {@link X509CRLRevocationIndex#map(FileChannel)}.
+     *
+     * @param indexFile a file opened for reading and writing.
+     * @return an index mapped from indexFile.
+     * @throws IOException in the event of a corrupted entry, or if the index cannot be written.
+     * @throws IllegalStateException if entries have already been read, or the CRL is indirect.
+     */
+    public X509CRLRevocationIndex buildRevocationIndex(FileChannel indexFile)
+        throws IOException
+    {
+        return X509CRLRevocationIndex.build(this, indexFile);
+    }
+
+    /**
+     * Return a parser over all the entries, without consuming any (used to size an index).
+     */
+    ASN1BufferParser getEntriesParser()
+    {
+        if (entriesRead != 0 || (revokedCertificates != null && entries == null))
+        {
+            throw new IllegalStateException("entries have already been read");
+        }
+
+        return (revokedCertificates == null) ? null : revokedCertificates.getContentsParser();
+    }
+
+    private void feed(int to)
+        throws IOException
+    {
+        if (verifierOut == null || to <= fed)
+        {
+            return;
+        }
+
+        if (buf.hasArray())
+        {
+            verifierOut.write(buf.array(), buf.arrayOffset() + fed, to - fed);
+        }
+        else
+        {
+            byte[] chunk = new byte[Math.min(FEED_CHUNK_SIZE, to - fed)];
+            ByteBuffer dup = buf.duplicate();
+            dup.clear();
+            dup.position(fed);
+            for (int remaining = to - fed; remaining > 0; )
+            {
+                int count = Math.min(remaining, chunk.length);
+                dup.get(chunk, 0, count);
+                verifierOut.write(chunk, 0, count);
+                remaining -= count;
+            }
+        }
+
+        fed = to;
+    }
+}
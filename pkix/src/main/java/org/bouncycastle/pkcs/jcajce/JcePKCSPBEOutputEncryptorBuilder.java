@@ -203,7 +203,8 @@ else if (algorithm.equals(PKCSObjectIdentifiers.id_PBES2))
 
                     key = keyFact.generateSecret(new ScryptKeySpec(password,
                         salt, skdf.getCostParameter(), skdf.getBlockSize(), skdf.getParallelizationParameter(),
-                                                 keySizeProvider.getKeySize(new AlgorithmIdentifier(keyEncAlgorithm))));
+                                                 keySizeProvider.getKeySize(new AlgorithmIdentifier(keyEncAlgorithm)),
+                                                 skdf.getExecutor(), skdf.getMaxParallelism()));
 
                     cipher = helper.createCipher(keyEncAlgorithm.getId());
 
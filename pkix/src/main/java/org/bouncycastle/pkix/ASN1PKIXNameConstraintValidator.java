@@ -53,6 +53,11 @@
 
     private Set permittedSubtreesOtherName;
 
+    // the DN subtrees as RDN arrays, rebuilt whenever the DN subtree sets change
+    private RDN[][] excludedSubtreesDNRDNs = new RDN[0][];
+
+    private RDN[][] permittedSubtreesDNRDNs;
+
     public ASN1PKIXNameConstraintValidator()
     {
     }
@@ -185,6 +190,7 @@ public void intersectPermittedSubtree(GeneralSubtree[] permitted)
             case GeneralName.directoryName:
                 permittedSubtreesDN = intersectDN(permittedSubtreesDN,
                     (Set)entry.getValue());
+                permittedSubtreesDNRDNs = toRDNs(permittedSubtreesDN);
                 break;
             case GeneralName.uniformResourceIdentifier:
                 permittedSubtreesURI = intersectURI(permittedSubtreesURI,
@@ -215,6 +221,7 @@ public void intersectEmptyPermittedSubtree(int nameType)
             break;
         case GeneralName.directoryName:
             permittedSubtreesDN = new HashSet();
+            permittedSubtreesDNRDNs = new RDN[0][];
             break;
         case GeneralName.uniformResourceIdentifier:
             permittedSubtreesURI = new HashSet();
@@ -253,6 +260,7 @@ public void addExcludedSubtree(GeneralSubtree subtree)
         case GeneralName.directoryName:
             excludedSubtreesDN = unionDN(excludedSubtreesDN,
                 (ASN1Sequence)base.getName().toASN1Primitive());
+            excludedSubtreesDNRDNs = toRDNs(excludedSubtreesDN);
             break;
         case GeneralName.uniformResourceIdentifier:
             excludedSubtreesURI = unionURI(excludedSubtreesURI,
@@ -307,51 +315,88 @@ && collectionsAreEqual(constraintValidator.permittedSubtreesURI, permittedSubtre
     public void checkPermittedDN(X500Name dns)
         throws NameConstraintValidatorException
     {
-        checkPermittedDN(permittedSubtreesDN, ASN1Sequence.getInstance(dns.toASN1Primitive()));
+        checkPermittedDN(permittedSubtreesDNRDNs, dns.getRDNs());
     }
 
     public void checkExcludedDN(X500Name dns)
         throws NameConstraintValidatorException
     {
-        checkExcludedDN(excludedSubtreesDN, ASN1Sequence.getInstance(dns));
+        checkExcludedDN(excludedSubtreesDNRDNs, dns.getRDNs());
     }
 
     private static boolean withinDNSubtree(
         ASN1Sequence dns,
         ASN1Sequence subtree)
     {
-        if (subtree.size() < 1)
+        return withinDNSubtree(toRDNs(dns), toRDNs(subtree));
+    }
+
+    private static RDN[] toRDNs(ASN1Sequence name)
+    {
+        RDN[] rdns = new RDN[name.size()];
+        for (int i = 0; i != rdns.length; i++)
+        {
+            rdns[i] = RDN.getInstance(name.getObjectAt(i));
+        }
+        return rdns;
+    }
+
+    private static RDN[][] toRDNs(Set subtrees)
+    {
+        if (subtrees == null)
+        {
+            return null;
+        }
+
+        RDN[][] rdns = new RDN[subtrees.size()][];
+        int i = 0;
+        for (Iterator it = subtrees.iterator(); it.hasNext();)
+        {
+            rdns[i++] = toRDNs((ASN1Sequence)it.next());
+        }
+        return rdns;
+    }
+
+    /*
+     * RDNs cache their canonical form, so working on RDN arrays means each RDN is only canonicalised once per
+     * check, and the RDNs of an X500Name only once.
+     */
+    private static boolean withinDNSubtree(
+        RDN[] dns,
+        RDN[] subtree)
+    {
+        if (subtree.length < 1)
         {
             return false;
         }
 
-        if (subtree.size() > dns.size())
+        if (subtree.length > dns.length)
         {
             return false;
         }
 
         int start = 0;
-        RDN subtreeRdnStart = RDN.getInstance(subtree.getObjectAt(0));
-        for (int j = 0; j < dns.size(); j++)
+        RDN subtreeRdnStart = subtree[0];
+        for (int j = 0; j < dns.length; j++)
         {
             start = j;
-            RDN dnsRdn = RDN.getInstance(dns.getObjectAt(j));
+            RDN dnsRdn = dns[j];
             if (dnsRdn.equals(subtreeRdnStart))
             {
                 break;
             }
         }
 
-        if (subtree.size() > dns.size() - start)
+        if (subtree.length > dns.length - start)
         {
             return false;
         }
 
-        for (int j = 0; j < subtree.size(); j++)
+        for (int j = 0; j < subtree.length; j++)
         {
             // both subtree and dns are a ASN.1 Name and the elements are a RDN
-            RDN subtreeRdn = RDN.getInstance(subtree.getObjectAt(j));
-            RDN dnsRdn = RDN.getInstance(dns.getObjectAt(start + j));
+            RDN subtreeRdn = subtree[j];
+            RDN dnsRdn = dns[start + j];
 
             // check if types and values of all naming attributes are matching, other types which are not restricted are allowed, see https://tools.ietf.org/html/rfc5280#section-7.1
             if (subtreeRdn.size() == dnsRdn.size())
@@ -388,7 +433,7 @@ else if (!IETFUtils.rDNAreEqual(subtreeRdn, dnsRdn))
         return true;
     }
 
-    private void checkPermittedDN(Set permitted, ASN1Sequence dns)
+    private void checkPermittedDN(RDN[][] permitted, RDN[] dns)
         throws NameConstraintValidatorException
     {
         if (permitted == null)
@@ -396,17 +441,14 @@ private void checkPermittedDN(Set permitted, ASN1Sequence dns)
             return;
         }
 
-        if (permitted.isEmpty() && dns.size() == 0)
+        if (permitted.length == 0 && dns.length == 0)
         {
             return;
         }
-        Iterator it = permitted.iterator();
 
-        while (it.hasNext())
+        for (int i = 0; i != permitted.length; i++)
         {
-            ASN1Sequence subtree = (ASN1Sequence)it.next();
-
-            if (withinDNSubtree(dns, subtree))
+            if (withinDNSubtree(dns, permitted[i]))
             {
                 return;
             }
@@ -416,21 +458,12 @@ private void checkPermittedDN(Set permitted, ASN1Sequence dns)
             "Subject distinguished name is not from a permitted subtree");
     }
 
-    private void checkExcludedDN(Set excluded, ASN1Sequence dns)
+    private void checkExcludedDN(RDN[][] excluded, RDN[] dns)
         throws NameConstraintValidatorException
     {
-        if (excluded.isEmpty())
+        for (int i = 0; i != excluded.length; i++)
         {
-            return;
-        }
-
-        Iterator it = excluded.iterator();
-
-        while (it.hasNext())
-        {
-            ASN1Sequence subtree = (ASN1Sequence)it.next();
-
-            if (withinDNSubtree(dns, subtree))
+            if (withinDNSubtree(dns, excluded[i]))
             {
                 throw new NameConstraintValidatorException(
                     "Subject distinguished name is from an excluded subtree");
@@ -0,0 +1,325 @@
+package org.bouncycastle.cert.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Security;
+import java.util.Date;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLNumber;
+import org.bouncycastle.asn1.x509.CRLReason;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.X509CRLEntryHolder;
+import org.bouncycastle.cert.X509CRLHolder;
+import org.bouncycastle.cert.X509CRLRevocationIndex;
+import org.bouncycastle.cert.X509CRLStreamParser;
+import org.bouncycastle.cert.X509v2CRLBuilder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.ContentVerifierProvider;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+
+public class X509CRLStreamParserTest
+    extends TestCase
+{
+    private static final int ENTRY_COUNT = 1500;
+
+    private KeyPair keyPair;
+    private ContentVerifierProvider verifierProvider;
+    private Date thisUpdate;
+
+    public void setUp()
+        throws Exception
+    {
+        if (Security.getProvider("BC") == null)
+        {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+
+        KeyPairGenerator kpGen = KeyPairGenerator.getInstance("EC", "BC");
+        kpGen.initialize(256);
+        keyPair = kpGen.generateKeyPair();
+
+        verifierProvider = new JcaContentVerifierProviderBuilder().setProvider("BC").build(keyPair.getPublic());
+        thisUpdate = new Date((System.currentTimeMillis() / 1000) * 1000);
+    }
+
+    public void testEntries()
+        throws Exception
+    {
+        byte[] encoding = createCRL(ENTRY_COUNT, true);
+        X509CRLHolder holder = new X509CRLHolder(encoding);
+
+        X509CRLStreamParser parser = new X509CRLStreamParser(ByteBuffer.wrap(encoding), verifierProvider);
+
+        assertEquals(2, parser.getVersionNumber());
+        assertEquals(holder.getIssuer(), parser.getIssuer());
+        assertEquals(holder.getThisUpdate(), parser.getThisUpdate());
+        assertEquals(holder.getNextUpdate(), parser.getNextUpdate());
+        assertEquals(holder.getExtensions(), parser.getExtensions());
+        assertEquals(holder.getExtension(Extension.cRLNumber), parser.getExtension(Extension.cRLNumber));
+        assertFalse(parser.isIndirect());
+
+        int count = 0;
+        for (Iterator it = holder.getRevokedCertificates().iterator(); it.hasNext(); )
+        {
+            X509CRLEntryHolder expected = (X509CRLEntryHolder)it.next();
+            X509CRLEntryHolder entry = parser.readEntry();
+
+            assertEquals(expected.getSerialNumber(), entry.getSerialNumber());
+            assertEquals(expected.getRevocationDate(), entry.getRevocationDate());
+            assertEquals(expected.getExtensions(), entry.getExtensions());
+            assertEquals(expected.getCertificateIssuer(), entry.getCertificateIssuer());
+            count++;
+        }
+        assertEquals(ENTRY_COUNT, count);
+        assertNull(parser.readEntry());
+
+        assertTrue(parser.isSignatureValid());
+    }
+
+    public void testSignatureWithoutReading()
+        throws Exception
+    {
+        byte[] encoding = createCRL(100, false);
+
+        X509CRLStreamParser parser = new X509CRLStreamParser(ByteBuffer.wrap(encoding), verifierProvider);
+        parser.readEntry();
+        assertTrue(parser.isSignatureValid());
+
+        // entries can still be read after the check
+        assertNotNull(parser.readEntry());
+
+        try
+        {
+            new X509CRLStreamParser(encoding).isSignatureValid();
+            fail("no exception");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("no verifier provider configured", e.getMessage());
+        }
+    }
+
+    public void testTamperedEntry()
+        throws Exception
+    {
+        byte[] encoding = createCRL(100, false);
+
+        // change the last octet of the last serial number in the CRL
+        X509CRLStreamParser parser = new X509CRLStreamParser(encoding);
+        X509CRLEntryHolder last = null, entry;
+        while ((entry = parser.readEntry()) != null)
+        {
+            last = entry;
+        }
+        byte[] serial = last.getSerialNumber().toByteArray();
+        int pos = indexOf(encoding, serial);
+        encoding[pos + serial.length - 1] ^= 1;
+
+        parser = new X509CRLStreamParser(ByteBuffer.wrap(encoding), verifierProvider);
+        while (parser.readEntry() != null)
+        {
+            // read every entry
+        }
+        assertFalse(parser.isSignatureValid());
+    }
+
+    public void testIndex()
+        throws Exception
+    {
+        byte[] encoding = createCRL(ENTRY_COUNT, true);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoding.length);
+        direct.put(encoding);
+        direct.flip();
+
+        X509CRLStreamParser parser = new X509CRLStreamParser(direct, verifierProvider);
+        X509CRLRevocationIndex index = parser.buildRevocationIndex();
+        assertTrue(parser.isSignatureValid());
+
+        checkIndex(new X509CRLHolder(encoding), index);
+
+        // reload from the encoding
+        ByteBuffer copy = ByteBuffer.allocate(index.getEncoding().remaining());
+        copy.put(index.getEncoding());
+        copy.flip();
+        checkIndex(new X509CRLHolder(encoding), X509CRLRevocationIndex.getInstance(copy));
+
+        try
+        {
+            parser.buildRevocationIndex();
+            fail("no exception");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("entries have already been read", e.getMessage());
+        }
+    }
+
+    public void testIndexFile()
+        throws Exception
+    {
+        byte[] encoding = createCRL(ENTRY_COUNT, true);
+
+        File crlFile = File.createTempFile("bccrl", ".crl");
+        File indexFile = File.createTempFile("bccrl", ".idx");
+        try
+        {
+            RandomAccessFile crl = new RandomAccessFile(crlFile, "rw");
+            crl.write(encoding);
+
+            RandomAccessFile idx = new RandomAccessFile(indexFile, "rw");
+            X509CRLStreamParser parser = X509CRLStreamParser.map(crl.getChannel(), verifierProvider);
+            X509CRLRevocationIndex index = parser.buildRevocationIndex(idx.getChannel());
+            assertTrue(parser.isSignatureValid());
+            checkIndex(new X509CRLHolder(encoding), index);
+
+            crl.close();
+            idx.close();
+
+            idx = new RandomAccessFile(indexFile, "r");
+            try
+            {
+                checkIndex(new X509CRLHolder(encoding), X509CRLRevocationIndex.map(idx.getChannel()));
+            }
+            finally
+            {
+                idx.close();
+            }
+        }
+        finally
+        {
+            crlFile.delete();
+            indexFile.delete();
+        }
+    }
+
+    public void testEmptyCRL()
+        throws Exception
+    {
+        byte[] encoding = createCRL(0, false);
+
+        X509CRLStreamParser parser = new X509CRLStreamParser(ByteBuffer.wrap(encoding), verifierProvider);
+        assertNull(parser.getNextUpdate());
+        assertNull(parser.readEntry());
+        assertTrue(parser.isSignatureValid());
+
+        X509CRLRevocationIndex index = new X509CRLStreamParser(encoding).buildRevocationIndex();
+        assertEquals(0, index.size());
+        assertNull(index.getNextUpdate());
+        assertFalse(index.isRevoked(BigInteger.ONE));
+    }
+
+    public void testMalformed()
+        throws Exception
+    {
+        try
+        {
+            new X509CRLStreamParser(new byte[]{ 0x30, 0x03, 0x02, 0x01, 0x01 });
+            fail("no exception");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            X509CRLRevocationIndex.getInstance(ByteBuffer.wrap(new byte[32]));
+            fail("no exception");
+        }
+        catch (IOException e)
+        {
+            assertEquals("not a CRL revocation index", e.getMessage());
+        }
+    }
+
+    private void checkIndex(X509CRLHolder crl, X509CRLRevocationIndex index)
+    {
+        assertEquals(ENTRY_COUNT, index.size());
+        assertEquals(crl.getThisUpdate(), index.getThisUpdate());
+        assertEquals(crl.getNextUpdate(), index.getNextUpdate());
+
+        for (Iterator it = crl.getRevokedCertificates().iterator(); it.hasNext(); )
+        {
+            X509CRLEntryHolder entry = (X509CRLEntryHolder)it.next();
+            BigInteger serial = entry.getSerialNumber();
+
+            assertTrue(index.isRevoked(serial));
+            assertEquals(entry.getRevocationDate(), index.getRevocationDate(serial));
+
+            Extension reason = entry.getExtension(Extension.reasonCode);
+            int expected = (reason == null) ? X509CRLRevocationIndex.NO_REASON
+                : CRLReason.getInstance(reason.getParsedValue()).getValue().intValue();
+            assertEquals(expected, index.getRevocationReason(serial));
+
+            assertFalse(index.isRevoked(serial.add(BigInteger.ONE)));
+        }
+
+        assertFalse(index.isRevoked(BigInteger.ZERO));
+        assertFalse(index.isRevoked(BigInteger.ONE.shiftLeft(400)));
+        assertNull(index.getRevocationDate(BigInteger.ZERO));
+        assertEquals(X509CRLRevocationIndex.NO_REASON, index.getRevocationReason(BigInteger.ZERO));
+    }
+
+    private byte[] createCRL(int entryCount, boolean withNextUpdate)
+        throws Exception
+    {
+        X509v2CRLBuilder crlGen = new X509v2CRLBuilder(new X500Name("CN=Test CA"), thisUpdate);
+
+        if (withNextUpdate)
+        {
+            crlGen.setNextUpdate(new Date(thisUpdate.getTime() + 7 * 24 * 60 * 60 * 1000L));
+        }
+        crlGen.addExtension(Extension.cRLNumber, false, new CRLNumber(BigInteger.valueOf(42)));
+
+        for (int i = 0; i != entryCount; i++)
+        {
+            // distinct serial numbers in no particular order, of varying length and sign
+            BigInteger serial = BigInteger.valueOf((i + 1) * 0x9E3779B97F4A7C15L);
+            if (i % 4 == 1)
+            {
+                serial = BigInteger.valueOf(i + 1);
+            }
+
+            Date revocationDate = new Date(thisUpdate.getTime() - i * 1000L);
+            if (i % 3 == 0)
+            {
+                crlGen.addCRLEntry(serial, revocationDate, i % 11 == 7 ? CRLReason.unspecified : i % 11);
+            }
+            else
+            {
+                crlGen.addCRLEntry(serial, revocationDate, null);
+            }
+        }
+
+        return crlGen.build(new JcaContentSignerBuilder("SHA256withECDSA").setProvider("BC")
+            .build(keyPair.getPrivate())).getEncoded();
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern)
+    {
+        int found = -1;
+        for (int i = 0; i <= data.length - pattern.length; i++)
+        {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j])
+            {
+                j++;
+            }
+            if (j == pattern.length)
+            {
+                found = i;
+            }
+        }
+        return found;
+    }
+}
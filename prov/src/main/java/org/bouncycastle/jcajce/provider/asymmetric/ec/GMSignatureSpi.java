@@ -37,7 +37,7 @@
     protected void engineInitVerify(PublicKey publicKey)
         throws InvalidKeyException
     {
-        CipherParameters param = ECUtils.generatePublicKeyParameter(publicKey);
+        CipherParameters param = ECUtil.getCachedPublicKeyParameter(ECUtils.generatePublicKeyParameter(publicKey));
 
         if (paramSpec != null)
         {
@@ -20,6 +20,7 @@
 import org.bouncycastle.crypto.signers.StandardDSAEncoding;
 import org.bouncycastle.crypto.util.DigestFactory;
 import org.bouncycastle.jcajce.provider.asymmetric.util.DSABase;
+import org.bouncycastle.jcajce.provider.asymmetric.util.ECUtil;
 
 public class SignatureSpi
     extends DSABase
@@ -32,7 +33,7 @@
     protected void engineInitVerify(PublicKey publicKey)
         throws InvalidKeyException
     {
-        CipherParameters param = ECUtils.generatePublicKeyParameter(publicKey);
+        CipherParameters param = ECUtil.getCachedPublicKeyParameter(ECUtils.generatePublicKeyParameter(publicKey));
 
         digest.reset();
         signer.init(false, param);
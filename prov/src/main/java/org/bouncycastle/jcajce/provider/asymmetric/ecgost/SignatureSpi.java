@@ -68,6 +68,11 @@ else if (publicKey instanceof GOST3410Key)
             }
         }
 
+        if (param instanceof AsymmetricKeyParameter)
+        {
+            param = ECUtil.getCachedPublicKeyParameter((AsymmetricKeyParameter)param);
+        }
+
         digest.reset();
         signer.init(false, param);
     }
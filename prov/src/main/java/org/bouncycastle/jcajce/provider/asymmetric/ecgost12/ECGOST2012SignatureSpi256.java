@@ -72,6 +72,8 @@ protected void engineInitVerify(
             throw new InvalidKeyException("key out of range for ECGOST-2012-256");
         }
 
+        param = (ECKeyParameters)ECUtil.getCachedPublicKeyParameter(param);
+
         digest.reset();
         signer.init(false, param);
     }
@@ -74,6 +74,8 @@ protected void engineInitVerify(
             throw new InvalidKeyException("key too weak for ECGOST-2012-512");
         }
 
+        param = (ECKeyParameters)ECUtil.getCachedPublicKeyParameter(param);
+
         digest.reset();
         signer.init(false, param);
     }
@@ -22,6 +22,7 @@
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECNamedDomainParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyCache;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.jcajce.provider.config.ProviderConfiguration;
 import org.bouncycastle.jce.interfaces.ECPrivateKey;
@@ -222,6 +223,23 @@ else if (key instanceof java.security.interfaces.ECPublicKey)
         throw new InvalidKeyException("cannot identify EC public key.");
     }
 
+    /**
+     * Return the shared instance of an EC public key held by the default {@link ECPublicKeyCache}, if one has been
+     * configured, so that repeated verifications with the same key reuse its precomputed tables.
+     *
+     * @param key the public key to be used for verification.
+     * @return the cached equivalent of key, or key itself.
+     */
+    public static AsymmetricKeyParameter getCachedPublicKeyParameter(AsymmetricKeyParameter key)
+    {
+        ECPublicKeyCache cache = ECPublicKeyCache.getDefault();
+        if (null != cache && key instanceof ECPublicKeyParameters)
+        {
+            return cache.getPublicKey((ECPublicKeyParameters)key);
+        }
+        return key;
+    }
+
     public static AsymmetricKeyParameter generatePrivateKeyParameter(
         PrivateKey    key)
         throws InvalidKeyException
@@ -21,9 +21,11 @@
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.security.auth.x500.X500Principal;
@@ -75,6 +77,8 @@
     protected byte[] sigAlgParams;
     protected boolean isIndirect;
 
+    private volatile Map<BigInteger, RevokedEntry> revokedIndex;
+
     X509CRLImpl(JcaJceHelper bcHelper, CertificateList c, String sigAlgName, byte[] sigAlgParams, boolean isIndirect)
     {
         this.bcHelper = bcHelper;
@@ -454,17 +458,44 @@ private Set loadCRLEntries()
 
     public X509CRLEntry getRevokedCertificate(BigInteger serialNumber)
     {
+        RevokedEntry revoked = getRevokedIndex().get(serialNumber);
+        if (revoked == null)
+        {
+            return null;
+        }
+
+        return new X509CRLEntryObject(revoked.entry, isIndirect, revoked.previousCertificateIssuer);
+    }
+
+    /**
+     * Return the index of revoked serial numbers, building it on first use. As with a scan of the CRL, only the first
+     * entry for a serial number is recorded.
+     */
+    private Map<BigInteger, RevokedEntry> getRevokedIndex()
+    {
+        Map<BigInteger, RevokedEntry> index = revokedIndex;
+
+        if (index == null)
+        {
+            // building the index twice in a race is harmless, both results are the same
+            index = buildRevokedIndex();
+            revokedIndex = index;
+        }
+
+        return index;
+    }
+
+    private Map<BigInteger, RevokedEntry> buildRevokedIndex()
+    {
+        Map<BigInteger, RevokedEntry> index = new HashMap<BigInteger, RevokedEntry>();
         Enumeration certs = c.getRevokedCertificateEnumeration();
 
         X500Name previousCertificateIssuer = null; // the issuer
+        X500Name caName = c.getIssuer();
         while (certs.hasMoreElements())
         {
-            TBSCertList.CRLEntry entry = (TBSCertList.CRLEntry)certs.nextElement();
-
-            if (entry.getUserCertificate().hasValue(serialNumber))
-            {
-                return new X509CRLEntryObject(entry, isIndirect, previousCertificateIssuer);
-            }
+            TBSCertList.CRLEntry entry = TBSCertList.CRLEntry.getInstance(certs.nextElement());
+            X500Name entryCertificateIssuer = previousCertificateIssuer;
 
             if (isIndirect && entry.hasExtensions())
             {
@@ -473,11 +504,20 @@ public X509CRLEntry getRevokedCertificate(BigInteger serialNumber)
                 if (currentCaName != null)
                 {
                     previousCertificateIssuer = X500Name.getInstance(GeneralNames.getInstance(currentCaName.getParsedValue()).getNames()[0].getName());
+                    caName = previousCertificateIssuer;
                 }
             }
+
+            // keyed by value, as hasValue() compared it, so the serial's encoding makes no difference
+            BigInteger serial = entry.getUserCertificate().getValue();
+
+            if (!index.containsKey(serial))
+            {
+                index.put(serial, new RevokedEntry(entry, entryCertificateIssuer, caName));
+            }
         }
 
-        return null;
+        return index;
     }
 
     public Set getRevokedCertificates()
@@ -651,59 +691,33 @@ public boolean isRevoked(Certificate cert)
             throw new IllegalArgumentException("X.509 CRL used with non X.509 Cert");
         }
 
-        Enumeration certs = c.getRevokedCertificateEnumeration();
-
-        X500Name caName = c.getIssuer();
+        BigInteger serial = ((X509Certificate)cert).getSerialNumber();
 
-        if (certs.hasMoreElements())
+        RevokedEntry revoked = getRevokedIndex().get(serial);
+        if (revoked == null)
         {
-            BigInteger serial = ((X509Certificate)cert).getSerialNumber();
-
-            while (certs.hasMoreElements())
-            {
-                TBSCertList.CRLEntry entry = TBSCertList.CRLEntry.getInstance(certs.nextElement());
-
-                if (isIndirect && entry.hasExtensions())
-                {
-                    Extension currentCaName = entry.getExtensions().getExtension(Extension.certificateIssuer);
-
-                    if (currentCaName != null)
-                    {
-                        caName = X500Name.getInstance(GeneralNames.getInstance(currentCaName.getParsedValue()).getNames()[0].getName());
-                    }
-                }
+            return false;
+        }
 
-                if (entry.getUserCertificate().hasValue(serial))
-                {
-                    X500Name issuer;
+        X500Name issuer;
 
-                    if (cert instanceof X509Certificate)
-                    {
-                        issuer = X500Name.getInstance(((X509Certificate)cert).getIssuerX500Principal().getEncoded());
-                    }
-                    else
-                    {
-                        try
-                        {
-                            issuer = org.bouncycastle.asn1.x509.Certificate.getInstance(cert.getEncoded()).getIssuer();
-                        }
-                        catch (CertificateEncodingException e)
-                        {
-                            throw new IllegalArgumentException("Cannot process certificate: " + e.getMessage());
-                        }
-                    }
-
-                    if (!caName.equals(issuer))
-                    {
-                        return false;
-                    }
-
-                    return true;
-                }
+        if (cert instanceof X509Certificate)
+        {
+            issuer = X500Name.getInstance(((X509Certificate)cert).getIssuerX500Principal().getEncoded());
+        }
+        else
+        {
+            try
+            {
+                issuer = org.bouncycastle.asn1.x509.Certificate.getInstance(cert.getEncoded()).getIssuer();
+            }
+            catch (CertificateEncodingException e)
+            {
+                throw new IllegalArgumentException("Cannot process certificate: " + e.getMessage());
             }
         }
 
-        return false;
+        return revoked.caName.equals(issuer);
     }
 
     static byte[] getExtensionOctets(CertificateList c, ASN1ObjectIdentifier oid)
@@ -729,4 +743,18 @@ static ASN1OctetString getExtensionValue(CertificateList c, ASN1ObjectIdentifier
         }
         return null;
     }
+
+    private static class RevokedEntry
+    {
+        final TBSCertList.CRLEntry entry;
+        final X500Name previousCertificateIssuer;
+        final X500Name caName;
+
+        RevokedEntry(TBSCertList.CRLEntry entry, X500Name previousCertificateIssuer, X500Name caName)
+        {
+            this.entry = entry;
+            this.previousCertificateIssuer = previousCertificateIssuer;
+            this.caName = caName;
+        }
+    }
 }
@@ -63,10 +63,15 @@ protected SecretKey engineGenerateSecret(
                     throw new IllegalArgumentException("password empty");
                 }
 
+                if (pbeSpec.getMaxParallelism() < 1)
+                {
+                    throw new InvalidKeySpecException("maximum parallelism must be >= 1");
+                }
+
                 CipherParameters param = new KeyParameter(SCrypt.generate(
                         PasswordConverter.UTF8.convert(pbeSpec.getPassword()), pbeSpec.getSalt(),
                         pbeSpec.getCostParameter(), pbeSpec.getBlockSize(), pbeSpec.getParallelizationParameter(),
-                        pbeSpec.getKeyLength() / 8));
+                        pbeSpec.getKeyLength() / 8, pbeSpec.getExecutor(), pbeSpec.getMaxParallelism()));
 
                 return new BCPBEKey(this.algName, param);
             }
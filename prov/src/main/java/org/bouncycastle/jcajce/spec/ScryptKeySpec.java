@@ -1,6 +1,7 @@
 package org.bouncycastle.jcajce.spec;
 
 import java.security.spec.KeySpec;
+import java.util.concurrent.Executor;
 
 import org.bouncycastle.util.Arrays;
 
@@ -16,16 +17,32 @@
     private final int blockSize;
     private final int parallelizationParameter;
     private final int keySize;
+    private final Executor executor;
+    private final int maxParallelism;
 
     public ScryptKeySpec(char[] password, byte[] salt, int costParameter, int blockSize, int parallelizationParameter, int keySize)
     {
+        this(password, salt, costParameter, blockSize, parallelizationParameter, keySize, null, 1);
+    }
 
+    /**
+     * Create a key spec whose independent SMix computations are run on the passed in executor, with at most
+     * maxParallelism running at once. The derived key is the same as when no executor is given.
+     *
+     * @param executor the executor to use, null to run everything on the calling thread.
+     * @param maxParallelism the maximum number of SMix computations to run at once.
+     */
+    public ScryptKeySpec(char[] password, byte[] salt, int costParameter, int blockSize, int parallelizationParameter, int keySize,
+                         Executor executor, int maxParallelism)
+    {
         this.password = password;
         this.salt = Arrays.clone(salt);
         this.costParameter = costParameter;
         this.blockSize = blockSize;
         this.parallelizationParameter = parallelizationParameter;
         this.keySize = keySize;
+        this.executor = executor;
+        this.maxParallelism = maxParallelism;
     }
 
     public char[] getPassword()
@@ -62,4 +79,14 @@ public int getKeyLength()
     {
         return keySize;
     }
-}
\ No newline at end of file
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    public int getMaxParallelism()
+    {
+        return maxParallelism;
+    }
+}
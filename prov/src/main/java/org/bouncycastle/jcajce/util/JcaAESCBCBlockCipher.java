@@ -0,0 +1,165 @@
+package org.bouncycastle.jcajce.util;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.CBCModeCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * AES-CBC carried out by a JCA provider, see {@link JcaAcceleratedFactory}. Parameters are handled as for
+ * {@link org.bouncycastle.crypto.modes.CBCBlockCipher}.
+ */
+class JcaAESCBCBlockCipher
+    implements CBCModeCipher
+{
+    private static final int BLOCK_SIZE = 16;
+
+    private final BlockCipher engine = AESEngine.newInstance();
+    private final byte[] IV = new byte[BLOCK_SIZE];
+    private final Cipher cipher;
+
+    private SecretKeySpec key;
+    private boolean encrypting;
+
+    JcaAESCBCBlockCipher(Cipher cipher)
+    {
+        this.cipher = cipher;
+    }
+
+    public BlockCipher getUnderlyingCipher()
+    {
+        return engine;
+    }
+
+    public void init(boolean encrypting, CipherParameters params)
+        throws IllegalArgumentException
+    {
+        boolean oldEncrypting = this.encrypting;
+
+        this.encrypting = encrypting;
+
+        if (params instanceof ParametersWithIV)
+        {
+            ParametersWithIV ivParam = (ParametersWithIV)params;
+            byte[] iv = ivParam.getIV();
+
+            if (iv.length != BLOCK_SIZE)
+            {
+                throw new IllegalArgumentException("initialisation vector must be the same length as block size");
+            }
+
+            System.arraycopy(iv, 0, IV, 0, iv.length);
+
+            params = ivParam.getParameters();
+        }
+        else
+        {
+            Arrays.fill(IV, (byte)0);
+        }
+
+        // if null it's an IV changed only (key is to be reused).
+        if (params != null)
+        {
+            if (!(params instanceof KeyParameter))
+            {
+                throw new IllegalArgumentException("invalid parameter passed to AES init - "
+                    + params.getClass().getName());
+            }
+
+            byte[] keyBytes = ((KeyParameter)params).getKey();
+            int keyLength = keyBytes.length;
+            if (keyLength != 16 && keyLength != 24 && keyLength != 32)
+            {
+                throw new IllegalArgumentException("Key length not 128/192/256 bits.");
+            }
+
+            key = new SecretKeySpec(keyBytes, "AES");
+        }
+        else if (oldEncrypting != encrypting)
+        {
+            throw new IllegalArgumentException("cannot change encrypting state without providing key.");
+        }
+
+        reset();
+    }
+
+    public String getAlgorithmName()
+    {
+        return engine.getAlgorithmName() + "/CBC";
+    }
+
+    public int getBlockSize()
+    {
+        return BLOCK_SIZE;
+    }
+
+    public int getMultiBlockSize()
+    {
+        return BLOCK_SIZE;
+    }
+
+    public int processBlock(byte[] in, int inOff, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        return processBlocks(in, inOff, 1, out, outOff);
+    }
+
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (key == null)
+        {
+            throw new IllegalStateException("AES engine not initialised");
+        }
+
+        if (blockCount > (in.length - inOff) / BLOCK_SIZE)
+        {
+            throw new DataLengthException("input buffer too short");
+        }
+        if (blockCount > (out.length - outOff) / BLOCK_SIZE)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        try
+        {
+            return cipher.update(in, inOff, blockCount * BLOCK_SIZE, out, outOff);
+        }
+        catch (ShortBufferException e)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+    }
+
+    /**
+     * reset the chaining vector back to the IV and reset the underlying cipher.
+     */
+    public void reset()
+    {
+        if (key == null)
+        {
+            return;
+        }
+
+        try
+        {
+            cipher.init(encrypting ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, key, new IvParameterSpec(IV));
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException("unable to initialise JCA cipher: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package org.bouncycastle.jcajce.util;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * AES-GCM carried out by a JCA provider, see {@link JcaAcceleratedFactory}.
+ * <p>
+ * The additional data and message are buffered and handed to the provider in one call by doFinal(), so additional
+ * data may be supplied at any point, and decryption releases no plaintext until the MAC has been checked. Once a
+ * message (with its additional data) grows beyond the buffer limit, or if the MAC size is one the JCA does not support
+ * (less than 96 bits), the message is streamed through a {@link GCMBlockCipher} instead, which behaves as usual.
+ * Parameters are checked, and errors reported, as for GCMBlockCipher.
+ * </p>
+ */
+class JcaAESGCMBlockCipher
+    implements GCMModeCipher
+{
+    private static final int BLOCK_SIZE = 16;
+
+    private final BlockCipher engine = AESEngine.newInstance();
+    private final Cipher cipher;
+    private final int maxBufferSize;
+
+    private GCMModeCipher streamCipher;
+    private boolean streaming;
+
+    private boolean forEncryption;
+    private boolean initialised;
+    private int macSize;
+    private byte[] nonce;
+    private byte[] lastKey;
+    private SecretKeySpec key;
+    private byte[] initialAssociatedText;
+    private byte[] macBlock;
+
+    // the buffered additional data, and message data not yet passed to the provider or the stream cipher
+    private byte[] aadBuf = new byte[0];
+    private int aadLen;
+    private byte[] dataBuf = new byte[0];
+    private int dataLen;
+
+    JcaAESGCMBlockCipher(Cipher cipher, int maxBufferSize)
+    {
+        this.cipher = cipher;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    public BlockCipher getUnderlyingCipher()
+    {
+        return engine;
+    }
+
+    public String getAlgorithmName()
+    {
+        return engine.getAlgorithmName() + "/GCM";
+    }
+
+    public void init(boolean forEncryption, CipherParameters params)
+        throws IllegalArgumentException
+    {
+        KeyParameter keyParam;
+        byte[] newNonce;
+        byte[] associatedText;
+        int newMacSize;
+
+        if (params instanceof AEADParameters)
+        {
+            AEADParameters param = (AEADParameters)params;
+
+            newNonce = param.getNonce();
+            associatedText = param.getAssociatedText();
+
+            int macSizeBits = param.getMacSize();
+            if (macSizeBits < 32 || macSizeBits > 128 || macSizeBits % 8 != 0)
+            {
+                throw new IllegalArgumentException("Invalid value for MAC size: " + macSizeBits);
+            }
+
+            newMacSize = macSizeBits / 8;
+            keyParam = param.getKey();
+        }
+        else if (params instanceof ParametersWithIV)
+        {
+            ParametersWithIV param = (ParametersWithIV)params;
+
+            newNonce = param.getIV();
+            associatedText = null;
+            newMacSize = 16;
+            keyParam = (KeyParameter)param.getParameters();
+        }
+        else
+        {
+            throw new IllegalArgumentException("invalid parameters passed to GCM");
+        }
+
+        if (newNonce == null || newNonce.length < 1)
+        {
+            throw new IllegalArgumentException("IV must be at least 1 byte");
+        }
+
+        if (forEncryption && nonce != null && Arrays.areEqual(nonce, newNonce))
+        {
+            if (keyParam == null || (lastKey != null && Arrays.areEqual(lastKey, keyParam.getKey())))
+            {
+                throw new IllegalArgumentException("cannot reuse nonce for GCM encryption");
+            }
+        }
+        if (keyParam == null && lastKey == null)
+        {
+            throw new IllegalArgumentException("Key must be specified in initial init");
+        }
+
+        if (keyParam != null)
+        {
+            byte[] keyBytes = keyParam.getKey();
+            int keyLength = keyBytes.length;
+            if (keyLength != 16 && keyLength != 24 && keyLength != 32)
+            {
+                throw new IllegalArgumentException("Key length not 128/192/256 bits.");
+            }
+
+            this.lastKey = keyBytes;
+            this.key = new SecretKeySpec(keyBytes, "AES");
+        }
+
+        this.forEncryption = forEncryption;
+        this.nonce = newNonce;
+        this.macSize = newMacSize;
+        this.initialAssociatedText = associatedText;
+        this.macBlock = null;
+        this.initialised = true;
+
+        startMessage();
+    }
+
+    public byte[] getMac()
+    {
+        if (macBlock == null)
+        {
+            return new byte[macSize];
+        }
+        return Arrays.clone(macBlock);
+    }
+
+    public int getOutputSize(int len)
+    {
+        if (streaming)
+        {
+            return streamCipher.getOutputSize(dataLen + len);
+        }
+
+        int totalData = dataLen + len;
+        if (forEncryption)
+        {
+            return totalData + macSize;
+        }
+
+        return totalData < macSize ? 0 : totalData - macSize;
+    }
+
+    public int getUpdateOutputSize(int len)
+    {
+        if (streaming)
+        {
+            return streamCipher.getUpdateOutputSize(dataLen + len);
+        }
+
+        if (len <= maxBufferSize - aadLen - dataLen)
+        {
+            return 0;
+        }
+
+        // the message will be streamed from here on, everything so far is released as it would be by GCMBlockCipher
+        int totalData = dataLen + len;
+        if (!forEncryption)
+        {
+            if (totalData < macSize)
+            {
+                return 0;
+            }
+            totalData -= macSize;
+        }
+        return totalData - totalData % BLOCK_SIZE;
+    }
+
+    public void processAADByte(byte in)
+    {
+        processAADBytes(new byte[]{ in }, 0, 1);
+    }
+
+    public void processAADBytes(byte[] in, int inOff, int len)
+    {
+        checkStatus();
+
+        if (!streaming && len > maxBufferSize - aadLen - dataLen)
+        {
+            startStreaming();
+        }
+
+        if (streaming)
+        {
+            streamCipher.processAADBytes(in, inOff, len);
+            return;
+        }
+
+        aadBuf = append(aadBuf, aadLen, in, inOff, len);
+        aadLen += len;
+    }
+
+    public int processByte(byte in, byte[] out, int outOff)
+        throws DataLengthException
+    {
+        return processBytes(new byte[]{ in }, 0, 1, out, outOff);
+    }
+
+    public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
+        throws DataLengthException
+    {
+        checkStatus();
+
+        if ((in.length - inOff) < len)
+        {
+            throw new DataLengthException("Input buffer too short");
+        }
+
+        if (!streaming && len > maxBufferSize - aadLen - dataLen)
+        {
+            if ((out.length - outOff) < getUpdateOutputSize(len))
+            {
+                throw new OutputLengthException("Output buffer too short");
+            }
+
+            startStreaming();
+        }
+
+        if (streaming)
+        {
+            if (in == out && dataLen > 0)
+            {
+                // the buffered data is written out first, don't let it overwrite the input
+                in = Arrays.copyOfRange(in, inOff, inOff + len);
+                inOff = 0;
+            }
+
+            int resultLen = flushData(out, outOff);
+            return resultLen + streamCipher.processBytes(in, inOff, len, out, outOff + resultLen);
+        }
+
+        dataBuf = append(dataBuf, dataLen, in, inOff, len);
+        dataLen += len;
+        return 0;
+    }
+
+    public int doFinal(byte[] out, int outOff)
+        throws IllegalStateException, InvalidCipherTextException
+    {
+        checkStatus();
+
+        if (streaming)
+        {
+            if ((out.length - outOff) < getOutputSize(0))
+            {
+                throw new OutputLengthException("Output buffer too short");
+            }
+
+            try
+            {
+                int resultLen = flushData(out, outOff);
+                resultLen += streamCipher.doFinal(out, outOff + resultLen);
+                macBlock = streamCipher.getMac();
+                return resultLen;
+            }
+            finally
+            {
+                endMessage();
+            }
+        }
+
+        if (!forEncryption && dataLen < macSize)
+        {
+            endMessage();
+            throw new InvalidCipherTextException("data too short");
+        }
+        if ((out.length - outOff) < getOutputSize(0))
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+
+        byte[] msgMac = forEncryption ? null : Arrays.copyOfRange(dataBuf, dataLen - macSize, dataLen);
+
+        try
+        {
+            cipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, key,
+                new GCMParameterSpec(macSize * 8, nonce));
+
+            if (initialAssociatedText != null && initialAssociatedText.length > 0)
+            {
+                cipher.updateAAD(initialAssociatedText);
+            }
+            if (aadLen > 0)
+            {
+                cipher.updateAAD(aadBuf, 0, aadLen);
+            }
+
+            int resultLen = cipher.doFinal(dataBuf, 0, dataLen, out, outOff);
+
+            macBlock = forEncryption
+                ? Arrays.copyOfRange(out, outOff + resultLen - macSize, outOff + resultLen)
+                : msgMac;
+
+            return resultLen;
+        }
+        catch (AEADBadTagException e)
+        {
+            throw new InvalidCipherTextException("mac check in GCM failed");
+        }
+        catch (ShortBufferException e)
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new IllegalStateException("JCA cipher failed: " + e.getMessage(), e);
+        }
+        finally
+        {
+            endMessage();
+        }
+    }
+
+    public void reset()
+    {
+        macBlock = null;
+
+        if (forEncryption)
+        {
+            initialised = false;
+            clearBuffers();
+        }
+        else if (initialised)
+        {
+            startMessage();
+        }
+    }
+
+    private void startMessage()
+    {
+        clearBuffers();
+
+        this.streaming = false;
+
+        // the JCA only supports MAC sizes from 96 bits
+        if (macSize < 12)
+        {
+            startStreaming();
+        }
+    }
+
+    /**
+     * Hand the current message over to a GCMBlockCipher, passing on the additional data so far. Any buffered
+     * message data is passed on when there is somewhere to write the output to.
+     */
+    private void startStreaming()
+    {
+        if (streamCipher == null)
+        {
+            streamCipher = GCMBlockCipher.newInstance(engine);
+        }
+
+        streamCipher.init(forEncryption, new AEADParameters(new KeyParameter(lastKey), macSize * 8, nonce,
+            initialAssociatedText));
+
+        if (aadLen > 0)
+        {
+            streamCipher.processAADBytes(aadBuf, 0, aadLen);
+            Arrays.fill(aadBuf, 0, aadLen, (byte)0);
+            aadLen = 0;
+        }
+
+        this.streaming = true;
+    }
+
+    private void endMessage()
+    {
+        if (forEncryption)
+        {
+            initialised = false;
+            clearBuffers();
+        }
+        else
+        {
+            startMessage();
+        }
+    }
+
+    private int flushData(byte[] out, int outOff)
+    {
+        if (dataLen == 0)
+        {
+            return 0;
+        }
+
+        int resultLen = streamCipher.processBytes(dataBuf, 0, dataLen, out, outOff);
+        Arrays.fill(dataBuf, 0, dataLen, (byte)0);
+        dataLen = 0;
+        return resultLen;
+    }
+
+    private void clearBuffers()
+    {
+        Arrays.fill(aadBuf, 0, aadLen, (byte)0);
+        Arrays.fill(dataBuf, 0, dataLen, (byte)0);
+        aadLen = 0;
+        dataLen = 0;
+    }
+
+    private byte[] append(byte[] buf, int bufLen, byte[] in, int inOff, int len)
+    {
+        if (len > buf.length - bufLen)
+        {
+            byte[] newBuf = new byte[Math.max(bufLen + len, Math.min(maxBufferSize, buf.length * 2))];
+            System.arraycopy(buf, 0, newBuf, 0, bufLen);
+            Arrays.fill(buf, (byte)0);
+            buf = newBuf;
+        }
+
+        System.arraycopy(in, inOff, buf, bufLen, len);
+        return buf;
+    }
+
+    private void checkStatus()
+    {
+        if (!initialised)
+        {
+            if (forEncryption)
+            {
+                throw new IllegalStateException("GCM cipher cannot be reused for encryption");
+            }
+            throw new IllegalStateException("GCM cipher needs to be initialised");
+        }
+    }
+}
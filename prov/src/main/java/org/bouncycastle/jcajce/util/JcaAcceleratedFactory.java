@@ -0,0 +1,107 @@
+package org.bouncycastle.jcajce.util;
+
+import java.security.GeneralSecurityException;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.modes.CBCModeCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+
+/**
+ * Factory for light-weight API ciphers and digests which hand the bulk of their work to a JCA provider. This allows
+ * code written against the light-weight API to make use of a provider whose implementations the JVM replaces with
+ * CPU instructions (AES-NI, PCLMULQDQ, the SHA extensions), for example the JDK's own "SunJCE" and "SUN" providers.
+ * <p>
+ * Nothing is accelerated unless it is created through an instance of this class, the objects returned by
+ * {@link org.bouncycastle.crypto.modes.GCMBlockCipher#newInstance(org.bouncycastle.crypto.BlockCipher)} and the
+ * like are unaffected.
+ * </p>
+ */
+public class JcaAcceleratedFactory
+{
+    /**
+     * The default limit on the message data and additional data an AES-GCM cipher will hold for the provider.
+     */
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 64 * 1024;
+
+    private final JcaJceHelper helper;
+    private final int maxBufferSize;
+
+    /**
+     * Base constructor.
+     *
+     * @param helper the helper to create the provider's Cipher and MessageDigest objects with.
+     */
+    public JcaAcceleratedFactory(JcaJceHelper helper)
+    {
+        this(helper, DEFAULT_MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with a limit on buffering for AES-GCM.
+     * <p>
+     * A JCA AES-GCM cipher must have all the additional data before any of the message, and only releases decrypted
+     * data once the whole message has been checked. The AES-GCM ciphers created here therefore hold on to both until
+     * doFinal() is called, and switch to a {@link org.bouncycastle.crypto.modes.GCMBlockCipher} if a message, with its
+     * additional data, grows beyond maxBufferSize bytes. Messages up to this size, such as TLS records, are processed
+     * by the provider in one call, larger ones are streamed.
+     * </p>
+     *
+     * @param helper        the helper to create the provider's Cipher and MessageDigest objects with.
+     * @param maxBufferSize the maximum number of bytes an AES-GCM cipher will buffer for the provider.
+     */
+    public JcaAcceleratedFactory(JcaJceHelper helper, int maxBufferSize)
+    {
+        if (helper == null)
+        {
+            throw new NullPointerException("'helper' cannot be null");
+        }
+        if (maxBufferSize < 0)
+        {
+            throw new IllegalArgumentException("'maxBufferSize' cannot be negative");
+        }
+
+        this.helper = helper;
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Create an AES-GCM cipher which uses the provider's "AES/GCM/NoPadding". MAC sizes below 96 bits, which the JCA
+     * does not support, are handled by a {@link org.bouncycastle.crypto.modes.GCMBlockCipher}.
+     *
+     * @return a new AES-GCM cipher.
+     * @throws GeneralSecurityException if the provider does not support AES-GCM.
+     */
+    public GCMModeCipher createAESGCMCipher()
+        throws GeneralSecurityException
+    {
+        return new JcaAESGCMBlockCipher(helper.createCipher("AES/GCM/NoPadding"), maxBufferSize);
+    }
+
+    /**
+     * Create an AES-CBC cipher which uses the provider's "AES/CBC/NoPadding". Runs of blocks passed to
+     * processBlocks() are handed to the provider in one call.
+     *
+     * @return a new AES-CBC cipher.
+     * @throws GeneralSecurityException if the provider does not support AES-CBC.
+     */
+    public CBCModeCipher createAESCBCCipher()
+        throws GeneralSecurityException
+    {
+        return new JcaAESCBCBlockCipher(helper.createCipher("AES/CBC/NoPadding"));
+    }
+
+    /**
+     * Create a digest which uses the provider's MessageDigest for one of "SHA-224", "SHA-256", "SHA-384", or
+     * "SHA-512". The digest is also {@link org.bouncycastle.util.Memoable}, if the provider's MessageDigest can be
+     * cloned.
+     *
+     * @param algorithm the name of the digest algorithm.
+     * @return a new digest.
+     * @throws GeneralSecurityException if the provider does not support the algorithm.
+     */
+    public ExtendedDigest createDigest(String algorithm)
+        throws GeneralSecurityException
+    {
+        return new JcaDigest(algorithm, helper.createMessageDigest(algorithm));
+    }
+}
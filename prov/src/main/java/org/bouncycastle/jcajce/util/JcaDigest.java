@@ -0,0 +1,117 @@
+package org.bouncycastle.jcajce.util;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.util.Memoable;
+
+/**
+ * A SHA-2 digest carried out by a JCA provider, see {@link JcaAcceleratedFactory}. Copies of the digest state are
+ * made by cloning the provider's MessageDigest.
+ */
+class JcaDigest
+    implements ExtendedDigest, Memoable
+{
+    private final String algorithm;
+    private final int byteLength;
+
+    private MessageDigest digest;
+
+    JcaDigest(String algorithm, MessageDigest digest)
+    {
+        if (algorithm.equals("SHA-224") || algorithm.equals("SHA-256"))
+        {
+            this.byteLength = 64;
+        }
+        else if (algorithm.equals("SHA-384") || algorithm.equals("SHA-512"))
+        {
+            this.byteLength = 128;
+        }
+        else
+        {
+            throw new IllegalArgumentException("unsupported digest algorithm: " + algorithm);
+        }
+
+        this.algorithm = algorithm;
+        this.digest = digest;
+    }
+
+    private JcaDigest(JcaDigest t)
+    {
+        this.algorithm = t.algorithm;
+        this.byteLength = t.byteLength;
+        this.digest = cloneDigest(t.digest);
+    }
+
+    public String getAlgorithmName()
+    {
+        return algorithm;
+    }
+
+    public int getDigestSize()
+    {
+        return digest.getDigestLength();
+    }
+
+    public int getByteLength()
+    {
+        return byteLength;
+    }
+
+    public void update(byte in)
+    {
+        digest.update(in);
+    }
+
+    public void update(byte[] in, int inOff, int len)
+    {
+        digest.update(in, inOff, len);
+    }
+
+    public int doFinal(byte[] out, int outOff)
+    {
+        try
+        {
+            return digest.digest(out, outOff, digest.getDigestLength());
+        }
+        catch (DigestException e)
+        {
+            throw new IllegalStateException("JCA digest failed: " + e.getMessage(), e);
+        }
+    }
+
+    public void reset()
+    {
+        digest.reset();
+    }
+
+    public Memoable copy()
+    {
+        return new JcaDigest(this);
+    }
+
+    public void reset(Memoable other)
+    {
+        JcaDigest d = (JcaDigest)other;
+
+        if (!algorithm.equals(d.algorithm))
+        {
+            throw new IllegalArgumentException("cannot reset " + algorithm + " digest from " + d.algorithm);
+        }
+
+        this.digest = cloneDigest(d.digest);
+    }
+
+    private static MessageDigest cloneDigest(MessageDigest digest)
+    {
+        try
+        {
+            return (MessageDigest)digest.clone();
+        }
+        catch (CloneNotSupportedException e)
+        {
+            throw new IllegalStateException("JCA digest cannot be copied");
+        }
+    }
+}
@@ -709,6 +709,13 @@ protected static void findCertificates(Set certs, PKIXCertStoreSelector certSele
     static List<PKIXCRLStore> getAdditionalStoresFromCRLDistributionPoint(
         CRLDistPoint crldp, Map<GeneralName, PKIXCRLStore> namedCRLStoreMap, Date validDate, JcaJceHelper helper)
         throws AnnotatedException
+    {
+        return getAdditionalStoresFromCRLDistributionPoint(null, crldp, namedCRLStoreMap, validDate, helper);
+    }
+
+    static List<PKIXCRLStore> getAdditionalStoresFromCRLDistributionPoint(RevocationCache revocationCache,
+        CRLDistPoint crldp, Map<GeneralName, PKIXCRLStore> namedCRLStoreMap, Date validDate, JcaJceHelper helper)
+        throws AnnotatedException
     {
         if (null == crldp)
         {
@@ -775,7 +782,7 @@ static List<PKIXCRLStore> getAdditionalStoresFromCRLDistributionPoint(
                             try
                             {
                                 URI distributionPoint = new URI(((ASN1String)name.getName()).getString());
-                                PKIXCRLStore store = CrlCache.getCrl(certFact, validDate, distributionPoint);
+                                PKIXCRLStore store = CrlCache.getCrl(revocationCache, certFact, validDate, distributionPoint);
                                 if (store != null)
                                 {
                                     stores.add(store);
@@ -1029,6 +1036,17 @@ protected static Set getDeltaCRLs(Date validityDate,
                                       List<PKIXCRLStore> pkixCrlStores,
                                       JcaJceHelper helper)
         throws AnnotatedException
+    {
+        return getDeltaCRLs(null, validityDate, completeCRL, certStores, pkixCrlStores, helper);
+    }
+
+    static Set getDeltaCRLs(RevocationCache revocationCache,
+                            Date validityDate,
+                            X509CRL completeCRL,
+                            List<CertStore> certStores,
+                            List<PKIXCRLStore> pkixCrlStores,
+                            JcaJceHelper helper)
+        throws AnnotatedException
     {
         X509CRLSelector baseDeltaSelect = new X509CRLSelector();
         // 5.2.4 (a)
@@ -1114,7 +1132,7 @@ protected static Set getDeltaCRLs(Date validityDate,
                         {
                             try
                             {
-                                PKIXCRLStore store = CrlCache.getCrl(certFact, validityDate,
+                                PKIXCRLStore store = CrlCache.getCrl(revocationCache, certFact, validityDate,
                                     new URI(((ASN1String)name.getName()).getString()));
                                 if (store != null)
                                 {
@@ -3,7 +3,6 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.ref.WeakReference;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.security.cert.CRL;
@@ -12,13 +11,11 @@
 import java.security.cert.X509CRL;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
 
 import javax.naming.Context;
 import javax.naming.NamingException;
@@ -37,58 +34,82 @@
 {
     private static final int DEFAULT_TIMEOUT = 15000;
 
-    private static Map<URI, WeakReference<PKIXCRLStore>> cache =
-        Collections.synchronizedMap(new WeakHashMap<URI, WeakReference<PKIXCRLStore>>());
-
-    static synchronized PKIXCRLStore getCrl(CertificateFactory certFact, Date validDate, URI distributionPoint)
+    static PKIXCRLStore getCrl(CertificateFactory certFact, Date validDate, URI distributionPoint)
         throws IOException, CRLException
     {
-        PKIXCRLStore crlStore = null;
+        return getCrl(null, certFact, validDate, distributionPoint);
+    }
 
-        WeakReference<PKIXCRLStore> markerRef = (WeakReference)cache.get(distributionPoint);
-        if (markerRef != null)
+    static PKIXCRLStore getCrl(RevocationCache revocationCache, final CertificateFactory certFact, Date validDate,
+        final URI distributionPoint)
+        throws IOException, CRLException
+    {
+        if (revocationCache == null)
         {
-            crlStore = (PKIXCRLStore)markerRef.get();
+            revocationCache = RevocationCache.getDefault();
         }
 
-        if (crlStore != null)
+        RevocationCache.Loader loader = new RevocationCache.Loader()
         {
-            boolean isExpired = false;
-            for (Iterator it = crlStore.getMatches(null).iterator(); it.hasNext();)
+            public Object load()
+                throws Exception
             {
-                X509CRL crl = (X509CRL)it.next();
+                Collection crls;
 
-                Date nextUpdate = crl.getNextUpdate();
-                if (nextUpdate != null && nextUpdate.before(validDate))
+                if (distributionPoint.getScheme().equals("ldap"))
                 {
-                    isExpired = true;
-                    break;
+                    crls = getCrlsFromLDAP(certFact, distributionPoint);
                 }
+                else
+                {
+                    // http, https, ftp
+                    crls = getCrls(certFact, distributionPoint);
+                }
+
+                return new LocalCRLStore(new CollectionStore<CRL>(crls));
             }
 
-            if (!isExpired)
+            public Date getNextUpdate(Object value)
             {
-                return crlStore;
+                return ((LocalCRLStore)value).getNextUpdate();
             }
+        };
+
+        LocalCRLStore crlStore = (LocalCRLStore)get(revocationCache, distributionPoint, loader, false);
+
+        Date nextUpdate = crlStore.getNextUpdate();
+        if (nextUpdate != null && nextUpdate.before(validDate))
+        {
+            crlStore = (LocalCRLStore)get(revocationCache, distributionPoint, loader, true);
         }
 
-        Collection crls;
+        return crlStore;
+    }
 
-        if (distributionPoint.getScheme().equals("ldap"))
+    private static Object get(RevocationCache revocationCache, URI distributionPoint, RevocationCache.Loader loader,
+        boolean reload)
+        throws IOException, CRLException
+    {
+        try
         {
-            crls = getCrlsFromLDAP(certFact, distributionPoint);
+            return revocationCache.get(distributionPoint, loader, reload);
         }
-        else
+        catch (IOException e)
         {
-            // http, https, ftp
-            crls = getCrls(certFact, distributionPoint);
+            throw e;
+        }
+        catch (CRLException e)
+        {
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new CRLException("unable to load CRL from: " + distributionPoint, e);
         }
-
-        LocalCRLStore localCRLStore = new LocalCRLStore(new CollectionStore<CRL>(crls));
-
-        cache.put(distributionPoint, new WeakReference<PKIXCRLStore>(localCRLStore));
-
-        return localCRLStore;
     }
 
     private static Collection getCrlsFromLDAP(CertificateFactory certFact, URI distributionPoint)
@@ -142,6 +163,7 @@ private static Collection getCrls(CertificateFactory certFact, URI distributionP
         implements PKIXCRLStore, Iterable<CRL>
     {
         private Collection<CRL> _local;
+        private Date _nextUpdate;
 
         /**
          * Basic constructor.
@@ -152,6 +174,27 @@ public LocalCRLStore(
             Store<CRL> collection)
         {
             _local = new ArrayList<CRL>(collection.getMatches(null));
+
+            for (Iterator<CRL> it = _local.iterator(); it.hasNext();)
+            {
+                CRL crl = it.next();
+                if (crl instanceof X509CRL)
+                {
+                    Date nextUpdate = ((X509CRL)crl).getNextUpdate();
+                    if (nextUpdate != null && (_nextUpdate == null || nextUpdate.before(_nextUpdate)))
+                    {
+                        _nextUpdate = nextUpdate;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Return the earliest next update time of the CRLs in the store, null if none of them have one.
+         */
+        Date getNextUpdate()
+        {
+            return _nextUpdate;
         }
 
         /**
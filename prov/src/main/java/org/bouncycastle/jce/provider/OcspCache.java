@@ -3,7 +3,6 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.ref.WeakReference;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
@@ -12,12 +11,8 @@
 import java.security.cert.Extension;
 import java.security.cert.X509Certificate;
 import java.text.ParseException;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import org.bouncycastle.asn1.ASN1EncodableVector;
 import org.bouncycastle.asn1.ASN1GeneralizedTime;
@@ -46,43 +41,82 @@
     private static final int DEFAULT_TIMEOUT = 15000;
     private static final int DEFAULT_MAX_RESPONSE_SIZE = 32 * 1024;
 
-    private static Map<URI, WeakReference<Map<CertID, OCSPResponse>>> cache
-        = Collections.synchronizedMap(new WeakHashMap<URI, WeakReference<Map<CertID, OCSPResponse>>>());
-
     static OCSPResponse getOcspResponse(
         CertID certID, PKIXCertRevocationCheckerParameters parameters,
         URI ocspResponder, X509Certificate responderCert, List<Extension> ocspExtensions,
         JcaJceHelper helper)
         throws CertPathValidatorException
     {
-        Map<CertID, OCSPResponse> responseMap = null;
+        return getOcspResponse(null, certID, parameters, ocspResponder, responderCert, ocspExtensions, helper);
+    }
 
-        WeakReference<Map<CertID, OCSPResponse>> markerRef = cache.get(ocspResponder);
-        if (markerRef != null)
+    static OCSPResponse getOcspResponse(RevocationCache revocationCache,
+        final CertID certID, final PKIXCertRevocationCheckerParameters parameters,
+        final URI ocspResponder, final X509Certificate responderCert, final List<Extension> ocspExtensions,
+        final JcaJceHelper helper)
+        throws CertPathValidatorException
+    {
+        if (revocationCache == null)
         {
-            responseMap = markerRef.get();
+            revocationCache = RevocationCache.getDefault();
         }
 
-        if (responseMap != null)
+        RevocationCache.Loader loader = new RevocationCache.Loader()
         {
-            OCSPResponse response = responseMap.get(certID);
-            if (response != null)
+            public Object load()
+                throws Exception
             {
-                BasicOCSPResponse basicResp = BasicOCSPResponse.getInstance(
-                    ASN1OctetString.getInstance(response.getResponseBytes().getResponse()).getOctets());
+                return fetchOcspResponse(certID, parameters, ocspResponder, responderCert, ocspExtensions, helper);
+            }
 
-                boolean matchFound = isCertIDFoundAndCurrent(basicResp, parameters.getValidDate(), certID);
-                if (matchFound)
-                {
-                    return response;
-                }
-                else
-                {
-                    responseMap.remove(certID);
-                }
+            public Date getNextUpdate(Object value)
+            {
+                return getCertIDNextUpdate(getBasicResponse((OCSPResponse)value), certID);
             }
+        };
+
+        ResponseKey key = new ResponseKey(ocspResponder, certID);
+
+        OCSPResponse response = get(revocationCache, key, loader, false, parameters);
+        if (!isCertIDFoundAndCurrent(getBasicResponse(response), parameters.getValidDate(), certID))
+        {
+            response = get(revocationCache, key, loader, true, parameters);
         }
 
+        return response;
+    }
+
+    private static OCSPResponse get(RevocationCache revocationCache, ResponseKey key, RevocationCache.Loader loader,
+        boolean reload, PKIXCertRevocationCheckerParameters parameters)
+        throws CertPathValidatorException
+    {
+        try
+        {
+            return (OCSPResponse)revocationCache.get(key, loader, reload);
+        }
+        catch (CertPathValidatorException e)
+        {
+            // the loader may have run for another validator, so report against this caller's path
+            throw new CertPathValidatorException(e.getMessage(), e.getCause(), parameters.getCertPath(),
+                parameters.getIndex());
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new CertPathValidatorException("unable to fetch OCSP response: " + e.getMessage(),
+                e, parameters.getCertPath(), parameters.getIndex());
+        }
+    }
+
+    private static OCSPResponse fetchOcspResponse(
+        CertID certID, PKIXCertRevocationCheckerParameters parameters,
+        URI ocspResponder, X509Certificate responderCert, List<Extension> ocspExtensions,
+        JcaJceHelper helper)
+        throws CertPathValidatorException
+    {
         URL ocspUrl;
         try
         {
@@ -179,23 +213,6 @@ static OCSPResponse getOcspResponse(
                         "OCSP response failed to validate", null, parameters.getCertPath(), parameters.getIndex());
                 }
 
-                markerRef = cache.get(ocspResponder);
-                if (markerRef != null)
-                {
-                    responseMap = markerRef.get();
-                }
-
-                if (responseMap != null)
-                {
-                    responseMap.put(certID, response);
-                }
-                else
-                {
-                    responseMap = new HashMap<CertID, OCSPResponse>();
-                    responseMap.put(certID, response);
-                    cache.put(ocspResponder, new WeakReference<Map<CertID, OCSPResponse>>(responseMap));
-                }
-
                 return response;
             }
             else
@@ -212,6 +229,39 @@ static OCSPResponse getOcspResponse(
         }
     }
 
+    private static BasicOCSPResponse getBasicResponse(OCSPResponse response)
+    {
+        return BasicOCSPResponse.getInstance(
+            ASN1OctetString.getInstance(response.getResponseBytes().getResponse()).getOctets());
+    }
+
+    private static Date getCertIDNextUpdate(BasicOCSPResponse basicResp, CertID certID)
+    {
+        ResponseData responseData = ResponseData.getInstance(basicResp.getTbsResponseData());
+        ASN1Sequence s = responseData.getResponses();
+
+        for (int i = 0; i != s.size(); i++)
+        {
+            SingleResponse resp = SingleResponse.getInstance(s.getObjectAt(i));
+
+            if (certID.equals(resp.getCertID()))
+            {
+                ASN1GeneralizedTime nextUp = resp.getNextUpdate();
+                try
+                {
+                    return nextUp == null ? null : nextUp.getDate();
+                }
+                catch (ParseException e)
+                {
+                    // treat as already expired
+                    return new Date(0);
+                }
+            }
+        }
+
+        return new Date(0);
+    }
+
     private static boolean isCertIDFoundAndCurrent(BasicOCSPResponse basicResp, Date validDate, CertID certID)
     {
         ResponseData responseData = ResponseData.getInstance(basicResp.getTbsResponseData());
@@ -243,4 +293,37 @@ private static boolean isCertIDFoundAndCurrent(BasicOCSPResponse basicResp, Date
 
         return false;
     }
+
+    private static class ResponseKey
+    {
+        private final URI ocspResponder;
+        private final CertID certID;
+
+        ResponseKey(URI ocspResponder, CertID certID)
+        {
+            this.ocspResponder = ocspResponder;
+            this.certID = certID;
+        }
+
+        public boolean equals(Object o)
+        {
+            if (o == this)
+            {
+                return true;
+            }
+            if (!(o instanceof ResponseKey))
+            {
+                return false;
+            }
+
+            ResponseKey other = (ResponseKey)o;
+
+            return ocspResponder.equals(other.ocspResponder) && certID.equals(other.certID);
+        }
+
+        public int hashCode()
+        {
+            return ocspResponder.hashCode() * 31 + certID.hashCode();
+        }
+    }
 }
@@ -16,6 +16,7 @@
 
     private PKIXCertRevocationCheckerParameters params;
     private Date currentDate = null;
+    private RevocationCache revocationCache = null;
 
     public ProvCrlRevocationChecker(JcaJceHelper helper)
     {
@@ -24,7 +25,14 @@ public ProvCrlRevocationChecker(JcaJceHelper helper)
 
     public void setParameter(String name, Object value)
     {
-
+        if (RevocationCache.PARAMETER_NAME.equals(name))
+        {
+            if (value != null && !(value instanceof RevocationCache))
+            {
+                throw new IllegalArgumentException("RevocationCache parameter must be a RevocationCache");
+            }
+            this.revocationCache = (RevocationCache)value;
+        }
     }
 
     public void initialize(PKIXCertRevocationCheckerParameters params)
@@ -50,7 +58,7 @@ public void check(Certificate certificate)
     {
         try
         {
-            RFC3280CertPathUtilities.checkCRLs(params, params.getParamsPKIX(), currentDate, params.getValidDate(),
+            RFC3280CertPathUtilities.checkCRLs(revocationCache, params, params.getParamsPKIX(), currentDate, params.getValidDate(),
                 (X509Certificate)certificate, params.getSigningCert(), params.getWorkingPublicKey(),
                 params.getCertPath().getCertificates(), helper);
         }
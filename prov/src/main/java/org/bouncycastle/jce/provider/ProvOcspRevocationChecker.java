@@ -124,6 +124,7 @@
     private PKIXCertRevocationCheckerParameters parameters;
     private boolean isEnabledOCSP;
     private String ocspURL;
+    private RevocationCache revocationCache;
 
     public ProvOcspRevocationChecker(ProvRevocationChecker parent, JcaJceHelper helper)
     {
@@ -133,7 +134,14 @@ public ProvOcspRevocationChecker(ProvRevocationChecker parent, JcaJceHelper help
 
     public void setParameter(String name, Object value)
     {
-
+        if (RevocationCache.PARAMETER_NAME.equals(name))
+        {
+            if (value != null && !(value instanceof RevocationCache))
+            {
+                throw new IllegalArgumentException("RevocationCache parameter must be a RevocationCache");
+            }
+            this.revocationCache = (RevocationCache)value;
+        }
     }
 
     public void initialize(PKIXCertRevocationCheckerParameters parameters)
@@ -216,7 +224,7 @@ public void check(Certificate certificate)
             // TODO: configure hash algorithm
             CertID id = createCertID(new AlgorithmIdentifier(OIWObjectIdentifiers.idSHA1), issuer, new ASN1Integer(cert.getSerialNumber()));
 
-            OCSPResponse response = OcspCache.getOcspResponse(id, parameters, ocspUri, parent.getOcspResponderCert(), parent.getOcspExtensions(), helper);
+            OCSPResponse response = OcspCache.getOcspResponse(revocationCache, id, parameters, ocspUri, parent.getOcspResponderCert(), parent.getOcspExtensions(), helper);
 
             try
             {
@@ -90,7 +90,8 @@ public ProvRevocationChecker(JcaJceHelper helper)
 
     public void setParameter(String name, Object value)
     {
-
+        crlChecker.setParameter(name, value);
+        ocspChecker.setParameter(name, value);
     }
 
     public void initialize(PKIXCertRevocationCheckerParameters parameters)
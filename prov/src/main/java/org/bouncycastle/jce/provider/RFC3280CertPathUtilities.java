@@ -1653,6 +1653,8 @@ protected static void prepareNextCertG(
     /**
      * Checks a distribution point for revocation information for the certificate <code>cert</code>.
      *
+     * @param revocationCache
+     *            The cache for CRLs fetched from distribution points, null for the default.
      * @param dp
      *            The distribution point to consider.
      * @param paramsPKIX
@@ -1678,6 +1680,7 @@ protected static void prepareNextCertG(
      *             occurs.
      */
     private static void checkCRL(
+        RevocationCache revocationCache,
         PKIXCertRevocationCheckerParameters params,
         DistributionPoint dp,
         PKIXExtendedParameters paramsPKIX,
@@ -1745,7 +1748,7 @@ private static void checkCRL(
                 if (paramsPKIX.isUseDeltasEnabled())
                 {
                     // get delta CRLs
-                    Set deltaCRLs = CertPathValidatorUtilities.getDeltaCRLs(validityDate, crl, paramsPKIX.getCertStores(), paramsPKIX.getCRLStores(), helper);
+                    Set deltaCRLs = CertPathValidatorUtilities.getDeltaCRLs(revocationCache, validityDate, crl, paramsPKIX.getCertStores(), paramsPKIX.getCRLStores(), helper);
                     // we only want one valid delta CRL
                     // (h)
                     deltaCRL = RFC3280CertPathUtilities.processCRLH(deltaCRLs, key);
@@ -1844,6 +1847,8 @@ private static void checkCRL(
     /**
      * Checks a certificate if it is revoked.
      *
+     * @param revocationCache
+     *            The cache for CRLs fetched from distribution points, null for the default.
      * @param paramsPKIX
      *            PKIX parameters.
      * @param currentDate
@@ -1863,6 +1868,7 @@ private static void checkCRL(
      *             occurs.
      */
     protected static void checkCRLs(
+        RevocationCache revocationCache,
         PKIXCertRevocationCheckerParameters params,
         PKIXExtendedParameters paramsPKIX,
         Date currentDate,
@@ -1889,7 +1895,7 @@ protected static void checkCRLs(
         PKIXExtendedParameters.Builder paramsBldr = new PKIXExtendedParameters.Builder(paramsPKIX);
         try
         {
-            List extras = CertPathValidatorUtilities.getAdditionalStoresFromCRLDistributionPoint(crldp,
+            List extras = CertPathValidatorUtilities.getAdditionalStoresFromCRLDistributionPoint(revocationCache, crldp,
                 paramsPKIX.getNamedCRLStoreMap(), validityDate, helper);
             for (Iterator it = extras.iterator(); it.hasNext();)
             {
@@ -1924,7 +1930,7 @@ protected static void checkCRLs(
                 {
                     try
                     {
-                        checkCRL(params, dps[i], finalParams, currentDate, validityDate, cert, sign, workingPublicKey,
+                        checkCRL(revocationCache, params, dps[i], finalParams, currentDate, validityDate, cert, sign, workingPublicKey,
                             certStatus, reasonsMask, certPathCerts, helper);
                         validCrlFound = true;
                     }
@@ -1963,7 +1969,7 @@ protected static void checkCRLs(
                 DistributionPoint dp = new DistributionPoint(new DistributionPointName(0, new GeneralNames(
                     new GeneralName(GeneralName.directoryName, issuer))), null, null);
                 PKIXExtendedParameters paramsPKIXClone = (PKIXExtendedParameters)paramsPKIX.clone();
-                checkCRL(params, dp, paramsPKIXClone, currentDate, validityDate, cert, sign, workingPublicKey,
+                checkCRL(revocationCache, params, dp, paramsPKIXClone, currentDate, validityDate, cert, sign, workingPublicKey,
                     certStatus, reasonsMask, certPathCerts, helper);
                 validCrlFound = true;
             }
@@ -0,0 +1,439 @@
+package org.bouncycastle.jce.provider;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent cache for the CRLs and OCSP responses fetched during revocation checking.
+ * <p>
+ * Entries are bounded in number and age, and expire no later than the next update time of the data they hold.
+ * Concurrent requests for the same distribution point or OCSP responder share a single fetch. If a refresh
+ * executor is configured, entries close to their expiry are refreshed in the background while the current
+ * value continues to be served.
+ * </p>
+ * A cache can be installed as the default with {@link #setDefault(RevocationCache)}, or passed to an individual
+ * revocation checker using {@link org.bouncycastle.jcajce.PKIXCertRevocationChecker#setParameter(String, Object)}
+ * with the name {@link #PARAMETER_NAME}.
+ */
+public class RevocationCache
+{
+    /**
+     * Parameter name used to set the cache on a BC revocation checker.
+     */
+    public static final String PARAMETER_NAME = "RevocationCache";
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    private static final long DEFAULT_MAXIMUM_AGE = 60 * 60 * 1000L; // 1 hour
+
+    private static volatile RevocationCache defaultCache = new Builder().build();
+
+    /**
+     * Builder for a RevocationCache.
+     */
+    public static class Builder
+    {
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private long maximumAge = DEFAULT_MAXIMUM_AGE;
+        private long refreshAhead = 0;
+        private Executor refreshExecutor = null;
+
+        public Builder()
+        {
+        }
+
+        /**
+         * Set the maximum number of entries held, the least recently used entry is evicted when it is exceeded.
+         *
+         * @param maximumSize the maximum number of entries.
+         * @return the current builder.
+         */
+        public Builder setMaximumSize(int maximumSize)
+        {
+            if (maximumSize < 1)
+            {
+                throw new IllegalArgumentException("maximumSize must be at least 1");
+            }
+
+            this.maximumSize = maximumSize;
+
+            return this;
+        }
+
+        /**
+         * Set the maximum time an entry is kept after it was fetched (default 1 hour). Entries expire at the
+         * next update time of the data they hold if that is sooner, and data without a next update time is
+         * only ever kept for the maximum age.
+         *
+         * @param maximumAge the maximum age in milliseconds.
+         * @return the current builder.
+         */
+        public Builder setMaximumAge(long maximumAge)
+        {
+            if (maximumAge < 1)
+            {
+                throw new IllegalArgumentException("maximumAge must be at least 1");
+            }
+
+            this.maximumAge = maximumAge;
+
+            return this;
+        }
+
+        /**
+         * Enable background refresh of entries which are within refreshAhead milliseconds of expiry.
+         *
+         * @param refreshAhead how long before expiry a refresh may start, in milliseconds.
+         * @param refreshExecutor the executor to run the refresh fetches on.
+         * @return the current builder.
+         */
+        public Builder setRefreshAhead(long refreshAhead, Executor refreshExecutor)
+        {
+            if (refreshAhead < 0)
+            {
+                throw new IllegalArgumentException("refreshAhead cannot be negative");
+            }
+            if (refreshExecutor == null)
+            {
+                throw new NullPointerException("refreshExecutor cannot be null");
+            }
+
+            this.refreshAhead = refreshAhead;
+            this.refreshExecutor = refreshExecutor;
+
+            return this;
+        }
+
+        public RevocationCache build()
+        {
+            return new RevocationCache(this);
+        }
+    }
+
+    /**
+     * Fetches the data for a cache entry.
+     */
+    interface Loader
+    {
+        Object load()
+            throws Exception;
+
+        /**
+         * Return the time after which the loaded value must no longer be used, null if there is none.
+         */
+        Date getNextUpdate(Object value);
+    }
+
+    private final int maximumSize;
+    private final long maximumAge;
+    private final long refreshAhead;
+    private final Executor refreshExecutor;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<Object, Entry>();
+    private final ConcurrentHashMap<Object, FutureTask<Object>> loading = new ConcurrentHashMap<Object, FutureTask<Object>>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong loadFailureCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private RevocationCache(Builder builder)
+    {
+        this.maximumSize = builder.maximumSize;
+        this.maximumAge = builder.maximumAge;
+        this.refreshAhead = builder.refreshAhead;
+        this.refreshExecutor = builder.refreshExecutor;
+    }
+
+    /**
+     * Return the cache used by revocation checkers which have not been given one.
+     *
+     * @return the default cache.
+     */
+    public static RevocationCache getDefault()
+    {
+        return defaultCache;
+    }
+
+    /**
+     * Set the cache used by revocation checkers which have not been given one.
+     *
+     * @param cache the new default cache.
+     */
+    public static void setDefault(RevocationCache cache)
+    {
+        if (cache == null)
+        {
+            throw new NullPointerException("cache cannot be null");
+        }
+
+        defaultCache = cache;
+    }
+
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    public long getLoadCount()
+    {
+        return loadCount.get();
+    }
+
+    public long getLoadFailureCount()
+    {
+        return loadFailureCount.get();
+    }
+
+    public long getRefreshCount()
+    {
+        return refreshCount.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void clear()
+    {
+        entries.clear();
+    }
+
+    /**
+     * Return the current value for key, fetching it with loader if there is no unexpired entry or reload is set.
+     */
+    Object get(Object key, Loader loader, boolean reload)
+        throws Exception
+    {
+        if (!reload)
+        {
+            Entry entry = entries.get(key);
+            if (entry != null)
+            {
+                long now = System.currentTimeMillis();
+                if (now < entry.expiresAt)
+                {
+                    hitCount.incrementAndGet();
+                    entry.lastAccess = now;
+
+                    if (now >= entry.refreshAt)
+                    {
+                        refresh(key, entry, loader);
+                    }
+
+                    return entry.value;
+                }
+            }
+        }
+
+        missCount.incrementAndGet();
+
+        return load(key, loader);
+    }
+
+    /**
+     * Remove the entry for key, if there is one.
+     */
+    void invalidate(Object key)
+    {
+        entries.remove(key);
+    }
+
+    private Object load(Object key, Loader loader)
+        throws Exception
+    {
+        FutureTask<Object> task = new FutureTask<Object>(new LoadTask(key, loader));
+
+        FutureTask<Object> current = loading.putIfAbsent(key, task);
+        if (current == null)
+        {
+            current = task;
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                loading.remove(key, task);
+            }
+        }
+
+        try
+        {
+            return current.get();
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception)
+            {
+                throw (Exception)cause;
+            }
+            throw (Error)cause;
+        }
+    }
+
+    private void refresh(final Object key, Entry entry, Loader loader)
+    {
+        // only the first caller to see the entry in its refresh window schedules a refresh
+        synchronized (entry)
+        {
+            if (entry.refreshAt == Long.MAX_VALUE)
+            {
+                return;
+            }
+            entry.refreshAt = Long.MAX_VALUE;
+        }
+
+        final FutureTask<Object> task = new FutureTask<Object>(new LoadTask(key, loader));
+        if (loading.putIfAbsent(key, task) != null)
+        {
+            return;
+        }
+
+        refreshCount.incrementAndGet();
+
+        try
+        {
+            refreshExecutor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        task.run();
+                    }
+                    finally
+                    {
+                        loading.remove(key, task);
+                    }
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            // executor rejected the refresh, the entry will be fetched again when it expires
+            loading.remove(key, task);
+        }
+    }
+
+    private void put(Object key, Entry entry)
+    {
+        entries.put(key, entry);
+
+        while (entries.size() > maximumSize)
+        {
+            Object eldestKey = null;
+            long eldestAccess = Long.MAX_VALUE;
+
+            for (Iterator<Map.Entry<Object, Entry>> it = entries.entrySet().iterator(); it.hasNext();)
+            {
+                Map.Entry<Object, Entry> e = it.next();
+                if (e.getValue().lastAccess < eldestAccess)
+                {
+                    eldestKey = e.getKey();
+                    eldestAccess = e.getValue().lastAccess;
+                }
+            }
+
+            if (eldestKey == null || entries.remove(eldestKey) == null)
+            {
+                break;
+            }
+
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private class LoadTask
+        implements Callable<Object>
+    {
+        private final Object key;
+        private final Loader loader;
+
+        LoadTask(Object key, Loader loader)
+        {
+            this.key = key;
+            this.loader = loader;
+        }
+
+        public Object call()
+            throws Exception
+        {
+            Object value;
+            try
+            {
+                value = loader.load();
+            }
+            catch (Exception e)
+            {
+                loadFailureCount.incrementAndGet();
+                throw e;
+            }
+
+            loadCount.incrementAndGet();
+
+            long now = System.currentTimeMillis();
+            long expiresAt = now + maximumAge;
+            if (expiresAt < now)
+            {
+                expiresAt = Long.MAX_VALUE;     // maximumAge large enough to overflow
+            }
+
+            Date nextUpdate = loader.getNextUpdate(value);
+            if (nextUpdate != null && nextUpdate.getTime() < expiresAt)
+            {
+                expiresAt = nextUpdate.getTime();
+            }
+
+            long refreshAt = Long.MAX_VALUE;
+            if (refreshExecutor != null)
+            {
+                refreshAt = expiresAt - refreshAhead;
+            }
+
+            put(key, new Entry(value, now, expiresAt, refreshAt));
+
+            return value;
+        }
+    }
+
+    private static class Entry
+    {
+        final Object value;
+        final long expiresAt;
+
+        volatile long lastAccess;
+        volatile long refreshAt;
+
+        Entry(Object value, long lastAccess, long expiresAt, long refreshAt)
+        {
+            this.value = value;
+            this.lastAccess = lastAccess;
+            this.expiresAt = expiresAt;
+            this.refreshAt = refreshAt;
+        }
+    }
+}
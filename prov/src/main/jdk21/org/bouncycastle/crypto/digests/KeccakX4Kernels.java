@@ -0,0 +1,49 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.util.Properties;
+
+/**
+ * The four way Keccak-f[1600] permutation used by {@link SHAKEX4}. This version uses the Vector API implementation in
+ * {@link VectorKeccakX4} if the jdk.incubator.vector module has been added to the runtime (e.g. with --add-modules
+ * jdk.incubator.vector) and the platform's preferred vectors are 256 bits, otherwise it uses the scalar code in
+ * KeccakX4. As SHAKEX4 is there for the ML-KEM, ML-DSA, and SLH-DSA expansions, setting the system property
+ * "org.bouncycastle.pqc.vector" to false disables the use of the Vector API here as well.
+ */
+class KeccakX4Kernels
+{
+    private static final boolean VECTOR = isVectorAvailable();
+
+    /**
+     * Permute the interleaved states, those whose bits are not set in active being unused. The vector version
+     * permutes all four regardless, as it costs the same.
+     */
+    static void permute(long[] A, int active)
+    {
+        if (VECTOR)
+        {
+            VectorKeccakX4.permute(A);
+        }
+        else
+        {
+            KeccakX4.permute(A, active);
+        }
+    }
+
+    private static boolean isVectorAvailable()
+    {
+        if (!Properties.isOverrideSet("org.bouncycastle.pqc.vector", true))
+        {
+            return false;
+        }
+
+        try
+        {
+            return VectorKeccakX4.isSupported();
+        }
+        catch (LinkageError e)
+        {
+            // jdk.incubator.vector is not available
+            return false;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.bouncycastle.crypto.digests;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API version of the four way Keccak-f[1600] permutation in {@link KeccakX4}. Each group of four words in the
+ * interleaved state, the same lane of the four states, is held in one 256 bit vector, so every step of the round
+ * function is applied to all four states at once.
+ */
+class VectorKeccakX4
+{
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_256;
+
+    /**
+     * Return true if the platform's preferred vectors are 256 bits. With narrower ones the four states would not fit in
+     * a vector, and with wider ones the polynomial kernels, which use the preferred size, would be working on long
+     * vectors of a different shape - C2 then fails to intrinsify the operations of either, and both end up slower
+     * than the scalar code.
+     */
+    static boolean isSupported()
+    {
+        return LongVector.SPECIES_PREFERRED.vectorBitSize() == 256;
+    }
+
+    static void permute(long[] A)
+    {
+        LongVector a00 = load(A, 0), a01 = load(A, 1), a02 = load(A, 2), a03 = load(A, 3), a04 = load(A, 4);
+        LongVector a05 = load(A, 5), a06 = load(A, 6), a07 = load(A, 7), a08 = load(A, 8), a09 = load(A, 9);
+        LongVector a10 = load(A, 10), a11 = load(A, 11), a12 = load(A, 12), a13 = load(A, 13), a14 = load(A, 14);
+        LongVector a15 = load(A, 15), a16 = load(A, 16), a17 = load(A, 17), a18 = load(A, 18), a19 = load(A, 19);
+        LongVector a20 = load(A, 20), a21 = load(A, 21), a22 = load(A, 22), a23 = load(A, 23), a24 = load(A, 24);
+
+        for (int i = 0; i < 24; i++)
+        {
+            // theta
+            LongVector c0 = a00.lanewise(VectorOperators.XOR, a05).lanewise(VectorOperators.XOR, a10)
+                .lanewise(VectorOperators.XOR, a15).lanewise(VectorOperators.XOR, a20);
+            LongVector c1 = a01.lanewise(VectorOperators.XOR, a06).lanewise(VectorOperators.XOR, a11)
+                .lanewise(VectorOperators.XOR, a16).lanewise(VectorOperators.XOR, a21);
+            LongVector c2 = a02.lanewise(VectorOperators.XOR, a07).lanewise(VectorOperators.XOR, a12)
+                .lanewise(VectorOperators.XOR, a17).lanewise(VectorOperators.XOR, a22);
+            LongVector c3 = a03.lanewise(VectorOperators.XOR, a08).lanewise(VectorOperators.XOR, a13)
+                .lanewise(VectorOperators.XOR, a18).lanewise(VectorOperators.XOR, a23);
+            LongVector c4 = a04.lanewise(VectorOperators.XOR, a09).lanewise(VectorOperators.XOR, a14)
+                .lanewise(VectorOperators.XOR, a19).lanewise(VectorOperators.XOR, a24);
+
+            LongVector d1 = c1.lanewise(VectorOperators.ROL, 1).lanewise(VectorOperators.XOR, c4);
+            LongVector d2 = c2.lanewise(VectorOperators.ROL, 1).lanewise(VectorOperators.XOR, c0);
+            LongVector d3 = c3.lanewise(VectorOperators.ROL, 1).lanewise(VectorOperators.XOR, c1);
+            LongVector d4 = c4.lanewise(VectorOperators.ROL, 1).lanewise(VectorOperators.XOR, c2);
+            LongVector d0 = c0.lanewise(VectorOperators.ROL, 1).lanewise(VectorOperators.XOR, c3);
+
+            a00 = a00.lanewise(VectorOperators.XOR, d1);
+            a05 = a05.lanewise(VectorOperators.XOR, d1);
+            a10 = a10.lanewise(VectorOperators.XOR, d1);
+            a15 = a15.lanewise(VectorOperators.XOR, d1);
+            a20 = a20.lanewise(VectorOperators.XOR, d1);
+            a01 = a01.lanewise(VectorOperators.XOR, d2);
+            a06 = a06.lanewise(VectorOperators.XOR, d2);
+            a11 = a11.lanewise(VectorOperators.XOR, d2);
+            a16 = a16.lanewise(VectorOperators.XOR, d2);
+            a21 = a21.lanewise(VectorOperators.XOR, d2);
+            a02 = a02.lanewise(VectorOperators.XOR, d3);
+            a07 = a07.lanewise(VectorOperators.XOR, d3);
+            a12 = a12.lanewise(VectorOperators.XOR, d3);
+            a17 = a17.lanewise(VectorOperators.XOR, d3);
+            a22 = a22.lanewise(VectorOperators.XOR, d3);
+            a03 = a03.lanewise(VectorOperators.XOR, d4);
+            a08 = a08.lanewise(VectorOperators.XOR, d4);
+            a13 = a13.lanewise(VectorOperators.XOR, d4);
+            a18 = a18.lanewise(VectorOperators.XOR, d4);
+            a23 = a23.lanewise(VectorOperators.XOR, d4);
+            a04 = a04.lanewise(VectorOperators.XOR, d0);
+            a09 = a09.lanewise(VectorOperators.XOR, d0);
+            a14 = a14.lanewise(VectorOperators.XOR, d0);
+            a19 = a19.lanewise(VectorOperators.XOR, d0);
+            a24 = a24.lanewise(VectorOperators.XOR, d0);
+
+            // rho/pi
+            c1 = a01.lanewise(VectorOperators.ROL, 1);
+            a01 = a06.lanewise(VectorOperators.ROL, 44);
+            a06 = a09.lanewise(VectorOperators.ROL, 20);
+            a09 = a22.lanewise(VectorOperators.ROL, 61);
+            a22 = a14.lanewise(VectorOperators.ROL, 39);
+            a14 = a20.lanewise(VectorOperators.ROL, 18);
+            a20 = a02.lanewise(VectorOperators.ROL, 62);
+            a02 = a12.lanewise(VectorOperators.ROL, 43);
+            a12 = a13.lanewise(VectorOperators.ROL, 25);
+            a13 = a19.lanewise(VectorOperators.ROL, 8);
+            a19 = a23.lanewise(VectorOperators.ROL, 56);
+            a23 = a15.lanewise(VectorOperators.ROL, 41);
+            a15 = a04.lanewise(VectorOperators.ROL, 27);
+            a04 = a24.lanewise(VectorOperators.ROL, 14);
+            a24 = a21.lanewise(VectorOperators.ROL, 2);
+            a21 = a08.lanewise(VectorOperators.ROL, 55);
+            a08 = a16.lanewise(VectorOperators.ROL, 45);
+            a16 = a05.lanewise(VectorOperators.ROL, 36);
+            a05 = a03.lanewise(VectorOperators.ROL, 28);
+            a03 = a18.lanewise(VectorOperators.ROL, 21);
+            a18 = a17.lanewise(VectorOperators.ROL, 15);
+            a17 = a11.lanewise(VectorOperators.ROL, 10);
+            a11 = a07.lanewise(VectorOperators.ROL, 6);
+            a07 = a10.lanewise(VectorOperators.ROL, 3);
+            a10 = c1;
+
+            // chi
+            c0 = a00.lanewise(VectorOperators.XOR, a02.lanewise(VectorOperators.AND_NOT, a01));
+            c1 = a01.lanewise(VectorOperators.XOR, a03.lanewise(VectorOperators.AND_NOT, a02));
+            a02 = a02.lanewise(VectorOperators.XOR, a04.lanewise(VectorOperators.AND_NOT, a03));
+            a03 = a03.lanewise(VectorOperators.XOR, a00.lanewise(VectorOperators.AND_NOT, a04));
+            a04 = a04.lanewise(VectorOperators.XOR, a01.lanewise(VectorOperators.AND_NOT, a00));
+            a00 = c0;
+            a01 = c1;
+
+            c0 = a05.lanewise(VectorOperators.XOR, a07.lanewise(VectorOperators.AND_NOT, a06));
+            c1 = a06.lanewise(VectorOperators.XOR, a08.lanewise(VectorOperators.AND_NOT, a07));
+            a07 = a07.lanewise(VectorOperators.XOR, a09.lanewise(VectorOperators.AND_NOT, a08));
+            a08 = a08.lanewise(VectorOperators.XOR, a05.lanewise(VectorOperators.AND_NOT, a09));
+            a09 = a09.lanewise(VectorOperators.XOR, a06.lanewise(VectorOperators.AND_NOT, a05));
+            a05 = c0;
+            a06 = c1;
+
+            c0 = a10.lanewise(VectorOperators.XOR, a12.lanewise(VectorOperators.AND_NOT, a11));
+            c1 = a11.lanewise(VectorOperators.XOR, a13.lanewise(VectorOperators.AND_NOT, a12));
+            a12 = a12.lanewise(VectorOperators.XOR, a14.lanewise(VectorOperators.AND_NOT, a13));
+            a13 = a13.lanewise(VectorOperators.XOR, a10.lanewise(VectorOperators.AND_NOT, a14));
+            a14 = a14.lanewise(VectorOperators.XOR, a11.lanewise(VectorOperators.AND_NOT, a10));
+            a10 = c0;
+            a11 = c1;
+
+            c0 = a15.lanewise(VectorOperators.XOR, a17.lanewise(VectorOperators.AND_NOT, a16));
+            c1 = a16.lanewise(VectorOperators.XOR, a18.lanewise(VectorOperators.AND_NOT, a17));
+            a17 = a17.lanewise(VectorOperators.XOR, a19.lanewise(VectorOperators.AND_NOT, a18));
+            a18 = a18.lanewise(VectorOperators.XOR, a15.lanewise(VectorOperators.AND_NOT, a19));
+            a19 = a19.lanewise(VectorOperators.XOR, a16.lanewise(VectorOperators.AND_NOT, a15));
+            a15 = c0;
+            a16 = c1;
+
+            c0 = a20.lanewise(VectorOperators.XOR, a22.lanewise(VectorOperators.AND_NOT, a21));
+            c1 = a21.lanewise(VectorOperators.XOR, a23.lanewise(VectorOperators.AND_NOT, a22));
+            a22 = a22.lanewise(VectorOperators.XOR, a24.lanewise(VectorOperators.AND_NOT, a23));
+            a23 = a23.lanewise(VectorOperators.XOR, a20.lanewise(VectorOperators.AND_NOT, a24));
+            a24 = a24.lanewise(VectorOperators.XOR, a21.lanewise(VectorOperators.AND_NOT, a20));
+            a20 = c0;
+            a21 = c1;
+
+            // iota
+            a00 = a00.lanewise(VectorOperators.XOR, KeccakX4.ROUND_CONSTANTS[i]);
+        }
+
+        a00.intoArray(A, 0);
+        a01.intoArray(A, 4);
+        a02.intoArray(A, 8);
+        a03.intoArray(A, 12);
+        a04.intoArray(A, 16);
+        a05.intoArray(A, 20);
+        a06.intoArray(A, 24);
+        a07.intoArray(A, 28);
+        a08.intoArray(A, 32);
+        a09.intoArray(A, 36);
+        a10.intoArray(A, 40);
+        a11.intoArray(A, 44);
+        a12.intoArray(A, 48);
+        a13.intoArray(A, 52);
+        a14.intoArray(A, 56);
+        a15.intoArray(A, 60);
+        a16.intoArray(A, 64);
+        a17.intoArray(A, 68);
+        a18.intoArray(A, 72);
+        a19.intoArray(A, 76);
+        a20.intoArray(A, 80);
+        a21.intoArray(A, 84);
+        a22.intoArray(A, 88);
+        a23.intoArray(A, 92);
+        a24.intoArray(A, 96);
+    }
+
+    private static LongVector load(long[] A, int lane)
+    {
+        return LongVector.fromArray(SPECIES, A, lane << 2);
+    }
+}
@@ -0,0 +1,113 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+import org.bouncycastle.util.Properties;
+
+/**
+ * Operations on whole polynomials, in place on their coefficient arrays. This version uses the Vector API
+ * implementations in {@link VectorPolyKernels} if the jdk.incubator.vector module has been added to the runtime
+ * (e.g. with --add-modules jdk.incubator.vector) and the platform has wide enough vectors, otherwise it uses the
+ * scalar code in Ntt, Reduce, and Poly. Setting the system property "org.bouncycastle.pqc.vector" to false disables
+ * the use of the Vector API.
+ */
+class PolyKernels
+{
+    private static final boolean VECTOR = isVectorAvailable();
+
+    static void ntt(int[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.ntt(r);
+        }
+        else
+        {
+            Ntt.ntt(r);
+        }
+    }
+
+    static void invNttToMont(int[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.invNttToMont(r);
+        }
+        else
+        {
+            Ntt.invNttToMont(r);
+        }
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.pointwiseMontgomery(r, a, b);
+        }
+        else
+        {
+            Ntt.pointwiseMontgomery(r, a, b);
+        }
+    }
+
+    static void reduce32(int[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.reduce32(r);
+        }
+        else
+        {
+            Reduce.reduce32(r);
+        }
+    }
+
+    static void conditionalAddQ(int[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.conditionalAddQ(r);
+        }
+        else
+        {
+            Reduce.conditionalAddQ(r);
+        }
+    }
+
+    static int rejectUniform(int[] r, int coeffOff, int len, byte[] buf, int buflen)
+    {
+        if (VECTOR)
+        {
+            return VectorPolyKernels.rejectUniform(r, coeffOff, len, buf, buflen);
+        }
+
+        return Poly.rejectUniform(r, coeffOff, len, buf, buflen);
+    }
+
+    static int rejectEta(int[] r, int coeffOff, int len, byte[] buf, int buflen, int eta)
+    {
+        if (VECTOR)
+        {
+            return VectorPolyKernels.rejectEta(r, coeffOff, len, buf, buflen, eta);
+        }
+
+        return Poly.rejectEta(r, coeffOff, len, buf, buflen, eta);
+    }
+
+    private static boolean isVectorAvailable()
+    {
+        if (!Properties.isOverrideSet("org.bouncycastle.pqc.vector", true))
+        {
+            return false;
+        }
+
+        try
+        {
+            return VectorPolyKernels.isSupported();
+        }
+        catch (LinkageError e)
+        {
+            // jdk.incubator.vector is not available
+            return false;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the operations in {@link PolyKernels}, giving the same results as the scalar code.
+ * <p>
+ * The Montgomery multiplications need 64 bit products, so the NTTs and pointwise multiplication work on long lanes
+ * holding the 32 bit coefficients, each result being narrowed back to 32 bits the way the scalar code's int
+ * arithmetic does. The other reductions only need int lanes. NTT layers with fewer butterflies per block than there
+ * are lanes are done with scalar code, as is the unpacking of sampled bytes, the vectors then being used for the
+ * acceptance tests.
+ * </p>
+ */
+class VectorPolyKernels
+{
+    private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int INT_LANES = INT_SPECIES.length();
+    private static final int LANES = SPECIES.length();
+
+    private static final int N = MLDSAEngine.DilithiumN;
+    private static final int Q = MLDSAEngine.DilithiumQ;
+    private static final long QINV = MLDSAEngine.DilithiumQinv;
+    private static final int INV_NTT_F = 41978;
+
+    /**
+     * Return true if the platform has vectors of at least 256 bits, narrower vectors give too few long lanes to be
+     * worth the widening of the coefficients.
+     */
+    static boolean isSupported()
+    {
+        return SPECIES.vectorBitSize() >= 256;
+    }
+
+    static void ntt(int[] r)
+    {
+        long[] a = widen(r);
+
+        int k = 0;
+        for (int len = 128; len > 0; len >>>= 1)
+        {
+            for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = Ntt.nttZetas[++k];
+                if (len >= LANES)
+                {
+                    LongVector z = LongVector.broadcast(SPECIES, zeta);
+                    for (int j = start; j < start + len; j += LANES)
+                    {
+                        LongVector x = LongVector.fromArray(SPECIES, a, j);
+                        LongVector t = montgomeryReduce(LongVector.fromArray(SPECIES, a, j + len).mul(z));
+                        narrow(x.sub(t)).intoArray(a, j + len);
+                        narrow(x.add(t)).intoArray(a, j);
+                    }
+                }
+                else
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = Reduce.montgomeryReduce((long)zeta * a[j + len]);
+                        a[j + len] = (int)a[j] - t;
+                        a[j] = (int)a[j] + t;
+                    }
+                }
+            }
+        }
+
+        narrow(a, r);
+    }
+
+    static void invNttToMont(int[] r)
+    {
+        long[] a = widen(r);
+
+        int k = 256;
+        for (int len = 1; len < N; len <<= 1)
+        {
+            for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = (-1) * Ntt.nttZetas[--k];
+                if (len >= LANES)
+                {
+                    LongVector z = LongVector.broadcast(SPECIES, zeta);
+                    for (int j = start; j < start + len; j += LANES)
+                    {
+                        LongVector x = LongVector.fromArray(SPECIES, a, j);
+                        LongVector y = LongVector.fromArray(SPECIES, a, j + len);
+                        narrow(x.add(y)).intoArray(a, j);
+                        montgomeryReduce(narrow(x.sub(y)).mul(z)).intoArray(a, j + len);
+                    }
+                }
+                else
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = (int)a[j];
+                        a[j] = t + (int)a[j + len];
+                        a[j + len] = Reduce.montgomeryReduce((long)zeta * (t - (int)a[j + len]));
+                    }
+                }
+            }
+        }
+
+        LongVector f = LongVector.broadcast(SPECIES, INV_NTT_F);
+        for (int i = 0; i < N; i += LANES)
+        {
+            montgomeryReduce(LongVector.fromArray(SPECIES, a, i).mul(f)).intoArray(a, i);
+        }
+
+        narrow(a, r);
+    }
+
+    static void pointwiseMontgomery(int[] r, int[] a, int[] b)
+    {
+        long[] x = widen(a);
+        long[] y = widen(b);
+
+        for (int i = 0; i < N; i += LANES)
+        {
+            montgomeryReduce(LongVector.fromArray(SPECIES, x, i).mul(LongVector.fromArray(SPECIES, y, i)))
+                .intoArray(x, i);
+        }
+
+        narrow(x, r);
+    }
+
+    static void reduce32(int[] r)
+    {
+        for (int i = 0; i < N; i += INT_LANES)
+        {
+            IntVector a = IntVector.fromArray(INT_SPECIES, r, i);
+            IntVector t = a.add(1 << 22).lanewise(VectorOperators.ASHR, 23);
+            a.sub(t.mul(Q)).intoArray(r, i);
+        }
+    }
+
+    static void conditionalAddQ(int[] r)
+    {
+        for (int i = 0; i < N; i += INT_LANES)
+        {
+            IntVector a = IntVector.fromArray(INT_SPECIES, r, i);
+            a.add(a.lanewise(VectorOperators.ASHR, 31).and(Q)).intoArray(r, i);
+        }
+    }
+
+    static int rejectUniform(int[] r, int coeffOff, int len, byte[] buf, int buflen)
+    {
+        // unpack every 23 bit candidate, padding to a whole number of vectors with rejected values
+        int count = buflen / 3;
+        int[] candidates = new int[((count + INT_LANES - 1) / INT_LANES) * INT_LANES];
+        for (int i = 0, pos = 0; i < count; i++, pos += 3)
+        {
+            candidates[i] = ((buf[pos] & 0xFF) | (buf[pos + 1] & 0xFF) << 8 | (buf[pos + 2] & 0xFF) << 16) & 0x7FFFFF;
+        }
+        for (int i = count; i < candidates.length; i++)
+        {
+            candidates[i] = Q;
+        }
+
+        int ctr = 0;
+        for (int i = 0; i < candidates.length && ctr < len; i += INT_LANES)
+        {
+            IntVector c = IntVector.fromArray(INT_SPECIES, candidates, i);
+            ctr = store(r, coeffOff, ctr, len, candidates, i, c.compare(VectorOperators.LT, Q));
+        }
+        return ctr;
+    }
+
+    static int rejectEta(int[] r, int coeffOff, int len, byte[] buf, int buflen, int eta)
+    {
+        // unpack every 4 bit candidate, padding to a whole number of vectors with rejected values
+        int[] candidates = new int[((2 * buflen + INT_LANES - 1) / INT_LANES) * INT_LANES];
+        for (int i = 0; i < buflen; i++)
+        {
+            candidates[2 * i] = buf[i] & 0x0F;
+            candidates[2 * i + 1] = (buf[i] & 0xFF) >> 4;
+        }
+        for (int i = 2 * buflen; i < candidates.length; i++)
+        {
+            candidates[i] = 15;
+        }
+
+        int ctr = 0;
+        for (int i = 0; i < candidates.length && ctr < len; i += INT_LANES)
+        {
+            IntVector t = IntVector.fromArray(INT_SPECIES, candidates, i);
+            VectorMask<Integer> accept;
+            if (eta == 2)
+            {
+                accept = t.compare(VectorOperators.LT, 15);
+                t = t.sub(t.mul(205).lanewise(VectorOperators.ASHR, 10).mul(5));
+                IntVector.broadcast(INT_SPECIES, 2).sub(t).intoArray(candidates, i);
+            }
+            else
+            {
+                accept = t.compare(VectorOperators.LT, 9);
+                IntVector.broadcast(INT_SPECIES, 4).sub(t).intoArray(candidates, i);
+            }
+            ctr = store(r, coeffOff, ctr, len, candidates, i, accept);
+        }
+        return ctr;
+    }
+
+    /**
+     * Append the accepted lanes of a vector, previously stored to values at off, to r.
+     */
+    private static int store(int[] r, int coeffOff, int ctr, int len, int[] values, int off, VectorMask<Integer> accept)
+    {
+        long lanes = accept.toLong();
+        while (lanes != 0 && ctr < len)
+        {
+            r[coeffOff + ctr++] = values[off + Long.numberOfTrailingZeros(lanes)];
+            lanes &= lanes - 1;
+        }
+        return ctr;
+    }
+
+    private static LongVector montgomeryReduce(LongVector a)
+    {
+        LongVector t = narrow(a.mul(QINV));
+
+        return a.sub(t.mul(Q)).lanewise(VectorOperators.ASHR, 32);
+    }
+
+    /**
+     * Sign extend the low 32 bits of each lane, as a cast to int does.
+     */
+    private static LongVector narrow(LongVector a)
+    {
+        return a.lanewise(VectorOperators.LSHL, 32).lanewise(VectorOperators.ASHR, 32);
+    }
+
+    private static long[] widen(int[] r)
+    {
+        long[] a = new long[N];
+        for (int i = 0; i < N; i++)
+        {
+            a[i] = r[i];
+        }
+        return a;
+    }
+
+    private static void narrow(long[] a, int[] r)
+    {
+        for (int i = 0; i < N; i++)
+        {
+            r[i] = (int)a[i];
+        }
+    }
+}
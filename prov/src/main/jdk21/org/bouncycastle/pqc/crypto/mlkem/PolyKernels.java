@@ -0,0 +1,116 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+import org.bouncycastle.util.Properties;
+
+/**
+ * Operations on whole polynomials, in place on their coefficient arrays. This version uses the Vector API
+ * implementations in {@link VectorPolyKernels} if the jdk.incubator.vector module has been added to the runtime
+ * (e.g. with --add-modules jdk.incubator.vector) and the platform has wide enough vectors, otherwise it uses the
+ * scalar code in Ntt, Reduce, and CBD. Setting the system property "org.bouncycastle.pqc.vector" to false disables
+ * the use of the Vector API.
+ */
+class PolyKernels
+{
+    private static final boolean VECTOR = isVectorAvailable();
+
+    static void nttReduce(short[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.nttReduce(r);
+        }
+        else
+        {
+            Ntt.ntt(r);
+            Reduce.barretReduce(r);
+        }
+    }
+
+    static void invNtt(short[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.invNtt(r);
+        }
+        else
+        {
+            Ntt.invNtt(r);
+        }
+    }
+
+    static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.baseMultMontgomery(r, a, b);
+        }
+        else
+        {
+            Ntt.baseMultMontgomery(r, a, b);
+        }
+    }
+
+    static void reduce(short[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.reduce(r);
+        }
+        else
+        {
+            Reduce.barretReduce(r);
+        }
+    }
+
+    static void conditionalSubQ(short[] r)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.conditionalSubQ(r);
+        }
+        else
+        {
+            Reduce.conditionalSubQ(r);
+        }
+    }
+
+    static void cbd(short[] r, byte[] bytes, int eta)
+    {
+        if (VECTOR)
+        {
+            VectorPolyKernels.cbd(r, bytes, eta);
+        }
+        else
+        {
+            CBD.mlkemCBD(r, bytes, eta);
+        }
+    }
+
+    static int rejectionSampling(short[] r, int coeffOff, int len, byte[] inpBuf, int inpBufLen)
+    {
+        if (VECTOR)
+        {
+            return VectorPolyKernels.rejectionSampling(r, coeffOff, len, inpBuf, inpBufLen);
+        }
+
+        return MLKEMIndCpa.rejectionSampling(r, coeffOff, len, inpBuf, inpBufLen);
+    }
+
+    private static boolean isVectorAvailable()
+    {
+        if (!Properties.isOverrideSet("org.bouncycastle.pqc.vector", true))
+        {
+            return false;
+        }
+
+        try
+        {
+            return VectorPolyKernels.isSupported();
+        }
+        catch (LinkageError e)
+        {
+            // jdk.incubator.vector is not available
+            return false;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API versions of the operations in {@link PolyKernels}, giving the same results as the scalar code.
+ * <p>
+ * Coefficients are widened to int lanes for the arithmetic, as the Montgomery and Barrett reductions need the high
+ * half of 16 x 16 bit products, and every result is narrowed back to 16 bits the way the scalar code's short
+ * arithmetic does. NTT layers with fewer butterflies per block than there are lanes are done with scalar code, as
+ * is the unpacking of sampled bytes, the vectors then being used for the acceptance tests and bit slicing.
+ * </p>
+ */
+class VectorPolyKernels
+{
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT_SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private static final int N = MLKEMEngine.KyberN;
+    private static final int Q = MLKEMEngine.KyberQ;
+    private static final int QINV = MLKEMEngine.KyberQinv;
+    private static final int BARRETT_V = (int)(((1L << 26) + (Q / 2)) / Q);
+
+    // the zetas for the base multiplications of each pair of coefficients, alternately zeta and -zeta
+    private static final int[] BASE_MULT_ZETAS = new int[N / 2];
+
+    static
+    {
+        for (int i = 0; i < N / 4; i++)
+        {
+            BASE_MULT_ZETAS[2 * i] = Ntt.nttZetas[64 + i];
+            BASE_MULT_ZETAS[2 * i + 1] = (short)(-1 * Ntt.nttZetas[64 + i]);
+        }
+    }
+
+    /**
+     * Return true if the platform has vectors of at least 256 bits, narrower vectors give too few int lanes to be
+     * worth the widening of the coefficients.
+     */
+    static boolean isSupported()
+    {
+        return SPECIES.vectorBitSize() >= 256;
+    }
+
+    static void nttReduce(short[] r)
+    {
+        int[] a = widen(r);
+
+        int k = 1;
+        for (int len = 128; len >= 2; len >>= 1)
+        {
+            for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = Ntt.nttZetas[k++];
+                if (len >= LANES)
+                {
+                    IntVector z = IntVector.broadcast(SPECIES, zeta);
+                    for (int j = start; j < start + len; j += LANES)
+                    {
+                        IntVector x = IntVector.fromArray(SPECIES, a, j);
+                        IntVector t = montgomeryReduce(IntVector.fromArray(SPECIES, a, j + len).mul(z));
+                        narrow(x.sub(t)).intoArray(a, j + len);
+                        narrow(x.add(t)).intoArray(a, j);
+                    }
+                }
+                else
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = Ntt.factorQMulMont((short)zeta, (short)a[j + len]);
+                        a[j + len] = (short)(a[j] - t);
+                        a[j] = (short)(a[j] + t);
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < N; i += LANES)
+        {
+            barrettReduce(IntVector.fromArray(SPECIES, a, i)).intoArray(a, i);
+        }
+
+        narrow(a, r);
+    }
+
+    static void invNtt(short[] r)
+    {
+        int[] a = widen(r);
+
+        int k = 0;
+        for (int len = 2; len <= 128; len <<= 1)
+        {
+            for (int start = 0; start < N; start += 2 * len)
+            {
+                int zeta = Ntt.nttZetasInv[k++];
+                if (len >= LANES)
+                {
+                    IntVector z = IntVector.broadcast(SPECIES, zeta);
+                    for (int j = start; j < start + len; j += LANES)
+                    {
+                        IntVector x = IntVector.fromArray(SPECIES, a, j);
+                        IntVector y = IntVector.fromArray(SPECIES, a, j + len);
+                        barrettReduce(narrow(x.add(y))).intoArray(a, j);
+                        montgomeryReduce(narrow(x.sub(y)).mul(z)).intoArray(a, j + len);
+                    }
+                }
+                else
+                {
+                    for (int j = start; j < start + len; ++j)
+                    {
+                        int t = a[j];
+                        a[j] = Reduce.barretReduce((short)(t + a[j + len]));
+                        a[j + len] = Ntt.factorQMulMont((short)zeta, (short)(t - a[j + len]));
+                    }
+                }
+            }
+        }
+
+        IntVector f = IntVector.broadcast(SPECIES, Ntt.nttZetasInv[127]);
+        for (int i = 0; i < N; i += LANES)
+        {
+            montgomeryReduce(IntVector.fromArray(SPECIES, a, i).mul(f)).intoArray(a, i);
+        }
+
+        narrow(a, r);
+    }
+
+    static void baseMultMontgomery(short[] r, short[] a, short[] b)
+    {
+        int[] a0 = new int[N / 2], a1 = new int[N / 2], b0 = new int[N / 2], b1 = new int[N / 2];
+        for (int i = 0; i < N / 2; i++)
+        {
+            a0[i] = a[2 * i];
+            a1[i] = a[2 * i + 1];
+            b0[i] = b[2 * i];
+            b1[i] = b[2 * i + 1];
+        }
+
+        for (int i = 0; i < N / 2; i += LANES)
+        {
+            IntVector x0 = IntVector.fromArray(SPECIES, a0, i);
+            IntVector x1 = IntVector.fromArray(SPECIES, a1, i);
+            IntVector y0 = IntVector.fromArray(SPECIES, b0, i);
+            IntVector y1 = IntVector.fromArray(SPECIES, b1, i);
+            IntVector zeta = IntVector.fromArray(SPECIES, BASE_MULT_ZETAS, i);
+
+            IntVector r0 = montgomeryReduce(montgomeryReduce(x1.mul(y1)).mul(zeta));
+            r0 = narrow(r0.add(montgomeryReduce(x0.mul(y0))));
+            IntVector r1 = narrow(montgomeryReduce(x0.mul(y1)).add(montgomeryReduce(x1.mul(y0))));
+
+            // reuse the inputs for the outputs, the arrays are private to this call
+            r0.intoArray(a0, i);
+            r1.intoArray(a1, i);
+        }
+
+        for (int i = 0; i < N / 2; i++)
+        {
+            r[2 * i] = (short)a0[i];
+            r[2 * i + 1] = (short)a1[i];
+        }
+    }
+
+    static void reduce(short[] r)
+    {
+        int[] a = widen(r);
+
+        for (int i = 0; i < N; i += LANES)
+        {
+            barrettReduce(IntVector.fromArray(SPECIES, a, i)).intoArray(a, i);
+        }
+
+        narrow(a, r);
+    }
+
+    static void conditionalSubQ(short[] r)
+    {
+        // only 16 bit arithmetic is needed here, so the short lanes can be used directly
+        int i = 0;
+        for (; i < SHORT_SPECIES.loopBound(N); i += SHORT_SPECIES.length())
+        {
+            ShortVector a = ShortVector.fromArray(SHORT_SPECIES, r, i).sub((short)Q);
+            a.add(a.lanewise(VectorOperators.ASHR, 15).and((short)Q)).intoArray(r, i);
+        }
+        for (; i < N; i++)
+        {
+            r[i] = Reduce.conditionalSubQ(r[i]);
+        }
+    }
+
+    static void cbd(short[] r, byte[] bytes, int eta)
+    {
+        if (eta == 3)
+        {
+            // 64 words of 24 bits, each giving 4 coefficients
+            int[] t = new int[N / 4];
+            for (int i = 0; i < N / 4; i++)
+            {
+                t[i] = (bytes[3 * i] & 0xFF) | (bytes[3 * i + 1] & 0xFF) << 8 | (bytes[3 * i + 2] & 0xFF) << 16;
+            }
+
+            int[][] coeffs = new int[4][N / 4];
+            int i = 0;
+            for (; i < SPECIES.loopBound(N / 4); i += LANES)
+            {
+                IntVector w = IntVector.fromArray(SPECIES, t, i);
+                IntVector d = w.and(0x00249249)
+                    .add(w.lanewise(VectorOperators.LSHR, 1).and(0x00249249))
+                    .add(w.lanewise(VectorOperators.LSHR, 2).and(0x00249249));
+                for (int j = 0; j < 4; j++)
+                {
+                    IntVector x = d.lanewise(VectorOperators.LSHR, 6 * j).and(0x7);
+                    IntVector y = d.lanewise(VectorOperators.LSHR, 6 * j + 3).and(0x7);
+                    x.sub(y).intoArray(coeffs[j], i);
+                }
+            }
+            for (; i < N / 4; i++)
+            {
+                int d = (t[i] & 0x00249249) + ((t[i] >>> 1) & 0x00249249) + ((t[i] >>> 2) & 0x00249249);
+                for (int j = 0; j < 4; j++)
+                {
+                    coeffs[j][i] = ((d >>> (6 * j)) & 0x7) - ((d >>> (6 * j + 3)) & 0x7);
+                }
+            }
+
+            for (i = 0; i < N / 4; i++)
+            {
+                for (int j = 0; j < 4; j++)
+                {
+                    r[4 * i + j] = (short)coeffs[j][i];
+                }
+            }
+        }
+        else
+        {
+            // 32 words of 32 bits, each giving 8 coefficients
+            int[] t = new int[N / 8];
+            for (int i = 0; i < N / 8; i++)
+            {
+                t[i] = (bytes[4 * i] & 0xFF) | (bytes[4 * i + 1] & 0xFF) << 8 | (bytes[4 * i + 2] & 0xFF) << 16
+                    | (bytes[4 * i + 3] & 0xFF) << 24;
+            }
+
+            int[][] coeffs = new int[8][N / 8];
+            int i = 0;
+            for (; i < SPECIES.loopBound(N / 8); i += LANES)
+            {
+                IntVector w = IntVector.fromArray(SPECIES, t, i);
+                IntVector d = w.and(0x55555555).add(w.lanewise(VectorOperators.LSHR, 1).and(0x55555555));
+                for (int j = 0; j < 8; j++)
+                {
+                    IntVector x = d.lanewise(VectorOperators.LSHR, 4 * j).and(0x3);
+                    IntVector y = d.lanewise(VectorOperators.LSHR, 4 * j + 2).and(0x3);
+                    x.sub(y).intoArray(coeffs[j], i);
+                }
+            }
+            for (; i < N / 8; i++)
+            {
+                int d = (t[i] & 0x55555555) + ((t[i] >>> 1) & 0x55555555);
+                for (int j = 0; j < 8; j++)
+                {
+                    coeffs[j][i] = ((d >>> (4 * j)) & 0x3) - ((d >>> (4 * j + 2)) & 0x3);
+                }
+            }
+
+            for (i = 0; i < N / 8; i++)
+            {
+                for (int j = 0; j < 8; j++)
+                {
+                    r[8 * i + j] = (short)coeffs[j][i];
+                }
+            }
+        }
+    }
+
+    static int rejectionSampling(short[] r, int coeffOff, int len, byte[] inpBuf, int inpBufLen)
+    {
+        // unpack every 12 bit candidate, padding to a whole number of vectors with rejected values
+        int groups = inpBufLen / 3;
+        int[] candidates = new int[((2 * groups + LANES - 1) / LANES) * LANES];
+        for (int i = 0, pos = 0; i < groups; i++, pos += 3)
+        {
+            candidates[2 * i] = ((inpBuf[pos] & 0xFF) | (inpBuf[pos + 1] & 0xFF) << 8) & 0xFFF;
+            candidates[2 * i + 1] = ((inpBuf[pos + 1] & 0xFF) >> 4 | (inpBuf[pos + 2] & 0xFF) << 4) & 0xFFF;
+        }
+        for (int i = 2 * groups; i < candidates.length; i++)
+        {
+            candidates[i] = Q;
+        }
+
+        int ctr = 0;
+        for (int i = 0; i < candidates.length && ctr < len; i += LANES)
+        {
+            VectorMask<Integer> accept = IntVector.fromArray(SPECIES, candidates, i).compare(VectorOperators.LT, Q);
+
+            long lanes = accept.toLong();
+            while (lanes != 0 && ctr < len)
+            {
+                r[coeffOff + ctr++] = (short)candidates[i + Long.numberOfTrailingZeros(lanes)];
+                lanes &= lanes - 1;
+            }
+        }
+        return ctr;
+    }
+
+    private static IntVector montgomeryReduce(IntVector a)
+    {
+        IntVector u = a.mul(QINV).lanewise(VectorOperators.LSHL, 16).lanewise(VectorOperators.ASHR, 16);
+
+        return a.sub(u.mul(Q)).lanewise(VectorOperators.ASHR, 16);
+    }
+
+    private static IntVector barrettReduce(IntVector a)
+    {
+        IntVector t = a.mul(BARRETT_V).lanewise(VectorOperators.ASHR, 26);
+
+        return narrow(a.sub(t.mul(Q)));
+    }
+
+    /**
+     * Sign extend the low 16 bits of each lane, as a cast to short does.
+     */
+    private static IntVector narrow(IntVector a)
+    {
+        return a.lanewise(VectorOperators.LSHL, 16).lanewise(VectorOperators.ASHR, 16);
+    }
+
+    private static int[] widen(short[] r)
+    {
+        int[] a = new int[N];
+        for (int i = 0; i < N; i++)
+        {
+            a[i] = r[i];
+        }
+        return a;
+    }
+
+    private static void narrow(int[] a, short[] r)
+    {
+        for (int i = 0; i < N; i++)
+        {
+            r[i] = (short)a[i];
+        }
+    }
+}
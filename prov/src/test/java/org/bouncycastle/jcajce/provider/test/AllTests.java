@@ -25,6 +25,7 @@ public static Test suite()
         suite.addTestSuite(ECAlgorithmParametersTest.class);
         suite.addTestSuite(GeneralKeyTest.class);
         suite.addTestSuite(HybridRandomProviderTest.class);
+        suite.addTestSuite(JcaAcceleratedFactoryTest.class);
         suite.addTestSuite(PrivateConstructorTest.class);
         suite.addTestSuite(RandomTest.class);
         suite.addTestSuite(RFC3211WrapTest.class);
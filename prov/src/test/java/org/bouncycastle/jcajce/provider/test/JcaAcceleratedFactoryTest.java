@@ -0,0 +1,347 @@
+package org.bouncycastle.jcajce.provider.test;
+
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.BufferedBlockCipher;
+import org.bouncycastle.crypto.DefaultBufferedBlockCipher;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.digests.SHA224Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA384Digest;
+import org.bouncycastle.crypto.digests.SHA512Digest;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.AEADBlockCipher;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.jcajce.util.DefaultJcaJceHelper;
+import org.bouncycastle.jcajce.util.JcaAcceleratedFactory;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Memoable;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * Check the JCA backed AES-GCM, AES-CBC, and SHA-2 implementations against our own.
+ */
+public class JcaAcceleratedFactoryTest
+    extends TestCase
+{
+    private final SecureRandom random = new SecureRandom();
+
+    private final JcaAcceleratedFactory factory = new JcaAcceleratedFactory(new DefaultJcaJceHelper());
+
+    public void testGCMVector()
+        throws Exception
+    {
+        // test case 4 from the GCM specification
+        byte[] K = Hex.decode("feffe9928665731c6d6a8f9467308308");
+        byte[] P = Hex.decode("d9313225f88406e5a55909c5aff5269a86a7a9531534f7da2e4c303d8a318a72"
+            + "1c3c0c95956809532fcf0e2449a6b525b16aedf5aa0de657ba637b39");
+        byte[] A = Hex.decode("feedfacedeadbeeffeedfacedeadbeefabaddad2");
+        byte[] IV = Hex.decode("cafebabefacedbaddecaf888");
+        byte[] C = Hex.decode("42831ec2217774244b7221b784d0d49ce3aa212f2c02a4e035c17e2329aca12e"
+            + "21d514b25466931c7d8f6a5aac84aa051ba30b396a0aac973d58e091" + "5bc94fbc3221a5db94fae95ae7121a47");
+        byte[] T = Arrays.copyOfRange(C, P.length, C.length);
+
+        AEADBlockCipher gcm = factory.createAESGCMCipher();
+        assertEquals("AES/GCM", gcm.getAlgorithmName());
+
+        gcm.init(true, new AEADParameters(new KeyParameter(K), 128, IV, A));
+
+        assertTrue(Arrays.areEqual(C, process(gcm, P, 7)));
+        assertTrue(Arrays.areEqual(T, gcm.getMac()));
+
+        gcm.init(false, new AEADParameters(new KeyParameter(K), 128, IV, A));
+
+        assertTrue(Arrays.areEqual(P, process(gcm, C, 5)));
+        assertTrue(Arrays.areEqual(T, gcm.getMac()));
+
+        // decryption can be repeated without re-initialising
+        assertTrue(Arrays.areEqual(P, process(gcm, C, C.length)));
+
+        // additional data supplied with, and after, the message
+        gcm.init(false, new AEADParameters(new KeyParameter(K), 128, IV));
+        byte[] out = new byte[P.length];
+        int len = gcm.processBytes(C, 0, 20, out, 0);
+        gcm.processAADBytes(A, 0, 3);
+        len += gcm.processBytes(C, 20, C.length - 20, out, len);
+        gcm.processAADBytes(A, 3, A.length - 3);
+        len += gcm.doFinal(out, len);
+
+        assertEquals(P.length, len);
+        assertTrue(Arrays.areEqual(P, out));
+    }
+
+    public void testGCM()
+        throws Exception
+    {
+        for (int keySize = 16; keySize <= 32; keySize += 8)
+        {
+            gcmTest(factory, keySize, 16);
+            gcmTest(factory, keySize, 12);
+            gcmTest(factory, keySize, 8);
+        }
+    }
+
+    public void testGCMStreaming()
+        throws Exception
+    {
+        // small limits, so most messages are handed over to GCMBlockCipher part way through
+        for (int maxBufferSize = 0; maxBufferSize <= 256; maxBufferSize += 64)
+        {
+            JcaAcceleratedFactory smallFactory = new JcaAcceleratedFactory(new DefaultJcaJceHelper(), maxBufferSize);
+
+            gcmTest(smallFactory, 16, 16);
+            gcmTest(smallFactory, 32, 12);
+            gcmTest(smallFactory, 24, 4);
+        }
+    }
+
+    public void testGCMFailures()
+        throws Exception
+    {
+        gcmFailureTest(factory);
+        gcmFailureTest(new JcaAcceleratedFactory(new DefaultJcaJceHelper(), 0));
+    }
+
+    public void testCBC()
+        throws Exception
+    {
+        for (int keySize = 16; keySize <= 32; keySize += 8)
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                byte[] key = randomBytes(keySize);
+                byte[] iv = randomBytes(16);
+                byte[] msg = randomBytes(16 * random.nextInt(64));
+                ParametersWithIV params = new ParametersWithIV(new KeyParameter(key), iv);
+
+                BufferedBlockCipher bc = new DefaultBufferedBlockCipher(CBCBlockCipher.newInstance(AESEngine.newInstance()));
+                BufferedBlockCipher jca = new DefaultBufferedBlockCipher(factory.createAESCBCCipher());
+
+                bc.init(true, params);
+                jca.init(true, params);
+
+                byte[] expected = process(bc, msg, msg.length);
+                byte[] ct = process(jca, msg, 1 + random.nextInt(100));
+                assertTrue(Arrays.areEqual(expected, ct));
+
+                // a second message, restarting from the IV
+                assertTrue(Arrays.areEqual(expected, process(jca, msg, msg.length)));
+
+                jca.init(false, params);
+                assertTrue(Arrays.areEqual(msg, process(jca, ct, 1 + random.nextInt(100))));
+            }
+        }
+    }
+
+    public void testDigests()
+        throws Exception
+    {
+        digestTest(factory.createDigest("SHA-224"), new SHA224Digest());
+        digestTest(factory.createDigest("SHA-256"), new SHA256Digest());
+        digestTest(factory.createDigest("SHA-384"), new SHA384Digest());
+        digestTest(factory.createDigest("SHA-512"), new SHA512Digest());
+
+        try
+        {
+            factory.createDigest("SHA-1");
+            fail("no exception on unsupported digest");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("unsupported digest algorithm: SHA-1", e.getMessage());
+        }
+    }
+
+    public void testNewInstanceUnaffected()
+    {
+        assertTrue(GCMBlockCipher.newInstance(AESEngine.newInstance()) instanceof GCMBlockCipher);
+        assertTrue(CBCBlockCipher.newInstance(AESEngine.newInstance()) instanceof CBCBlockCipher);
+    }
+
+    private void gcmTest(JcaAcceleratedFactory factory, int keySize, int macSize)
+        throws Exception
+    {
+        for (int i = 0; i < 20; i++)
+        {
+            byte[] key = randomBytes(keySize);
+            byte[] nonce = randomBytes(1 + random.nextInt(16));
+            byte[] initialAAD = randomBytes(random.nextInt(40));
+            byte[] aad = randomBytes(random.nextInt(200));
+            byte[] msg = randomBytes(random.nextInt(1000));
+            AEADParameters params = new AEADParameters(new KeyParameter(key), macSize * 8, nonce, initialAAD);
+
+            AEADBlockCipher bc = GCMBlockCipher.newInstance(AESEngine.newInstance());
+            AEADBlockCipher jca = factory.createAESGCMCipher();
+
+            bc.init(true, params);
+            bc.processAADBytes(aad, 0, aad.length);
+            byte[] expected = process(bc, msg, msg.length);
+
+            jca.init(true, params);
+            byte[] ct = process(jca, aad, msg, 1 + random.nextInt(64));
+
+            assertTrue(Arrays.areEqual(expected, ct));
+            assertTrue(Arrays.areEqual(bc.getMac(), jca.getMac()));
+
+            jca.init(false, params);
+
+            assertTrue(Arrays.areEqual(msg, process(jca, aad, ct, 1 + random.nextInt(64))));
+            assertTrue(Arrays.areEqual(bc.getMac(), jca.getMac()));
+
+            // again, with the cipher reset by the previous doFinal()
+            assertTrue(Arrays.areEqual(msg, process(jca, aad, ct, ct.length)));
+        }
+    }
+
+    private void gcmFailureTest(JcaAcceleratedFactory factory)
+        throws Exception
+    {
+        byte[] key = randomBytes(16);
+        byte[] nonce = randomBytes(12);
+        byte[] msg = randomBytes(100);
+        AEADParameters params = new AEADParameters(new KeyParameter(key), 128, nonce);
+
+        AEADBlockCipher gcm = factory.createAESGCMCipher();
+        gcm.init(true, params);
+        byte[] ct = process(gcm, msg, msg.length);
+
+        try
+        {
+            gcm.processBytes(msg, 0, msg.length, new byte[msg.length], 0);
+            fail("no exception on reuse");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("GCM cipher cannot be reused for encryption", e.getMessage());
+        }
+
+        try
+        {
+            gcm.init(true, params);
+            fail("no exception on nonce reuse");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("cannot reuse nonce for GCM encryption", e.getMessage());
+        }
+
+        gcm.init(false, params);
+        ct[10] ^= 1;
+        try
+        {
+            process(gcm, ct, ct.length);
+            fail("no exception on corrupted ciphertext");
+        }
+        catch (InvalidCipherTextException e)
+        {
+            assertEquals("mac check in GCM failed", e.getMessage());
+        }
+
+        // the cipher is ready for another decryption after a failure
+        ct[10] ^= 1;
+        assertTrue(Arrays.areEqual(msg, process(gcm, ct, ct.length)));
+
+        try
+        {
+            process(gcm, new byte[15], 15);
+            fail("no exception on short ciphertext");
+        }
+        catch (InvalidCipherTextException e)
+        {
+            assertEquals("data too short", e.getMessage());
+        }
+    }
+
+    private void digestTest(Digest jca, Digest bc)
+    {
+        assertEquals(bc.getAlgorithmName(), jca.getAlgorithmName());
+        assertEquals(bc.getDigestSize(), jca.getDigestSize());
+
+        byte[] msg = randomBytes(1000);
+        byte[] expected = new byte[bc.getDigestSize()];
+        byte[] out = new byte[jca.getDigestSize()];
+
+        bc.update(msg, 0, msg.length);
+        bc.doFinal(expected, 0);
+
+        jca.update(msg, 0, 500);
+        Memoable state = ((Memoable)jca).copy();
+        jca.update(msg, 500, 500);
+        jca.doFinal(out, 0);
+        assertTrue(Arrays.areEqual(expected, out));
+
+        Digest copy = (Digest)state.copy();
+        copy.update(msg, 500, 500);
+        copy.doFinal(out, 0);
+        assertTrue(Arrays.areEqual(expected, out));
+
+        jca.update(msg[0]);
+        ((Memoable)jca).reset(state);
+        jca.update(msg, 500, 500);
+        jca.doFinal(out, 0);
+        assertTrue(Arrays.areEqual(expected, out));
+    }
+
+    private byte[] process(AEADBlockCipher cipher, byte[] in, int chunkSize)
+        throws InvalidCipherTextException
+    {
+        return process(cipher, new byte[0], in, chunkSize);
+    }
+
+    /*
+     * Pass the message through in chunks, with the additional data split around the first two.
+     */
+    private byte[] process(AEADBlockCipher cipher, byte[] aad, byte[] in, int chunkSize)
+        throws InvalidCipherTextException
+    {
+        int aadSplit = aad.length / 2;
+        byte[] out = new byte[cipher.getOutputSize(in.length)];
+        int len = 0;
+
+        cipher.processAADBytes(aad, 0, aadSplit);
+        for (int off = 0; off < in.length; off += chunkSize)
+        {
+            int chunkLen = Math.min(chunkSize, in.length - off);
+
+            assertTrue(cipher.getUpdateOutputSize(chunkLen) <= out.length - len);
+            len += cipher.processBytes(in, off, chunkLen, out, len);
+
+            if (off == 0)
+            {
+                cipher.processAADBytes(aad, aadSplit, aad.length - aadSplit);
+            }
+        }
+        if (in.length == 0)
+        {
+            cipher.processAADBytes(aad, aadSplit, aad.length - aadSplit);
+        }
+        len += cipher.doFinal(out, len);
+        return Arrays.copyOf(out, len);
+    }
+
+    private byte[] process(BufferedBlockCipher cipher, byte[] in, int chunkSize)
+        throws InvalidCipherTextException
+    {
+        byte[] out = new byte[cipher.getOutputSize(in.length)];
+        int len = 0;
+        for (int off = 0; off < in.length; off += chunkSize)
+        {
+            len += cipher.processBytes(in, off, Math.min(chunkSize, in.length - off), out, len);
+        }
+        len += cipher.doFinal(out, len);
+        return Arrays.copyOf(out, len);
+    }
+
+    private byte[] randomBytes(int length)
+    {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
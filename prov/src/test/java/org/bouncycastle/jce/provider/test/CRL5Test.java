@@ -1,10 +1,12 @@
 package org.bouncycastle.jce.provider.test;
 
 import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
 import java.security.Security;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509CRL;
 import java.security.cert.X509CRLEntry;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -251,11 +253,48 @@ public void directCRLTest()
         }
     }
     
+    private void checkRevokedLookup(X509CRL crl)
+    {
+        Set set = crl.getRevokedCertificates();
+        Set serials = new HashSet();
+        Set duplicates = new HashSet();
+        for (Iterator it = set.iterator(); it.hasNext();)
+        {
+            BigInteger serial = ((X509CRLEntry)it.next()).getSerialNumber();
+            if (!serials.add(serial))
+            {
+                duplicates.add(serial);
+            }
+        }
+
+        for (Iterator it = set.iterator(); it.hasNext();)
+        {
+            X509CRLEntry entry = (X509CRLEntry)it.next();
+            X509CRLEntry found = crl.getRevokedCertificate(entry.getSerialNumber());
+
+            isTrue("revoked entry not found", found != null);
+            isEquals(entry.getSerialNumber(), found.getSerialNumber());
+            if (!duplicates.contains(entry.getSerialNumber()))
+            {
+                isEquals(entry, found);
+                isTrue("certificate issuer mismatch", entry.getCertificateIssuer() == null
+                    ? found.getCertificateIssuer() == null
+                    : entry.getCertificateIssuer().equals(found.getCertificateIssuer()));
+            }
+        }
+
+        isTrue("unexpected revoked entry", crl.getRevokedCertificate(BigInteger.valueOf(-1)) == null);
+    }
+
     public void performTest()
         throws Exception
     {
         indirectCRLTest();
         directCRLTest();
+
+        CertificateFactory cf = CertificateFactory.getInstance("X.509", "BC");
+        checkRevokedLookup((X509CRL)cf.generateCRL(new ByteArrayInputStream(inDirectCrl)));
+        checkRevokedLookup((X509CRL)cf.generateCRL(new ByteArrayInputStream(directCRL)));
     }
 
     public static void main(
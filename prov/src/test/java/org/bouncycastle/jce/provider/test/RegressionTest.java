@@ -71,6 +71,7 @@
         new OCBTest(),
         new DSTU4145Test(),
         new CRL5Test(),
+        new RevocationCacheTest(),
         new Poly1305Test(),
         new SipHashTest(),
         new KeccakTest(),
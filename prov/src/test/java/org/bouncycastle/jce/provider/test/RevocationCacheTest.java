@@ -0,0 +1,264 @@
+package org.bouncycastle.jce.provider.test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.Security;
+import java.security.cert.CertPath;
+import java.security.cert.CertPathValidator;
+import java.security.cert.CertPathValidatorException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.PKIXParameters;
+import java.security.cert.PKIXRevocationChecker;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.CRLDistPoint;
+import org.bouncycastle.asn1.x509.DistributionPoint;
+import org.bouncycastle.asn1.x509.DistributionPointName;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.ExtensionsGenerator;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.jcajce.PKIXCertRevocationChecker;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.jce.provider.RevocationCache;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check CRLs fetched from a distribution point are shared through a RevocationCache.
+ */
+public class RevocationCacheTest
+    extends SimpleTest
+{
+    public String getName()
+    {
+        return "RevocationCache";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        try
+        {
+            new RevocationCache.Builder().setMaximumAge(0);
+            fail("no exception on unlimited maximum age");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected - data without a next update time must eventually expire
+        }
+
+        KeyPair caKp = TestCertificateGen.generateRSAKeyPair();
+        KeyPair eeKp = TestCertificateGen.generateRSAKeyPair();
+
+        X509Certificate caCert = TestCertificateGen.generateRootCert(caKp);
+        X509CRL crl = TestCertificateGen.createCRL(caCert, caKp.getPrivate(), BigInteger.valueOf(1));
+
+        CrlServer server = new CrlServer(crl.getEncoded());
+        Thread serverThread = new Thread(server);
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        System.setProperty("org.bouncycastle.x509.enableCRLDP", "true");
+        try
+        {
+            String crlUrl = "http://127.0.0.1:" + server.getPort() + "/ca.crl";
+
+            ExtensionsGenerator extGen = new ExtensionsGenerator();
+            extGen.addExtension(Extension.cRLDistributionPoints, false, new CRLDistPoint(new DistributionPoint[]{
+                new DistributionPoint(new DistributionPointName(
+                    new GeneralNames(new GeneralName(GeneralName.uniformResourceIdentifier, crlUrl))), null, null)}));
+
+            X509Certificate eeCert = TestCertificateGen.createCert(X500Name.getInstance(caCert.getSubjectX500Principal().getEncoded()),
+                caKp.getPrivate(), "CN=Test End Certificate", "SHA256withRSA", extGen.generate(), eeKp.getPublic());
+
+            final CertPath certPath = CertificateFactory.getInstance("X.509", "BC").generateCertPath(
+                Collections.singletonList(eeCert));
+
+            final RevocationCache cache = new RevocationCache.Builder().setMaximumSize(4).build();
+            final PKIXParameters params = createParameters(caCert, cache);
+
+            CertPathValidator.getInstance("PKIX", "BC").validate(certPath, params);
+            CertPathValidator.getInstance("PKIX", "BC").validate(certPath, params);
+
+            isEquals("fetch count", 1, server.getRequestCount());
+            isEquals("load count", 1, cache.getLoadCount());
+            isTrue("hit count", cache.getHitCount() >= 1);
+            isEquals("size", 1, cache.size());
+
+            cache.clear();
+
+            // concurrent validations share a single fetch
+            final Exception[] failures = new Exception[4];
+            Thread[] threads = new Thread[failures.length];
+            for (int i = 0; i != threads.length; i++)
+            {
+                final int index = i;
+                threads[i] = new Thread()
+                {
+                    public void run()
+                    {
+                        try
+                        {
+                            CertPathValidator.getInstance("PKIX", "BC").validate(certPath, params);
+                        }
+                        catch (Exception e)
+                        {
+                            failures[index] = e;
+                        }
+                    }
+                };
+                threads[i].start();
+            }
+            for (int i = 0; i != threads.length; i++)
+            {
+                threads[i].join();
+                if (failures[i] != null)
+                {
+                    fail("concurrent validation failed", failures[i]);
+                }
+            }
+
+            isEquals("fetch count", 2, server.getRequestCount());
+            isEquals("load count", 2, cache.getLoadCount());
+
+            // a revoked certificate must still be caught with a cached CRL
+            X509CRL revokingCrl = TestCertificateGen.createCRL(caCert, caKp.getPrivate(), eeCert.getSerialNumber());
+            server.setResponse(revokingCrl.getEncoded());
+            cache.clear();
+
+            try
+            {
+                CertPathValidator.getInstance("PKIX", "BC").validate(certPath, params);
+                fail("revoked certificate not detected");
+            }
+            catch (CertPathValidatorException e)
+            {
+                isTrue(e.getMessage(), e.getMessage().startsWith("Certificate revocation after"));
+            }
+        }
+        finally
+        {
+            System.clearProperty("org.bouncycastle.x509.enableCRLDP");
+            server.close();
+        }
+    }
+
+    private PKIXParameters createParameters(X509Certificate caCert, RevocationCache cache)
+        throws Exception
+    {
+        PKIXParameters params = new PKIXParameters(Collections.singleton(new TrustAnchor(caCert, null)));
+
+        PKIXRevocationChecker checker = (PKIXRevocationChecker)CertPathValidator.getInstance("PKIX", "BC").getRevocationChecker();
+        checker.setOptions(EnumSet.of(PKIXRevocationChecker.Option.PREFER_CRLS, PKIXRevocationChecker.Option.NO_FALLBACK));
+        ((PKIXCertRevocationChecker)checker).setParameter(RevocationCache.PARAMETER_NAME, cache);
+
+        params.addCertPathChecker(checker);
+
+        return params;
+    }
+
+    private static class CrlServer
+        implements Runnable
+    {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger requestCount = new AtomicInteger();
+
+        private volatile byte[] response;
+
+        CrlServer(byte[] response)
+            throws Exception
+        {
+            this.serverSocket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+            this.response = response;
+        }
+
+        int getPort()
+        {
+            return serverSocket.getLocalPort();
+        }
+
+        int getRequestCount()
+        {
+            return requestCount.get();
+        }
+
+        void setResponse(byte[] response)
+        {
+            this.response = response;
+        }
+
+        void close()
+            throws Exception
+        {
+            serverSocket.close();
+        }
+
+        public void run()
+        {
+            try
+            {
+                for (;;)
+                {
+                    Socket s = serverSocket.accept();
+                    try
+                    {
+                        readHeaders(s.getInputStream());
+                        requestCount.incrementAndGet();
+
+                        byte[] body = response;
+                        OutputStream out = s.getOutputStream();
+                        out.write(("HTTP/1.0 200 OK\r\nContent-Type: application/pkix-crl\r\nContent-Length: "
+                            + body.length + "\r\n\r\n").getBytes("US-ASCII"));
+                        out.write(body);
+                        out.flush();
+                    }
+                    finally
+                    {
+                        s.close();
+                    }
+                }
+            }
+            catch (Exception e)
+            {
+                // socket closed
+            }
+        }
+
+        private static void readHeaders(InputStream in)
+            throws Exception
+        {
+            int matched = 0;
+            int ch;
+            while (matched < 4 && (ch = in.read()) >= 0)
+            {
+                if (ch == ((matched % 2 == 0) ? '\r' : '\n'))
+                {
+                    matched++;
+                }
+                else
+                {
+                    matched = (ch == '\r') ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void main(
+        String[] args)
+    {
+        Security.addProvider(new BouncyCastleProvider());
+
+        runTest(new RevocationCacheTest());
+    }
+}
@@ -0,0 +1,67 @@
+package org.bouncycastle.crypto.digests;
+
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Check the four way Keccak permutation in use, which will be the Vector API one if jdk.incubator.vector is
+ * available, against the scalar code, and SHAKEX4 against SHAKEDigest.
+ */
+public class KeccakX4KernelsTest
+    extends TestCase
+{
+    private final SecureRandom random = new SecureRandom();
+
+    public void testPermute()
+    {
+        long[] a = new long[25 * KeccakX4.STATES];
+        long[] expected = new long[a.length];
+
+        for (int i = 0; i < 100; i++)
+        {
+            for (int j = 0; j < a.length; j++)
+            {
+                a[j] = random.nextLong();
+            }
+            System.arraycopy(a, 0, expected, 0, a.length);
+
+            KeccakX4.permute(expected, 0xF);
+            KeccakX4Kernels.permute(a, 0xF);
+            assertTrue(Arrays.areEqual(expected, a));
+        }
+    }
+
+    public void testSHAKE()
+    {
+        int[] bitStrengths = { 128, 256 };
+
+        for (int i = 0; i < bitStrengths.length; i++)
+        {
+            for (int len = 0; len < 400; len += 37)
+            {
+                byte[][] in = new byte[KeccakX4.STATES][len];
+                byte[][] out = new byte[KeccakX4.STATES][500];
+                for (int j = 0; j < in.length; j++)
+                {
+                    random.nextBytes(in[j]);
+                }
+
+                SHAKEX4 x4 = new SHAKEX4(bitStrengths[i]);
+                x4.update(in, 0, len);
+                x4.doOutput(out, 0, out[0].length);
+
+                for (int j = 0; j < in.length; j++)
+                {
+                    SHAKEDigest digest = new SHAKEDigest(bitStrengths[i]);
+                    byte[] expected = new byte[out[j].length];
+                    digest.update(in[j], 0, len);
+                    digest.doFinal(expected, 0, expected.length);
+
+                    assertTrue(Arrays.areEqual(expected, out[j]));
+                }
+            }
+        }
+    }
+}
@@ -3,6 +3,9 @@
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
+import org.bouncycastle.crypto.digests.KeccakX4KernelsTest;
+import org.bouncycastle.pqc.crypto.mldsa.MLDSAPolyKernelsTest;
+import org.bouncycastle.pqc.crypto.mlkem.MLKEMPolyKernelsTest;
 import org.bouncycastle.test.PrintTestResult;
 
 
@@ -21,6 +24,9 @@ public static Test suite()
         suite.addTestSuite(NTRUKEMTest.class);
         suite.addTestSuite(SNTRUPrimeKEMTest.class);
         suite.addTestSuite(MLKEMTest.class);
+        suite.addTestSuite(MLKEMPolyKernelsTest.class);
+        suite.addTestSuite(MLDSAPolyKernelsTest.class);
+        suite.addTestSuite(KeccakX4KernelsTest.class);
         return suite;
     }
 }
@@ -0,0 +1,107 @@
+package org.bouncycastle.pqc.crypto.mldsa;
+
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Check the polynomial kernels in use, which will be the Vector API ones if jdk.incubator.vector is available,
+ * against the scalar code.
+ */
+public class MLDSAPolyKernelsTest
+    extends TestCase
+{
+    private static final int N = MLDSAEngine.DilithiumN;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public void testNtt()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            int[] a = randomCoeffs(MLDSAEngine.DilithiumQ);
+            int[] expected = Arrays.clone(a);
+
+            Ntt.ntt(expected);
+            PolyKernels.ntt(a);
+            assertTrue(Arrays.areEqual(expected, a));
+
+            Ntt.invNttToMont(expected);
+            PolyKernels.invNttToMont(a);
+            assertTrue(Arrays.areEqual(expected, a));
+        }
+    }
+
+    public void testPointwise()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            int[] a = randomCoeffs(MLDSAEngine.DilithiumQ);
+            int[] b = randomCoeffs(MLDSAEngine.DilithiumQ);
+            int[] expected = new int[N];
+            int[] r = new int[N];
+
+            Ntt.pointwiseMontgomery(expected, a, b);
+            PolyKernels.pointwiseMontgomery(r, a, b);
+            assertTrue(Arrays.areEqual(expected, r));
+        }
+    }
+
+    public void testReduce()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            int[] a = new int[N];
+            for (int j = 0; j < N; j++)
+            {
+                a[j] = random.nextInt();
+            }
+            int[] expected = Arrays.clone(a);
+
+            Reduce.reduce32(expected);
+            PolyKernels.reduce32(a);
+            assertTrue(Arrays.areEqual(expected, a));
+
+            Reduce.conditionalAddQ(expected);
+            PolyKernels.conditionalAddQ(a);
+            assertTrue(Arrays.areEqual(expected, a));
+        }
+    }
+
+    public void testSampling()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            byte[] buf = new byte[3 * (1 + random.nextInt(300)) + random.nextInt(3)];
+            random.nextBytes(buf);
+            int off = random.nextInt(N);
+            int[] expected = new int[N];
+            int[] r = new int[N];
+
+            assertEquals(Poly.rejectUniform(expected, off, N - off, buf, buf.length),
+                PolyKernels.rejectUniform(r, off, N - off, buf, buf.length));
+            assertTrue(Arrays.areEqual(expected, r));
+
+            for (int eta = 2; eta <= 4; eta += 2)
+            {
+                Arrays.fill(expected, 0);
+                Arrays.fill(r, 0);
+
+                assertEquals(Poly.rejectEta(expected, off, N - off, buf, buf.length, eta),
+                    PolyKernels.rejectEta(r, off, N - off, buf, buf.length, eta));
+                assertTrue(Arrays.areEqual(expected, r));
+            }
+        }
+    }
+
+    private int[] randomCoeffs(int bound)
+    {
+        int[] a = new int[N];
+        for (int i = 0; i < N; i++)
+        {
+            a[i] = random.nextInt(2 * bound) - bound;
+        }
+        return a;
+    }
+}
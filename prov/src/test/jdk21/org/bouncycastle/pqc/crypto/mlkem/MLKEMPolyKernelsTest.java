@@ -0,0 +1,107 @@
+package org.bouncycastle.pqc.crypto.mlkem;
+
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Check the polynomial kernels in use, which will be the Vector API ones if jdk.incubator.vector is available,
+ * against the scalar code.
+ */
+public class MLKEMPolyKernelsTest
+    extends TestCase
+{
+    private static final int N = MLKEMEngine.KyberN;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public void testNtt()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            short[] a = randomCoeffs(MLKEMEngine.KyberQ);
+            short[] expected = Arrays.clone(a);
+
+            Ntt.ntt(expected);
+            Reduce.barretReduce(expected);
+            PolyKernels.nttReduce(a);
+            assertTrue(Arrays.areEqual(expected, a));
+
+            Ntt.invNtt(expected);
+            PolyKernels.invNtt(a);
+            assertTrue(Arrays.areEqual(expected, a));
+        }
+    }
+
+    public void testBaseMult()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            short[] a = randomCoeffs(MLKEMEngine.KyberQ);
+            short[] b = randomCoeffs(MLKEMEngine.KyberQ);
+            short[] expected = new short[N];
+            short[] r = new short[N];
+
+            Ntt.baseMultMontgomery(expected, a, b);
+            PolyKernels.baseMultMontgomery(r, a, b);
+            assertTrue(Arrays.areEqual(expected, r));
+        }
+    }
+
+    public void testReduce()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            // any 16 bit values
+            short[] a = randomCoeffs(32768);
+            short[] expected = Arrays.clone(a);
+
+            Reduce.barretReduce(expected);
+            PolyKernels.reduce(a);
+            assertTrue(Arrays.areEqual(expected, a));
+
+            Reduce.conditionalSubQ(expected);
+            PolyKernels.conditionalSubQ(a);
+            assertTrue(Arrays.areEqual(expected, a));
+        }
+    }
+
+    public void testSampling()
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            for (int eta = 2; eta <= 3; eta++)
+            {
+                byte[] buf = new byte[N * eta / 4];
+                random.nextBytes(buf);
+                short[] expected = new short[N];
+                short[] r = new short[N];
+
+                CBD.mlkemCBD(expected, buf, eta);
+                PolyKernels.cbd(r, buf, eta);
+                assertTrue(Arrays.areEqual(expected, r));
+            }
+
+            byte[] buf = new byte[3 * (1 + random.nextInt(200)) + random.nextInt(3)];
+            random.nextBytes(buf);
+            int off = random.nextInt(N);
+            short[] expected = new short[N];
+            short[] r = new short[N];
+
+            assertEquals(MLKEMIndCpa.rejectionSampling(expected, off, N - off, buf, buf.length),
+                PolyKernels.rejectionSampling(r, off, N - off, buf, buf.length));
+            assertTrue(Arrays.areEqual(expected, r));
+        }
+    }
+
+    private short[] randomCoeffs(int bound)
+    {
+        short[] a = new short[N];
+        for (int i = 0; i < N; i++)
+        {
+            a[i] = (short)(random.nextInt(2 * bound) - bound);
+        }
+        return a;
+    }
+}
@@ -39,6 +39,7 @@ private static <T> List<T> copyList(Collection<T> list)
     private boolean useCipherSuitesOrder;
     private boolean enableRetransmissions = true;
     private int maximumPacketSize = 0;
+    private boolean enableSessionTickets = true;
     private String[] applicationProtocols = TlsUtils.EMPTY_STRINGS;
     private String[] signatureSchemes = null;
     private String[] signatureSchemesCert = null;
@@ -214,6 +215,20 @@ public void setMaximumPacketSize(int maximumPacketSize)
         this.maximumPacketSize = maximumPacketSize;
     }
 
+    /**
+     * Whether a server will issue (stateless) TLS 1.3 session tickets, allowing clients to resume sessions
+     * with a PSK handshake. Enabled by default.
+     */
+    public boolean getEnableSessionTickets()
+    {
+        return enableSessionTickets;
+    }
+
+    public void setEnableSessionTickets(boolean enableSessionTickets)
+    {
+        this.enableSessionTickets = enableSessionTickets;
+    }
+
     public String[] getApplicationProtocols()
     {
         return TlsUtils.clone(applicationProtocols);
@@ -0,0 +1,40 @@
+package org.bouncycastle.jsse;
+
+import javax.net.ssl.SSLSessionContext;
+
+/**
+ * A BCJSSE-specific interface providing access to session cache statistics. The client and server session
+ * contexts of a BCJSSE {@link javax.net.ssl.SSLContext} implement this interface.
+ */
+public interface BCSSLSessionContext
+    extends SSLSessionContext
+{
+    /**
+     * Returns the number of sessions currently held in the session cache. Expired sessions are removed lazily, so
+     * this may include sessions that would no longer be returned by a lookup.
+     *
+     * @return The number of cached sessions.
+     */
+    int getSessionCount();
+
+    /**
+     * Returns the number of session lookups (by ID or by peer) that found a valid session.
+     *
+     * @return The session cache hit count.
+     */
+    long getSessionCacheHitCount();
+
+    /**
+     * Returns the number of session lookups (by ID or by peer) that did not find a valid session.
+     *
+     * @return The session cache miss count.
+     */
+    long getSessionCacheMissCount();
+
+    /**
+     * Returns the number of sessions removed from the session cache to keep it within the session cache size.
+     *
+     * @return The session cache eviction count.
+     */
+    long getSessionCacheEvictionCount();
+}
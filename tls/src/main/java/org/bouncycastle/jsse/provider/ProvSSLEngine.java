@@ -480,10 +480,8 @@ public synchronized SSLEngineResult unwrap(ByteBuffer src, ByteBuffer[] dsts, in
             }
 
             bytesConsumed = preview.getRecordSize();
-            byte[] record = new byte[bytesConsumed];
-            src.get(record);
 
-            protocol.offerInput(record, 0, record.length);
+            protocol.offerInput(src, bytesConsumed);
         }
         catch (IOException e)
         {
@@ -614,22 +612,8 @@ else if (protocol.isConnected())
                         return new SSLEngineResult(Status.BUFFER_OVERFLOW, HandshakeStatus.NOT_HANDSHAKING, 0, 0);
                     }
 
-                    // TODO Support writing application data using ByteBuffer array directly
-
-                    byte[] buffer = new byte[srcLimit];
-
-                    for (int srcIndex = 0; srcIndex < length && bytesConsumed < srcLimit; ++srcIndex)
-                    {
-                        ByteBuffer src = srcs[offset + srcIndex];
-                        int count = Math.min(src.remaining(), srcLimit - bytesConsumed);
-                        if (count > 0)
-                        {
-                            src.get(buffer, bytesConsumed, count);
-                            bytesConsumed += count;
-                        }
-                    }
-
-                    protocol.writeApplicationData(buffer, 0, bytesConsumed);
+                    protocol.writeApplicationData(srcs, offset, length, srcLimit);
+                    bytesConsumed = srcLimit;
 
                     bytesProduced = protocol.getAvailableOutputBytes();
                     assert bytesProduced <= dstLimit;
@@ -42,6 +42,7 @@ private static <T> List<T> copyList(Collection<T> list)
     private boolean useCipherSuitesOrder = true;
     private boolean enableRetransmissions = true;
     private int maximumPacketSize = 0;
+    private boolean enableSessionTickets = true;
     private String[] applicationProtocols = TlsUtils.EMPTY_STRINGS;
     private String[] signatureSchemes = null;
     private String[] signatureSchemesCert = null;
@@ -71,6 +72,7 @@ ProvSSLParameters copy()
         p.useCipherSuitesOrder = useCipherSuitesOrder;
         p.enableRetransmissions = enableRetransmissions;
         p.maximumPacketSize = maximumPacketSize;
+        p.enableSessionTickets = enableSessionTickets;
         p.applicationProtocols = applicationProtocols;
         p.signatureSchemes = signatureSchemes;
         p.signatureSchemesCert = signatureSchemesCert;
@@ -239,6 +241,16 @@ public void setMaximumPacketSize(int maximumPacketSize)
         this.maximumPacketSize = maximumPacketSize;
     }
 
+    public boolean getEnableSessionTickets()
+    {
+        return enableSessionTickets;
+    }
+
+    public void setEnableSessionTickets(boolean enableSessionTickets)
+    {
+        this.enableSessionTickets = enableSessionTickets;
+    }
+
     public String[] getApplicationProtocols()
     {
         return applicationProtocols.clone();
@@ -5,54 +5,64 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import javax.net.ssl.SSLSession;
-import javax.net.ssl.SSLSessionContext;
 
+import org.bouncycastle.jsse.BCSSLSessionContext;
 import org.bouncycastle.tls.SessionID;
 import org.bouncycastle.tls.TlsSession;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
 
 class ProvSSLSessionContext
-    implements SSLSessionContext
+    implements BCSSLSessionContext
 {
     private static final Logger LOG = Logger.getLogger(ProvSSLSessionContext.class.getName());
 
     private static final int provSessionCacheSize = PropertyUtils
         .getIntegerSystemProperty("javax.net.ssl.sessionCacheSize", 20480, 0, Integer.MAX_VALUE);
 
-    // NOTE: This is configured as a simple LRU cache using the "access order" constructor
-    @SuppressWarnings("serial")
-    protected final Map<SessionID, SessionEntry> sessionsByID = new LinkedHashMap<SessionID, SessionEntry>(16, 0.75f, true)
-    {
-        protected boolean removeEldestEntry(Map.Entry<SessionID, SessionEntry> eldest)
-        {
-            boolean shouldRemove = sessionCacheSize > 0 && size() > sessionCacheSize;
-            if (shouldRemove)
-            {
-                removeSessionByPeer(eldest.getValue());
-            }
-            return shouldRemove;
-        }
-    };
-    protected final Map<String, SessionEntry> sessionsByPeer = new HashMap<String, SessionEntry>();
+    // NOTE: Must be a power of 2
+    private static final int SESSION_STRIPES = 16;
+
+    /*
+     * Sessions are spread by ID over independently locked stripes, each a simple LRU cache. The size limit is
+     * applied across all stripes, so eviction (of the eldest entry of a neighbouring stripe) is only approximately
+     * LRU. Entries are only added to or removed from sessionsByPeer while holding the lock of their stripe.
+     */
+    protected final SessionStripe[] sessionStripes;
+    protected final ConcurrentHashMap<String, SessionEntry> sessionsByPeer = new ConcurrentHashMap<String, SessionEntry>();
     protected final ReferenceQueue<ProvSSLSession> sessionsQueue = new ReferenceQueue<ProvSSLSession>();
 
+    protected final AtomicInteger sessionCount = new AtomicInteger(0);
+    protected final AtomicLong hitCount = new AtomicLong(0L);
+    protected final AtomicLong missCount = new AtomicLong(0L);
+    protected final AtomicLong evictionCount = new AtomicLong(0L);
+
     protected final ContextData contextData;
 
-    protected int sessionCacheSize = provSessionCacheSize;
-    protected int sessionTimeoutSeconds = 86400; // 24hrs (in seconds)
+    protected volatile int sessionCacheSize = provSessionCacheSize;
+    protected volatile int sessionTimeoutSeconds = 86400; // 24hrs (in seconds)
+
+    protected volatile SessionTicketKeys sessionTicketKeys = null;
 
     ProvSSLSessionContext(ContextData contextData)
     {
         this.contextData = contextData;
+
+        this.sessionStripes = new SessionStripe[SESSION_STRIPES];
+        for (int i = 0; i < SESSION_STRIPES; ++i)
+        {
+            sessionStripes[i] = new SessionStripe();
+        }
     }
 
     ProvSSLContextSpi getSSLContext()
@@ -65,14 +75,45 @@ JcaTlsCrypto getCrypto()
         return contextData.getCrypto();
     }
 
-    synchronized ProvSSLSession getSessionImpl(byte[] sessionID)
+    SessionTicketKeys getSessionTicketKeys()
+    {
+        SessionTicketKeys keys = sessionTicketKeys;
+        if (null == keys)
+        {
+            synchronized (this)
+            {
+                keys = sessionTicketKeys;
+                if (null == keys)
+                {
+                    keys = new SessionTicketKeys(getCrypto());
+                    sessionTicketKeys = keys;
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * The lifetime (in seconds) of session tickets issued for this context; the session timeout, capped at the
+     * 7 days allowed by RFC 8446 4.6.1.
+     */
+    int getSessionTicketLifetime()
+    {
+        int seconds = sessionTimeoutSeconds;
+        return seconds < 1 ? 604800 : Math.min(seconds, 604800);
+    }
+
+    ProvSSLSession getSessionImpl(byte[] sessionID)
     {
         processQueue();
 
-        return accessSession(mapGet(sessionsByID, makeSessionID(sessionID)));
+        SessionID id = makeSessionID(sessionID);
+        SessionEntry sessionEntry = null == id ? null : getStripe(id).get(id);
+
+        return recordLookup(accessSession(sessionEntry));
     }
 
-    synchronized ProvSSLSession getSessionImpl(String hostName, int port)
+    ProvSSLSession getSessionImpl(String hostName, int port)
     {
         processQueue();
 
@@ -80,62 +121,50 @@ synchronized ProvSSLSession getSessionImpl(String hostName, int port)
         ProvSSLSession session = accessSession(sessionEntry);
         if (session != null)
         {
-            // NOTE: For the current simple cache implementation, need to 'access' the sessionByIDs entry
-            sessionsByID.get(sessionEntry.getSessionID());
+            // NOTE: Need to 'access' the stripe entry to keep the LRU order up to date
+            SessionID id = sessionEntry.getSessionID();
+            getStripe(id).get(id);
         }
-        return session;
+        return recordLookup(session);
     }
 
-    synchronized void removeSession(byte[] sessionID)
+    void removeSession(byte[] sessionID)
     {
-        SessionEntry sessionEntry = mapRemove(sessionsByID, makeSessionID(sessionID));
-        if (null != sessionEntry)
+        SessionID id = makeSessionID(sessionID);
+        if (null != id)
         {
-            removeSessionByPeer(sessionEntry);
+            getStripe(id).remove(id);
         }
     }
 
-    synchronized ProvSSLSession reportSession(String peerHost, int peerPort, TlsSession tlsSession,
+    ProvSSLSession reportSession(String peerHost, int peerPort, TlsSession tlsSession,
         JsseSessionParameters jsseSessionParameters, boolean addToCache)
     {
         processQueue();
 
-        if (!addToCache)
+        SessionID sessionID = addToCache ? makeSessionID(tlsSession.getSessionID()) : null;
+        if (null == sessionID)
         {
             return new ProvSSLSession(this, peerHost, peerPort, tlsSession, jsseSessionParameters);
         }
 
-        SessionID sessionID = makeSessionID(tlsSession.getSessionID());
-        SessionEntry sessionEntry = mapGet(sessionsByID, sessionID);
-
-        ProvSSLSession session = sessionEntry == null ? null : sessionEntry.get();
-        if (null == session || session.getTlsSession() != tlsSession)
-        {
-            session = new ProvSSLSession(this, peerHost, peerPort, tlsSession, jsseSessionParameters);
-
-            if (null != sessionID)
-            {
-                sessionEntry = new SessionEntry(sessionID, session, sessionsQueue);
-                sessionsByID.put(sessionID, sessionEntry);
-            }
-        }
+        int stripeIndex = getStripeIndex(sessionID);
+        ProvSSLSession session = sessionStripes[stripeIndex].report(sessionID, peerHost, peerPort, tlsSession,
+            jsseSessionParameters);
 
-        if (null != sessionEntry)
-        {
-            mapAdd(sessionsByPeer, sessionEntry.getPeerKey(), sessionEntry);
-        }
+        evictExcessSessions(stripeIndex + 1);
 
         return session;
     }
 
-    public synchronized Enumeration<byte[]> getIds()
+    public Enumeration<byte[]> getIds()
     {
         removeAllExpiredSessions();
 
-        ArrayList<byte[]> ids = new ArrayList<byte[]>(sessionsByID.size());
-        for (SessionID sessionID : sessionsByID.keySet())
+        ArrayList<byte[]> ids = new ArrayList<byte[]>(sessionCount.get());
+        for (int i = 0; i < SESSION_STRIPES; ++i)
         {
-            ids.add(sessionID.getBytes());
+            sessionStripes[i].collectIDs(ids);
         }
         return Collections.enumeration(ids);
     }
@@ -150,12 +179,12 @@ public SSLSession getSession(byte[] sessionID)
         return getSessionImpl(sessionID);
     }
 
-    public synchronized int getSessionCacheSize()
+    public int getSessionCacheSize()
     {
         return sessionCacheSize;
     }
 
-    public synchronized int getSessionTimeout()
+    public int getSessionTimeout()
     {
         return sessionTimeoutSeconds;
     }
@@ -177,21 +206,7 @@ public synchronized void setSessionCacheSize(int size) throws IllegalArgumentExc
         removeAllExpiredSessions();
 
         // Immediately remove LRU sessions in excess of the new limit
-        if (sessionCacheSize > 0)
-        {
-            int currentSize = sessionsByID.size();
-            if (currentSize > sessionCacheSize)
-            {
-                Iterator<SessionEntry> iter = sessionsByID.values().iterator();
-                while (iter.hasNext() && currentSize > sessionCacheSize)
-                {
-                    SessionEntry sessionEntry = iter.next();
-                    iter.remove();
-                    removeSessionByPeer(sessionEntry);
-                    --currentSize;
-                }
-            }
-        }
+        evictExcessSessions(0);
     }
 
     public synchronized void setSessionTimeout(int seconds) throws IllegalArgumentException
@@ -211,6 +226,28 @@ public synchronized void setSessionTimeout(int seconds) throws IllegalArgumentEx
         removeAllExpiredSessions();
     }
 
+    public int getSessionCount()
+    {
+        processQueue();
+
+        return sessionCount.get();
+    }
+
+    public long getSessionCacheHitCount()
+    {
+        return hitCount.get();
+    }
+
+    public long getSessionCacheMissCount()
+    {
+        return missCount.get();
+    }
+
+    public long getSessionCacheEvictionCount()
+    {
+        return evictionCount.get();
+    }
+
     private ProvSSLSession accessSession(SessionEntry sessionEntry)
     {
         if (sessionEntry != null)
@@ -233,7 +270,8 @@ private ProvSSLSession accessSession(SessionEntry sessionEntry)
 
     private long getCreationTimeLimit(long expiryTimeMillis)
     {
-        return sessionTimeoutSeconds < 1 ? Long.MIN_VALUE : (expiryTimeMillis - 1000L * sessionTimeoutSeconds);
+        int seconds = sessionTimeoutSeconds;
+        return seconds < 1 ? Long.MIN_VALUE : (expiryTimeMillis - 1000L * seconds);
     }
 
     private boolean invalidateIfCreatedBefore(SessionEntry sessionEntry, long creationTimeLimit)
@@ -273,28 +311,65 @@ private void removeAllExpiredSessions()
 
         long creationTimeLimit = getCreationTimeLimit(System.currentTimeMillis());
 
-        Iterator<SessionEntry> iter = sessionsByID.values().iterator();
-        while (iter.hasNext())
+        for (int i = 0; i < SESSION_STRIPES; ++i)
         {
-            SessionEntry sessionEntry = iter.next();
-            if (invalidateIfCreatedBefore(sessionEntry, creationTimeLimit))
+            sessionStripes[i].removeCreatedBefore(creationTimeLimit);
+        }
+    }
+
+    private void evictExcessSessions(int startIndex)
+    {
+        int limit = sessionCacheSize;
+        if (limit < 1)
+        {
+            return;
+        }
+
+        // Evict from each stripe in turn, starting after the one (if any) that was just added to
+        int emptyStripes = 0;
+        int index = startIndex;
+        while (sessionCount.get() > limit && emptyStripes < SESSION_STRIPES)
+        {
+            if (sessionStripes[index & (SESSION_STRIPES - 1)].removeEldest())
             {
-                iter.remove();
-                removeSessionByPeer(sessionEntry);
+                evictionCount.incrementAndGet();
+                emptyStripes = 0;
+            }
+            else
+            {
+                ++emptyStripes;
             }
+            ++index;
         }
     }
 
-    private void removeSession(SessionEntry sessionEntry)
+    private SessionStripe getStripe(SessionID sessionID)
     {
-        mapRemove(sessionsByID, sessionEntry.getSessionID(), sessionEntry);
+        return sessionStripes[getStripeIndex(sessionID)];
+    }
 
-        removeSessionByPeer(sessionEntry);
+    private ProvSSLSession recordLookup(ProvSSLSession session)
+    {
+        (null == session ? missCount : hitCount).incrementAndGet();
+        return session;
+    }
+
+    private void removeSession(SessionEntry sessionEntry)
+    {
+        getStripe(sessionEntry.getSessionID()).remove(sessionEntry.getSessionID(), sessionEntry);
     }
 
     private boolean removeSessionByPeer(SessionEntry sessionEntry)
     {
-        return mapRemove(sessionsByPeer, sessionEntry.getPeerKey(), sessionEntry);
+        String peerKey = sessionEntry.getPeerKey();
+        return null != peerKey && sessionsByPeer.remove(peerKey, sessionEntry);
+    }
+
+    private static int getStripeIndex(SessionID sessionID)
+    {
+        int h = sessionID.hashCode();
+        h ^= (h >>> 16);
+        return h & (SESSION_STRIPES - 1);
     }
 
     private static String makePeerKey(ProvSSLSession session)
@@ -333,35 +408,113 @@ private static <K, V> V mapGet(Map<K, V> map, K key)
         return key == null ? null : map.get(key);
     }
 
-    private static <K, V> V mapRemove(Map<K, V> map, K key)
+    /**
+     * One lock stripe of the session cache, holding the sessions whose IDs map to it.
+     */
+    private final class SessionStripe
     {
-        if (map == null)
+        // NOTE: This is configured as a simple LRU cache using the "access order" constructor
+        private final LinkedHashMap<SessionID, SessionEntry> sessionsByID = new LinkedHashMap<SessionID, SessionEntry>(
+            16, 0.75f, true);
+
+        synchronized SessionEntry get(SessionID sessionID)
         {
-            throw new NullPointerException();
+            return sessionsByID.get(sessionID);
         }
-        return key == null ? null : map.remove(key);
-    }
 
-    private static <K, V> boolean mapRemove(Map<K, V> map, K key, V value)
-    {
-        if (map == null || value == null)
+        synchronized ProvSSLSession report(SessionID sessionID, String peerHost, int peerPort, TlsSession tlsSession,
+            JsseSessionParameters jsseSessionParameters)
         {
-            throw new NullPointerException();
+            SessionEntry sessionEntry = sessionsByID.get(sessionID);
+
+            ProvSSLSession session = sessionEntry == null ? null : sessionEntry.get();
+            if (null == session || session.getTlsSession() != tlsSession)
+            {
+                session = new ProvSSLSession(ProvSSLSessionContext.this, peerHost, peerPort, tlsSession,
+                    jsseSessionParameters);
+
+                SessionEntry previous = sessionsByID.put(sessionID,
+                    sessionEntry = new SessionEntry(sessionID, session, sessionsQueue));
+
+                if (null == previous)
+                {
+                    sessionCount.incrementAndGet();
+                }
+                else
+                {
+                    removeSessionByPeer(previous);
+                }
+            }
+
+            mapAdd(sessionsByPeer, sessionEntry.getPeerKey(), sessionEntry);
+
+            return session;
         }
-        if (key != null)
+
+        synchronized void remove(SessionID sessionID)
         {
-            // TODO[jsse] From 1.8 there is a 2-argument remove method to accomplish this 
-            V removed = map.remove(key);
-            if (removed == value)
+            SessionEntry sessionEntry = sessionsByID.remove(sessionID);
+            if (null != sessionEntry)
             {
-                return true;
+                removed(sessionEntry);
             }
-            if (removed != null)
+        }
+
+        synchronized void remove(SessionID sessionID, SessionEntry sessionEntry)
+        {
+            if (sessionsByID.get(sessionID) == sessionEntry)
             {
-                map.put(key, removed);
+                sessionsByID.remove(sessionID);
+                removed(sessionEntry);
             }
+            else
+            {
+                // NOTE: A replaced entry may still be registered for its peer
+                removeSessionByPeer(sessionEntry);
+            }
+        }
+
+        synchronized boolean removeEldest()
+        {
+            Iterator<SessionEntry> iter = sessionsByID.values().iterator();
+            if (!iter.hasNext())
+            {
+                return false;
+            }
+
+            SessionEntry sessionEntry = iter.next();
+            iter.remove();
+            removed(sessionEntry);
+            return true;
+        }
+
+        synchronized void removeCreatedBefore(long creationTimeLimit)
+        {
+            Iterator<SessionEntry> iter = sessionsByID.values().iterator();
+            while (iter.hasNext())
+            {
+                SessionEntry sessionEntry = iter.next();
+                if (invalidateIfCreatedBefore(sessionEntry, creationTimeLimit))
+                {
+                    iter.remove();
+                    removed(sessionEntry);
+                }
+            }
+        }
+
+        synchronized void collectIDs(ArrayList<byte[]> ids)
+        {
+            for (SessionID sessionID : sessionsByID.keySet())
+            {
+                ids.add(sessionID.getBytes());
+            }
+        }
+
+        private void removed(SessionEntry sessionEntry)
+        {
+            sessionCount.decrementAndGet();
+            removeSessionByPeer(sessionEntry);
         }
-        return false;
     }
 
     private static final class SessionEntry
@@ -1,5 +1,7 @@
 package org.bouncycastle.jsse.provider;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.security.Principal;
@@ -32,8 +34,10 @@
 import org.bouncycastle.tls.DefaultTlsServer;
 import org.bouncycastle.tls.KeyExchangeAlgorithm;
 import org.bouncycastle.tls.NamedGroup;
+import org.bouncycastle.tls.NewSessionTicket;
 import org.bouncycastle.tls.ProtocolName;
 import org.bouncycastle.tls.ProtocolVersion;
+import org.bouncycastle.tls.PskIdentity;
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.ServerName;
 import org.bouncycastle.tls.SessionParameters;
@@ -47,9 +51,12 @@
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.TrustedAuthority;
 import org.bouncycastle.tls.crypto.DHGroup;
+import org.bouncycastle.tls.crypto.TlsCertificate;
 import org.bouncycastle.tls.crypto.TlsDHConfig;
+import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
 import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
 import org.bouncycastle.util.encoders.Hex;
 
 class ProvTlsServer
@@ -71,6 +78,11 @@
     private static final boolean provServerEnableSessionResumption = PropertyUtils
         .getBooleanSystemProperty("org.bouncycastle.jsse.server.enableSessionResumption", true);
 
+    private static final boolean provServerEnableSessionTickets = PropertyUtils
+        .getBooleanSystemProperty("org.bouncycastle.jsse.server.enableSessionTickets", true);
+
+    private static final int SESSION_TICKET_FORMAT = 1;
+
     // TODO[jsse] Support status_request and status_request_v2 extensions
 //    private static final boolean provServerEnableStatusRequest = PropertyUtils.getBooleanSystemProperty(
 //        "jdk.tls.server.enableStatusRequestExtension", false);
@@ -184,6 +196,8 @@ private static BigInteger parseDHParameter(String s, int beginIndex, int endInde
     protected Set<String> keyManagerMissCache = null;
     protected TlsCredentials credentials = null;
     protected boolean handshakeComplete = false;
+    protected TlsSession ticketSession = null;
+    protected String ticketEndpointID = null;
 
     ProvTlsServer(ProvTlsManager manager, ProvSSLParameters sslParameters)
     {
@@ -727,10 +741,78 @@ public TlsSession getSessionToResume(byte[] sessionID)
         return null;
     }
 
+    @Override
+    public TlsSession getSessionToResume13(PskIdentity identity) throws IOException
+    {
+        if (!isSessionTicketsEnabled())
+        {
+            return null;
+        }
+
+        ProvSSLSessionContext sslSessionContext = manager.getContextData().getServerSessionContext();
+
+        byte[] state = sslSessionContext.getSessionTicketKeys().unprotect(identity.getIdentity());
+        if (null == state)
+        {
+            return null;
+        }
+
+        try
+        {
+            return importSessionTicket(sslSessionContext, identity, state);
+        }
+        catch (IOException e)
+        {
+            if (LOG.isLoggable(Level.FINER))
+            {
+                LOG.log(Level.FINER, serverID + ": Session ticket could not be decoded", e);
+            }
+            return null;
+        }
+        finally
+        {
+            Arrays.fill(state, (byte)0);
+        }
+    }
+
+    @Override
+    public NewSessionTicket getNewSessionTicket13(SessionParameters sessionParameters, long ticketAgeAdd)
+        throws IOException
+    {
+        if (!isSessionTicketsEnabled())
+        {
+            return null;
+        }
+
+        ProvSSLSessionContext sslSessionContext = manager.getContextData().getServerSessionContext();
+        int ticketLifetime = sslSessionContext.getSessionTicketLifetime();
+
+        byte[] state = exportSessionTicket(sessionParameters, ticketLifetime, ticketAgeAdd);
+        try
+        {
+            byte[] ticket = sslSessionContext.getSessionTicketKeys().protect(state, 1000L * ticketLifetime);
+            if (null == ticket || ticket.length > 65535)
+            {
+                return null;
+            }
+
+            if (LOG.isLoggable(Level.FINE))
+            {
+                LOG.fine(serverID + " issued session ticket (lifetime " + ticketLifetime + "s)");
+            }
+
+            return new NewSessionTicket(ticketLifetime, ticket);
+        }
+        finally
+        {
+            Arrays.fill(state, (byte)0);
+        }
+    }
+
     @Override
     public byte[] getNewSessionID()
     {
-        // TODO[tls13] Resumption/PSK
+        // NOTE: TLS 1.3 sessions are resumed via (stateless) session tickets instead
         if (!provServerEnableSessionResumption || TlsUtils.isTLSv13(context))
         {
             return null;
@@ -744,6 +826,19 @@ public void notifySession(TlsSession session)
     {
         byte[] sessionID = session.getSessionID();
 
+        if (null != ticketSession && ticketSession == session)
+        {
+            // NOTE: SNI is negotiated per-connection in TLS 1.3, so the session takes the current value
+            this.sslSession = manager.getContextData().getServerSessionContext().reportSession(manager.getPeerHost(),
+                manager.getPeerPort(), session, new JsseSessionParameters(ticketEndpointID, matchedSNIServerName),
+                false);
+
+            if (LOG.isLoggable(Level.FINE))
+            {
+                LOG.fine(serverID + " resumed session from ticket");
+            }
+        }
+
         boolean isResumed = (null != sslSession && sslSession.getTlsSession() == session);
         if (isResumed)
         {
@@ -905,7 +1000,7 @@ public synchronized void notifyHandshakeComplete() throws IOException
             int peerPort = manager.getPeerPort();
             JsseSessionParameters jsseSessionParameters = new JsseSessionParameters(
                 sslParameters.getEndpointIdentificationAlgorithm(), matchedSNIServerName);
-            // TODO[tls13] Resumption/PSK
+            // NOTE: TLS 1.3 sessions are resumed via (stateless) session tickets instead
             boolean addToCache = provServerEnableSessionResumption && !TlsUtils.isTLSv13(context);
 
             this.sslSession = sslSessionContext.reportSession(peerHost, peerPort, connectionTlsSession,
@@ -1042,22 +1137,9 @@ protected boolean isResumable(ProvSSLSession provSSLSession, TlsSession tlsSessi
                 return false;
             }
 
+            if (!isResumableEndpointID(provSSLSession.getJsseSessionParameters().getEndpointIDAlgorithm()))
             {
-                String connectionEndpointID = sslParameters.getEndpointIdentificationAlgorithm();
-                if (null != connectionEndpointID)
-                {
-                    JsseSessionParameters jsseSessionParameters = provSSLSession.getJsseSessionParameters();
-                    String sessionEndpointID = jsseSessionParameters.getEndpointIDAlgorithm();
-                    if (!connectionEndpointID.equalsIgnoreCase(sessionEndpointID))
-                    {
-                        if (LOG.isLoggable(Level.FINER))
-                        {
-                            LOG.finer(serverID + ": Session not resumable - endpoint ID algorithm mismatch; connection: "
-                                + connectionEndpointID + ", session: " + sessionEndpointID);
-                        }
-                        return false;
-                    }
-                }
+                return false;
             }
         }
 
@@ -1093,6 +1175,166 @@ protected boolean isResumable(ProvSSLSession provSSLSession, TlsSession tlsSessi
         return true;
     }
 
+    protected boolean isResumableEndpointID(String sessionEndpointID)
+    {
+        String connectionEndpointID = sslParameters.getEndpointIdentificationAlgorithm();
+        if (null != connectionEndpointID && !connectionEndpointID.equalsIgnoreCase(sessionEndpointID))
+        {
+            if (LOG.isLoggable(Level.FINER))
+            {
+                LOG.finer(serverID + ": Session not resumable - endpoint ID algorithm mismatch; connection: "
+                    + connectionEndpointID + ", session: " + sessionEndpointID);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    protected boolean isSessionTicketsEnabled()
+    {
+        return provServerEnableSessionResumption && provServerEnableSessionTickets
+            && sslParameters.getEnableSessionTickets();
+    }
+
+    /*
+     * The (unprotected) ticket state: format, issue time, lifetime, ticket_age_add, version, cipher suite,
+     * resumption PSK, endpoint ID algorithm, local and peer certificate chains.
+     */
+    protected byte[] exportSessionTicket(SessionParameters sessionParameters, int ticketLifetime, long ticketAgeAdd)
+        throws IOException
+    {
+        String endpointID = sslParameters.getEndpointIdentificationAlgorithm();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(1024);
+        TlsUtils.writeUint8(SESSION_TICKET_FORMAT, output);
+        TlsUtils.writeUint48(System.currentTimeMillis(), output);
+        TlsUtils.writeUint32(ticketLifetime, output);
+        TlsUtils.writeUint32(ticketAgeAdd, output);
+        TlsUtils.writeVersion(sessionParameters.getNegotiatedVersion(), output);
+        TlsUtils.writeUint16(sessionParameters.getCipherSuite(), output);
+
+        byte[] resumptionPSK = sessionParameters.getMasterSecret().extract();
+        TlsUtils.writeOpaque8(resumptionPSK, output);
+        Arrays.fill(resumptionPSK, (byte)0);
+
+        TlsUtils.writeOpaque8(null == endpointID ? TlsUtils.EMPTY_BYTES : Strings.toUTF8ByteArray(endpointID), output);
+        writeCertificateChain(sessionParameters.getLocalCertificate(), output);
+        writeCertificateChain(sessionParameters.getPeerCertificate(), output);
+        return output.toByteArray();
+    }
+
+    protected TlsSession importSessionTicket(ProvSSLSessionContext sslSessionContext, PskIdentity identity,
+        byte[] state) throws IOException
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(state);
+        if (SESSION_TICKET_FORMAT != TlsUtils.readUint8(input))
+        {
+            return null;
+        }
+
+        long issuedAt = TlsUtils.readUint48(input);
+        long ticketLifetime = TlsUtils.readUint32(input);
+        long ticketAgeAdd = TlsUtils.readUint32(input);
+        ProtocolVersion negotiatedVersion = TlsUtils.readVersion(input);
+        int cipherSuite = TlsUtils.readUint16(input);
+        byte[] resumptionPSK = TlsUtils.readOpaque8(input, 1);
+        byte[] endpointID = TlsUtils.readOpaque8(input);
+        Certificate localCertificate = readCertificateChain(input);
+        Certificate peerCertificate = readCertificateChain(input);
+
+        try
+        {
+            if (input.available() != 0)
+            {
+                throw new TlsFatalAlert(AlertDescription.decode_error);
+            }
+
+            /*
+             * RFC 8446 4.6.1. The ticket lifetime is counted from the time of issue; a shorter session timeout
+             * configured since then also applies. The client's view of the ticket age is checked loosely, since
+             * early data (where it matters for replay protection) is not supported.
+             */
+            long lifetimeMillis = 1000L * Math.min(ticketLifetime, sslSessionContext.getSessionTicketLifetime());
+            long serverAge = System.currentTimeMillis() - issuedAt;
+            long clientAge = (identity.getObfuscatedTicketAge() - ticketAgeAdd) & 0xFFFFFFFFL;
+            if (serverAge < 0L || serverAge > lifetimeMillis || clientAge > lifetimeMillis)
+            {
+                if (LOG.isLoggable(Level.FINER))
+                {
+                    LOG.finer(serverID + ": Session ticket expired");
+                }
+                return null;
+            }
+
+            if (!negotiatedVersion.equals(context.getSecurityParametersHandshake().getNegotiatedVersion()) ||
+                !Arrays.contains(getCipherSuites(), cipherSuite) ||
+                !Arrays.contains(offeredCipherSuites, cipherSuite))
+            {
+                return null;
+            }
+
+            if (sslParameters.getNeedClientAuth() && null == peerCertificate)
+            {
+                return null;
+            }
+
+            String sessionEndpointID = endpointID.length < 1 ? null : Strings.fromUTF8ByteArray(endpointID);
+            if (!isResumableEndpointID(sessionEndpointID))
+            {
+                return null;
+            }
+
+            SessionParameters sessionParameters = new SessionParameters.Builder()
+                .setCipherSuite(cipherSuite)
+                .setExtendedMasterSecret(true)
+                .setLocalCertificate(localCertificate)
+                .setMasterSecret(getCrypto().createSecret(resumptionPSK))
+                .setNegotiatedVersion(negotiatedVersion)
+                .setPeerCertificate(peerCertificate)
+                .build();
+
+            this.ticketSession = TlsUtils.importSession(TlsUtils.EMPTY_BYTES, sessionParameters);
+            this.ticketEndpointID = sessionEndpointID;
+            return ticketSession;
+        }
+        finally
+        {
+            Arrays.fill(resumptionPSK, (byte)0);
+        }
+    }
+
+    protected Certificate readCertificateChain(ByteArrayInputStream input) throws IOException
+    {
+        byte[] chainData = TlsUtils.readOpaque24(input);
+        if (chainData.length < 1)
+        {
+            return null;
+        }
+
+        ByteArrayInputStream buf = new ByteArrayInputStream(chainData);
+        ArrayList<TlsCertificate> chain = new ArrayList<TlsCertificate>();
+        while (buf.available() > 0)
+        {
+            chain.add(getCrypto().createCertificate(TlsUtils.readOpaque24(buf, 1)));
+        }
+        return new Certificate(chain.toArray(new TlsCertificate[chain.size()]));
+    }
+
+    protected static void writeCertificateChain(Certificate certificate, ByteArrayOutputStream output)
+        throws IOException
+    {
+        ByteArrayOutputStream chainData = new ByteArrayOutputStream();
+        if (null != certificate)
+        {
+            for (int i = 0; i < certificate.getLength(); ++i)
+            {
+                TlsUtils.writeOpaque24(certificate.getCertificateAt(i).getEncoded(), chainData);
+            }
+        }
+        TlsUtils.checkUint24(chainData.size());
+        TlsUtils.writeOpaque24(chainData.toByteArray(), output);
+    }
+
     protected TlsCredentials selectCredentials(Principal[] issuers, int keyExchangeAlgorithm) throws IOException
     {
         switch (keyExchangeAlgorithm)
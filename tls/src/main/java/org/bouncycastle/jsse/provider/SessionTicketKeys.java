@@ -0,0 +1,192 @@
+package org.bouncycastle.jsse.provider;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.jcajce.util.JcaJceHelper;
+import org.bouncycastle.tls.crypto.impl.jcajce.JcaTlsCrypto;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Rotating keys protecting the state carried in stateless (TLS 1.3) session tickets.
+ * <p>
+ * A ticket is key_name || nonce || AES-256-GCM(state), with the key name as additional data. A new key is
+ * generated every rotation period; retired keys are still accepted for decryption until no ticket issued
+ * under them can be within its lifetime.
+ * </p>
+ */
+class SessionTicketKeys
+{
+    private static final Logger LOG = Logger.getLogger(SessionTicketKeys.class.getName());
+
+    private static final int provKeyRotationSeconds = PropertyUtils
+        .getIntegerSystemProperty("org.bouncycastle.jsse.server.sessionTicketKeyRotation", 3600, 1, 604800);
+
+    private static final int KEY_NAME_LENGTH = 16;
+    private static final int KEY_LENGTH = 32;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH = 16;
+
+    static final int OVERHEAD = KEY_NAME_LENGTH + NONCE_LENGTH + TAG_LENGTH;
+
+    private final JcaTlsCrypto crypto;
+    private final long rotationMillis;
+    private final List<TicketKey> keys = new ArrayList<TicketKey>(4);
+
+    SessionTicketKeys(JcaTlsCrypto crypto)
+    {
+        this(crypto, 1000L * provKeyRotationSeconds);
+    }
+
+    SessionTicketKeys(JcaTlsCrypto crypto, long rotationMillis)
+    {
+        this.crypto = crypto;
+        this.rotationMillis = rotationMillis;
+    }
+
+    byte[] protect(byte[] state, long maxLifetimeMillis)
+    {
+        TicketKey key = getEncryptionKey(System.currentTimeMillis(), maxLifetimeMillis);
+
+        byte[] ticket = new byte[OVERHEAD + state.length];
+        System.arraycopy(key.name, 0, ticket, 0, KEY_NAME_LENGTH);
+
+        byte[] nonce = new byte[NONCE_LENGTH];
+        crypto.getSecureRandom().nextBytes(nonce);
+        System.arraycopy(nonce, 0, ticket, KEY_NAME_LENGTH, NONCE_LENGTH);
+
+        try
+        {
+            Cipher cipher = createCipher(Cipher.ENCRYPT_MODE, key, nonce);
+            cipher.updateAAD(key.name);
+            cipher.doFinal(state, 0, state.length, ticket, KEY_NAME_LENGTH + NONCE_LENGTH);
+            return ticket;
+        }
+        catch (GeneralSecurityException e)
+        {
+            LOG.log(Level.WARNING, "Failed to protect session ticket", e);
+            return null;
+        }
+    }
+
+    byte[] unprotect(byte[] ticket)
+    {
+        if (null == ticket || ticket.length <= OVERHEAD)
+        {
+            return null;
+        }
+
+        TicketKey key = getDecryptionKey(ticket, System.currentTimeMillis());
+        if (null == key)
+        {
+            return null;
+        }
+
+        byte[] nonce = Arrays.copyOfRange(ticket, KEY_NAME_LENGTH, KEY_NAME_LENGTH + NONCE_LENGTH);
+
+        try
+        {
+            Cipher cipher = createCipher(Cipher.DECRYPT_MODE, key, nonce);
+            cipher.updateAAD(key.name);
+            return cipher.doFinal(ticket, KEY_NAME_LENGTH + NONCE_LENGTH, ticket.length - KEY_NAME_LENGTH - NONCE_LENGTH);
+        }
+        catch (GeneralSecurityException e)
+        {
+            LOG.finer("Rejected session ticket that failed authentication");
+            return null;
+        }
+    }
+
+    private Cipher createCipher(int mode, TicketKey key, byte[] nonce) throws GeneralSecurityException
+    {
+        JcaJceHelper helper = crypto.getHelper();
+
+        Cipher cipher = helper.createCipher("AES/GCM/NoPadding");
+        cipher.init(mode, key.key, new GCMParameterSpec(TAG_LENGTH * 8, nonce), crypto.getSecureRandom());
+        return cipher;
+    }
+
+    private synchronized TicketKey getDecryptionKey(byte[] ticket, long now)
+    {
+        for (int i = 0; i < keys.size(); ++i)
+        {
+            TicketKey key = keys.get(i);
+            if (Arrays.constantTimeAreEqual(KEY_NAME_LENGTH, key.name, 0, ticket, 0))
+            {
+                return now < key.retireAt ? key : null;
+            }
+        }
+        return null;
+    }
+
+    private synchronized TicketKey getEncryptionKey(long now, long maxLifetimeMillis)
+    {
+        // Keys can decrypt tickets for as long as a ticket issued just before the next rotation may be used
+        long retireAt = now + rotationMillis + maxLifetimeMillis;
+
+        Iterator<TicketKey> it = keys.iterator();
+        while (it.hasNext())
+        {
+            TicketKey key = it.next();
+            if (now >= key.retireAt)
+            {
+                it.remove();
+            }
+        }
+
+        if (!keys.isEmpty())
+        {
+            TicketKey current = keys.get(0);
+            if (now - current.createdAt < rotationMillis)
+            {
+                current.retireAt = Math.max(current.retireAt, retireAt);
+                return current;
+            }
+        }
+
+        SecureRandom random = crypto.getSecureRandom();
+
+        byte[] name = new byte[KEY_NAME_LENGTH];
+        random.nextBytes(name);
+
+        byte[] keyBytes = new byte[KEY_LENGTH];
+        random.nextBytes(keyBytes);
+
+        TicketKey current = new TicketKey(name, new SecretKeySpec(keyBytes, "AES"), now, retireAt);
+        Arrays.fill(keyBytes, (byte)0);
+
+        keys.add(0, current);
+
+        if (LOG.isLoggable(Level.FINE))
+        {
+            LOG.fine("Rotated session ticket key (" + keys.size() + " active)");
+        }
+
+        return current;
+    }
+
+    private static final class TicketKey
+    {
+        final byte[] name;
+        final SecretKeySpec key;
+        final long createdAt;
+        long retireAt;
+
+        TicketKey(byte[] name, SecretKeySpec key, long createdAt, long retireAt)
+        {
+            this.name = name;
+            this.key = key;
+            this.createdAt = createdAt;
+            this.retireAt = retireAt;
+        }
+    }
+}
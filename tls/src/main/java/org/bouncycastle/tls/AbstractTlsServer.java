@@ -345,6 +345,11 @@ public TlsPSKExternal getExternalPSK(Vector identities)
         return null;
     }
 
+    public TlsSession getSessionToResume13(PskIdentity identity) throws IOException
+    {
+        return null;
+    }
+
     public void notifySession(TlsSession session)
     {
     }
@@ -777,4 +782,10 @@ public NewSessionTicket getNewSessionTicket()
          */
         return new NewSessionTicket(0L, TlsUtils.EMPTY_BYTES);
     }
+
+    public NewSessionTicket getNewSessionTicket13(SessionParameters sessionParameters, long ticketAgeAdd)
+        throws IOException
+    {
+        return null;
+    }
 }
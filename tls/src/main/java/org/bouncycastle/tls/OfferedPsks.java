@@ -36,13 +36,16 @@
         final TlsPSK psk;
         final short[] pskKeyExchangeModes;
         final TlsSecret earlySecret;
+        final TlsSession resumedSession;
 
-        SelectedConfig(int index, TlsPSK psk, short[] pskKeyExchangeModes, TlsSecret earlySecret)
+        SelectedConfig(int index, TlsPSK psk, short[] pskKeyExchangeModes, TlsSecret earlySecret,
+            TlsSession resumedSession)
         {
             this.index = index;
             this.psk = psk;
             this.pskKeyExchangeModes = pskKeyExchangeModes;
             this.earlySecret = earlySecret;
+            this.resumedSession = resumedSession;
         }
     }
 
@@ -5,11 +5,13 @@
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
 import org.bouncycastle.tls.crypto.TlsNullNullCipher;
+import org.bouncycastle.tls.crypto.TlsOutputBufferCipher;
 
 /**
  * An implementation of the TLS 1.0/1.1/1.2 record layer.
@@ -30,6 +32,8 @@
     private TlsCipher writeCipher = TlsNullNullCipher.INSTANCE;
 
     private ProtocolVersion writeVersion = null;
+    private byte[] writeBuffer = null;
+    private byte[] inputBuffer = null;
 
     private int plaintextLimit = DEFAULT_PLAINTEXT_LIMIT;
     private int ciphertextLimit = DEFAULT_PLAINTEXT_LIMIT;
@@ -277,6 +281,51 @@ void writeRecord(short contentType, byte[] plaintext, int plaintextOffset, int p
             return;
         }
 
+        checkWriteRecord(contentType, plaintextLength);
+
+        byte[] buf = getWriteBuffer(plaintextLength);
+
+        writeRecord(contentType, plaintext, plaintextOffset, plaintextLength, buf);
+    }
+
+    /**
+     * Write a record whose plaintext is gathered from the remaining content of a sequence of buffers. The plaintext
+     * is copied straight into the record buffer and encoded in place.
+     */
+    void writeRecord(short contentType, ByteBuffer[] srcs, int offset, int length, int plaintextLength)
+        throws IOException
+    {
+        // Never send anything until a valid ClientHello has been received
+        if (writeVersion == null)
+        {
+            return;
+        }
+
+        checkWriteRecord(contentType, plaintextLength);
+
+        byte[] buf = getWriteBuffer(plaintextLength);
+
+        int pos = RecordFormat.FRAGMENT_OFFSET, remaining = plaintextLength;
+        for (int i = 0; remaining > 0; ++i)
+        {
+            if (i >= length)
+            {
+                throw new TlsFatalAlert(AlertDescription.internal_error);
+            }
+
+            ByteBuffer src = srcs[offset + i];
+            int count = Math.min(src.remaining(), remaining);
+            src.get(buf, pos, count);
+            pos += count;
+            remaining -= count;
+        }
+
+        writeRecord(contentType, buf, RecordFormat.FRAGMENT_OFFSET, plaintextLength, buf);
+    }
+
+    private void checkWriteRecord(short contentType, int plaintextLength)
+        throws IOException
+    {
         /*
          * RFC 5246 6.2.1 The length should not exceed 2^14.
          */
@@ -290,23 +339,58 @@ void writeRecord(short contentType, byte[] plaintext, int plaintextOffset, int p
         {
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
+    }
+
+    /*
+     * Records are encoded into a buffer retained by this stream, which is only grown when a larger record needs
+     * to be written; OutputStream.write doesn't keep a reference to the buffer after it returns.
+     */
+    private byte[] getWriteBuffer(int plaintextLength)
+    {
+        int bufferLength = RecordFormat.FRAGMENT_OFFSET + writeCipher.getCiphertextEncodeLimit(plaintextLength);
+        byte[] buf = writeBuffer;
+        if (null == buf || buf.length < bufferLength)
+        {
+            writeBuffer = buf = new byte[bufferLength];
+        }
+        return buf;
+    }
 
+    private void writeRecord(short contentType, byte[] plaintext, int plaintextOffset, int plaintextLength,
+        byte[] buf) throws IOException
+    {
         long seqNo = writeSeqNo.nextValue(AlertDescription.internal_error);
         ProtocolVersion recordVersion = writeVersion;
 
-        TlsEncodeResult encoded = writeCipher.encodePlaintext(seqNo, contentType, recordVersion,
-            RecordFormat.FRAGMENT_OFFSET, plaintext, plaintextOffset, plaintextLength);
+        TlsEncodeResult encoded;
+        byte[] record;
+        int recordOffset, ciphertextLength;
+        if (writeCipher instanceof TlsOutputBufferCipher)
+        {
+            encoded = ((TlsOutputBufferCipher)writeCipher).encodePlaintext(seqNo, contentType, recordVersion,
+                plaintext, plaintextOffset, plaintextLength, buf, RecordFormat.FRAGMENT_OFFSET);
+            record = buf;
+            recordOffset = 0;
+            ciphertextLength = encoded.len;
+        }
+        else
+        {
+            encoded = writeCipher.encodePlaintext(seqNo, contentType, recordVersion, RecordFormat.FRAGMENT_OFFSET,
+                plaintext, plaintextOffset, plaintextLength);
+            record = encoded.buf;
+            recordOffset = encoded.off;
+            ciphertextLength = encoded.len - RecordFormat.FRAGMENT_OFFSET;
+        }
 
-        int ciphertextLength = encoded.len - RecordFormat.FRAGMENT_OFFSET;
         TlsUtils.checkUint16(ciphertextLength);
 
-        TlsUtils.writeUint8(encoded.recordType, encoded.buf, encoded.off + RecordFormat.TYPE_OFFSET);
-        TlsUtils.writeVersion(recordVersion, encoded.buf, encoded.off + RecordFormat.VERSION_OFFSET);
-        TlsUtils.writeUint16(ciphertextLength, encoded.buf, encoded.off + RecordFormat.LENGTH_OFFSET);
+        TlsUtils.writeUint8(encoded.recordType, record, recordOffset + RecordFormat.TYPE_OFFSET);
+        TlsUtils.writeVersion(recordVersion, record, recordOffset + RecordFormat.VERSION_OFFSET);
+        TlsUtils.writeUint16(ciphertextLength, record, recordOffset + RecordFormat.LENGTH_OFFSET);
 
         try
         {
-            output.write(encoded.buf, encoded.off, encoded.len);
+            output.write(record, recordOffset, RecordFormat.FRAGMENT_OFFSET + ciphertextLength);
         }
         catch (InterruptedIOException e)
         {
@@ -316,9 +400,25 @@ void writeRecord(short contentType, byte[] plaintext, int plaintextOffset, int p
         output.flush();
     }
 
+    /**
+     * Return a buffer of at least the given length for staging input which can't be offered in place. The buffer
+     * is retained by this stream, so the contents are only valid until the next call.
+     */
+    byte[] getInputBuffer(int length)
+    {
+        byte[] buf = inputBuffer;
+        if (null == buf || buf.length < length)
+        {
+            inputBuffer = buf = new byte[length];
+        }
+        return buf;
+    }
+
     void close() throws IOException
     {
         inputRecord.reset();
+        writeBuffer = null;
+        inputBuffer = null;
 
         IOException io = null;
         try
@@ -0,0 +1,36 @@
+package org.bouncycastle.tls;
+
+import org.bouncycastle.tls.crypto.TlsSecret;
+
+/**
+ * A resumption PSK (RFC 8446 4.6.1), recovered from a ticket offered in the ClientHello.
+ */
+class TlsPSKResumption
+    implements TlsPSK
+{
+    private final byte[] identity;
+    private final TlsSecret key;
+    private final int prfAlgorithm;
+
+    TlsPSKResumption(byte[] identity, TlsSecret key, int prfAlgorithm)
+    {
+        this.identity = identity;
+        this.key = key;
+        this.prfAlgorithm = prfAlgorithm;
+    }
+
+    public byte[] getIdentity()
+    {
+        return identity;
+    }
+
+    public TlsSecret getKey()
+    {
+        return key;
+    }
+
+    public int getPRFAlgorithm()
+    {
+        return prfAlgorithm;
+    }
+}
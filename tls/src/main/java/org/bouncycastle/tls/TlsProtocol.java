@@ -966,6 +966,30 @@ protected void safeWriteRecord(short type, byte[] buf, int offset, int len)
         }
     }
 
+    protected void safeWriteRecord(short type, ByteBuffer[] srcs, int offset, int length, int len)
+        throws IOException
+    {
+        try
+        {
+            recordStream.writeRecord(type, srcs, offset, length, len);
+        }
+        catch (TlsFatalAlert e)
+        {
+            handleException(e.getAlertDescription(), "Failed to write record", e);
+            throw e;
+        }
+        catch (IOException e)
+        {
+            handleException(AlertDescription.internal_error, "Failed to write record", e);
+            throw e;
+        }
+        catch (RuntimeException e)
+        {
+            handleException(AlertDescription.internal_error, "Failed to write record", e);
+            throw new TlsFatalAlert(AlertDescription.internal_error, e);
+        }
+    }
+
     /**
      * Write some application data. Fragmentation is handled internally. Usable in both blocking/non-blocking
      * modes.<br>
@@ -1000,6 +1024,48 @@ public void writeApplicationData(byte[] buf, int off, int len)
             }
         }
 
+        writeApplicationData(buf, off, null, 0, 0, len);
+    }
+
+    public int getAppDataSplitMode()
+    {
+        return appDataSplitMode;
+    }
+
+    /**
+     * Write some application data gathered from the remaining content of a sequence of buffers, which may be heap
+     * or direct buffers. The data is copied straight into the record buffer, and the position of each buffer is
+     * advanced past the data written. Otherwise as for {@link #writeApplicationData(byte[], int, int)}.
+     *
+     * @param srcs   The buffers containing application data to send
+     * @param offset The index of the first buffer to read from
+     * @param length The number of buffers that may be read from
+     * @param len    The number of bytes of application data
+     * @throws IllegalStateException If called before the initial handshake has completed.
+     * @throws IOException           If connection is already closed, or for encryption or transport errors.
+     */
+    public void writeApplicationData(ByteBuffer[] srcs, int offset, int length, int len)
+        throws IOException
+    {
+        if (srcs == null)
+        {
+            throw new NullPointerException();
+        }
+        if ((offset | length | len) < 0 || offset > srcs.length - length)
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        writeApplicationData(null, 0, srcs, offset, length, len);
+    }
+
+    /*
+     * Fragment and write application data taken either from buf, starting at off, or (if srcs is non-null) gathered
+     * from the remaining content of srcs[offset..offset + length - 1].
+     */
+    private void writeApplicationData(byte[] buf, int off, ByteBuffer[] srcs, int offset, int length, int len)
+        throws IOException
+    {
         if (!appDataReady)
         {
             throw new IllegalStateException("Cannot write application data until initial handshake completed.");
@@ -1044,7 +1110,7 @@ public void writeApplicationData(byte[] buf, int off, int len)
                     {
                         if (len > 1)
                         {
-                            safeWriteRecord(ContentType.application_data, buf, off, 1);
+                            writeApplicationDataFragment(buf, off, srcs, offset, length, 1);
                             ++off;
                             --len;
                         }
@@ -1066,16 +1132,24 @@ else if (recordStream.needsKeyUpdate())
 
                 // Fragment data according to the current fragment limit.
                 int toWrite = Math.min(len, recordStream.getPlaintextLimit());
-                safeWriteRecord(ContentType.application_data, buf, off, toWrite);
+                writeApplicationDataFragment(buf, off, srcs, offset, length, toWrite);
                 off += toWrite;
                 len -= toWrite;
             }
         }
     }
 
-    public int getAppDataSplitMode()
+    private void writeApplicationDataFragment(byte[] buf, int off, ByteBuffer[] srcs, int offset, int length, int len)
+        throws IOException
     {
-        return appDataSplitMode;
+        if (null == srcs)
+        {
+            safeWriteRecord(ContentType.application_data, buf, off, len);
+        }
+        else
+        {
+            safeWriteRecord(ContentType.application_data, srcs, offset, length, len);
+        }
     }
 
     public void setAppDataSplitMode(int appDataSplitMode)
@@ -1355,14 +1429,7 @@ public void offerInput(byte[] input) throws IOException
      */
     public void offerInput(byte[] input, int inputOff, int inputLen) throws IOException
     {
-        if (blocking)
-        {
-            throw new IllegalStateException("Cannot use offerInput() in blocking mode! Use getInputStream() instead.");
-        }
-        if (closed)
-        {
-            throw new IOException("Connection is closed, cannot accept any more input");
-        }
+        checkOfferInput();
 
         // Fast path if the input is arriving one record at a time
         if (inputBuffers.available() == 0 && safeReadFullRecord(input, inputOff, inputLen))
@@ -1411,6 +1478,45 @@ public void offerInput(byte[] input, int inputOff, int inputLen) throws IOExcept
         }
     }
 
+    /**
+     * Offer input from a ByteBuffer, consuming inputLen bytes from its current position. Only allowed in
+     * non-blocking mode.<br>
+     * <br>
+     * The input is copied into a buffer retained by the connection and records are decrypted there, so the content
+     * of the passed in buffer is never modified, and no allocation is needed per record. Otherwise as for
+     * {@link #offerInput(byte[], int, int)}.
+     * @param input The input buffer to offer
+     * @param inputLen The number of bytes of input being offered
+     * @throws IOException If an error occurs while decrypting or processing a record
+     */
+    public void offerInput(ByteBuffer input, int inputLen) throws IOException
+    {
+        if (inputLen < 0 || inputLen > input.remaining())
+        {
+            throw new IndexOutOfBoundsException();
+        }
+
+        // check before consuming anything from the caller's buffer
+        checkOfferInput();
+
+        byte[] buf = recordStream.getInputBuffer(inputLen);
+        input.get(buf, 0, inputLen);
+
+        offerInput(buf, 0, inputLen);
+    }
+
+    private void checkOfferInput() throws IOException
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use offerInput() in blocking mode! Use getInputStream() instead.");
+        }
+        if (closed)
+        {
+            throw new IOException("Connection is closed, cannot accept any more input");
+        }
+    }
+
     public int getApplicationDataLimit()
     {
         return recordStream.getPlaintextLimit();
@@ -39,6 +39,22 @@
      */
     TlsPSKExternal getExternalPSK(Vector identities);
 
+    /**
+     * RFC 8446 4.6.1. Return the session to resume from a ticket previously issued via
+     * {@link #getNewSessionTicket13(SessionParameters, long)}. Note that this will only be called when TLS
+     * 1.3 has been negotiated, the client offers "psk_dhe_ke", and no external PSK was selected. The offered
+     * identities are passed in order until a session is returned.
+     * <p>
+     * The master secret of the returned session's parameters is taken to be the resumption PSK. Implementations
+     * are responsible for checking the ticket lifetime (and optionally the obfuscated ticket age).
+     * </p>
+     *
+     * @param identity a {@link PskIdentity} offered by the client, whose identity is the ticket.
+     * @return A {@link TlsSession} to resume, or null.
+     * @throws IOException
+     */
+    TlsSession getSessionToResume13(PskIdentity identity) throws IOException;
+
     void notifySession(TlsSession session);
 
     void notifyClientVersion(ProtocolVersion clientVersion) throws IOException;
@@ -135,4 +151,20 @@ void notifyClientCertificate(Certificate clientCertificate)
      */
     NewSessionTicket getNewSessionTicket()
         throws IOException;
+
+    /**
+     * RFC 8446 4.6.1. New Session Ticket Message.
+     * <p>
+     * This method will be called (only) for TLS 1.3 connections, once the handshake has completed. The master
+     * secret of the given session parameters is the resumption PSK associated with the ticket, so a stateless
+     * ticket must be protected accordingly.
+     * </p>
+     *
+     * @param sessionParameters the parameters of the session the ticket will resume.
+     * @param ticketAgeAdd the value the client will add to the ticket age it reports.
+     * @return The ticket (with its lifetime in seconds), or null to not send a NewSessionTicket.
+     * @throws IOException
+     */
+    NewSessionTicket getNewSessionTicket13(SessionParameters sessionParameters, long ticketAgeAdd)
+        throws IOException;
 }
@@ -203,6 +203,12 @@ protected ServerHello generate13ServerHello(ClientHello clientHello, HandshakeMe
                 }
             }
 
+            // The session (and cipher suite) were settled by the first ClientHello
+            if ((null != selectedPSK && null != selectedPSK.resumedSession) != securityParameters.isResumedSession())
+            {
+                throw new TlsFatalAlert(AlertDescription.illegal_parameter);
+            }
+
             /*
              * TODO[tls13] Confirm fields in the ClientHello haven't changed
              * 
@@ -261,13 +267,19 @@ protected ServerHello generate13ServerHello(ClientHello clientHello, HandshakeMe
             tlsServer.processClientExtensions(clientHelloExtensions);
 
             /*
-             * NOTE: Currently no server support for session resumption
-             * 
-             * If adding support, ensure securityParameters.tlsUnique is set to the localVerifyData, but
-             * ONLY when extended_master_secret has been negotiated (otherwise NULL).
+             * NOTE: TLS 1.3 resumption is via a resumption PSK selected above. The tlsUnique channel binding is
+             * not defined for TLS 1.3, so there is no special handling for it here.
              */
+            if (null != selectedPSK && null != selectedPSK.resumedSession)
+            {
+                securityParameters.resumedSession = true;
+
+                this.tlsSession = selectedPSK.resumedSession;
+                this.sessionParameters = tlsSession.exportSessionParameters();
+                this.sessionMasterSecret = null;
+            }
+            else
             {
-                // TODO[tls13] Resumption/PSK
                 securityParameters.resumedSession = false;
 
                 this.tlsSession = TlsUtils.importSession(TlsUtils.EMPTY_BYTES, null);
@@ -282,8 +294,10 @@ protected ServerHello generate13ServerHello(ClientHello clientHello, HandshakeMe
             TlsUtils.negotiatedVersionTLSServer(tlsServerContext);
 
             {
-                // TODO[tls13] Constrain selection when PSK selected
-                int cipherSuite = tlsServer.getSelectedCipherSuite();
+                // TODO[tls13] Constrain selection when an external PSK is selected
+                int cipherSuite = securityParameters.isResumedSession()
+                    ?   sessionParameters.getCipherSuite()
+                    :   tlsServer.getSelectedCipherSuite();
 
                 if (!TlsUtils.isValidCipherSuiteSelection(offeredCipherSuites, cipherSuite) ||
                     !TlsUtils.isValidVersionForCipherSuite(cipherSuite, serverVersion))
@@ -966,6 +980,13 @@ protected void handle13HandshakeMessage(short type, HandshakeMessageInput buf)
                 // NOTE: Completes the switch to application-data phase (server entered after CS_SERVER_FINISHED).
                 recordStream.enablePendingCipherRead(false);
 
+                buf.updateHash(handshakeHash);
+                TlsUtils.establish13ResumptionMasterSecret(tlsServerContext,
+                    TlsUtils.getCurrentPRFHash(handshakeHash));
+
+                // NOTE: Must precede completeHandshake(), which clears the resumption master secret
+                send13NewSessionTicketMessage();
+
                 completeHandshake();
                 break;
             }
@@ -1008,7 +1029,7 @@ protected void handleHandshakeMessage(short type, HandshakeMessageInput buf)
         if (connection_state > CS_CLIENT_HELLO
             && TlsUtils.isTLSv13(securityParameters.getNegotiatedVersion()))
         {
-            if (securityParameters.isResumedSession())
+            if (securityParameters.isResumedSession() && !selectedPSK13)
             {
                 throw new TlsFatalAlert(AlertDescription.internal_error);
             }
@@ -1672,6 +1693,55 @@ protected void sendHelloRequestMessage()
         HandshakeMessageOutput.send(this, HandshakeType.hello_request, TlsUtils.EMPTY_BYTES);
     }
 
+    protected void send13NewSessionTicketMessage()
+        throws IOException
+    {
+        SecurityParameters securityParameters = tlsServerContext.getSecurityParametersHandshake();
+        if (null == securityParameters || null == securityParameters.getResumptionMasterSecret())
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        // NOTE: Only a single ticket is issued per connection, so the nonce need only be unique per connection
+        byte[] ticketNonce = TlsUtils.EMPTY_BYTES;
+        long ticketAgeAdd = TlsUtils.readUint32(tlsServerContext.getNonceGenerator().generateNonce(4), 0);
+
+        SessionParameters ticketParameters = new SessionParameters.Builder()
+            .setCipherSuite(securityParameters.getCipherSuite())
+            .setExtendedMasterSecret(true)
+            .setLocalCertificate(securityParameters.getLocalCertificate())
+            .setMasterSecret(TlsUtils.calculate13ResumptionPSK(securityParameters, ticketNonce))
+            .setNegotiatedVersion(securityParameters.getNegotiatedVersion())
+            .setPeerCertificate(securityParameters.getPeerCertificate())
+            .build();
+
+        NewSessionTicket newSessionTicket = tlsServer.getNewSessionTicket13(ticketParameters, ticketAgeAdd);
+        if (null == newSessionTicket)
+        {
+            ticketParameters.clear();
+            return;
+        }
+
+        /*
+         * RFC 8446 4.6.1. Servers MUST NOT use any value greater than 604800 seconds (7 days).
+         */
+        long ticketLifetime = newSessionTicket.getTicketLifetimeHint();
+        byte[] ticket = newSessionTicket.getTicket();
+        if (ticketLifetime < 0L || ticketLifetime > 604800L || TlsUtils.isNullOrEmpty(ticket))
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        HandshakeMessageOutput message = new HandshakeMessageOutput(HandshakeType.new_session_ticket);
+        TlsUtils.writeUint32(ticketLifetime, message);
+        TlsUtils.writeUint32(ticketAgeAdd, message);
+        TlsUtils.writeOpaque8(ticketNonce, message);
+        TlsUtils.writeOpaque16(ticket, message);
+        // No extensions (early_data is not supported)
+        TlsUtils.writeUint16(0, message);
+        message.send(this);
+    }
+
     protected void sendNewSessionTicketMessage(NewSessionTicket newSessionTicket)
         throws IOException
     {
@@ -1890,6 +1890,29 @@ static void establish13PhaseApplication(TlsContext context, byte[] serverFinishe
             serverFinishedTranscriptHash);
     }
 
+    static void establish13ResumptionMasterSecret(TlsContext context, byte[] clientFinishedTranscriptHash)
+        throws IOException
+    {
+        SecurityParameters securityParameters = context.getSecurityParametersHandshake();
+        TlsSecret phaseSecret = securityParameters.getMasterSecret();
+
+        securityParameters.resumptionMasterSecret = deriveSecret(securityParameters, phaseSecret, "res master",
+            clientFinishedTranscriptHash);
+    }
+
+    static TlsSecret calculate13ResumptionPSK(SecurityParameters securityParameters, byte[] ticketNonce)
+        throws IOException
+    {
+        TlsSecret resumptionMasterSecret = securityParameters.getResumptionMasterSecret();
+        if (null == resumptionMasterSecret)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        return TlsCryptoUtils.hkdfExpandLabel(resumptionMasterSecret, securityParameters.getPRFCryptoHashAlgorithm(),
+            "resumption", ticketNonce, securityParameters.getPRFHashLength());
+    }
+
     static void establish13PhaseEarly(TlsContext context, byte[] clientHelloTranscriptHash, RecordStream recordStream)
         throws IOException
     {
@@ -6049,10 +6072,39 @@ static OfferedPsks.SelectedConfig selectPreSharedKey(TlsServerContext serverCont
             if (Arrays.contains(pskKeyExchangeModes, PskKeyExchangeMode.psk_dhe_ke))
             {
                 // TODO[tls13] Prefer to get the exact index from the server?
-                TlsPSKExternal psk = server.getExternalPSK(offeredPsks.getIdentities());
+                TlsPSK psk = server.getExternalPSK(offeredPsks.getIdentities());
+                boolean isExternalPSK = true;
+                TlsSession resumedSession = null;
+                int index = -1;
+
+                if (null != psk)
+                {
+                    index = offeredPsks.getIndexOfIdentity(new PskIdentity(psk.getIdentity(), 0L));
+                }
+                else
+                {
+                    Vector identities = offeredPsks.getIdentities();
+                    for (int i = 0, count = identities.size(); i < count; ++i)
+                    {
+                        PskIdentity identity = (PskIdentity)identities.elementAt(i);
+
+                        resumedSession = server.getSessionToResume13(identity);
+                        if (null != resumedSession)
+                        {
+                            psk = getResumptionPSK(serverContext, identity, resumedSession);
+                            if (null != psk)
+                            {
+                                isExternalPSK = false;
+                                index = i;
+                                break;
+                            }
+                            resumedSession = null;
+                        }
+                    }
+                }
+
                 if (null != psk)
                 {
-                    int index = offeredPsks.getIndexOfIdentity(new PskIdentity(psk.getIdentity(), 0L));
                     if (index >= 0)
                     {
                         byte[] binder = (byte[])offeredPsks.getBinders().elementAt(index);
@@ -6060,8 +6112,6 @@ static OfferedPsks.SelectedConfig selectPreSharedKey(TlsServerContext serverCont
                         TlsCrypto crypto = serverContext.getCrypto();
                         TlsSecret earlySecret = getPSKEarlySecret(crypto, psk);
 
-                        // TODO[tls13-psk] Handle resumption PSKs
-                        boolean isExternalPSK = true;
                         int pskCryptoHashAlgorithm = TlsCryptoUtils.getHashForPRF(psk.getPRFAlgorithm());
 
                         byte[] transcriptHash;
@@ -6089,7 +6139,8 @@ static OfferedPsks.SelectedConfig selectPreSharedKey(TlsServerContext serverCont
 
                         if (Arrays.constantTimeAreEqual(calculatedBinder, binder))
                         {
-                            return new OfferedPsks.SelectedConfig(index, psk, pskKeyExchangeModes, earlySecret);
+                            return new OfferedPsks.SelectedConfig(index, psk, pskKeyExchangeModes, earlySecret,
+                                resumedSession);
                         }
                     }
                 }
@@ -6104,6 +6155,35 @@ static OfferedPsks.SelectedConfig selectPreSharedKey(TlsServerContext serverCont
         return null;
     }
 
+    private static TlsPSK getResumptionPSK(TlsServerContext serverContext, PskIdentity identity,
+        TlsSession resumedSession) throws IOException
+    {
+        SessionParameters sessionParameters = resumedSession.exportSessionParameters();
+        if (null == sessionParameters)
+        {
+            return null;
+        }
+
+        ProtocolVersion negotiatedVersion = serverContext.getSecurityParametersHandshake().getNegotiatedVersion();
+        int cipherSuite = sessionParameters.getCipherSuite();
+        TlsSecret resumptionPSK = sessionParameters.getMasterSecret();
+
+        if (!negotiatedVersion.equals(sessionParameters.getNegotiatedVersion()) ||
+            !isValidVersionForCipherSuite(cipherSuite, negotiatedVersion) ||
+            null == resumptionPSK)
+        {
+            return null;
+        }
+
+        int prfAlgorithm = getPRFAlgorithm13(cipherSuite);
+        if (prfAlgorithm < 0)
+        {
+            return null;
+        }
+
+        return new TlsPSKResumption(identity.getIdentity(), resumptionPSK, prfAlgorithm);
+    }
+
     static TlsSecret getPSKEarlySecret(TlsCrypto crypto, TlsPSK psk)
     {
         int cryptoHashAlgorithm = TlsCryptoUtils.getHashForPRF(psk.getPRFAlgorithm());
@@ -10,7 +10,7 @@
  * The cipher for TLS_NULL_WITH_NULL_NULL.
  */
 public class TlsNullNullCipher
-    implements TlsCipher
+    implements TlsOutputBufferCipher
 {
     public static final TlsNullNullCipher INSTANCE = new TlsNullNullCipher();
 
@@ -42,6 +42,13 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
         return new TlsEncodeResult(result, 0, result.length, contentType);
     }
 
+    public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
+        byte[] plaintext, int offset, int len, byte[] output, int outputOffset) throws IOException
+    {
+        System.arraycopy(plaintext, offset, output, outputOffset, len);
+        return new TlsEncodeResult(output, outputOffset, len, contentType);
+    }
+
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
         byte[] ciphertext, int offset, int len) throws IOException
     {
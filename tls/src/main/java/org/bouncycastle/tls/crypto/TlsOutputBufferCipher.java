@@ -0,0 +1,33 @@
+package org.bouncycastle.tls.crypto;
+
+import java.io.IOException;
+
+import org.bouncycastle.tls.ProtocolVersion;
+
+/**
+ * Optional interface for a {@link TlsCipher} which can encode a record into a caller-supplied buffer, allowing the
+ * record layer to reuse one buffer for every record it writes. Ciphers which don't implement it are used through
+ * {@link TlsCipher#encodePlaintext(long, short, ProtocolVersion, int, byte[], int, int)}.
+ */
+public interface TlsOutputBufferCipher
+    extends TlsCipher
+{
+    /**
+     * Encode the passed in plaintext using the current bulk cipher, writing the result into a caller-supplied
+     * buffer. The buffer must have at least {@link #getCiphertextEncodeLimit(int)} bytes available at outputOffset,
+     * and may overlap the plaintext.
+     *
+     * @param seqNo sequence number of the message represented by plaintext.
+     * @param contentType content type of the message represented by plaintext.
+     * @param recordVersion {@link ProtocolVersion} used for the record.
+     * @param plaintext array holding input plaintext to the cipher.
+     * @param offset offset into input array the plaintext starts at.
+     * @param len length of the plaintext in the array.
+     * @param output array to hold the ciphertext.
+     * @param outputOffset offset into output array the ciphertext is to start at.
+     * @return A {@link TlsEncodeResult} describing the ciphertext written to output.
+     * @throws IOException
+     */
+    TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion, byte[] plaintext,
+        int offset, int len, byte[] output, int outputOffset) throws IOException;
+}
@@ -8,11 +8,11 @@
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsUtils;
-import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsCryptoParameters;
 import org.bouncycastle.tls.crypto.TlsCryptoUtils;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
+import org.bouncycastle.tls.crypto.TlsOutputBufferCipher;
 import org.bouncycastle.tls.crypto.TlsSecret;
 import org.bouncycastle.util.Arrays;
 
@@ -20,7 +20,7 @@
  * A generic TLS 1.2 AEAD cipher.
  */
 public final class TlsAEADCipher
-    implements TlsCipher
+    implements TlsOutputBufferCipher
 {
     public static final int AEAD_CCM = 1;
     public static final int AEAD_CHACHA20_POLY1305 = 2;
@@ -38,6 +38,8 @@
 
     private final TlsAEADCipherImpl decryptCipher, encryptCipher;
     private final byte[] decryptNonce, encryptNonce;
+    private final byte[] decryptRecordNonce, encryptRecordNonce;
+    private final byte[] decryptAdditionalData, encryptAdditionalData;
     private final byte[] decryptConnectionID, encryptConnectionID;
     private final boolean decryptUseInnerPlaintext, encryptUseInnerPlaintext;
 
@@ -88,6 +90,12 @@ public TlsAEADCipher(TlsCryptoParameters cryptoParams, TlsAEADCipherImpl encrypt
         this.decryptNonce = new byte[fixed_iv_length];
         this.encryptNonce = new byte[fixed_iv_length];
 
+        // per-record scratch space, each direction is only ever used by one thread at a time
+        this.decryptRecordNonce = new byte[fixed_iv_length + record_iv_length];
+        this.encryptRecordNonce = new byte[fixed_iv_length + record_iv_length];
+        this.decryptAdditionalData = new byte[getAdditionalDataLength(decryptConnectionID)];
+        this.encryptAdditionalData = new byte[getAdditionalDataLength(encryptConnectionID)];
+
         final boolean isServer = cryptoParams.isServer();
         if (isTLSv13)
         {
@@ -154,7 +162,27 @@ public int getPlaintextEncodeLimit(int ciphertextLimit)
     public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
         int headerAllocation, byte[] plaintext, int plaintextOffset, int plaintextLength) throws IOException
     {
-        byte[] nonce = new byte[encryptNonce.length + record_iv_length];
+        return encodePlaintext(seqNo, contentType, recordVersion, headerAllocation, plaintext, plaintextOffset,
+            plaintextLength, null, 0);
+    }
+
+    public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
+        byte[] plaintext, int plaintextOffset, int plaintextLength, byte[] output, int outputOffset) throws IOException
+    {
+        if (null == output)
+        {
+            throw new NullPointerException("'output' cannot be null");
+        }
+
+        return encodePlaintext(seqNo, contentType, recordVersion, 0, plaintext, plaintextOffset, plaintextLength,
+            output, outputOffset);
+    }
+
+    private TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
+        int headerAllocation, byte[] plaintext, int plaintextOffset, int plaintextLength, byte[] output,
+        int outputOffset) throws IOException
+    {
+        byte[] nonce = encryptRecordNonce;
 
         switch (nonceMode)
         {
@@ -164,11 +192,7 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
             TlsUtils.writeUint64(seqNo, nonce, encryptNonce.length);
             break;
         case NONCE_RFC7905:
-            TlsUtils.writeUint64(seqNo, nonce, nonce.length - 8);
-            for (int i = 0; i < encryptNonce.length; ++i)
-            {
-                nonce[i] ^= encryptNonce[i];
-            }
+            xorSequenceNumber(encryptNonce, seqNo, nonce);
             break;
         default:
             throw new TlsFatalAlert(AlertDescription.internal_error);
@@ -182,14 +206,17 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
         int encryptionLength = encryptCipher.getOutputSize(innerPlaintextLength);
         int ciphertextLength = record_iv_length + encryptionLength;
 
-        byte[] output = new byte[headerAllocation + ciphertextLength];
-        int outputPos = headerAllocation;
-
-        if (record_iv_length != 0)
+        if (null == output)
         {
-            System.arraycopy(nonce, nonce.length - record_iv_length, output, outputPos, record_iv_length);
-            outputPos += record_iv_length;
+            output = new byte[headerAllocation + ciphertextLength];
+            outputOffset = headerAllocation;
         }
+        else if (outputOffset < 0 || output.length - outputOffset < ciphertextLength)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        int outputPos = outputOffset + record_iv_length;
 
         short recordType = contentType;
         if (encryptUseInnerPlaintext)
@@ -197,17 +224,24 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
             recordType = isTLSv13 ? ContentType.application_data : ContentType.tls12_cid;
         }
 
-        byte[] additionalData = getAdditionalData(seqNo, recordType, recordVersion, ciphertextLength,
-            innerPlaintextLength, encryptConnectionID);
+        byte[] additionalData = encryptAdditionalData;
+        writeAdditionalData(additionalData, seqNo, recordType, recordVersion, ciphertextLength, innerPlaintextLength,
+            encryptConnectionID);
 
         try
         {
+            // NOTE: The plaintext is moved before the explicit nonce is written, since it may overlap output
             System.arraycopy(plaintext, plaintextOffset, output, outputPos, plaintextLength);
             if (encryptUseInnerPlaintext)
             {
                 output[outputPos + plaintextLength] = (byte)contentType;
             }
 
+            if (record_iv_length != 0)
+            {
+                System.arraycopy(nonce, nonce.length - record_iv_length, output, outputOffset, record_iv_length);
+            }
+
             outputPos += encryptCipher.doFinal(additionalData, output, outputPos, innerPlaintextLength, output,
                 outputPos);
         }
@@ -216,13 +250,14 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
             throw new TlsFatalAlert(AlertDescription.internal_error, e);
         }
 
-        if (outputPos != output.length)
+        if (outputPos != outputOffset + ciphertextLength)
         {
             // NOTE: The additional data mechanism for AEAD ciphers requires exact output size prediction.
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        return new TlsEncodeResult(output, 0, output.length, recordType);
+        return new TlsEncodeResult(output, outputOffset - headerAllocation, headerAllocation + ciphertextLength,
+            recordType);
     }
 
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
@@ -233,7 +268,7 @@ public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVe
             throw new TlsFatalAlert(AlertDescription.decode_error);
         }
 
-        byte[] nonce = new byte[decryptNonce.length + record_iv_length];
+        byte[] nonce = decryptRecordNonce;
 
         switch (nonceMode)
         {
@@ -242,11 +277,7 @@ public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVe
             System.arraycopy(ciphertext, ciphertextOffset, nonce, nonce.length - record_iv_length, record_iv_length);
             break;
         case NONCE_RFC7905:
-            TlsUtils.writeUint64(seqNo, nonce, nonce.length - 8);
-            for (int i = 0; i < decryptNonce.length; ++i)
-            {
-                nonce[i] ^= decryptNonce[i];
-            }
+            xorSequenceNumber(decryptNonce, seqNo, nonce);
             break;
         default:
             throw new TlsFatalAlert(AlertDescription.internal_error);
@@ -258,8 +289,9 @@ public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVe
         int encryptionLength = ciphertextLength - record_iv_length;
         int innerPlaintextLength = decryptCipher.getOutputSize(encryptionLength);
 
-        byte[] additionalData = getAdditionalData(seqNo, recordType, recordVersion, ciphertextLength,
-            innerPlaintextLength, decryptConnectionID);
+        byte[] additionalData = decryptAdditionalData;
+        writeAdditionalData(additionalData, seqNo, recordType, recordVersion, ciphertextLength, innerPlaintextLength,
+            decryptConnectionID);
 
         int outputPos;
         try
@@ -323,8 +355,18 @@ public boolean usesOpaqueRecordTypeEncode()
         return encryptUseInnerPlaintext;
     }
 
-    private byte[] getAdditionalData(long seqNo, short recordType, ProtocolVersion recordVersion,
-        int ciphertextLength, int plaintextLength, byte[] connectionID) throws IOException
+    private int getAdditionalDataLength(byte[] connectionID)
+    {
+        if (!Arrays.isNullOrEmpty(connectionID))
+        {
+            return 23 + connectionID.length;
+        }
+        return isTLSv13 ? 5 : 13;
+    }
+
+    private void writeAdditionalData(byte[] additional_data, long seqNo, short recordType,
+        ProtocolVersion recordVersion, int ciphertextLength, int plaintextLength, byte[] connectionID)
+        throws IOException
     {
         if (!Arrays.isNullOrEmpty(connectionID))
         {
@@ -333,7 +375,6 @@ private byte[] getAdditionalData(long seqNo, short recordType, ProtocolVersion r
              *     + sequence_number + cid + length_of_DTLSInnerPlaintext
              */
             int cidLength = connectionID.length;
-            byte[] additional_data = new byte[23 + cidLength];
             TlsUtils.writeUint64(SEQUENCE_NUMBER_PLACEHOLDER, additional_data, 0);
             TlsUtils.writeUint8(ContentType.tls12_cid, additional_data, 8);
             TlsUtils.writeUint8(cidLength, additional_data, 9);
@@ -342,30 +383,25 @@ private byte[] getAdditionalData(long seqNo, short recordType, ProtocolVersion r
             TlsUtils.writeUint64(seqNo, additional_data, 13);
             System.arraycopy(connectionID, 0, additional_data, 21, cidLength);
             TlsUtils.writeUint16(plaintextLength, additional_data, 21 + cidLength);
-            return additional_data;
         }
         else if (isTLSv13)
         {
             /*
              * TLSCiphertext.opaque_type || TLSCiphertext.legacy_record_version || TLSCiphertext.length
              */
-            byte[] additional_data = new byte[5];
             TlsUtils.writeUint8(recordType, additional_data, 0);
             TlsUtils.writeVersion(recordVersion, additional_data, 1);
             TlsUtils.writeUint16(ciphertextLength, additional_data, 3);
-            return additional_data;
         }
         else
         {
             /*
              * seq_num + TLSCompressed.type + TLSCompressed.version + TLSCompressed.length
              */
-            byte[] additional_data = new byte[13];
             TlsUtils.writeUint64(seqNo, additional_data, 0);
             TlsUtils.writeUint8(recordType, additional_data, 8);
             TlsUtils.writeVersion(recordVersion, additional_data, 9);
             TlsUtils.writeUint16(plaintextLength, additional_data, 11);
-            return additional_data;
         }
     }
 
@@ -400,6 +436,17 @@ private void setup13Cipher(TlsAEADCipherImpl cipher, byte[] nonce, TlsSecret sec
         System.arraycopy(iv, 0, nonce, 0, fixed_iv_length);
     }
 
+    private static void xorSequenceNumber(byte[] iv, long seqNo, byte[] nonce)
+    {
+        int pos = nonce.length - 8;
+        System.arraycopy(iv, 0, nonce, 0, pos);
+        TlsUtils.writeUint64(seqNo, nonce, pos);
+        for (int i = pos; i < nonce.length; ++i)
+        {
+            nonce[i] ^= iv[i];
+        }
+    }
+
     private static int getNonceMode(boolean isTLSv13, int aeadType) throws IOException
     {
         switch (aeadType)
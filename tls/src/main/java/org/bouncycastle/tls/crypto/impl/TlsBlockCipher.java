@@ -8,11 +8,11 @@
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsUtils;
-import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsCryptoParameters;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
 import org.bouncycastle.tls.crypto.TlsHMAC;
+import org.bouncycastle.tls.crypto.TlsOutputBufferCipher;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.Integers;
 import org.bouncycastle.util.Pack;
@@ -21,7 +21,7 @@
  * A generic TLS 1.0-1.2 block cipher. This can be used for AES or 3DES for example.
  */
 public final class TlsBlockCipher
-    implements TlsCipher
+    implements TlsOutputBufferCipher
 {
     private final TlsCryptoParameters cryptoParams;
     private final byte[] randomData;
@@ -184,6 +184,36 @@ public int getPlaintextEncodeLimit(int ciphertextLimit)
 
     public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
         int headerAllocation, byte[] plaintext, int offset, int len) throws IOException
+    {
+        int padding_length = choosePaddingLength(len);
+        int totalSize = getEncodedLength(len, padding_length);
+
+        byte[] outBuf = new byte[headerAllocation + totalSize];
+
+        short recordType = encodePlaintext(seqNo, contentType, plaintext, offset, len, padding_length, outBuf,
+            headerAllocation);
+
+        return new TlsEncodeResult(outBuf, 0, outBuf.length, recordType);
+    }
+
+    public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
+        byte[] plaintext, int offset, int len, byte[] output, int outputOffset) throws IOException
+    {
+        int padding_length = choosePaddingLength(len);
+        int totalSize = getEncodedLength(len, padding_length);
+
+        if (outputOffset < 0 || output.length - outputOffset < totalSize)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        short recordType = encodePlaintext(seqNo, contentType, plaintext, offset, len, padding_length, output,
+            outputOffset);
+
+        return new TlsEncodeResult(output, outputOffset, totalSize, recordType);
+    }
+
+    private int choosePaddingLength(int len)
     {
         int blockSize = encryptCipher.getBlockSize();
         int macSize = writeMac.getSize();
@@ -206,27 +236,45 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
             padding_length += actualExtraPadBlocks * blockSize;
         }
 
-        int totalSize = innerPlaintextLength + macSize + padding_length;
+        return padding_length;
+    }
+
+    private int getEncodedLength(int len, int padding_length)
+    {
+        int innerPlaintextLength = len + (encryptUseInnerPlaintext ? 1 : 0);
+
+        int totalSize = innerPlaintextLength + writeMac.getSize() + padding_length;
         if (useExplicitIV)
         {
-            totalSize += blockSize;
+            totalSize += encryptCipher.getBlockSize();
         }
+        return totalSize;
+    }
 
-        byte[] outBuf = new byte[headerAllocation + totalSize];
-        int outOff = headerAllocation;
+    private short encodePlaintext(long seqNo, short contentType, byte[] plaintext, int offset, int len,
+        int padding_length, byte[] outBuf, int outStart) throws IOException
+    {
+        int blockSize = encryptCipher.getBlockSize();
+        int innerPlaintextLength = len + (encryptUseInnerPlaintext ? 1 : 0);
+
+        int outOff = outStart;
+        int innerPlaintextOffset = outOff;
+        if (useExplicitIV)
+        {
+            innerPlaintextOffset += blockSize;
+        }
+
+        // NOTE: The plaintext is moved before the explicit IV is written, since it may overlap outBuf
+        System.arraycopy(plaintext, offset, outBuf, innerPlaintextOffset, len);
 
         if (useExplicitIV)
         {
             // Technically the explicit IV will be the encryption of this nonce
             byte[] explicitIV = cryptoParams.getNonceGenerator().generateNonce(blockSize);
             System.arraycopy(explicitIV, 0, outBuf, outOff, blockSize);
-            outOff += blockSize;
         }
 
-        int innerPlaintextOffset = outOff;
-
-        System.arraycopy(plaintext, offset, outBuf, outOff, len);
-        outOff += len;
+        outOff = innerPlaintextOffset + len;
 
         short recordType = contentType;
         if (encryptUseInnerPlaintext)
@@ -249,22 +297,22 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
             outBuf[outOff++] = padByte;
         }
 
-        encryptCipher.doFinal(outBuf, headerAllocation, outOff - headerAllocation, outBuf, headerAllocation);
+        encryptCipher.doFinal(outBuf, outStart, outOff - outStart, outBuf, outStart);
 
         if (encryptThenMAC)
         {
-            byte[] mac = writeMac.calculateMac(seqNo, recordType, encryptConnectionID, outBuf, headerAllocation,
-                outOff - headerAllocation);
+            byte[] mac = writeMac.calculateMac(seqNo, recordType, encryptConnectionID, outBuf, outStart,
+                outOff - outStart);
             System.arraycopy(mac, 0, outBuf, outOff, mac.length);
             outOff += mac.length;
         }
 
-        if (outOff != outBuf.length)
+        if (outOff != outStart + getEncodedLength(len, padding_length))
         {
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        return new TlsEncodeResult(outBuf, 0, outBuf.length, recordType);
+        return recordType;
     }
 
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
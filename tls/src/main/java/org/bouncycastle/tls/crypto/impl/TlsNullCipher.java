@@ -8,18 +8,18 @@
 import org.bouncycastle.tls.SecurityParameters;
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsUtils;
-import org.bouncycastle.tls.crypto.TlsCipher;
 import org.bouncycastle.tls.crypto.TlsCryptoParameters;
 import org.bouncycastle.tls.crypto.TlsDecodeResult;
 import org.bouncycastle.tls.crypto.TlsEncodeResult;
 import org.bouncycastle.tls.crypto.TlsHMAC;
+import org.bouncycastle.tls.crypto.TlsOutputBufferCipher;
 import org.bouncycastle.util.Arrays;
 
 /**
  * The NULL cipher.
  */
 public final class TlsNullCipher
-    implements TlsCipher
+    implements TlsOutputBufferCipher
 {
     private final TlsSuiteHMac readMac, writeMac;
     private final byte[] decryptConnectionID, encryptConnectionID;
@@ -106,20 +106,40 @@ public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVe
         int innerPlaintextLength = len + (encryptUseInnerPlaintext ? 1 : 0);
 
         byte[] ciphertext = new byte[headerAllocation + innerPlaintextLength + macSize];
-        System.arraycopy(plaintext, offset, ciphertext, headerAllocation, len);
+
+        TlsEncodeResult encoded = encodePlaintext(seqNo, contentType, recordVersion, plaintext, offset, len,
+            ciphertext, headerAllocation);
+
+        return new TlsEncodeResult(ciphertext, 0, ciphertext.length, encoded.recordType);
+    }
+
+    public TlsEncodeResult encodePlaintext(long seqNo, short contentType, ProtocolVersion recordVersion,
+        byte[] plaintext, int offset, int len, byte[] output, int outputOffset) throws IOException
+    {
+        int macSize = writeMac.getSize();
+
+        // TODO[cid] If we support adding padding to DTLSInnerPlaintext, this will need review
+        int innerPlaintextLength = len + (encryptUseInnerPlaintext ? 1 : 0);
+
+        if (outputOffset < 0 || output.length - outputOffset < innerPlaintextLength + macSize)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+
+        System.arraycopy(plaintext, offset, output, outputOffset, len);
 
         short recordType = contentType;
         if (encryptUseInnerPlaintext)
         {
-            ciphertext[headerAllocation + len] = (byte)contentType;
+            output[outputOffset + len] = (byte)contentType;
             recordType = ContentType.tls12_cid;
         }
 
-        byte[] mac = writeMac.calculateMac(seqNo, recordType, encryptConnectionID, ciphertext, headerAllocation,
+        byte[] mac = writeMac.calculateMac(seqNo, recordType, encryptConnectionID, output, outputOffset,
             innerPlaintextLength);
-        System.arraycopy(mac, 0, ciphertext, headerAllocation + innerPlaintextLength, mac.length);
+        System.arraycopy(mac, 0, output, outputOffset + innerPlaintextLength, mac.length);
 
-        return new TlsEncodeResult(ciphertext, 0, ciphertext.length, recordType);
+        return new TlsEncodeResult(output, outputOffset, innerPlaintextLength + macSize, recordType);
     }
 
     public TlsDecodeResult decodeCiphertext(long seqNo, short recordType, ProtocolVersion recordVersion,
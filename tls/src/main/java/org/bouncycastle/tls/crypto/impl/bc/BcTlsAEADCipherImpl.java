@@ -32,7 +32,12 @@ public void setKey(byte[] key, int keyOff, int keyLen)
 
     public void init(byte[] nonce, int macSize)
     {
+        /*
+         * The underlying cipher retains its key schedule between records, so the key is only passed on the first
+         * init after a call to setKey.
+         */
         cipher.init(isEncrypting, new AEADParameters(key, macSize * 8, nonce, null));
+        key = null;
     }
 
     public int getOutputSize(int inputLength)
@@ -1,6 +1,7 @@
 package org.bouncycastle.tls.crypto.impl.bc;
 
 import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.MultiBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.tls.crypto.impl.TlsBlockCipherImpl;
@@ -31,6 +32,17 @@ public void init(byte[] iv, int ivOff, int ivLen)
 
     public int doFinal(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset)
     {
+        if (cipher instanceof MultiBlockCipher)
+        {
+            MultiBlockCipher multiBlockCipher = (MultiBlockCipher)cipher;
+            int multiBlockSize = multiBlockCipher.getMultiBlockSize();
+            if (inputLength % multiBlockSize == 0)
+            {
+                multiBlockCipher.processBlocks(input, inputOffset, inputLength / multiBlockSize, output, outputOffset);
+                return inputLength;
+            }
+        }
+
         int blockSize = cipher.getBlockSize();
 
         for (int i = 0; i < inputLength; i += blockSize)
@@ -2,6 +2,7 @@
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
 import java.util.Vector;
 
@@ -31,6 +32,7 @@
 import org.bouncycastle.crypto.modes.GCMBlockCipher;
 import org.bouncycastle.crypto.params.SRP6GroupParameters;
 import org.bouncycastle.crypto.prng.DigestRandomGenerator;
+import org.bouncycastle.jcajce.util.JcaAcceleratedFactory;
 import org.bouncycastle.tls.AlertDescription;
 import org.bouncycastle.tls.CertificateType;
 import org.bouncycastle.tls.EncryptionAlgorithm;
@@ -69,6 +71,7 @@
 import org.bouncycastle.tls.crypto.impl.TlsImplUtils;
 import org.bouncycastle.tls.crypto.impl.TlsNullCipher;
 import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Memoable;
 
 /**
  * Class for providing cryptographic services for TLS based on implementations in the BC light-weight API.
@@ -76,11 +79,16 @@
  *     This class provides default implementations for everything. If you need to customise it, extend the class
  *     and override the appropriate methods.
  * </p>
+ * <p>
+ *     AES-GCM, AES-CBC and SHA-2 may optionally be handed to a JCA provider, see
+ *     {@link #BcTlsCrypto(SecureRandom, JcaAcceleratedFactory)}.
+ * </p>
  */
 public class BcTlsCrypto
     extends AbstractTlsCrypto
 {
     private final SecureRandom entropySource;
+    private final JcaAcceleratedFactory acceleratedFactory;
 
     // TODO[tls] Better default SecureRandom?
     public BcTlsCrypto()
@@ -89,8 +97,22 @@ public BcTlsCrypto()
     }
 
     public BcTlsCrypto(SecureRandom entropySource)
+    {
+        this(entropySource, null);
+    }
+
+    /**
+     * Create a crypto which uses the AES-GCM, AES-CBC and SHA-2 implementations of the JCA provider behind
+     * acceleratedFactory, for example the JDK's own, whose implementations the JVM replaces with CPU instructions.
+     * Everything else is done with the light-weight API as usual.
+     *
+     * @param entropySource      the source of randomness.
+     * @param acceleratedFactory the factory for the JCA backed implementations, null to use the light-weight API only.
+     */
+    public BcTlsCrypto(SecureRandom entropySource, JcaAcceleratedFactory acceleratedFactory)
     {
         this.entropySource = entropySource;
+        this.acceleratedFactory = acceleratedFactory;
     }
 
     BcTlsSecret adoptLocalSecret(byte[] data)
@@ -502,6 +524,12 @@ public TlsSecret generateRSAPreMasterSecret(ProtocolVersion version)
 
     public Digest cloneDigest(int cryptoHashAlgorithm, Digest digest)
     {
+        if (getAcceleratedDigestName(cryptoHashAlgorithm) != null)
+        {
+            // both the JCA backed and the light-weight SHA-2 digests are Memoable
+            return (Digest)((Memoable)digest).copy();
+        }
+
         switch (cryptoHashAlgorithm)
         {
         case CryptoHashAlgorithm.md5:
@@ -527,6 +555,19 @@ public Digest cloneDigest(int cryptoHashAlgorithm, Digest digest)
 
     public Digest createDigest(int cryptoHashAlgorithm)
     {
+        String acceleratedDigestName = getAcceleratedDigestName(cryptoHashAlgorithm);
+        if (acceleratedDigestName != null)
+        {
+            try
+            {
+                return acceleratedFactory.createDigest(acceleratedDigestName);
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new IllegalStateException("unable to create " + acceleratedDigestName + " digest: " + e.getMessage(), e);
+            }
+        }
+
         switch (cryptoHashAlgorithm)
         {
         case CryptoHashAlgorithm.md5:
@@ -555,6 +596,25 @@ public TlsHash createHash(int cryptoHashAlgorithm)
         return new BcTlsHash(this, cryptoHashAlgorithm);
     }
 
+    private String getAcceleratedDigestName(int cryptoHashAlgorithm)
+    {
+        if (acceleratedFactory != null)
+        {
+            switch (cryptoHashAlgorithm)
+            {
+            case CryptoHashAlgorithm.sha224:
+                return "SHA-224";
+            case CryptoHashAlgorithm.sha256:
+                return "SHA-256";
+            case CryptoHashAlgorithm.sha384:
+                return "SHA-384";
+            case CryptoHashAlgorithm.sha512:
+                return "SHA-512";
+            }
+        }
+        return null;
+    }
+
     protected BlockCipher createBlockCipher(int encryptionAlgorithm)
         throws IOException
     {
@@ -588,6 +648,19 @@ protected BlockCipher createCBCBlockCipher(BlockCipher blockCipher)
     protected BlockCipher createCBCBlockCipher(int encryptionAlgorithm)
         throws IOException
     {
+        if (acceleratedFactory != null
+            && (encryptionAlgorithm == EncryptionAlgorithm.AES_128_CBC || encryptionAlgorithm == EncryptionAlgorithm.AES_256_CBC))
+        {
+            try
+            {
+                return acceleratedFactory.createAESCBCCipher();
+            }
+            catch (GeneralSecurityException e)
+            {
+                throw new TlsFatalAlert(AlertDescription.internal_error, e);
+            }
+        }
+
         return createCBCBlockCipher(createBlockCipher(encryptionAlgorithm));
     }
 
@@ -609,8 +682,8 @@ protected TlsAEADCipher createCipher_AES_CCM(TlsCryptoParameters cryptoParams, i
     protected TlsAEADCipher createCipher_AES_GCM(TlsCryptoParameters cryptoParams, int cipherKeySize, int macSize)
         throws IOException
     {
-        BcTlsAEADCipherImpl encrypt = new BcTlsAEADCipherImpl(createAEADBlockCipher_AES_GCM(), true);
-        BcTlsAEADCipherImpl decrypt = new BcTlsAEADCipherImpl(createAEADBlockCipher_AES_GCM(), false);
+        BcTlsAEADCipherImpl encrypt = new BcTlsAEADCipherImpl(createAESGCMCipher(), true);
+        BcTlsAEADCipherImpl decrypt = new BcTlsAEADCipherImpl(createAESGCMCipher(), false);
 
         return new TlsAEADCipher(cryptoParams, encrypt, decrypt, cipherKeySize, macSize, TlsAEADCipher.AEAD_GCM);
     }
@@ -721,6 +794,24 @@ protected AEADBlockCipher createAEADBlockCipher_AES_GCM()
         return createGCMMode(createAESEngine());
     }
 
+    private AEADBlockCipher createAESGCMCipher()
+        throws IOException
+    {
+        if (acceleratedFactory == null)
+        {
+            return createAEADBlockCipher_AES_GCM();
+        }
+
+        try
+        {
+            return acceleratedFactory.createAESGCMCipher();
+        }
+        catch (GeneralSecurityException e)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error, e);
+        }
+    }
+
     protected AEADBlockCipher createAEADBlockCipher_ARIA_GCM()
     {
         return createGCMMode(createARIAEngine());
@@ -101,7 +101,12 @@ public void init(byte[] nonce, int macSize)
 
         try
         {
-            if (canDoAEAD && algorithmParamsName != null)
+            if (canDoAEAD && "GCM".equals(algorithmParamsName) && GCMUtil.isGCMParameterSpecAvailable())
+            {
+                // avoid a per-record AlgorithmParameters lookup where the spec can be passed directly
+                cipher.init(cipherMode, key, GCMUtil.createGCMParameterSpec(macSize * 8, nonce), random);
+            }
+            else if (canDoAEAD && algorithmParamsName != null)
             {
                 AlgorithmParameters algParams = helper.createAlgorithmParameters(algorithmParamsName);
 
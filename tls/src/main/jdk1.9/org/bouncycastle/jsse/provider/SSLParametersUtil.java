@@ -53,6 +53,7 @@ static BCSSLParameters getParameters(ProvSSLParameters prov)
         ssl.setApplicationProtocols(prov.getApplicationProtocols());
         ssl.setEnableRetransmissions(prov.getEnableRetransmissions());
         ssl.setMaximumPacketSize(prov.getMaximumPacketSize());
+        ssl.setEnableSessionTickets(prov.getEnableSessionTickets());
         ssl.setSignatureSchemes(prov.getSignatureSchemes());
         ssl.setSignatureSchemesCert(prov.getSignatureSchemesCert());
         ssl.setNamedGroups(prov.getNamedGroups());
@@ -292,6 +293,8 @@ static void setParameters(ProvSSLParameters prov, BCSSLParameters ssl)
 
         prov.setMaximumPacketSize(ssl.getMaximumPacketSize());
 
+        prov.setEnableSessionTickets(ssl.getEnableSessionTickets());
+
         prov.setSignatureSchemes(ssl.getSignatureSchemes());
 
         prov.setNamedGroups(ssl.getNamedGroups());
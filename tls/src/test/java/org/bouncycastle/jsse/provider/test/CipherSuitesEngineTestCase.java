@@ -65,11 +65,11 @@ protected void runTest() throws Throwable
             return;
         }
 
-        runTestConnection();
-        runTestConnection();
+        runTestConnection(false);
+        runTestConnection(true);
     }
 
-    private void runTestConnection() throws Throwable
+    private void runTestConnection(boolean direct) throws Throwable
     {
         SSLContext clientContext = createSSLContextClient();
         SSLContext serverContext = createSSLContextServer();
@@ -94,14 +94,18 @@ private void runTestConnection() throws Throwable
         final int clientNetBufSize = clientSession.getPacketBufferSize();
         final int serverNetBufSize = serverSession.getPacketBufferSize();
 
-        ByteBuffer clientIn = ByteBuffer.allocate(clientAppBufSize + 64);
-        ByteBuffer serverIn = ByteBuffer.allocate(serverAppBufSize + 64);
+        ByteBuffer clientIn = allocate(clientAppBufSize + 64, direct);
+        ByteBuffer serverIn = allocate(serverAppBufSize + 64, direct);
 
-        ByteBuffer clientToServer = ByteBuffer.allocate(clientNetBufSize);
-        ByteBuffer serverToClient = ByteBuffer.allocate(serverNetBufSize);
+        ByteBuffer clientToServer = allocate(clientNetBufSize, direct);
+        ByteBuffer serverToClient = allocate(serverNetBufSize, direct);
 
-        ByteBuffer clientOut = ByteBuffer.wrap(Strings.toUTF8ByteArray("Dear Prudence, won't you come out to play?"));
-        ByteBuffer serverOut = ByteBuffer.wrap(Strings.toUTF8ByteArray("Impudence! I won't come out to today."));
+        byte[] clientData = Strings.toUTF8ByteArray("Dear Prudence, won't you come out to play?");
+        byte[] serverData = Strings.toUTF8ByteArray("Impudence! I won't come out to today.");
+
+        // with direct buffers, also check application data gathered from more than one buffer
+        ByteBuffer[] clientOut = createOutput(clientData, direct);
+        ByteBuffer[] serverOut = createOutput(serverData, direct);
 
         SSLEngineResult clientResult;
         SSLEngineResult serverResult;
@@ -121,16 +125,20 @@ private void runTestConnection() throws Throwable
             clientResult = clientEngine.unwrap(serverToClient, clientIn);
             runDelegatedTasks(clientEngine, clientResult);
 
+            // unwrap must not modify the network data it consumes
+            ByteBuffer consumed = clientToServer.duplicate();
+            byte[] clientToServerData = getRemaining(consumed);
             serverResult = serverEngine.unwrap(clientToServer, serverIn);
             runDelegatedTasks(serverEngine, serverResult);
+            TestCase.assertTrue(Arrays.areEqual(clientToServerData, getRemaining(consumed)));
 
             clientToServer.compact();
             serverToClient.compact();
 
-            if (!dataDone && (clientOut.limit() == serverIn.position()) && (serverOut.limit() == clientIn.position()))
+            if (!dataDone && (clientData.length == serverIn.position()) && (serverData.length == clientIn.position()))
             {
-                checkData(clientOut, serverIn);
-                checkData(serverOut, clientIn);
+                checkData(clientData, serverIn);
+                checkData(serverData, clientIn);
 
                 clientEngine.closeOutbound();
                 // engineServer.closeOutbound();
@@ -150,16 +158,43 @@ private void runTestConnection() throws Throwable
         TestCase.assertTrue(Arrays.areEqual(clientTlsUnique, serverTlsUnique));
     }
 
-    private static void checkData(ByteBuffer a, ByteBuffer b) throws Exception
+    private static byte[] getRemaining(ByteBuffer buf)
+    {
+        byte[] data = new byte[buf.remaining()];
+        buf.duplicate().get(data);
+        return data;
+    }
+
+    private static ByteBuffer allocate(int capacity, boolean direct)
+    {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static ByteBuffer[] createOutput(byte[] data, boolean direct)
+    {
+        if (!direct)
+        {
+            return new ByteBuffer[]{ ByteBuffer.wrap(data) };
+        }
+
+        int split = data.length / 2;
+
+        ByteBuffer first = ByteBuffer.allocateDirect(split);
+        first.put(data, 0, split);
+        ((java.nio.Buffer)first).flip();
+
+        return new ByteBuffer[]{ first, ByteBuffer.wrap(data, split, data.length - split) };
+    }
+
+    private static void checkData(byte[] expected, ByteBuffer b) throws Exception
     {
-        ((java.nio.Buffer)a).flip();
         ((java.nio.Buffer)b).flip();
 
-        assertEquals(a, b);
+        byte[] actual = new byte[b.remaining()];
+        b.get(actual);
+
+        assertTrue(Arrays.areEqual(expected, actual));
 
-        ((java.nio.Buffer)a).position(a.limit());
-        ((java.nio.Buffer)b).position(b.limit());
-        ((java.nio.Buffer)a).limit(a.capacity());
         ((java.nio.Buffer)b).limit(b.capacity());
     }
 
@@ -0,0 +1,162 @@
+package org.bouncycastle.jsse.provider.test;
+
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManagerFactory;
+
+import org.bouncycastle.jsse.BCSSLSessionContext;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
+
+import junit.framework.TestCase;
+
+/**
+ * Check the BCJSSE session caches and their statistics.
+ */
+public class SessionCacheTest
+    extends TestCase
+{
+    private static final String HOST = "localhost";
+
+    private SSLContext clientContext;
+    private SSLContext serverContext;
+
+    protected void setUp()
+        throws Exception
+    {
+        ProviderUtils.setupLowPriority(false);
+
+        char[] keyPass = "keyPassword".toCharArray();
+
+        KeyPair caKeyPair = TestUtils.generateECKeyPair();
+        X509Certificate caCert = TestUtils.generateRootCert(caKeyPair);
+
+        KeyStore ks = KeyStore.getInstance("JKS");
+        ks.load(null, null);
+        ks.setKeyEntry("server", caKeyPair.getPrivate(), keyPass, new X509Certificate[]{ caCert });
+
+        KeyStore ts = KeyStore.getInstance("JKS");
+        ts.load(null, null);
+        ts.setCertificateEntry("ca", caCert);
+
+        KeyManagerFactory keyMgrFact = KeyManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        keyMgrFact.init(ks, keyPass);
+
+        TrustManagerFactory trustMgrFact = TrustManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        trustMgrFact.init(ts);
+
+        serverContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        serverContext.init(keyMgrFact.getKeyManagers(), null, null);
+
+        clientContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        clientContext.init(null, trustMgrFact.getTrustManagers(), null);
+    }
+
+    public void testStatistics()
+        throws Exception
+    {
+        BCSSLSessionContext clientSessions = (BCSSLSessionContext)clientContext.getClientSessionContext();
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+
+        byte[] firstID = runConnection(9020);
+
+        assertEquals(1, clientSessions.getSessionCount());
+        assertEquals(1, serverSessions.getSessionCount());
+        assertEquals(0, clientSessions.getSessionCacheHitCount());
+        assertEquals(1, clientSessions.getSessionCacheMissCount());
+
+        // Resumes the cached session
+        assertTrue(Arrays.areEqual(firstID, runConnection(9020)));
+
+        assertEquals(1, clientSessions.getSessionCount());
+        assertEquals(1, serverSessions.getSessionCount());
+        assertEquals(1, clientSessions.getSessionCacheHitCount());
+        assertTrue(serverSessions.getSessionCacheHitCount() > 0);
+
+        clientSessions.setSessionCacheSize(1);
+
+        assertFalse(Arrays.areEqual(firstID, runConnection(9021)));
+
+        assertEquals(1, clientSessions.getSessionCount());
+        assertEquals(2, serverSessions.getSessionCount());
+        assertEquals(1, clientSessions.getSessionCacheEvictionCount());
+        assertEquals(0, serverSessions.getSessionCacheEvictionCount());
+
+        // The session for the first port was evicted, so a full handshake is needed
+        assertFalse(Arrays.areEqual(firstID, runConnection(9020)));
+
+        assertEquals(2, clientSessions.getSessionCacheEvictionCount());
+        assertEquals(1, Collections.list(clientSessions.getIds()).size());
+    }
+
+    public void testConcurrentEviction()
+        throws Exception
+    {
+        final int threadCount = 4, connectionsPerThread = 5, cacheSize = 8;
+
+        BCSSLSessionContext serverSessions = (BCSSLSessionContext)serverContext.getServerSessionContext();
+        serverSessions.setSessionCacheSize(cacheSize);
+
+        final Exception[] failures = new Exception[threadCount];
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; ++i)
+        {
+            final int index = i;
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        for (int j = 0; j < connectionsPerThread; ++j)
+                        {
+                            // Distinct peers, so that every connection is a full handshake
+                            runConnection(10000 + index * connectionsPerThread + j);
+                        }
+                    }
+                    catch (Exception e)
+                    {
+                        failures[index] = e;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < threadCount; ++i)
+        {
+            threads[i].join();
+            if (null != failures[i])
+            {
+                throw failures[i];
+            }
+        }
+
+        assertEquals(cacheSize, serverSessions.getSessionCount());
+        assertEquals(threadCount * connectionsPerThread - cacheSize, serverSessions.getSessionCacheEvictionCount());
+    }
+
+    private byte[] runConnection(int port)
+        throws Exception
+    {
+        SSLEngine clientEngine = clientContext.createSSLEngine(HOST, port);
+        clientEngine.setUseClientMode(true);
+        clientEngine.setEnabledProtocols(new String[]{ "TLSv1.2" });
+
+        SSLEngine serverEngine = serverContext.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+
+        assertTrue(TestUtils.exchangeData(clientEngine, serverEngine, Strings.toUTF8ByteArray("ping"),
+            Strings.toUTF8ByteArray("pong")));
+
+        clientEngine.closeOutbound();
+        serverEngine.closeOutbound();
+
+        return clientEngine.getSession().getId();
+    }
+}
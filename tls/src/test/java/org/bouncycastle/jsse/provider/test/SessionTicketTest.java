@@ -0,0 +1,217 @@
+package org.bouncycastle.jsse.provider.test;
+
+import java.net.Socket;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509KeyManager;
+
+import org.bouncycastle.jsse.BCSSLEngine;
+import org.bouncycastle.jsse.BCSSLParameters;
+import org.bouncycastle.util.Strings;
+
+import junit.framework.TestCase;
+
+/**
+ * Check that a BCJSSE server issues TLS 1.3 session tickets that (SunJSSE) clients can resume with.
+ */
+public class SessionTicketTest
+    extends TestCase
+{
+    private static final String HOST = "localhost";
+    private static final int PORT_NO = 9021;
+
+    protected void setUp()
+    {
+        ProviderUtils.setupLowPriority(false);
+    }
+
+    public void testResumption()
+        throws Exception
+    {
+        if (!hasSunJSSETLSv13())
+        {
+            return;
+        }
+
+        Contexts contexts = createContexts();
+
+        runConnection(contexts, true);
+        assertTrue(contexts.keyManagerCalls.get() > 0);
+
+        // The resumed handshake must not need the server's credentials
+        contexts.keyManagerCalls.set(0);
+
+        SSLEngine serverEngine = runConnection(contexts, true);
+        assertEquals(0, contexts.keyManagerCalls.get());
+        assertEquals("TLSv1.3", serverEngine.getSession().getProtocol());
+        assertEquals(contexts.serverCert, serverEngine.getSession().getLocalCertificates()[0]);
+    }
+
+    public void testTicketsDisabled()
+        throws Exception
+    {
+        if (!hasSunJSSETLSv13())
+        {
+            return;
+        }
+
+        Contexts contexts = createContexts();
+
+        runConnection(contexts, false);
+        assertTrue(contexts.keyManagerCalls.get() > 0);
+
+        contexts.keyManagerCalls.set(0);
+
+        runConnection(contexts, false);
+        assertTrue(contexts.keyManagerCalls.get() > 0);
+    }
+
+    private Contexts createContexts()
+        throws Exception
+    {
+        char[] keyPass = "keyPassword".toCharArray();
+
+        KeyPair caKeyPair = TestUtils.generateECKeyPair();
+        X509Certificate caCert = TestUtils.generateRootCert(caKeyPair);
+
+        KeyStore ks = KeyStore.getInstance("JKS");
+        ks.load(null, null);
+        ks.setKeyEntry("server", caKeyPair.getPrivate(), keyPass, new X509Certificate[]{ caCert });
+
+        KeyStore ts = KeyStore.getInstance("JKS");
+        ts.load(null, null);
+        ts.setCertificateEntry("ca", caCert);
+
+        KeyManagerFactory keyMgrFact = KeyManagerFactory.getInstance("PKIX", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        keyMgrFact.init(ks, keyPass);
+
+        AtomicInteger keyManagerCalls = new AtomicInteger();
+        X509KeyManager keyManager = new CountingKeyManager(
+            (X509ExtendedKeyManager)keyMgrFact.getKeyManagers()[0], keyManagerCalls);
+
+        SSLContext serverContext = SSLContext.getInstance("TLS", ProviderUtils.PROVIDER_NAME_BCJSSE);
+        serverContext.init(new X509KeyManager[]{ keyManager }, null, null);
+
+        TrustManagerFactory trustMgrFact = TrustManagerFactory.getInstance("PKIX", "SunJSSE");
+        trustMgrFact.init(ts);
+
+        SSLContext clientContext = SSLContext.getInstance("TLSv1.3", "SunJSSE");
+        clientContext.init(null, trustMgrFact.getTrustManagers(), null);
+
+        return new Contexts(clientContext, serverContext, caCert, keyManagerCalls);
+    }
+
+    private SSLEngine runConnection(Contexts contexts, boolean enableSessionTickets)
+        throws Exception
+    {
+        SSLEngine clientEngine = contexts.clientContext.createSSLEngine(HOST, PORT_NO);
+        clientEngine.setUseClientMode(true);
+
+        SSLEngine serverEngine = contexts.serverContext.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        serverEngine.setEnabledProtocols(new String[]{ "TLSv1.3" });
+
+        BCSSLParameters serverParameters = ((BCSSLEngine)serverEngine).getParameters();
+        serverParameters.setEnableSessionTickets(enableSessionTickets);
+        ((BCSSLEngine)serverEngine).setParameters(serverParameters);
+
+        // NOTE: The server's application data follows its NewSessionTicket, so the client sees the ticket first
+        assertTrue(TestUtils.exchangeData(clientEngine, serverEngine, Strings.toUTF8ByteArray("ping"),
+            Strings.toUTF8ByteArray("pong")));
+
+        clientEngine.closeOutbound();
+        serverEngine.closeOutbound();
+
+        return serverEngine;
+    }
+
+    private static boolean hasSunJSSETLSv13()
+    {
+        try
+        {
+            SSLContext.getInstance("TLSv1.3", "SunJSSE");
+            return true;
+        }
+        catch (Exception e)
+        {
+            return false;
+        }
+    }
+
+    private static class Contexts
+    {
+        final SSLContext clientContext;
+        final SSLContext serverContext;
+        final X509Certificate serverCert;
+        final AtomicInteger keyManagerCalls;
+
+        Contexts(SSLContext clientContext, SSLContext serverContext, X509Certificate serverCert,
+            AtomicInteger keyManagerCalls)
+        {
+            this.clientContext = clientContext;
+            this.serverContext = serverContext;
+            this.serverCert = serverCert;
+            this.keyManagerCalls = keyManagerCalls;
+        }
+    }
+
+    private static class CountingKeyManager
+        extends X509ExtendedKeyManager
+    {
+        private final X509ExtendedKeyManager keyManager;
+        private final AtomicInteger calls;
+
+        CountingKeyManager(X509ExtendedKeyManager keyManager, AtomicInteger calls)
+        {
+            this.keyManager = keyManager;
+            this.calls = calls;
+        }
+
+        public String[] getClientAliases(String keyType, Principal[] issuers)
+        {
+            return keyManager.getClientAliases(keyType, issuers);
+        }
+
+        public String chooseClientAlias(String[] keyType, Principal[] issuers, Socket socket)
+        {
+            return keyManager.chooseClientAlias(keyType, issuers, socket);
+        }
+
+        public String[] getServerAliases(String keyType, Principal[] issuers)
+        {
+            return keyManager.getServerAliases(keyType, issuers);
+        }
+
+        public String chooseServerAlias(String keyType, Principal[] issuers, Socket socket)
+        {
+            calls.incrementAndGet();
+            return keyManager.chooseServerAlias(keyType, issuers, socket);
+        }
+
+        public String chooseEngineServerAlias(String keyType, Principal[] issuers, SSLEngine engine)
+        {
+            calls.incrementAndGet();
+            return keyManager.chooseEngineServerAlias(keyType, issuers, engine);
+        }
+
+        public X509Certificate[] getCertificateChain(String alias)
+        {
+            return keyManager.getCertificateChain(alias);
+        }
+
+        public PrivateKey getPrivateKey(String alias)
+        {
+            return keyManager.getPrivateKey(alias);
+        }
+    }
+}
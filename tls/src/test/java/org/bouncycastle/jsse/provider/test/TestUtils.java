@@ -3,6 +3,7 @@
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.InvalidKeyException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
@@ -35,6 +36,8 @@
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLSocket;
 
 import org.bouncycastle.asn1.ASN1EncodableVector;
@@ -70,6 +73,7 @@
 import org.bouncycastle.jsse.BCSSLSocket;
 import org.bouncycastle.jsse.java.security.BCAlgorithmConstraints;
 import org.bouncycastle.jsse.java.security.BCCryptoPrimitive;
+import org.bouncycastle.util.Arrays;
 
 /**
  * Test Utils
@@ -452,6 +456,63 @@ public static byte[] getChannelBinding(SSLEngine e, String channelBinding)
         return null;
     }
 
+    /**
+     * Drive a pair of engines through their handshake and an exchange of application data (in both directions),
+     * returning true if each side received exactly the data the other sent.
+     */
+    static boolean exchangeData(SSLEngine clientEngine, SSLEngine serverEngine, byte[] clientData,
+        byte[] serverData) throws SSLException
+    {
+        ByteBuffer clientOut = ByteBuffer.wrap(clientData);
+        ByteBuffer serverOut = ByteBuffer.wrap(serverData);
+        ByteBuffer clientIn = ByteBuffer.allocate(clientEngine.getSession().getApplicationBufferSize());
+        ByteBuffer serverIn = ByteBuffer.allocate(serverEngine.getSession().getApplicationBufferSize());
+        ByteBuffer clientToServer = ByteBuffer.allocate(clientEngine.getSession().getPacketBufferSize());
+        ByteBuffer serverToClient = ByteBuffer.allocate(serverEngine.getSession().getPacketBufferSize());
+
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+
+        for (int i = 0; i < 100; ++i)
+        {
+            if (clientIn.position() >= serverData.length && serverIn.position() >= clientData.length)
+            {
+                break;
+            }
+
+            clientEngine.wrap(clientOut, clientToServer);
+            runDelegatedTasks(clientEngine);
+            serverEngine.wrap(serverOut, serverToClient);
+            runDelegatedTasks(serverEngine);
+
+            clientToServer.flip();
+            serverToClient.flip();
+
+            clientEngine.unwrap(serverToClient, clientIn);
+            runDelegatedTasks(clientEngine);
+            serverEngine.unwrap(clientToServer, serverIn);
+            runDelegatedTasks(serverEngine);
+
+            clientToServer.compact();
+            serverToClient.compact();
+        }
+
+        return Arrays.areEqual(serverData, Arrays.copyOf(clientIn.array(), clientIn.position()))
+            && Arrays.areEqual(clientData, Arrays.copyOf(serverIn.array(), serverIn.position()));
+    }
+
+    static void runDelegatedTasks(SSLEngine engine)
+    {
+        if (engine.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.NEED_TASK)
+        {
+            Runnable task;
+            while ((task = engine.getDelegatedTask()) != null)
+            {
+                task.run();
+            }
+        }
+    }
+
     public static List<String> getTestableProtocols(SSLContext sslContext, boolean fips)
     {
         BCSSLEngine sslEngine = (BCSSLEngine)sslContext.createSSLEngine();
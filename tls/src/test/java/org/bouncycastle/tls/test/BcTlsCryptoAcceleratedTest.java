@@ -0,0 +1,202 @@
+package org.bouncycastle.tls.test;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.jcajce.util.DefaultJcaJceHelper;
+import org.bouncycastle.jcajce.util.JcaAcceleratedFactory;
+import org.bouncycastle.tls.CipherSuite;
+import org.bouncycastle.tls.ProtocolVersion;
+import org.bouncycastle.tls.TlsClientProtocol;
+import org.bouncycastle.tls.TlsProtocol;
+import org.bouncycastle.tls.TlsServerProtocol;
+import org.bouncycastle.tls.crypto.CryptoHashAlgorithm;
+import org.bouncycastle.tls.crypto.TlsCrypto;
+import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Check a BcTlsCrypto using JCA backed AES and SHA-2 against one using the light-weight API.
+ */
+public class BcTlsCryptoAcceleratedTest
+    extends TestCase
+{
+    private final RecordingHelper helper = new RecordingHelper();
+    private final BcTlsCrypto acceleratedCrypto = new BcTlsCrypto(new SecureRandom(), new JcaAcceleratedFactory(helper));
+    private final BcTlsCrypto bcCrypto = new BcTlsCrypto();
+
+    public void testDigests()
+    {
+        Digest digest = acceleratedCrypto.createDigest(CryptoHashAlgorithm.sha256);
+        assertFalse(digest instanceof SHA256Digest);
+
+        byte[] msg = new byte[1000];
+        acceleratedCrypto.getSecureRandom().nextBytes(msg);
+
+        Digest bcDigest = bcCrypto.createDigest(CryptoHashAlgorithm.sha256);
+        byte[] expected = new byte[bcDigest.getDigestSize()];
+        bcDigest.update(msg, 0, msg.length);
+        bcDigest.doFinal(expected, 0);
+
+        digest.update(msg, 0, 500);
+        Digest copy = acceleratedCrypto.cloneDigest(CryptoHashAlgorithm.sha256, digest);
+        copy.update(msg, 500, 500);
+
+        byte[] out = new byte[copy.getDigestSize()];
+        copy.doFinal(out, 0);
+        assertTrue(Arrays.areEqual(expected, out));
+
+        // other algorithms are unaffected
+        assertEquals("SHA-1", acceleratedCrypto.createDigest(CryptoHashAlgorithm.sha1).getAlgorithmName());
+    }
+
+    public void testAESGCM()
+        throws IOException
+    {
+        checkCipherSuite(ProtocolVersion.TLSv13, CipherSuite.TLS_AES_128_GCM_SHA256);
+        checkCipherSuite(ProtocolVersion.TLSv13, CipherSuite.TLS_AES_256_GCM_SHA384);
+        checkCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256);
+        checkCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384);
+
+        assertTrue(helper.ciphers.contains("AES/GCM/NoPadding"));
+        assertTrue(helper.digests.contains("SHA-256"));
+        assertTrue(helper.digests.contains("SHA-384"));
+    }
+
+    public void testAESCBC()
+        throws IOException
+    {
+        checkCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA256);
+        checkCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_ECDHE_RSA_WITH_AES_256_CBC_SHA384);
+        checkCipherSuite(ProtocolVersion.TLSv11, CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA);
+
+        assertTrue(helper.ciphers.contains("AES/CBC/NoPadding"));
+        assertFalse(helper.ciphers.contains("AES/GCM/NoPadding"));
+    }
+
+    private void checkCipherSuite(ProtocolVersion version, int cipherSuite)
+        throws IOException
+    {
+        connect(acceleratedCrypto, bcCrypto, version, cipherSuite);
+        connect(bcCrypto, acceleratedCrypto, version, cipherSuite);
+        connect(acceleratedCrypto, acceleratedCrypto, version, cipherSuite);
+    }
+
+    private static void connect(TlsCrypto clientCrypto, TlsCrypto serverCrypto, final ProtocolVersion version,
+        final int cipherSuite)
+        throws IOException
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol();
+        TlsServerProtocol serverProtocol = new TlsServerProtocol();
+
+        MockTlsClient client = new MockTlsClient(clientCrypto, null)
+        {
+            protected ProtocolVersion[] getSupportedVersions()
+            {
+                return version.only();
+            }
+
+            protected int[] getSupportedCipherSuites()
+            {
+                return new int[]{ cipherSuite };
+            }
+        };
+        MockTlsServer server = new MockTlsServer(serverCrypto)
+        {
+            protected ProtocolVersion[] getSupportedVersions()
+            {
+                return ProtocolVersion.TLSv13.downTo(ProtocolVersion.TLSv10);
+            }
+        };
+
+        clientProtocol.connect(client);
+        serverProtocol.accept(server);
+
+        boolean hadData = true;
+        while (hadData)
+        {
+            hadData = pumpData(serverProtocol, clientProtocol) | pumpData(clientProtocol, serverProtocol);
+        }
+
+        assertTrue(clientProtocol.isConnected());
+        assertTrue(serverProtocol.isConnected());
+
+        // records of several sizes, including more than one record's worth
+        int[] sizes = { 1, 15, 16, 17, 1000, 16384, 40000 };
+        for (int i = 0; i != sizes.length; i++)
+        {
+            byte[] data = new byte[sizes[i]];
+            clientCrypto.getSecureRandom().nextBytes(data);
+
+            writeAndRead(clientProtocol, serverProtocol, data);
+            writeAndRead(serverProtocol, clientProtocol, data);
+        }
+
+        clientProtocol.close();
+        pumpData(clientProtocol, serverProtocol);
+        serverProtocol.closeInput();
+    }
+
+    private static void writeAndRead(TlsProtocol writer, TlsProtocol reader, byte[] data)
+        throws IOException
+    {
+        writer.writeApplicationData(data, 0, data.length);
+        pumpData(writer, reader);
+
+        assertEquals(data.length, reader.getAvailableInputBytes());
+        byte[] readData = new byte[data.length];
+        reader.readInput(readData, 0, data.length);
+        assertTrue(Arrays.areEqual(data, readData));
+    }
+
+    /**
+     * Records the algorithms the factory asked for, so we know the JCA was used.
+     */
+    private static class RecordingHelper
+        extends DefaultJcaJceHelper
+    {
+        final Set<String> ciphers = Collections.synchronizedSet(new HashSet<String>());
+        final Set<String> digests = Collections.synchronizedSet(new HashSet<String>());
+
+        public Cipher createCipher(String algorithm)
+            throws NoSuchAlgorithmException, NoSuchPaddingException
+        {
+            ciphers.add(algorithm);
+            return super.createCipher(algorithm);
+        }
+
+        public MessageDigest createMessageDigest(String algorithm)
+            throws NoSuchAlgorithmException
+        {
+            digests.add(algorithm);
+            return super.createMessageDigest(algorithm);
+        }
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to)
+        throws IOException
+    {
+        int byteCount = from.getAvailableOutputBytes();
+        if (byteCount == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[byteCount];
+        from.readOutput(buffer, 0, buffer.length);
+        to.offerInput(buffer);
+
+        return true;
+    }
+}
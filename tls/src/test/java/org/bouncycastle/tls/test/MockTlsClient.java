@@ -24,6 +24,7 @@
 import org.bouncycastle.tls.TlsSession;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.crypto.TlsCertificate;
+import org.bouncycastle.tls.crypto.TlsCrypto;
 import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
 import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
@@ -35,7 +36,12 @@
 
     MockTlsClient(TlsSession session)
     {
-        super(new BcTlsCrypto());
+        this(new BcTlsCrypto(), session);
+    }
+
+    MockTlsClient(TlsCrypto crypto, TlsSession session)
+    {
+        super(crypto);
 
         this.session = session;
     }
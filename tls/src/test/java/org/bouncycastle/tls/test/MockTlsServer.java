@@ -22,6 +22,7 @@
 import org.bouncycastle.tls.TlsFatalAlert;
 import org.bouncycastle.tls.TlsUtils;
 import org.bouncycastle.tls.crypto.TlsCertificate;
+import org.bouncycastle.tls.crypto.TlsCrypto;
 import org.bouncycastle.tls.crypto.impl.bc.BcTlsCrypto;
 import org.bouncycastle.util.encoders.Hex;
 
@@ -30,7 +31,12 @@
 {
     MockTlsServer()
     {
-        super(new BcTlsCrypto());
+        this(new BcTlsCrypto());
+    }
+
+    MockTlsServer(TlsCrypto crypto)
+    {
+        super(crypto);
     }
 
     protected Vector getProtocolNames()
@@ -1,6 +1,7 @@
 package org.bouncycastle.tls.test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.bouncycastle.tls.TlsClientProtocol;
 import org.bouncycastle.tls.TlsProtocol;
@@ -111,6 +112,18 @@ private static void checkClosed(TlsProtocol protocol)
         {
         }
 
+        ByteBuffer input = ByteBuffer.wrap(new byte[10]);
+        try
+        {
+            protocol.offerInput(input, input.remaining());
+            fail("Input was accepted after close");
+        }
+        catch (IOException e)
+        {
+            // a rejected offer leaves the caller's buffer alone
+            assertEquals(0, input.position());
+        }
+
         try
         {
             protocol.writeApplicationData(new byte[10], 0, 10);